@@ -0,0 +1,157 @@
+package com.victorlopez.incident_api.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.httpcomponents.hc5.PoolingHttpClientConnectionManagerMetricsBinder;
+import org.apache.hc.client5.http.HttpRoute;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.io.ConnectionEndpoint;
+import org.apache.hc.client5.http.io.LeaseRequest;
+import org.apache.hc.core5.http.protocol.HttpContext;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.client.RestClientCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+
+import java.io.IOException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Pooled HTTP transport for the OpenAI client.
+ *
+ * Spring AI builds its RestClient from the application's {@code RestClient.Builder}, so the
+ * customizer below routes every blocking OpenAI call through one Apache HttpClient with a
+ * bounded pool of keep-alive connections. TLS handshakes then happen once per pooled
+ * connection instead of once per call. Spring AI retries failed calls itself, so the
+ * client's own retries are disabled.
+ *
+ * Connections are HTTP/1.1 keep-alive: the classic (blocking) client does not speak HTTP/2,
+ * and with a warm pool multiplexing saves little on a single host.
+ *
+ * Metrics:
+ * - httpcomponents.httpclient.pool.*{httpclient=openai}: pool size, leased, available, pending
+ * - ai.http.connections{type=reused|new}: whether a call got a pooled or a fresh connection
+ * - ai.http.connect: TCP connect + TLS handshake time of fresh connections
+ * - ai.http.lease: time spent waiting for a pooled connection
+ * - http.client.requests: end-to-end request latency (recorded by Spring Boot's RestClient observation)
+ */
+@Configuration
+@ConditionalOnProperty(name = "ai.http.enabled", havingValue = "true")
+public class AIHttpClientConfig {
+
+    @Bean(destroyMethod = "close")
+    public MeteredConnectionManager aiConnectionManager(
+            MeterRegistry meterRegistry,
+            @Value("${ai.http.max-connections:50}") int maxConnections,
+            @Value("${ai.http.connect-timeout-ms:5000}") long connectTimeoutMillis,
+            @Value("${ai.http.read-timeout-ms:60000}") long readTimeoutMillis,
+            @Value("${ai.http.time-to-live-minutes:10}") long timeToLiveMinutes) {
+        MeteredConnectionManager connectionManager = new MeteredConnectionManager(meterRegistry);
+        connectionManager.setMaxTotal(maxConnections);
+        // every call goes to the same host, so one route may use the whole pool
+        connectionManager.setDefaultMaxPerRoute(maxConnections);
+        connectionManager.setDefaultConnectionConfig(ConnectionConfig.custom()
+                .setConnectTimeout(Timeout.ofMilliseconds(connectTimeoutMillis))
+                .setSocketTimeout(Timeout.ofMilliseconds(readTimeoutMillis))
+                .setTimeToLive(TimeValue.ofMinutes(timeToLiveMinutes))
+                .setValidateAfterInactivity(TimeValue.ofSeconds(10))
+                .build());
+        new PoolingHttpClientConnectionManagerMetricsBinder(connectionManager, "openai").bindTo(meterRegistry);
+        return connectionManager;
+    }
+
+    @Bean(destroyMethod = "close")
+    public CloseableHttpClient aiHttpClient(
+            MeteredConnectionManager aiConnectionManager,
+            @Value("${ai.http.read-timeout-ms:60000}") long readTimeoutMillis,
+            @Value("${ai.http.lease-timeout-ms:2000}") long leaseTimeoutMillis,
+            @Value("${ai.http.idle-timeout-seconds:60}") long idleTimeoutSeconds) {
+        return HttpClients.custom()
+                .setConnectionManager(aiConnectionManager)
+                .setDefaultRequestConfig(RequestConfig.custom()
+                        .setConnectionRequestTimeout(Timeout.ofMilliseconds(leaseTimeoutMillis))
+                        .setResponseTimeout(Timeout.ofMilliseconds(readTimeoutMillis))
+                        .build())
+                .evictIdleConnections(TimeValue.ofSeconds(idleTimeoutSeconds))
+                .evictExpiredConnections()
+                .disableAutomaticRetries()
+                .build();
+    }
+
+    @Bean
+    public RestClientCustomizer aiRestClientCustomizer(CloseableHttpClient aiHttpClient) {
+        HttpComponentsClientHttpRequestFactory requestFactory = new HttpComponentsClientHttpRequestFactory(aiHttpClient);
+        return builder -> builder.requestFactory(requestFactory);
+    }
+
+    /**
+     * Connection pool that records lease waits, connection reuse and connect time.
+     */
+    public static class MeteredConnectionManager extends PoolingHttpClientConnectionManager {
+
+        private final Timer leaseTimer;
+        private final Timer connectTimer;
+        private final Counter reusedCounter;
+        private final Counter newCounter;
+
+        public MeteredConnectionManager(MeterRegistry meterRegistry) {
+            this.leaseTimer = Timer.builder("ai.http.lease")
+                    .description("Time spent waiting for a pooled OpenAI connection")
+                    .register(meterRegistry);
+            this.connectTimer = Timer.builder("ai.http.connect")
+                    .description("TCP connect and TLS handshake time of new OpenAI connections")
+                    .register(meterRegistry);
+            this.reusedCounter = connectionCounter(meterRegistry, "reused");
+            this.newCounter = connectionCounter(meterRegistry, "new");
+        }
+
+        @Override
+        public LeaseRequest lease(String id, HttpRoute route, Timeout requestTimeout, Object state) {
+            LeaseRequest lease = super.lease(id, route, requestTimeout, state);
+            return new LeaseRequest() {
+                @Override
+                public ConnectionEndpoint get(Timeout timeout)
+                        throws InterruptedException, ExecutionException, TimeoutException {
+                    long start = System.nanoTime();
+                    ConnectionEndpoint endpoint = lease.get(timeout);
+                    leaseTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                    (endpoint.isConnected() ? reusedCounter : newCounter).increment();
+                    return endpoint;
+                }
+
+                @Override
+                public boolean cancel() {
+                    return lease.cancel();
+                }
+            };
+        }
+
+        @Override
+        public void connect(ConnectionEndpoint endpoint, TimeValue timeout, HttpContext context) throws IOException {
+            long start = System.nanoTime();
+            try {
+                super.connect(endpoint, timeout, context);
+            } finally {
+                connectTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            }
+        }
+
+        private static Counter connectionCounter(MeterRegistry meterRegistry, String type) {
+            return Counter.builder("ai.http.connections")
+                    .description("OpenAI calls by whether they reused a pooled connection")
+                    .tag("type", type)
+                    .register(meterRegistry);
+        }
+    }
+}
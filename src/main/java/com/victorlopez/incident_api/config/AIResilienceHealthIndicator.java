@@ -0,0 +1,36 @@
+package com.victorlopez.incident_api.config;
+
+import com.victorlopez.incident_api.service.AIResilienceGuard;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.boot.actuate.health.Status;
+import org.springframework.stereotype.Component;
+
+/**
+ * Exposes the AI circuit breaker under /actuator/health (component "aiResilience").
+ *
+ * An open breaker is reported as DEGRADED rather than DOWN: incidents are still accepted
+ * in degraded mode, so the instance must not be taken out of rotation.
+ */
+@Component("aiResilience")
+@RequiredArgsConstructor
+public class AIResilienceHealthIndicator implements HealthIndicator {
+
+    static final Status DEGRADED = new Status("DEGRADED", "AI circuit breaker is open");
+
+    private final AIResilienceGuard resilienceGuard;
+
+    @Override
+    public Health health() {
+        AIResilienceGuard.State state = resilienceGuard.getState();
+        Health.Builder builder = state == AIResilienceGuard.State.OPEN ? Health.status(DEGRADED) : Health.up();
+        return builder
+                .withDetail("circuitBreaker", state)
+                .withDetail("failureRate", resilienceGuard.getFailureRate())
+                .withDetail("slowCallRate", resilienceGuard.getSlowCallRate())
+                .withDetail("bufferedCalls", resilienceGuard.getBufferedCalls())
+                .withDetail("availableConcurrentCalls", resilienceGuard.getAvailableConcurrentCalls())
+                .build();
+    }
+}
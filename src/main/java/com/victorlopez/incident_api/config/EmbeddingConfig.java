@@ -0,0 +1,28 @@
+package com.victorlopez.incident_api.config;
+
+import com.victorlopez.incident_api.service.HashingEmbeddingModel;
+import org.springframework.ai.embedding.EmbeddingModel;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+
+/**
+ * Embedding model selection.
+ *
+ * By default the OpenAI embedding model auto-configured by Spring AI is used
+ * ({@code spring.ai.openai.embedding.options.model}). With {@code ai.embedding.provider=local}
+ * the deterministic {@link HashingEmbeddingModel} takes precedence instead: no API calls, for tests
+ * and offline development.
+ */
+@Configuration
+public class EmbeddingConfig {
+
+    @Bean
+    @Primary
+    @ConditionalOnProperty(name = "ai.embedding.provider", havingValue = "local")
+    public EmbeddingModel localEmbeddingModel(@Value("${ai.embedding.local.dimensions:256}") int dimensions) {
+        return new HashingEmbeddingModel(dimensions);
+    }
+}
@@ -0,0 +1,99 @@
+package com.victorlopez.incident_api.config;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.jdbc.support.MetaDataAccessException;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.DatabaseMetaData;
+
+/**
+ * Creates the PostgreSQL full-text search column and index, which Hibernate cannot express.
+ *
+ * {@code incidents.search_vector} is a generated tsvector over the title (weight A) and the
+ * description (weight B), backed by a GIN index. Both are checked at startup, after Hibernate
+ * has created or updated the table, and run outside any transaction (see {@link OnlineDdl}).
+ *
+ * The GIN index is built concurrently, so writes continue while it builds. Adding a stored
+ * generated column rewrites the whole table under an exclusive lock, so it only happens on
+ * its own while the table is still empty. On a populated table it must be a deliberate step:
+ * run the ALTER TABLE in a maintenance window, or start once with
+ * {@code search.fulltext.add-column=true}. Until the column exists, search falls back to
+ * keyword matching. On other databases (H2 in tests) nothing is created and
+ * {@link #isAvailable()} is false.
+ */
+@Component
+@Slf4j
+public class FullTextSearchSchema {
+
+    private static final String ADD_SEARCH_VECTOR = """
+            ALTER TABLE incidents ADD COLUMN IF NOT EXISTS search_vector tsvector
+                GENERATED ALWAYS AS (
+                    setweight(to_tsvector('english', coalesce(title, '')), 'A') ||
+                    setweight(to_tsvector('english', coalesce(description, '')), 'B')
+                ) STORED""";
+
+    private final DataSource dataSource;
+    private final OnlineDdl ddl;
+    private final boolean enabled;
+    private final boolean addColumn;
+
+    private volatile boolean available;
+
+    /**
+     * The EntityManagerFactory is only injected so that Hibernate's schema update runs first.
+     */
+    public FullTextSearchSchema(DataSource dataSource,
+                                EntityManagerFactory entityManagerFactory,
+                                @Value("${search.fulltext.enabled:true}") boolean enabled,
+                                @Value("${search.fulltext.add-column:false}") boolean addColumn) {
+        this.dataSource = dataSource;
+        this.ddl = new OnlineDdl(dataSource);
+        this.enabled = enabled;
+        this.addColumn = addColumn;
+    }
+
+    @PostConstruct
+    void createSchema() {
+        if (!enabled || !isPostgres()) {
+            log.info("PostgreSQL full-text search disabled — similar/search use keyword matching");
+            return;
+        }
+        if (!ddl.columnExists("incidents", "search_vector")) {
+            if (!addColumn && ddl.hasRows("incidents")) {
+                log.warn("incidents.search_vector is missing and adding it rewrites the table under an exclusive lock "
+                        + "— run it in a maintenance window or start once with search.fulltext.add-column=true; "
+                        + "similar/search use keyword matching until then");
+                return;
+            }
+            log.info("Adding incidents.search_vector (rewrites the incidents table)");
+            ddl.execute(ADD_SEARCH_VECTOR);
+        }
+        ddl.createIndex("idx_incident_search_vector", "ON incidents USING GIN (search_vector)");
+        available = true;
+        log.info("PostgreSQL full-text search ready (incidents.search_vector, GIN index)");
+    }
+
+    /**
+     * Whether the tsvector column and GIN index exist and can be queried.
+     */
+    public boolean isAvailable() {
+        return available;
+    }
+
+    // ── private helpers ──────────────────────────────────────────────────────
+
+    private boolean isPostgres() {
+        try {
+            String product = JdbcUtils.extractDatabaseMetaData(dataSource, DatabaseMetaData::getDatabaseProductName);
+            return "PostgreSQL".equals(product);
+        } catch (MetaDataAccessException e) {
+            log.warn("Could not detect the database product: {}", e.getMessage());
+            return false;
+        }
+    }
+}
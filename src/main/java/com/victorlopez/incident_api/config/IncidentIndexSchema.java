@@ -0,0 +1,93 @@
+package com.victorlopez.incident_api.config;
+
+import com.victorlopez.incident_api.repository.IncidentSpecifications;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.jdbc.support.MetaDataAccessException;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.DatabaseMetaData;
+import java.util.List;
+
+/**
+ * Creates the PostgreSQL indexes behind the incident listing and change feed, which Hibernate cannot build online.
+ *
+ * Every listing query filters {@code archived = false} and orders by {@code (created_at, id)}
+ * descending (see {@link IncidentSpecifications}), so each listing index covers only live rows and ends
+ * in that order: an equality filter on its leading column, a {@code created_at} range, a keyset
+ * seek and the sort are all served by one index scan. Counts per status, severity and category
+ * use the same indexes. Status with severity, the dashboard's usual pair, gets its own index;
+ * other combinations scan the more selective index and filter the rest.
+ *
+ * The incident change feed pages by {@code (updated_at, id)} ascending over all rows, archived
+ * included, and gets a plain index in that order.
+ *
+ * The full-table indexes these replace are dropped. All statements are idempotent and run once
+ * at startup, after Hibernate has created or updated the table. They run one by one outside any
+ * transaction, as {@code CREATE/DROP INDEX CONCURRENTLY} (see {@link OnlineDdl}), so reads and
+ * writes continue while the indexes build. On other databases (H2 in tests) nothing is created.
+ */
+@Component
+@Slf4j
+public class IncidentIndexSchema {
+
+    private static final String LIVE = " WHERE archived = false";
+    private static final String ORDER = "created_at DESC, id DESC)";
+
+    private static final List<OnlineIndex> INDEXES = List.of(
+            new OnlineIndex("idx_incident_live_created_at", "ON incidents (" + ORDER + LIVE),
+            new OnlineIndex("idx_incident_live_status", "ON incidents (status, " + ORDER + LIVE),
+            new OnlineIndex("idx_incident_live_status_severity", "ON incidents (status, severity, " + ORDER + LIVE),
+            new OnlineIndex("idx_incident_live_severity", "ON incidents (severity, " + ORDER + LIVE),
+            new OnlineIndex("idx_incident_live_category", "ON incidents (category, " + ORDER + LIVE),
+            new OnlineIndex("idx_incident_live_assigned_team", "ON incidents (assigned_team, " + ORDER + LIVE),
+            new OnlineIndex("idx_incident_live_reported_by", "ON incidents (reported_by, " + ORDER + LIVE),
+            // the change feed reads archived rows too, so this one is not partial
+            new OnlineIndex("idx_incident_updated_at_id", "ON incidents (updated_at, id)"));
+
+    private static final List<String> SUPERSEDED_INDEXES = List.of(
+            "idx_incident_status", "idx_incident_severity", "idx_incident_category", "idx_incident_created_at",
+            "idx_incident_status_created_at_id", "idx_incident_severity_created_at_id",
+            "idx_incident_reported_by_created_at_id", "idx_incident_created_at_id");
+
+    private final DataSource dataSource;
+    private final OnlineDdl ddl;
+
+    /**
+     * The EntityManagerFactory is only injected so that Hibernate's schema update runs first.
+     */
+    public IncidentIndexSchema(DataSource dataSource,
+                               EntityManagerFactory entityManagerFactory) {
+        this.dataSource = dataSource;
+        this.ddl = new OnlineDdl(dataSource);
+    }
+
+    @PostConstruct
+    void createIndexes() {
+        if (!isPostgres()) {
+            log.info("Not PostgreSQL — incident listing and change feed indexes not created");
+            return;
+        }
+        INDEXES.forEach(index -> ddl.createIndex(index.name(), index.definition()));
+        SUPERSEDED_INDEXES.forEach(ddl::dropIndex);
+        log.info("Incident listing and change feed indexes ready ({} indexes)", INDEXES.size());
+    }
+
+    // ── private helpers ──────────────────────────────────────────────────────
+
+    private boolean isPostgres() {
+        try {
+            String product = JdbcUtils.extractDatabaseMetaData(dataSource, DatabaseMetaData::getDatabaseProductName);
+            return "PostgreSQL".equals(product);
+        } catch (MetaDataAccessException e) {
+            log.warn("Could not detect the database product: {}", e.getMessage());
+            return false;
+        }
+    }
+
+    private record OnlineIndex(String name, String definition) {
+    }
+}
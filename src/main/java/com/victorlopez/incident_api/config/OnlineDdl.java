@@ -0,0 +1,95 @@
+package com.victorlopez.incident_api.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.function.Function;
+
+/**
+ * PostgreSQL DDL for the startup schema components, run so that it never holds long locks.
+ *
+ * Indexes are built with {@code CREATE INDEX CONCURRENTLY}, which does not block writes but
+ * cannot run inside a transaction block. The pool hands out connections with auto-commit off,
+ * so each operation runs on one connection switched to auto-commit and restored before it goes
+ * back to the pool. A concurrent build that was interrupted leaves an INVALID index behind;
+ * {@link #createIndex} drops and rebuilds it instead of skipping it as existing.
+ */
+@Slf4j
+final class OnlineDdl {
+
+    private static final String INDEX_VALID = """
+            SELECT i.indisvalid FROM pg_index i JOIN pg_class c ON c.oid = i.indexrelid
+            WHERE c.relname = ? AND pg_table_is_visible(c.oid)""";
+
+    private static final String COLUMN_EXISTS = """
+            SELECT EXISTS (SELECT 1 FROM information_schema.columns
+                           WHERE table_schema = current_schema() AND table_name = ? AND column_name = ?)""";
+
+    private final DataSource dataSource;
+
+    OnlineDdl(DataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    /**
+     * Creates the index without blocking writes, unless a valid index of that name exists.
+     *
+     * @param definition everything after the index name, e.g. {@code ON incidents (status)}
+     */
+    void createIndex(String name, String definition) {
+        withAutoCommit(jdbc -> {
+            Boolean valid = jdbc.query(INDEX_VALID, rs -> rs.next() ? rs.getBoolean(1) : null, name);
+            if (Boolean.FALSE.equals(valid)) {
+                log.warn("Index {} is INVALID after an interrupted build — rebuilding it", name);
+                jdbc.execute("DROP INDEX CONCURRENTLY IF EXISTS " + name);
+            }
+            jdbc.execute("CREATE INDEX CONCURRENTLY IF NOT EXISTS " + name + " " + definition);
+            return null;
+        });
+    }
+
+    void dropIndex(String name) {
+        execute("DROP INDEX CONCURRENTLY IF EXISTS " + name);
+    }
+
+    boolean columnExists(String table, String column) {
+        return withAutoCommit(jdbc -> jdbc.queryForObject(COLUMN_EXISTS, Boolean.class, table, column));
+    }
+
+    boolean hasRows(String table) {
+        return withAutoCommit(jdbc -> jdbc.queryForObject(
+                "SELECT EXISTS (SELECT 1 FROM " + table + ")", Boolean.class));
+    }
+
+    void execute(String sql) {
+        withAutoCommit(jdbc -> {
+            jdbc.execute(sql);
+            return null;
+        });
+    }
+
+    // ── private helpers ──────────────────────────────────────────────────────
+
+    private <T> T withAutoCommit(Function<JdbcTemplate, T> work) {
+        Connection connection = DataSourceUtils.getConnection(dataSource);
+        try {
+            boolean autoCommit = connection.getAutoCommit();
+            connection.setAutoCommit(true);
+            try {
+                return work.apply(new JdbcTemplate(new SingleConnectionDataSource(connection, true)));
+            } finally {
+                connection.setAutoCommit(autoCommit);
+            }
+        } catch (SQLException e) {
+            throw new DataAccessResourceFailureException("Could not switch the connection's auto-commit mode", e);
+        } finally {
+            DataSourceUtils.releaseConnection(connection, dataSource);
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package com.victorlopez.incident_api.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Enables {@code @Scheduled} maintenance jobs (cache purging, model retraining, ...).
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
@@ -0,0 +1,84 @@
+package com.victorlopez.incident_api.config;
+
+import com.victorlopez.incident_api.service.EmbeddingIncidentIndex;
+import com.victorlopez.incident_api.service.FullTextSearchService;
+import com.victorlopez.incident_api.service.InvertedIncidentIndex;
+import com.victorlopez.incident_api.service.SimilarIncidentFinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Selects the {@link SimilarIncidentFinder} behind {@code GET /api/incidents/similar}. Each strategy also
+ * answers {@link SimilarIncidentFinder#findSimilarIds} from its own index, without loading incidents:
+ * - {@code fulltext} (default): the database's full-text search
+ * - {@code inverted-index}: the in-memory BM25 {@link InvertedIncidentIndex}
+ * - {@code embedding}: nearest embeddings in the {@link EmbeddingIncidentIndex}, falling back to
+ *   full-text search when the query cannot be embedded (e.g. the embedding API is down)
+ */
+@Configuration
+@Slf4j
+public class SimilarIncidentConfig {
+
+    @Bean
+    public SimilarIncidentFinder similarIncidentFinder(FullTextSearchService fullTextSearchService,
+                                                       InvertedIncidentIndex invertedIncidentIndex,
+                                                       EmbeddingIncidentIndex embeddingIncidentIndex,
+                                                       @Value("${search.similar.strategy:fulltext}") String strategy) {
+        if (InvertedIncidentIndex.STRATEGY.equals(strategy)) {
+            return new SimilarIncidentFinder() {
+                @Override
+                public List<Match> findSimilar(String text, UUID excludeId, int limit) {
+                    return invertedIncidentIndex.findSimilar(text, excludeId, limit);
+                }
+
+                @Override
+                public List<ScoredId> findSimilarIds(String text, UUID excludeId, int limit) {
+                    return invertedIncidentIndex.findSimilarIds(text, excludeId, limit);
+                }
+            };
+        }
+        if (EmbeddingIncidentIndex.STRATEGY.equals(strategy)) {
+            return new SimilarIncidentFinder() {
+                @Override
+                public List<Match> findSimilar(String text, UUID excludeId, int limit) {
+                    try {
+                        return embeddingIncidentIndex.findSimilar(text, excludeId, limit);
+                    } catch (RuntimeException e) {
+                        logFallback(e);
+                        return fullTextSearchService.findSimilar(text, excludeId, limit);
+                    }
+                }
+
+                @Override
+                public List<ScoredId> findSimilarIds(String text, UUID excludeId, int limit) {
+                    try {
+                        return embeddingIncidentIndex.findSimilarIds(text, excludeId, limit);
+                    } catch (RuntimeException e) {
+                        logFallback(e);
+                        return fullTextSearchService.findSimilarIds(text, excludeId, limit);
+                    }
+                }
+            };
+        }
+        return new SimilarIncidentFinder() {
+            @Override
+            public List<Match> findSimilar(String text, UUID excludeId, int limit) {
+                return fullTextSearchService.findSimilar(text, excludeId, limit);
+            }
+
+            @Override
+            public List<ScoredId> findSimilarIds(String text, UUID excludeId, int limit) {
+                return fullTextSearchService.findSimilarIds(text, excludeId, limit);
+            }
+        };
+    }
+
+    private static void logFallback(RuntimeException e) {
+        log.warn("Embedding similarity search failed ({}) — falling back to full-text search", e.getMessage());
+    }
+}
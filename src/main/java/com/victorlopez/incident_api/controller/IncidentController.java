@@ -1,13 +1,21 @@
 package com.victorlopez.incident_api.controller;
 
 import com.victorlopez.incident_api.dto.CreateIncidentRequest;
+import com.victorlopez.incident_api.dto.CursorPage;
 import com.victorlopez.incident_api.dto.IncidentActivityResponse;
+import com.victorlopez.incident_api.dto.IncidentFilter;
 import com.victorlopez.incident_api.dto.IncidentResponse;
 import com.victorlopez.incident_api.dto.MetricsResponse;
 import com.victorlopez.incident_api.dto.UpdateIncidentRequest;
 import com.victorlopez.incident_api.dto.UpdateStatusRequest;
+import com.victorlopez.incident_api.model.AnalysisStatus;
+import com.victorlopez.incident_api.model.Category;
 import com.victorlopez.incident_api.model.Severity;
 import com.victorlopez.incident_api.model.Status;
+import com.victorlopez.incident_api.repository.IncidentField;
+import com.victorlopez.incident_api.service.AnalysisStreamService;
+import com.victorlopez.incident_api.service.ExportFormat;
+import com.victorlopez.incident_api.service.IncidentExportService;
 import com.victorlopez.incident_api.service.IncidentService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -20,14 +28,22 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.util.StringUtils;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 @RestController
@@ -36,23 +52,37 @@ import java.util.UUID;
 @Tag(name = "Incident Management", description = "APIs for managing IT incidents with AI-powered analysis")
 public class IncidentController {
 
+    private static final int MAX_CURSOR_PAGE_SIZE = 100;
+    private static final String FIELDS_DESCRIPTION =
+            "Comma-separated incident fields to return, e.g. id,title,status,severity";
+
     private final IncidentService incidentService;
+    private final AnalysisStreamService analysisStreamService;
+    private final IncidentExportService incidentExportService;
 
     @PostMapping
-    @Operation(summary = "Create a new incident", description = "Creates a new incident with AI-powered analysis for severity, category, and suggested solution")
+    @Operation(summary = "Create a new incident", description = "Creates a new incident with AI-powered analysis for severity, category, and suggested solution. When asynchronous analysis is enabled the incident is stored as PENDING_ANALYSIS and 202 is returned. A near-duplicate of a recent open incident is folded into it and 200 is returned with that incident.")
     @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Near-duplicate folded into an existing open incident"),
             @ApiResponse(responseCode = "201", description = "Incident created successfully"),
+            @ApiResponse(responseCode = "202", description = "Incident created, AI analysis pending"),
             @ApiResponse(responseCode = "400", description = "Invalid request data"),
             @ApiResponse(responseCode = "500", description = "Internal server error")
     })
     public ResponseEntity<IncidentResponse> createIncident(
             @Valid @RequestBody CreateIncidentRequest request) {
         IncidentResponse response = incidentService.createIncident(request);
-        return ResponseEntity.status(HttpStatus.CREATED).body(response);
+        if (Boolean.TRUE.equals(response.getDuplicate())) {
+            return ResponseEntity.ok(response);
+        }
+        HttpStatus status = response.getAnalysisStatus() == AnalysisStatus.PENDING_ANALYSIS
+                ? HttpStatus.ACCEPTED
+                : HttpStatus.CREATED;
+        return ResponseEntity.status(status).body(response);
     }
 
     @GetMapping
-    @Operation(summary = "Get all incidents", description = "Retrieves incidents with optional filtering by status and severity. Supports pagination. ADMIN sees all; USER sees only their own reported incidents.")
+    @Operation(summary = "Get all incidents", description = "Retrieves incidents with optional filtering by status, severity, category, assigned team and creation time. Supports pagination. ADMIN sees all; USER sees only their own reported incidents.")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Incidents retrieved successfully"),
             @ApiResponse(responseCode = "500", description = "Internal server error")
@@ -60,19 +90,142 @@ public class IncidentController {
     public ResponseEntity<Page<IncidentResponse>> getAllIncidents(
             @Parameter(description = "Filter by incident status") @RequestParam(required = false) Status status,
             @Parameter(description = "Filter by incident severity") @RequestParam(required = false) Severity severity,
+            @Parameter(description = "Filter by incident category") @RequestParam(required = false) Category category,
+            @Parameter(description = "Filter by assigned team") @RequestParam(required = false) String assignedTeam,
+            @Parameter(description = "Only incidents created at or after this time (ISO-8601)")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime createdFrom,
+            @Parameter(description = "Only incidents created before this time (ISO-8601)")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime createdTo,
             @PageableDefault(size = 20, sort = "createdAt", direction = Sort.Direction.DESC) Pageable pageable,
             Authentication authentication) {
 
-        // USER role is scoped to their own incidents; ADMIN and anonymous see all
-        boolean isUser = authentication != null &&
-                authentication.getAuthorities().stream()
-                        .anyMatch(a -> a.getAuthority().equals("ROLE_USER"));
-        String reportedByFilter = isUser ? authentication.getName() : null;
-
-        Page<IncidentResponse> incidents = incidentService.getAllIncidents(status, severity, pageable, reportedByFilter);
+        IncidentFilter filter = filter(status, severity, category, assignedTeam, createdFrom, createdTo, authentication);
+        Page<IncidentResponse> incidents = incidentService.getAllIncidents(filter, pageable);
         return ResponseEntity.ok(incidents);
     }
 
+    @GetMapping(params = "cursor")
+    @Operation(summary = "Get incidents by cursor", description = "Keyset-paginated listing, newest first, selected by the cursor parameter (empty for the first page). Returns opaque nextCursor/prevCursor tokens and no total count, so every page costs the same. Same filters and scoping as the paginated listing.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Incidents retrieved successfully"),
+            @ApiResponse(responseCode = "400", description = "Invalid cursor or size parameter"),
+            @ApiResponse(responseCode = "500", description = "Internal server error")
+    })
+    public ResponseEntity<CursorPage<IncidentResponse>> getIncidentsByCursor(
+            @Parameter(description = "Filter by incident status") @RequestParam(required = false) Status status,
+            @Parameter(description = "Filter by incident severity") @RequestParam(required = false) Severity severity,
+            @Parameter(description = "Filter by incident category") @RequestParam(required = false) Category category,
+            @Parameter(description = "Filter by assigned team") @RequestParam(required = false) String assignedTeam,
+            @Parameter(description = "Only incidents created at or after this time (ISO-8601)")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime createdFrom,
+            @Parameter(description = "Only incidents created before this time (ISO-8601)")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime createdTo,
+            @Parameter(description = "Cursor from a previous page; empty for the first page") @RequestParam String cursor,
+            @Parameter(description = "Page size (1-" + MAX_CURSOR_PAGE_SIZE + ")") @RequestParam(defaultValue = "20") int size,
+            Authentication authentication) {
+
+        if (size < 1 || size > MAX_CURSOR_PAGE_SIZE) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        IncidentFilter filter = filter(status, severity, category, assignedTeam, createdFrom, createdTo, authentication);
+        return ResponseEntity.ok(incidentService.getIncidentsByCursor(filter, cursor, size));
+    }
+
+    @GetMapping(params = "fields")
+    @Operation(summary = "Get selected fields of all incidents", description = "Sparse variant of the paginated listing, selected by the fields parameter. Each incident is only the listed fields, and only those columns are read from the database. Same filters, pagination and scoping as the full listing.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Incidents retrieved successfully"),
+            @ApiResponse(responseCode = "400", description = "Invalid fields parameter"),
+            @ApiResponse(responseCode = "500", description = "Internal server error")
+    })
+    public ResponseEntity<Page<Map<String, Object>>> getIncidentFields(
+            @Parameter(description = "Filter by incident status") @RequestParam(required = false) Status status,
+            @Parameter(description = "Filter by incident severity") @RequestParam(required = false) Severity severity,
+            @Parameter(description = "Filter by incident category") @RequestParam(required = false) Category category,
+            @Parameter(description = "Filter by assigned team") @RequestParam(required = false) String assignedTeam,
+            @Parameter(description = "Only incidents created at or after this time (ISO-8601)")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime createdFrom,
+            @Parameter(description = "Only incidents created before this time (ISO-8601)")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime createdTo,
+            @Parameter(description = FIELDS_DESCRIPTION, required = true) @RequestParam String fields,
+            @PageableDefault(size = 20, sort = "createdAt", direction = Sort.Direction.DESC) Pageable pageable,
+            Authentication authentication) {
+
+        IncidentFilter filter = filter(status, severity, category, assignedTeam, createdFrom, createdTo, authentication);
+        return ResponseEntity.ok(incidentService.getAllIncidentFields(filter, pageable, IncidentField.parse(fields)));
+    }
+
+    @GetMapping(params = {"cursor", "fields"})
+    @Operation(summary = "Get selected fields of incidents by cursor", description = "Sparse variant of the cursor listing: each incident is only the listed fields, and only those columns (plus the keyset) are read from the database.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Incidents retrieved successfully"),
+            @ApiResponse(responseCode = "400", description = "Invalid cursor, size or fields parameter"),
+            @ApiResponse(responseCode = "500", description = "Internal server error")
+    })
+    public ResponseEntity<CursorPage<Map<String, Object>>> getIncidentFieldsByCursor(
+            @Parameter(description = "Filter by incident status") @RequestParam(required = false) Status status,
+            @Parameter(description = "Filter by incident severity") @RequestParam(required = false) Severity severity,
+            @Parameter(description = "Filter by incident category") @RequestParam(required = false) Category category,
+            @Parameter(description = "Filter by assigned team") @RequestParam(required = false) String assignedTeam,
+            @Parameter(description = "Only incidents created at or after this time (ISO-8601)")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime createdFrom,
+            @Parameter(description = "Only incidents created before this time (ISO-8601)")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime createdTo,
+            @Parameter(description = "Cursor from a previous page; empty for the first page") @RequestParam String cursor,
+            @Parameter(description = "Page size (1-" + MAX_CURSOR_PAGE_SIZE + ")") @RequestParam(defaultValue = "20") int size,
+            @Parameter(description = FIELDS_DESCRIPTION, required = true) @RequestParam String fields,
+            Authentication authentication) {
+
+        if (size < 1 || size > MAX_CURSOR_PAGE_SIZE) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        IncidentFilter filter = filter(status, severity, category, assignedTeam, createdFrom, createdTo, authentication);
+        return ResponseEntity.ok(incidentService.getIncidentFieldsByCursor(filter, cursor, size,
+                IncidentField.parse(fields)));
+    }
+
+    @GetMapping("/export")
+    @PreAuthorize("isAuthenticated()")
+    @Operation(summary = "Export incidents (authenticated)", description = "Streams every incident matching the filters, newest first, as NDJSON (one JSON object per line) or CSV, gzip-compressed when the client accepts gzip. Rows are read through a database cursor and written as they are read, so an export of any size uses constant memory. With includeActivity each NDJSON incident carries its activity log, and CSV repeats the incident on one row per activity. Same filters and scoping as the listing: a USER exports only their own incidents. Requires authentication.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Export streamed"),
+            @ApiResponse(responseCode = "401", description = "Authentication required"),
+            @ApiResponse(responseCode = "403", description = "Access denied"),
+            @ApiResponse(responseCode = "500", description = "Internal server error")
+    })
+    public ResponseEntity<StreamingResponseBody> exportIncidents(
+            @Parameter(description = "Filter by incident status") @RequestParam(required = false) Status status,
+            @Parameter(description = "Filter by incident severity") @RequestParam(required = false) Severity severity,
+            @Parameter(description = "Filter by incident category") @RequestParam(required = false) Category category,
+            @Parameter(description = "Filter by assigned team") @RequestParam(required = false) String assignedTeam,
+            @Parameter(description = "Only incidents created at or after this time (ISO-8601)")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime createdFrom,
+            @Parameter(description = "Only incidents created before this time (ISO-8601)")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime createdTo,
+            @Parameter(description = "NDJSON or CSV") @RequestParam(defaultValue = "NDJSON") ExportFormat format,
+            @Parameter(description = "Include each incident's activity log") @RequestParam(defaultValue = "false") boolean includeActivity,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+            Authentication authentication) {
+
+        IncidentFilter filter = filter(status, severity, category, assignedTeam, createdFrom, createdTo, authentication);
+        boolean gzip = acceptEncoding != null && acceptEncoding.contains("gzip");
+        StreamingResponseBody body = out -> incidentExportService.export(filter, format, includeActivity, gzip, out);
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(format.mediaType())
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename("incidents." + format.extension())
+                        .build()
+                        .toString())
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return response.body(body);
+    }
+
     @GetMapping("/{id}")
     @Operation(summary = "Get incident by ID", description = "Retrieves a specific incident by its unique identifier")
     @ApiResponses(value = {
@@ -148,6 +301,20 @@ public class IncidentController {
         return ResponseEntity.ok(response);
     }
 
+    @PostMapping(value = "/{id}/analyze/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Re-run AI analysis with streaming (ADMIN only)", description = "Server-Sent Events variant of the analyze endpoint. Emits 'solution' events with suggested-solution text as it is generated, then a 'result' event with the validated analysis once it has been stored, or an 'error' event.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Analysis stream opened"),
+            @ApiResponse(responseCode = "403", description = "Access denied — ADMIN role required"),
+            @ApiResponse(responseCode = "404", description = "Incident not found"),
+            @ApiResponse(responseCode = "503", description = "Too many streams in progress")
+    })
+    public SseEmitter streamReanalysis(
+            @Parameter(description = "Unique identifier of the incident") @PathVariable UUID id) {
+        return analysisStreamService.streamReanalysis(id);
+    }
+
     @GetMapping("/{id}/activity")
     @PreAuthorize("isAuthenticated()")
     @Operation(summary = "Get incident activity log (authenticated)", description = "Returns the full chronological activity history for an incident. Requires authentication.")
@@ -164,6 +331,52 @@ public class IncidentController {
         return ResponseEntity.ok(activities);
     }
 
+    @GetMapping("/{id}/similar")
+    @Operation(summary = "Find incidents similar to an incident", description = "Returns the non-archived incidents most similar to an existing incident, best first, with their relevance scores. Served from a list precomputed when the incident was written.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Similar incidents retrieved successfully"),
+            @ApiResponse(responseCode = "400", description = "Invalid limit or minScore parameter"),
+            @ApiResponse(responseCode = "404", description = "Incident not found"),
+            @ApiResponse(responseCode = "500", description = "Internal server error")
+    })
+    public ResponseEntity<List<IncidentResponse>> getIncidentsSimilarTo(
+            @Parameter(description = "Unique identifier of the incident") @PathVariable UUID id,
+            @Parameter(description = "Maximum number of results (capped by search.similar.max-results)")
+            @RequestParam(defaultValue = "10") int limit,
+            @Parameter(description = "Minimum relevance score a result must reach")
+            @RequestParam(defaultValue = "0") double minScore) {
+
+        if (limit < 1 || minScore < 0) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        return ResponseEntity.ok(incidentService.findSimilarToIncident(id, limit, minScore));
+    }
+
+    @GetMapping(value = "/{id}/similar", params = "fields")
+    @Operation(summary = "Find selected fields of incidents similar to an incident", description = "Sparse variant of the similar-to-incident lookup: each result is only the listed fields plus its score, read without loading incidents.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Similar incidents retrieved successfully"),
+            @ApiResponse(responseCode = "400", description = "Invalid limit, minScore or fields parameter"),
+            @ApiResponse(responseCode = "404", description = "Incident not found"),
+            @ApiResponse(responseCode = "500", description = "Internal server error")
+    })
+    public ResponseEntity<List<Map<String, Object>>> getIncidentFieldsSimilarTo(
+            @Parameter(description = "Unique identifier of the incident") @PathVariable UUID id,
+            @Parameter(description = "Maximum number of results (capped by search.similar.max-results)")
+            @RequestParam(defaultValue = "10") int limit,
+            @Parameter(description = "Minimum relevance score a result must reach")
+            @RequestParam(defaultValue = "0") double minScore,
+            @Parameter(description = FIELDS_DESCRIPTION, required = true) @RequestParam String fields) {
+
+        if (limit < 1 || minScore < 0) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        return ResponseEntity.ok(incidentService.findSimilarToIncidentFields(id, limit, minScore,
+                IncidentField.parse(fields)));
+    }
+
     @GetMapping("/metrics")
     @Operation(summary = "Get incident metrics", description = "Retrieves comprehensive metrics and statistics about all non-archived incidents")
     @ApiResponses(value = {
@@ -175,25 +388,98 @@ public class IncidentController {
         return ResponseEntity.ok(metrics);
     }
 
+    @GetMapping("/search")
+    @Operation(summary = "Search incidents", description = "Ranked full-text search over the title and description of non-archived incidents, with optional filters. Supports web-search syntax (\"quoted phrases\", -excluded words). Results are ordered by relevance; the sort parameter is ignored.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Search results retrieved successfully"),
+            @ApiResponse(responseCode = "400", description = "Invalid query parameter"),
+            @ApiResponse(responseCode = "500", description = "Internal server error")
+    })
+    public ResponseEntity<Page<IncidentResponse>> searchIncidents(
+            @Parameter(description = "Search query", required = true) @RequestParam String q,
+            @Parameter(description = "Filter by incident status") @RequestParam(required = false) Status status,
+            @Parameter(description = "Filter by incident severity") @RequestParam(required = false) Severity severity,
+            @Parameter(description = "Filter by incident category") @RequestParam(required = false) Category category,
+            @PageableDefault(size = 20) Pageable pageable) {
+
+        if (!StringUtils.hasText(q)) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        return ResponseEntity.ok(incidentService.searchIncidents(q, status, severity, category, pageable));
+    }
+
     @GetMapping("/similar")
-    @Operation(summary = "Find similar incidents", description = "Finds non-archived incidents similar to the provided description using keyword matching")
+    @Operation(summary = "Find similar incidents", description = "Finds the non-archived incidents most similar to the provided description, best first, with their relevance scores")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Similar incidents retrieved successfully"),
-            @ApiResponse(responseCode = "400", description = "Invalid description parameter"),
+            @ApiResponse(responseCode = "400", description = "Invalid description, limit or minScore parameter"),
             @ApiResponse(responseCode = "500", description = "Internal server error")
     })
     public ResponseEntity<List<IncidentResponse>> getSimilarIncidents(
             @Parameter(description = "Description to search for similar incidents", required = true)
             @RequestParam(required = true) String description,
             @Parameter(description = "ID of incident to exclude from results")
-            @RequestParam(required = false) UUID excludeId) {
+            @RequestParam(required = false) UUID excludeId,
+            @Parameter(description = "Maximum number of results (capped by search.similar.max-results)")
+            @RequestParam(defaultValue = "10") int limit,
+            @Parameter(description = "Minimum relevance score a result must reach")
+            @RequestParam(defaultValue = "0") double minScore) {
 
-        if (!StringUtils.hasText(description)) {
+        if (!StringUtils.hasText(description) || limit < 1 || minScore < 0) {
             return ResponseEntity.badRequest().build();
         }
 
         UUID actualExcludeId = excludeId != null ? excludeId : UUID.randomUUID();
-        List<IncidentResponse> similarIncidents = incidentService.findSimilarIncidents(description, actualExcludeId);
+        List<IncidentResponse> similarIncidents = incidentService.findSimilarIncidents(description, actualExcludeId,
+                limit, minScore);
         return ResponseEntity.ok(similarIncidents);
     }
+
+    @GetMapping(value = "/similar", params = "fields")
+    @Operation(summary = "Find selected fields of similar incidents", description = "Sparse variant of the similar-incidents lookup: each result is only the listed fields plus its score, read without loading incidents.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Similar incidents retrieved successfully"),
+            @ApiResponse(responseCode = "400", description = "Invalid description, limit, minScore or fields parameter"),
+            @ApiResponse(responseCode = "500", description = "Internal server error")
+    })
+    public ResponseEntity<List<Map<String, Object>>> getSimilarIncidentFields(
+            @Parameter(description = "Description to search for similar incidents", required = true)
+            @RequestParam(required = true) String description,
+            @Parameter(description = "ID of incident to exclude from results")
+            @RequestParam(required = false) UUID excludeId,
+            @Parameter(description = "Maximum number of results (capped by search.similar.max-results)")
+            @RequestParam(defaultValue = "10") int limit,
+            @Parameter(description = "Minimum relevance score a result must reach")
+            @RequestParam(defaultValue = "0") double minScore,
+            @Parameter(description = FIELDS_DESCRIPTION, required = true) @RequestParam String fields) {
+
+        if (!StringUtils.hasText(description) || limit < 1 || minScore < 0) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        UUID actualExcludeId = excludeId != null ? excludeId : UUID.randomUUID();
+        return ResponseEntity.ok(incidentService.findSimilarIncidentFields(description, actualExcludeId, limit,
+                minScore, IncidentField.parse(fields)));
+    }
+
+    /**
+     * USER role is scoped to their own incidents; ADMIN and anonymous see all.
+     */
+    private static IncidentFilter filter(Status status, Severity severity, Category category, String assignedTeam,
+                                         LocalDateTime createdFrom, LocalDateTime createdTo,
+                                         Authentication authentication) {
+        boolean isUser = authentication != null &&
+                authentication.getAuthorities().stream()
+                        .anyMatch(a -> a.getAuthority().equals("ROLE_USER"));
+        return IncidentFilter.builder()
+                .status(status)
+                .severity(severity)
+                .category(category)
+                .assignedTeam(assignedTeam)
+                .createdFrom(createdFrom)
+                .createdTo(createdTo)
+                .reportedBy(isUser ? authentication.getName() : null)
+                .build();
+    }
 }
@@ -0,0 +1,87 @@
+package com.victorlopez.incident_api.controller;
+
+import com.victorlopez.incident_api.dto.ReanalysisJobResponse;
+import com.victorlopez.incident_api.service.ReanalysisJobService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/api/admin/reanalysis-jobs")
+@RequiredArgsConstructor
+@PreAuthorize("hasRole('ADMIN')")
+@Tag(name = "Bulk Re-analysis", description = "ADMIN APIs for re-classifying all incidents after a prompt or model change")
+public class ReanalysisJobController {
+
+    private final ReanalysisJobService reanalysisJobService;
+
+    @PostMapping
+    @Operation(summary = "Start a bulk re-analysis job (ADMIN only)", description = "Re-analyzes every non-archived incident in the background. Only one job can be running or paused at a time.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "202", description = "Job started"),
+            @ApiResponse(responseCode = "403", description = "Access denied — ADMIN role required"),
+            @ApiResponse(responseCode = "409", description = "Another job is already running or paused")
+    })
+    public ResponseEntity<ReanalysisJobResponse> startJob(Authentication authentication) {
+        ReanalysisJobResponse response = reanalysisJobService.startJob(authentication.getName());
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(response);
+    }
+
+    @GetMapping("/{id}")
+    @Operation(summary = "Get job progress (ADMIN only)", description = "Returns the status, counters and checkpoint of a bulk re-analysis job")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Job retrieved successfully"),
+            @ApiResponse(responseCode = "403", description = "Access denied — ADMIN role required"),
+            @ApiResponse(responseCode = "404", description = "Job not found")
+    })
+    public ResponseEntity<ReanalysisJobResponse> getJob(
+            @Parameter(description = "Unique identifier of the job") @PathVariable UUID id) {
+        return ResponseEntity.ok(reanalysisJobService.getJob(id));
+    }
+
+    @PostMapping("/{id}/pause")
+    @Operation(summary = "Pause a running job (ADMIN only)", description = "The job stops after the page in progress and keeps its checkpoint")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Job paused"),
+            @ApiResponse(responseCode = "404", description = "Job not found"),
+            @ApiResponse(responseCode = "409", description = "Job is not running")
+    })
+    public ResponseEntity<ReanalysisJobResponse> pauseJob(
+            @Parameter(description = "Unique identifier of the job") @PathVariable UUID id) {
+        return ResponseEntity.ok(reanalysisJobService.pauseJob(id));
+    }
+
+    @PostMapping("/{id}/resume")
+    @Operation(summary = "Resume a paused job (ADMIN only)", description = "Continues the job after its checkpoint")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Job resumed"),
+            @ApiResponse(responseCode = "404", description = "Job not found"),
+            @ApiResponse(responseCode = "409", description = "Job is not paused")
+    })
+    public ResponseEntity<ReanalysisJobResponse> resumeJob(
+            @Parameter(description = "Unique identifier of the job") @PathVariable UUID id) {
+        return ResponseEntity.ok(reanalysisJobService.resumeJob(id));
+    }
+
+    @PostMapping("/{id}/cancel")
+    @Operation(summary = "Cancel a job (ADMIN only)", description = "Stops the job after the page in progress; results already written are kept")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Job cancelled"),
+            @ApiResponse(responseCode = "404", description = "Job not found"),
+            @ApiResponse(responseCode = "409", description = "Job is already finished")
+    })
+    public ResponseEntity<ReanalysisJobResponse> cancelJob(
+            @Parameter(description = "Unique identifier of the job") @PathVariable UUID id) {
+        return ResponseEntity.ok(reanalysisJobService.cancelJob(id));
+    }
+}
@@ -1,5 +1,7 @@
 package com.victorlopez.incident_api.dto;
 
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import com.victorlopez.incident_api.model.Category;
 import com.victorlopez.incident_api.model.Severity;
 
@@ -23,6 +25,9 @@ import com.victorlopez.incident_api.model.Severity;
  *   "estimatedResolutionHours": 4,
  *   "confidence": 0.85
  * }
+ *
+ * {@code local} is not part of the model's JSON: it marks results produced by the
+ * in-process classifier, which must not be trained on its own labels.
  */
 public record AIAnalysisResult(
         Severity severity,
@@ -30,9 +35,24 @@ public record AIAnalysisResult(
         String assignedTeam,
         String suggestedSolution,
         Integer estimatedResolutionHours,
-        Double confidence
+        Double confidence,
+        boolean local
 ) {
 
+    /**
+     * Creator for the model's JSON. Names are explicit because the parsing ObjectMapper has no
+     * parameter-names module; {@code local} is never read from the answer.
+     */
+    @JsonCreator
+    public AIAnalysisResult(@JsonProperty("severity") Severity severity,
+                            @JsonProperty("category") Category category,
+                            @JsonProperty("assignedTeam") String assignedTeam,
+                            @JsonProperty("suggestedSolution") String suggestedSolution,
+                            @JsonProperty("estimatedResolutionHours") Integer estimatedResolutionHours,
+                            @JsonProperty("confidence") Double confidence) {
+        this(severity, category, assignedTeam, suggestedSolution, estimatedResolutionHours, confidence, false);
+    }
+
     /**
      * Validates that all required fields are present and valid.
      *
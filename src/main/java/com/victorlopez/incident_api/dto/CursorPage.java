@@ -0,0 +1,20 @@
+package com.victorlopez.incident_api.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * One page of a cursor-paginated listing. {@code nextCursor} and {@code prevCursor} are opaque
+ * tokens for the following and preceding pages, null where there is none; no total is computed.
+ */
+@Data
+@Builder
+public class CursorPage<T> {
+
+    private List<T> content;
+    private int size;
+    private String nextCursor;
+    private String prevCursor;
+}
@@ -0,0 +1,26 @@
+package com.victorlopez.incident_api.dto;
+
+import com.victorlopez.incident_api.model.Category;
+import com.victorlopez.incident_api.model.Severity;
+import com.victorlopez.incident_api.model.Status;
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * Optional criteria for listing non-archived incidents; null fields do not filter.
+ * {@code createdFrom} is inclusive and {@code createdTo} exclusive.
+ */
+@Data
+@Builder
+public class IncidentFilter {
+
+    private Status status;
+    private Severity severity;
+    private Category category;
+    private String assignedTeam;
+    private String reportedBy;
+    private LocalDateTime createdFrom;
+    private LocalDateTime createdTo;
+}
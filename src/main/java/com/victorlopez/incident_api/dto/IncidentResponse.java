@@ -1,5 +1,6 @@
 package com.victorlopez.incident_api.dto;
 
+import com.victorlopez.incident_api.model.AnalysisStatus;
 import com.victorlopez.incident_api.model.Category;
 import com.victorlopez.incident_api.model.Severity;
 import com.victorlopez.incident_api.model.Status;
@@ -24,7 +25,15 @@ public class IncidentResponse {
     private String suggestedSolution;
     private Integer estimatedResolutionHours;
     private Double aiConfidence;
+    private AnalysisStatus analysisStatus;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
     private String actualResolution;
+    private Integer duplicateCount;
+
+    // Relevance of search and similar-incident results; null elsewhere
+    private Double score;
+
+    // True when a create request was folded into this existing incident as a near-duplicate
+    private Boolean duplicate;
 }
\ No newline at end of file
@@ -0,0 +1,26 @@
+package com.victorlopez.incident_api.dto;
+
+import com.victorlopez.incident_api.model.ReanalysisJobStatus;
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Data
+@Builder
+public class ReanalysisJobResponse {
+
+    private UUID id;
+    private ReanalysisJobStatus status;
+    private long totalIncidents;
+    private long processedCount;
+    private long succeededCount;
+    private long failedCount;
+    private double percentComplete;
+    private UUID checkpointId;
+    private String startedBy;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+    private LocalDateTime completedAt;
+}
@@ -0,0 +1,11 @@
+package com.victorlopez.incident_api.event;
+
+import java.util.UUID;
+
+/**
+ * Published when an incident has been persisted without AI analysis and needs
+ * to be enriched in the background. Listeners receive it after the creating
+ * transaction commits, so the incident row is guaranteed to be visible.
+ */
+public record IncidentAnalysisRequestedEvent(UUID incidentId, String title, String description) {
+}
@@ -0,0 +1,10 @@
+package com.victorlopez.incident_api.event;
+
+import java.util.UUID;
+
+/**
+ * Published when an incident's current text has been embedded and its vector inserted into the
+ * embedding index, so that similarity results computed from now on include it.
+ */
+public record IncidentEmbeddedEvent(UUID incidentId, String title, String description) {
+}
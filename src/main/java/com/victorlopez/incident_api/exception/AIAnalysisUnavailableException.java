@@ -0,0 +1,16 @@
+package com.victorlopez.incident_api.exception;
+
+/**
+ * Thrown when the AI provider is not called at all or is abandoned: the circuit breaker
+ * is open, the concurrency bulkhead is full, or the call exceeded its deadline.
+ */
+public class AIAnalysisUnavailableException extends RuntimeException {
+
+    public AIAnalysisUnavailableException(String message) {
+        super(message);
+    }
+
+    public AIAnalysisUnavailableException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,12 @@
+package com.victorlopez.incident_api.exception;
+
+/**
+ * Thrown when the client-side provider rate limiter cannot grant a call within the
+ * caller's maximum wait, or its priority lane is full.
+ */
+public class AIRateLimitExceededException extends AIAnalysisUnavailableException {
+
+    public AIRateLimitExceededException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,11 @@
+package com.victorlopez.incident_api.exception;
+
+/**
+ * Thrown when a pagination cursor token cannot be decoded.
+ */
+public class InvalidCursorException extends RuntimeException {
+
+    public InvalidCursorException(String cursor) {
+        super("Invalid cursor: " + cursor);
+    }
+}
@@ -0,0 +1,11 @@
+package com.victorlopez.incident_api.exception;
+
+/**
+ * Thrown when a {@code fields} parameter is empty or names a field incidents do not have.
+ */
+public class InvalidFieldsException extends RuntimeException {
+
+    public InvalidFieldsException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,11 @@
+package com.victorlopez.incident_api.exception;
+
+/**
+ * Thrown when a reanalysis job cannot be started or moved to the requested state.
+ */
+public class ReanalysisJobConflictException extends RuntimeException {
+
+    public ReanalysisJobConflictException(String message) {
+        super(message);
+    }
+}
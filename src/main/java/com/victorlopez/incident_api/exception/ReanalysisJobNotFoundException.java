@@ -0,0 +1,10 @@
+package com.victorlopez.incident_api.exception;
+
+import java.util.UUID;
+
+public class ReanalysisJobNotFoundException extends RuntimeException {
+
+    public ReanalysisJobNotFoundException(UUID id) {
+        super("Reanalysis job not found with id: " + id);
+    }
+}
@@ -0,0 +1,51 @@
+package com.victorlopez.incident_api.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Persistent tier of the AI analysis cache, keyed by the content hash of the
+ * normalized incident title and description.
+ */
+@Entity
+@Table(name = "ai_analysis_cache", indexes = {
+        @Index(name = "idx_ai_cache_created_at", columnList = "createdAt")
+})
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AIAnalysisCacheEntry {
+
+    @Id
+    @Column(length = 64)
+    private String contentHash;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private Severity severity;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private Category category;
+
+    @Column(nullable = false)
+    private String assignedTeam;
+
+    @Column(nullable = false, length = 2000)
+    private String suggestedSolution;
+
+    @Column(nullable = false)
+    private Integer estimatedResolutionHours;
+
+    @Column(nullable = false)
+    private Double confidence;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+}
@@ -11,16 +11,15 @@ import lombok.NoArgsConstructor;
 import lombok.ToString;
 
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
 
 @Entity
+// Listing indexes are partial (non-archived rows only), which JPA cannot express: see IncidentIndexSchema
 @Table(name = "incidents", indexes = {
-        @Index(name = "idx_incident_status", columnList = "status"),
-        @Index(name = "idx_incident_severity", columnList = "severity"),
-        @Index(name = "idx_incident_category", columnList = "category"),
-        @Index(name = "idx_incident_created_at", columnList = "createdAt")
+        @Index(name = "idx_incident_analysis_status", columnList = "analysisStatus")
 })
 @Data
 @Builder
@@ -70,6 +69,21 @@ public class Incident {
 
     private Double aiConfidence;
 
+    // Near-duplicate reports folded into this incident instead of being stored separately
+    @Builder.Default
+    @Column(nullable = false, columnDefinition = "integer default 0")
+    private int duplicateCount = 0;
+
+    // Null for rows created before asynchronous analysis existed; treated as ANALYZED
+    @Enumerated(EnumType.STRING)
+    @Builder.Default
+    private AnalysisStatus analysisStatus = AnalysisStatus.ANALYZED;
+
+    // Labelled by the in-process classifier rather than the model; excluded from its training
+    @Builder.Default
+    @Column(nullable = false, columnDefinition = "boolean default false")
+    private boolean locallyClassified = false;
+
     @Builder.Default
     @Column(nullable = false)
     private boolean archived = false;
@@ -90,7 +104,8 @@ public class Incident {
 
     @PrePersist
     protected void onCreate() {
-        createdAt = LocalDateTime.now();
+        // the column keeps microseconds; keysets built from this instance must match the stored value
+        createdAt = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
         updatedAt = LocalDateTime.now();
     }
 
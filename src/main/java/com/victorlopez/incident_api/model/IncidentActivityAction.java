@@ -6,5 +6,6 @@ public enum IncidentActivityAction {
     SEVERITY_CHANGED,
     UPDATED,
     ANALYZED,
-    ARCHIVED
+    ARCHIVED,
+    DUPLICATE_REPORTED
 }
@@ -0,0 +1,44 @@
+package com.victorlopez.incident_api.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Embedding of an incident's title and description, stored as raw float32 so the
+ * similarity index can be rebuilt at startup without calling the embedding model again.
+ */
+@Entity
+@Table(name = "incident_embeddings")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class IncidentEmbedding {
+
+    @Id
+    private UUID incidentId;
+
+    // AIAnalysisCache.keyFor(title, description) at embedding time; a mismatch means the text changed
+    @Column(nullable = false, length = 64)
+    private String contentHash;
+
+    // Identifies the embedding model so vectors from different models are never compared
+    @Column(nullable = false, length = 100)
+    private String model;
+
+    @Column(nullable = false)
+    private Integer dimensions;
+
+    // dimensions big-endian float32 values
+    @Column(nullable = false, length = 16384)
+    private byte[] vector;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+}
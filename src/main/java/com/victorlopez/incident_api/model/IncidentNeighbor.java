@@ -0,0 +1,43 @@
+package com.victorlopez.incident_api.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.util.UUID;
+
+/**
+ * One entry of an incident's precomputed similar-incidents list. The primary key leads with
+ * {@code incidentId}, so reading a whole list is a single index range scan.
+ */
+@Entity
+@Table(name = "incident_neighbors", indexes = {
+        @Index(name = "idx_incident_neighbor_neighbor_id", columnList = "neighborId")
+})
+@IdClass(IncidentNeighbor.Key.class)
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class IncidentNeighbor {
+
+    @Id
+    private UUID incidentId;
+
+    @Id
+    private UUID neighborId;
+
+    @Column(nullable = false)
+    private double score;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private UUID incidentId;
+        private UUID neighborId;
+    }
+}
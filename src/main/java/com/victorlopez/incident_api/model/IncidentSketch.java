@@ -0,0 +1,35 @@
+package com.victorlopez.incident_api.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * MinHash signature of an incident's text, persisted so the near-duplicate index
+ * can be rebuilt at startup without re-reading and re-hashing every incident.
+ */
+@Entity
+@Table(name = "incident_sketches", indexes = {
+        @Index(name = "idx_incident_sketch_created_at", columnList = "createdAt")
+})
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class IncidentSketch {
+
+    @Id
+    private UUID incidentId;
+
+    // 128 big-endian int32 minimum hashes
+    @Column(nullable = false, length = 512)
+    private byte[] signature;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,64 @@
+package com.victorlopez.incident_api.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Bulk re-analysis of all non-archived incidents. Incidents are processed in id order and
+ * {@code checkpointId} is the last id whose result has been committed, so a restarted job
+ * continues right after it.
+ */
+@Entity
+@Table(name = "reanalysis_jobs", indexes = {
+        @Index(name = "idx_reanalysis_job_status", columnList = "status")
+})
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReanalysisJob {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private ReanalysisJobStatus status;
+
+    private UUID checkpointId;
+
+    @Column(nullable = false)
+    private long totalIncidents;
+
+    @Column(nullable = false)
+    private long processedCount;
+
+    @Column(nullable = false)
+    private long succeededCount;
+
+    @Column(nullable = false)
+    private long failedCount;
+
+    @Column(nullable = false)
+    private String startedBy;
+
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    private LocalDateTime updatedAt;
+
+    private LocalDateTime completedAt;
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+        updatedAt = LocalDateTime.now();
+    }
+}
@@ -0,0 +1,5 @@
+package com.victorlopez.incident_api.model;
+
+public enum ReanalysisJobStatus {
+    RUNNING, PAUSED, CANCELLED, COMPLETED
+}
@@ -0,0 +1,18 @@
+package com.victorlopez.incident_api.repository;
+
+import com.victorlopez.incident_api.model.AIAnalysisCacheEntry;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface AIAnalysisCacheRepository extends JpaRepository<AIAnalysisCacheEntry, String> {
+
+    @Modifying
+    @Query("DELETE FROM AIAnalysisCacheEntry e WHERE e.createdAt < :cutoff")
+    int deleteExpired(@Param("cutoff") LocalDateTime cutoff);
+}
@@ -4,6 +4,7 @@ import com.victorlopez.incident_api.model.IncidentActivity;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 
@@ -11,4 +12,7 @@ import java.util.UUID;
 public interface IncidentActivityRepository extends JpaRepository<IncidentActivity, UUID> {
 
     List<IncidentActivity> findByIncidentIdOrderByCreatedAtAsc(UUID incidentId);
+
+    // --- bulk export: the activity of one chunk of incidents per query ---
+    List<IncidentActivity> findByIncidentIdInOrderByCreatedAtAsc(Collection<UUID> incidentIds);
 }
@@ -0,0 +1,22 @@
+package com.victorlopez.incident_api.repository;
+
+import com.victorlopez.incident_api.model.IncidentEmbedding;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.UUID;
+
+@Repository
+public interface IncidentEmbeddingRepository extends JpaRepository<IncidentEmbedding, UUID> {
+
+    /**
+     * Embeddings produced by {@code model} for incidents that are not archived.
+     */
+    @Query("SELECT e FROM IncidentEmbedding e WHERE e.model = :model AND e.incidentId IN " +
+           "(SELECT i.id FROM Incident i WHERE i.archived = false) ORDER BY e.incidentId")
+    Slice<IncidentEmbedding> findActiveByModel(@Param("model") String model, Pageable pageable);
+}
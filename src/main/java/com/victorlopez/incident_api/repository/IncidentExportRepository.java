@@ -0,0 +1,20 @@
+package com.victorlopez.incident_api.repository;
+
+import com.victorlopez.incident_api.model.Incident;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.stream.Stream;
+
+/**
+ * Reads incidents for bulk export through a forward-only database cursor.
+ */
+public interface IncidentExportRepository {
+
+    /**
+     * Every incident matching {@code spec} in {@code sort} order, fetched {@code fetchSize} rows per round
+     * trip as the stream is consumed. Must be consumed and closed inside a transaction, which PostgreSQL
+     * needs to keep the cursor open. Incidents are loaded read-only; callers detach them once written.
+     */
+    Stream<Incident> streamAll(Specification<Incident> spec, Sort sort, int fetchSize);
+}
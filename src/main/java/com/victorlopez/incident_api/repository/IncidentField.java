@@ -0,0 +1,72 @@
+package com.victorlopez.incident_api.repository;
+
+import com.victorlopez.incident_api.exception.InvalidFieldsException;
+
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Incident fields a client can select with the {@code fields} parameter of the list endpoints.
+ * Each one is both an {@code Incident} attribute and the JSON property it is returned as, with the
+ * same name as in the full incident response.
+ */
+public enum IncidentField {
+
+    ID("id"),
+    TITLE("title"),
+    DESCRIPTION("description"),
+    SEVERITY("severity"),
+    CATEGORY("category"),
+    STATUS("status"),
+    REPORTED_BY("reportedBy"),
+    ASSIGNED_TEAM("assignedTeam"),
+    SUGGESTED_SOLUTION("suggestedSolution"),
+    ESTIMATED_RESOLUTION_HOURS("estimatedResolutionHours"),
+    AI_CONFIDENCE("aiConfidence"),
+    ANALYSIS_STATUS("analysisStatus"),
+    CREATED_AT("createdAt"),
+    UPDATED_AT("updatedAt"),
+    ACTUAL_RESOLUTION("actualResolution"),
+    DUPLICATE_COUNT("duplicateCount");
+
+    private static final Map<String, IncidentField> BY_NAME = Arrays.stream(values())
+            .collect(Collectors.toMap(IncidentField::attribute, Function.identity()));
+
+    private final String attribute;
+
+    IncidentField(String attribute) {
+        this.attribute = attribute;
+    }
+
+    public String attribute() {
+        return attribute;
+    }
+
+    /**
+     * The fields named in a comma-separated list such as {@code id,title,status}, in declaration order.
+     *
+     * @throws InvalidFieldsException if the list is empty or names an unknown field
+     */
+    public static Set<IncidentField> parse(String fields) {
+        Set<IncidentField> parsed = EnumSet.noneOf(IncidentField.class);
+        for (String name : fields.split(",")) {
+            String trimmed = name.trim();
+            if (trimmed.isEmpty()) {
+                continue;
+            }
+            IncidentField field = BY_NAME.get(trimmed);
+            if (field == null) {
+                throw new InvalidFieldsException("Unknown field: " + trimmed);
+            }
+            parsed.add(field);
+        }
+        if (parsed.isEmpty()) {
+            throw new InvalidFieldsException("No fields selected");
+        }
+        return parsed;
+    }
+}
@@ -0,0 +1,29 @@
+package com.victorlopez.incident_api.repository;
+
+import com.victorlopez.incident_api.model.IncidentNeighbor;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface IncidentNeighborRepository extends JpaRepository<IncidentNeighbor, IncidentNeighbor.Key> {
+
+    List<IncidentNeighbor> findByIncidentIdOrderByScoreDesc(UUID incidentId, Pageable pageable);
+
+    /**
+     * Incidents whose stored list contains {@code neighborId}.
+     */
+    @Query("SELECT n.incidentId FROM IncidentNeighbor n WHERE n.neighborId = :neighborId")
+    List<UUID> findIncidentIdsByNeighborId(@Param("neighborId") UUID neighborId);
+
+    @Modifying
+    @Query("DELETE FROM IncidentNeighbor n WHERE n.incidentId IN :incidentIds")
+    int deleteByIncidentIdIn(@Param("incidentIds") Collection<UUID> incidentIds);
+}
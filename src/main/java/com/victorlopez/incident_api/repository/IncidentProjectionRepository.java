@@ -0,0 +1,36 @@
+package com.victorlopez.incident_api.repository;
+
+import com.victorlopez.incident_api.model.Incident;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Sparse reads of incidents: only the selected columns are queried and each row is returned as a map
+ * from field name to value, in {@link IncidentField} order. No entity is created or attached to the
+ * persistence context, so long text columns that are not selected are never read.
+ */
+public interface IncidentProjectionRepository {
+
+    /**
+     * One page of the incidents matching {@code spec}, in the page's sort order.
+     */
+    Page<Map<String, Object>> findFields(Specification<Incident> spec, Pageable pageable, Set<IncidentField> fields);
+
+    /**
+     * The first {@code limit} incidents matching {@code spec} in {@code sort} order, without a count query.
+     */
+    List<Map<String, Object>> findFields(Specification<Incident> spec, Sort sort, int limit, Set<IncidentField> fields);
+
+    /**
+     * The non-archived incidents among {@code ids}, in no particular order.
+     */
+    List<Map<String, Object>> findFieldsById(Collection<UUID> ids, Set<IncidentField> fields);
+}
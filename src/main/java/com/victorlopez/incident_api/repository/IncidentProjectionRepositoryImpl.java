@@ -0,0 +1,108 @@
+package com.victorlopez.incident_api.repository;
+
+import com.victorlopez.incident_api.model.Incident;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.data.support.PageableExecutionUtils;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Criteria tuple queries behind {@link IncidentProjectionRepository}. The field set is only known per
+ * request, so the select list is built from it instead of declaring a projection type per combination.
+ */
+class IncidentProjectionRepositoryImpl implements IncidentProjectionRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Page<Map<String, Object>> findFields(Specification<Incident> spec, Pageable pageable,
+                                                Set<IncidentField> fields) {
+        TypedQuery<Tuple> query = select(spec, pageable.getSort(), fields);
+        if (pageable.isPaged()) {
+            query.setFirstResult((int) pageable.getOffset());
+            query.setMaxResults(pageable.getPageSize());
+        }
+        return PageableExecutionUtils.getPage(rows(query, fields), pageable, () -> count(spec));
+    }
+
+    @Override
+    public List<Map<String, Object>> findFields(Specification<Incident> spec, Sort sort, int limit,
+                                                Set<IncidentField> fields) {
+        return rows(select(spec, sort, fields).setMaxResults(limit), fields);
+    }
+
+    @Override
+    public List<Map<String, Object>> findFieldsById(Collection<UUID> ids, Set<IncidentField> fields) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Specification<Incident> spec = (root, query, cb) -> cb.and(
+                root.get("id").in(ids),
+                cb.isFalse(root.get("archived")));
+        return rows(select(spec, Sort.unsorted(), fields), fields);
+    }
+
+    // ── private helpers ──────────────────────────────────────────────────────
+
+    private TypedQuery<Tuple> select(Specification<Incident> spec, Sort sort, Set<IncidentField> fields) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<Incident> root = query.from(Incident.class);
+
+        List<Selection<?>> selections = fields.stream()
+                .<Selection<?>>map(field -> root.get(field.attribute()).alias(field.attribute()))
+                .toList();
+        query.multiselect(selections);
+        where(query, spec.toPredicate(root, query, cb));
+        if (sort.isSorted()) {
+            query.orderBy(QueryUtils.toOrders(sort, root, cb));
+        }
+        return entityManager.createQuery(query);
+    }
+
+    private long count(Specification<Incident> spec) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<Incident> root = query.from(Incident.class);
+        query.select(cb.count(root));
+        where(query, spec.toPredicate(root, query, cb));
+        return entityManager.createQuery(query).getSingleResult();
+    }
+
+    private static void where(CriteriaQuery<?> query, Predicate predicate) {
+        if (predicate != null) {
+            query.where(predicate);
+        }
+    }
+
+    private static List<Map<String, Object>> rows(TypedQuery<Tuple> query, Set<IncidentField> fields) {
+        return query.getResultList().stream()
+                .map(tuple -> {
+                    Map<String, Object> row = new LinkedHashMap<>();
+                    for (IncidentField field : fields) {
+                        row.put(field.attribute(), tuple.get(field.attribute()));
+                    }
+                    return row;
+                })
+                .toList();
+    }
+}
@@ -1,41 +1,46 @@
 package com.victorlopez.incident_api.repository;
 
+import com.victorlopez.incident_api.model.AnalysisStatus;
 import com.victorlopez.incident_api.model.Category;
 import com.victorlopez.incident_api.model.Incident;
 import com.victorlopez.incident_api.model.Severity;
 import com.victorlopez.incident_api.model.Status;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
 @Repository
-public interface IncidentRepository extends JpaRepository<Incident, UUID> {
+public interface IncidentRepository extends JpaRepository<Incident, UUID>, JpaSpecificationExecutor<Incident>,
+        IncidentProjectionRepository, IncidentExportRepository {
 
     // --- kept for repository tests ---
     List<Incident> findByStatus(Status status);
     List<Incident> findBySeverity(Severity severity);
     List<Incident> findByStatusAndSeverity(Status status, Severity severity);
 
-    // --- non-archived pageable queries (used by service) ---
+    // --- non-archived lookups (used by service) ---
     Optional<Incident> findByIdAndArchivedFalse(UUID id);
 
-    Page<Incident> findByArchivedFalse(Pageable pageable);
-    Page<Incident> findByStatusAndArchivedFalse(Status status, Pageable pageable);
-    Page<Incident> findBySeverityAndArchivedFalse(Severity severity, Pageable pageable);
-    Page<Incident> findByStatusAndSeverityAndArchivedFalse(Status status, Severity severity, Pageable pageable);
-
-    // --- user-scoped pageable queries (Step 5) ---
-    Page<Incident> findByReportedByAndArchivedFalse(String reportedBy, Pageable pageable);
-    Page<Incident> findByStatusAndReportedByAndArchivedFalse(Status status, String reportedBy, Pageable pageable);
-    Page<Incident> findBySeverityAndReportedByAndArchivedFalse(Severity severity, String reportedBy, Pageable pageable);
-    Page<Incident> findByStatusAndSeverityAndReportedByAndArchivedFalse(Status status, Severity severity, String reportedBy, Pageable pageable);
+    // --- filtered listing, any combination of filters (see IncidentSpecifications) ---
+    /**
+     * The first {@code limit} incidents matching {@code spec} in {@code sort} order, without a count query.
+     */
+    default List<Incident> findAll(Specification<Incident> spec, Sort sort, int limit) {
+        return findBy(spec, query -> query.sortBy(sort).limit(limit).all());
+    }
 
     // --- similarity search (non-archived) ---
     List<Incident> findByArchivedFalse();
@@ -46,6 +51,80 @@ public interface IncidentRepository extends JpaRepository<Incident, UUID> {
            "LOWER(i.description) LIKE LOWER(CONCAT('%', :keywords, '%')))")
     List<Incident> findSimilarIncidents(@Param("keywords") String keywords, @Param("excludeId") UUID excludeId);
 
+    // --- PostgreSQL full-text search over search_vector (see FullTextSearchSchema) ---
+    @Query(value = """
+            SELECT i.id AS id, ts_rank(i.search_vector, q) AS rank
+            FROM incidents i, websearch_to_tsquery('english', :query) q
+            WHERE i.archived = false AND i.search_vector @@ q
+              AND (CAST(:status AS varchar) IS NULL OR i.status = CAST(:status AS varchar))
+              AND (CAST(:severity AS varchar) IS NULL OR i.severity = CAST(:severity AS varchar))
+              AND (CAST(:category AS varchar) IS NULL OR i.category = CAST(:category AS varchar))
+            ORDER BY rank DESC, i.created_at DESC
+            """,
+            countQuery = """
+            SELECT COUNT(*)
+            FROM incidents i, websearch_to_tsquery('english', :query) q
+            WHERE i.archived = false AND i.search_vector @@ q
+              AND (CAST(:status AS varchar) IS NULL OR i.status = CAST(:status AS varchar))
+              AND (CAST(:severity AS varchar) IS NULL OR i.severity = CAST(:severity AS varchar))
+              AND (CAST(:category AS varchar) IS NULL OR i.category = CAST(:category AS varchar))
+            """,
+            nativeQuery = true)
+    Page<IncidentSearchHit> searchFullText(@Param("query") String query,
+                                           @Param("status") String status,
+                                           @Param("severity") String severity,
+                                           @Param("category") String category,
+                                           Pageable pageable);
+
+    @Query(value = """
+            SELECT i.id AS id, ts_rank(i.search_vector, q) AS rank
+            FROM incidents i, to_tsquery('english', :tsquery) q
+            WHERE i.archived = false AND i.id <> :excludeId AND i.search_vector @@ q
+            ORDER BY rank DESC
+            LIMIT :limit
+            """,
+            nativeQuery = true)
+    List<IncidentSearchHit> findSimilarFullText(@Param("tsquery") String tsquery,
+                                                @Param("excludeId") UUID excludeId,
+                                                @Param("limit") int limit);
+
+    // --- keyword search fallback for databases without full-text search ---
+    @Query("SELECT i FROM Incident i WHERE i.archived = false AND " +
+           "(LOWER(i.title) LIKE LOWER(CONCAT('%', :query, '%')) OR " +
+           "LOWER(i.description) LIKE LOWER(CONCAT('%', :query, '%'))) AND " +
+           "(:status IS NULL OR i.status = :status) AND " +
+           "(:severity IS NULL OR i.severity = :severity) AND " +
+           "(:category IS NULL OR i.category = :category)")
+    Page<Incident> searchByKeyword(@Param("query") String query,
+                                   @Param("status") Status status,
+                                   @Param("severity") Severity severity,
+                                   @Param("category") Category category,
+                                   Pageable pageable);
+
+    // --- asynchronous analysis recovery, oldest first, one page per sweep ---
+    List<Incident> findByAnalysisStatusAndArchivedFalseOrderByCreatedAtAsc(AnalysisStatus analysisStatus, Pageable pageable);
+
+    // --- keyset pagination in id order (bulk re-analysis) ---
+    List<Incident> findByArchivedFalseOrderByIdAsc(Pageable pageable);
+    List<Incident> findByArchivedFalseAndIdGreaterThanOrderByIdAsc(UUID afterId, Pageable pageable);
+
+    // --- change feed in (updatedAt, id) order for in-memory indexes (includes archived rows so they can be removed) ---
+    List<Incident> findByUpdatedAtGreaterThanEqualOrderByUpdatedAtAscIdAsc(LocalDateTime since, Pageable pageable);
+
+    // the leading range bounds the scan of idx_incident_updated_at_id; the OR only resolves ties
+    @Query("SELECT i FROM Incident i WHERE i.updatedAt >= :updatedAt " +
+           "AND (i.updatedAt > :updatedAt OR i.id > :id) " +
+           "ORDER BY i.updatedAt ASC, i.id ASC")
+    List<Incident> findUpdatedAfter(@Param("updatedAt") LocalDateTime updatedAt,
+                                    @Param("id") UUID id,
+                                    Pageable pageable);
+
+    // --- near-duplicate folding: one atomic increment, so concurrent reports are all counted ---
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Incident i SET i.duplicateCount = i.duplicateCount + 1, i.updatedAt = :now WHERE i.id = :id")
+    int incrementDuplicateCount(@Param("id") UUID id, @Param("now") LocalDateTime now);
+
     // --- count methods (non-archived) ---
     long countByArchivedFalse();
     long countByStatusAndArchivedFalse(Status status);
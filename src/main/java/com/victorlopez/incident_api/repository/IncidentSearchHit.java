@@ -0,0 +1,13 @@
+package com.victorlopez.incident_api.repository;
+
+import java.util.UUID;
+
+/**
+ * Id and {@code ts_rank} of a full-text search match.
+ */
+public interface IncidentSearchHit {
+
+    UUID getId();
+
+    Float getRank();
+}
@@ -0,0 +1,33 @@
+package com.victorlopez.incident_api.repository;
+
+import com.victorlopez.incident_api.model.IncidentSketch;
+import com.victorlopez.incident_api.model.Status;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface IncidentSketchRepository extends JpaRepository<IncidentSketch, UUID> {
+
+    /**
+     * Sketches created after {@code since} whose incident is still non-archived and in one of {@code statuses}.
+     */
+    @Query("SELECT s FROM IncidentSketch s WHERE s.createdAt > :since AND s.incidentId IN " +
+           "(SELECT i.id FROM Incident i WHERE i.archived = false AND i.status IN :statuses) " +
+           "ORDER BY s.createdAt ASC")
+    List<IncidentSketch> findActiveCreatedAfter(@Param("since") LocalDateTime since,
+                                                @Param("statuses") Collection<Status> statuses);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM IncidentSketch s WHERE s.createdAt < :cutoff")
+    int deleteExpired(@Param("cutoff") LocalDateTime cutoff);
+}
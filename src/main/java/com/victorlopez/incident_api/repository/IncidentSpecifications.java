@@ -0,0 +1,94 @@
+package com.victorlopez.incident_api.repository;
+
+import com.victorlopez.incident_api.config.IncidentIndexSchema;
+import com.victorlopez.incident_api.dto.IncidentFilter;
+import com.victorlopez.incident_api.model.Incident;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Criteria for the incident listing, so that any combination of filters is one query instead of
+ * one repository method per combination.
+ *
+ * Every query excludes archived rows and only adds a predicate per filter that is set, which
+ * keeps it matching the partial indexes created by {@link IncidentIndexSchema}.
+ */
+public final class IncidentSpecifications {
+
+    /**
+     * Newest first, with the id as tie-breaker so that the order is total and keysets are unique.
+     */
+    public static final Sort LISTING_ORDER = Sort.by(Sort.Direction.DESC, "createdAt", "id");
+
+    /**
+     * {@link #LISTING_ORDER} reversed, for reading the rows just before a keyset.
+     */
+    public static final Sort REVERSE_LISTING_ORDER = Sort.by(Sort.Direction.ASC, "createdAt", "id");
+
+    private IncidentSpecifications() {
+    }
+
+    /**
+     * Non-archived incidents matching every criterion set in {@code filter}.
+     */
+    public static Specification<Incident> matching(IncidentFilter filter) {
+        return (root, query, cb) -> {
+            List<Predicate> predicates = new ArrayList<>();
+            predicates.add(cb.isFalse(root.get("archived")));
+            if (filter.getStatus() != null) {
+                predicates.add(cb.equal(root.get("status"), filter.getStatus()));
+            }
+            if (filter.getSeverity() != null) {
+                predicates.add(cb.equal(root.get("severity"), filter.getSeverity()));
+            }
+            if (filter.getCategory() != null) {
+                predicates.add(cb.equal(root.get("category"), filter.getCategory()));
+            }
+            if (filter.getAssignedTeam() != null) {
+                predicates.add(cb.equal(root.get("assignedTeam"), filter.getAssignedTeam()));
+            }
+            if (filter.getReportedBy() != null) {
+                predicates.add(cb.equal(root.get("reportedBy"), filter.getReportedBy()));
+            }
+            if (filter.getCreatedFrom() != null) {
+                predicates.add(cb.greaterThanOrEqualTo(root.get("createdAt"), filter.getCreatedFrom()));
+            }
+            if (filter.getCreatedTo() != null) {
+                predicates.add(cb.lessThan(root.get("createdAt"), filter.getCreatedTo()));
+            }
+            return cb.and(predicates.toArray(Predicate[]::new));
+        };
+    }
+
+    /**
+     * Incidents after the keyset in {@link #LISTING_ORDER}: older, or as old with a smaller id.
+     * The redundant {@code createdAt <=} bound gives the planner an index range; the OR only breaks ties within it.
+     */
+    public static Specification<Incident> after(LocalDateTime createdAt, UUID id) {
+        return (root, query, cb) -> {
+            Path<LocalDateTime> created = root.get("createdAt");
+            Path<UUID> incidentId = root.get("id");
+            return cb.and(cb.lessThanOrEqualTo(created, createdAt),
+                    cb.or(cb.lessThan(created, createdAt), cb.lessThan(incidentId, id)));
+        };
+    }
+
+    /**
+     * Incidents before the keyset in {@link #LISTING_ORDER}: newer, or as new with a larger id.
+     */
+    public static Specification<Incident> before(LocalDateTime createdAt, UUID id) {
+        return (root, query, cb) -> {
+            Path<LocalDateTime> created = root.get("createdAt");
+            Path<UUID> incidentId = root.get("id");
+            return cb.and(cb.greaterThanOrEqualTo(created, createdAt),
+                    cb.or(cb.greaterThan(created, createdAt), cb.greaterThan(incidentId, id)));
+        };
+    }
+}
@@ -0,0 +1,50 @@
+package com.victorlopez.incident_api.repository;
+
+import com.victorlopez.incident_api.model.ReanalysisJob;
+import com.victorlopez.incident_api.model.ReanalysisJobStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Progress and status changes are single UPDATE statements so the job runner and the admin
+ * endpoints never overwrite each other's changes.
+ */
+@Repository
+public interface ReanalysisJobRepository extends JpaRepository<ReanalysisJob, UUID> {
+
+    List<ReanalysisJob> findByStatus(ReanalysisJobStatus status);
+
+    boolean existsByStatusIn(Collection<ReanalysisJobStatus> statuses);
+
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE ReanalysisJob j SET j.checkpointId = :checkpointId, " +
+           "j.processedCount = j.processedCount + :succeeded + :failed, " +
+           "j.succeededCount = j.succeededCount + :succeeded, " +
+           "j.failedCount = j.failedCount + :failed, j.updatedAt = :now WHERE j.id = :id")
+    int recordProgress(@Param("id") UUID id, @Param("checkpointId") UUID checkpointId,
+                       @Param("succeeded") long succeeded, @Param("failed") long failed,
+                       @Param("now") LocalDateTime now);
+
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE ReanalysisJob j SET j.status = :to, j.updatedAt = :now WHERE j.id = :id AND j.status IN :from")
+    int transition(@Param("id") UUID id, @Param("from") Collection<ReanalysisJobStatus> from,
+                   @Param("to") ReanalysisJobStatus to, @Param("now") LocalDateTime now);
+
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE ReanalysisJob j SET j.status = :to, j.updatedAt = :now, j.completedAt = :now " +
+           "WHERE j.id = :id AND j.status IN :from")
+    int finish(@Param("id") UUID id, @Param("from") Collection<ReanalysisJobStatus> from,
+               @Param("to") ReanalysisJobStatus to, @Param("now") LocalDateTime now);
+}
@@ -0,0 +1,279 @@
+package com.victorlopez.incident_api.service;
+
+import com.victorlopez.incident_api.dto.AIAnalysisResult;
+import com.victorlopez.incident_api.model.AIAnalysisCacheEntry;
+import com.victorlopez.incident_api.repository.AIAnalysisCacheRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.regex.Pattern;
+
+/**
+ * Content-addressed cache of AI analysis results.
+ *
+ * Entries are keyed by a SHA-256 hash of the normalized title and description, so
+ * near-identical reports ("API gateway returning 503" vs "api gateway returning 503!")
+ * share one analysis and skip the LLM entirely.
+ *
+ * Two tiers:
+ * - Memory: bounded LRU with TTL (always on when the cache is enabled)
+ * - Database: optional ai_analysis_cache table so entries survive restarts
+ *
+ * Persistent reads and writes run in their own transaction so a cache failure can
+ * never roll back the incident transaction that triggered the analysis.
+ */
+@Component
+@Slf4j
+public class AIAnalysisCache {
+
+    private static final Pattern NON_ALPHANUMERIC = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private final boolean enabled;
+    private final Duration ttl;
+    private final boolean persistentEnabled;
+    private final AIAnalysisCacheRepository repository;
+    private final TransactionTemplate persistentTx;
+    private final Clock clock;
+    private final Map<String, CachedAnalysis> entries;
+
+    private final Counter memoryHits;
+    private final Counter persistentHits;
+    private final Counter misses;
+    private final Counter sizeEvictions;
+    private final Counter expiredEvictions;
+
+    @Autowired
+    public AIAnalysisCache(AIAnalysisCacheRepository repository,
+                           PlatformTransactionManager transactionManager,
+                           MeterRegistry meterRegistry,
+                           @Value("${ai.cache.enabled:true}") boolean enabled,
+                           @Value("${ai.cache.max-entries:1000}") int maxEntries,
+                           @Value("${ai.cache.ttl-minutes:1440}") long ttlMinutes,
+                           @Value("${ai.cache.persistent.enabled:false}") boolean persistentEnabled) {
+        this(repository, transactionManager, meterRegistry, enabled, maxEntries,
+                Duration.ofMinutes(ttlMinutes), persistentEnabled, Clock.systemUTC());
+    }
+
+    AIAnalysisCache(AIAnalysisCacheRepository repository,
+                    PlatformTransactionManager transactionManager,
+                    MeterRegistry meterRegistry,
+                    boolean enabled,
+                    int maxEntries,
+                    Duration ttl,
+                    boolean persistentEnabled,
+                    Clock clock) {
+        this.enabled = enabled;
+        this.ttl = ttl;
+        this.persistentEnabled = enabled && persistentEnabled && repository != null;
+        this.repository = repository;
+        this.clock = clock;
+
+        if (transactionManager != null) {
+            this.persistentTx = new TransactionTemplate(transactionManager);
+            this.persistentTx.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        } else {
+            this.persistentTx = null;
+        }
+
+        this.memoryHits = lookupCounter(meterRegistry, "hit", "memory");
+        this.persistentHits = lookupCounter(meterRegistry, "hit", "persistent");
+        this.misses = lookupCounter(meterRegistry, "miss", "none");
+        this.sizeEvictions = evictionCounter(meterRegistry, "size");
+        this.expiredEvictions = evictionCounter(meterRegistry, "expired");
+
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedAnalysis> eldest) {
+                boolean evict = size() > maxEntries;
+                if (evict) {
+                    sizeEvictions.increment();
+                }
+                return evict;
+            }
+        };
+
+        Gauge.builder("ai.analysis.cache.size", this, AIAnalysisCache::size)
+                .description("Entries held in the in-memory AI analysis cache")
+                .register(meterRegistry);
+    }
+
+    /**
+     * A cache that never stores anything. Useful when the AI service is used standalone.
+     */
+    public static AIAnalysisCache disabled() {
+        return new AIAnalysisCache(null, null, new SimpleMeterRegistry(), false, 0,
+                Duration.ZERO, false, Clock.systemUTC());
+    }
+
+    /**
+     * Builds the content hash for an incident. Case, punctuation and whitespace
+     * differences do not change the key.
+     */
+    public static String keyFor(String title, String description) {
+        String normalized = normalize(title) + "\n" + normalize(description);
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(normalized.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    public Optional<AIAnalysisResult> get(String key) {
+        if (!enabled) {
+            return Optional.empty();
+        }
+
+        Instant now = clock.instant();
+        synchronized (entries) {
+            CachedAnalysis cached = entries.get(key);
+            if (cached != null) {
+                if (cached.expiresAt().isAfter(now)) {
+                    memoryHits.increment();
+                    return Optional.of(cached.result());
+                }
+                entries.remove(key);
+                expiredEvictions.increment();
+            }
+        }
+
+        Optional<CachedAnalysis> persisted = loadPersistent(key, now);
+        if (persisted.isPresent()) {
+            persistentHits.increment();
+            synchronized (entries) {
+                entries.put(key, persisted.get());
+            }
+            return Optional.of(persisted.get().result());
+        }
+
+        misses.increment();
+        return Optional.empty();
+    }
+
+    public void put(String key, AIAnalysisResult result) {
+        if (!enabled) {
+            return;
+        }
+
+        Instant now = clock.instant();
+        synchronized (entries) {
+            entries.put(key, new CachedAnalysis(result, now.plus(ttl)));
+        }
+        storePersistent(key, result, now);
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    /**
+     * Removes expired rows from the persistent tier.
+     */
+    @Scheduled(fixedDelayString = "${ai.cache.persistent.purge-interval-ms:3600000}",
+               initialDelayString = "${ai.cache.persistent.purge-interval-ms:3600000}")
+    public void purgeExpired() {
+        if (!persistentEnabled) {
+            return;
+        }
+        LocalDateTime cutoff = LocalDateTime.ofInstant(clock.instant().minus(ttl), ZoneOffset.UTC);
+        Integer deleted = persistentTx.execute(status -> repository.deleteExpired(cutoff));
+        log.debug("Purged {} expired AI analysis cache entries", deleted);
+    }
+
+    // ── private helpers ──────────────────────────────────────────────────────
+
+    private Optional<CachedAnalysis> loadPersistent(String key, Instant now) {
+        if (!persistentEnabled) {
+            return Optional.empty();
+        }
+        try {
+            return persistentTx.execute(status -> repository.findById(key)
+                    .map(entry -> new CachedAnalysis(toResult(entry),
+                            entry.getCreatedAt().toInstant(ZoneOffset.UTC).plus(ttl)))
+                    .filter(cached -> cached.expiresAt().isAfter(now)));
+        } catch (Exception e) {
+            log.warn("AI analysis cache lookup failed, treating as miss: {}", e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    private void storePersistent(String key, AIAnalysisResult result, Instant now) {
+        if (!persistentEnabled) {
+            return;
+        }
+        try {
+            persistentTx.executeWithoutResult(status -> repository.save(AIAnalysisCacheEntry.builder()
+                    .contentHash(key)
+                    .severity(result.severity())
+                    .category(result.category())
+                    .assignedTeam(result.assignedTeam())
+                    .suggestedSolution(result.suggestedSolution())
+                    .estimatedResolutionHours(result.estimatedResolutionHours())
+                    .confidence(result.confidence())
+                    .createdAt(LocalDateTime.ofInstant(now, ZoneOffset.UTC))
+                    .build()));
+        } catch (Exception e) {
+            log.warn("Could not persist AI analysis cache entry: {}", e.getMessage());
+        }
+    }
+
+    private static AIAnalysisResult toResult(AIAnalysisCacheEntry entry) {
+        return new AIAnalysisResult(
+                entry.getSeverity(),
+                entry.getCategory(),
+                entry.getAssignedTeam(),
+                entry.getSuggestedSolution(),
+                entry.getEstimatedResolutionHours(),
+                entry.getConfidence());
+    }
+
+    private static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        return NON_ALPHANUMERIC.matcher(text.toLowerCase(Locale.ROOT)).replaceAll(" ").trim();
+    }
+
+    private static Counter lookupCounter(MeterRegistry meterRegistry, String result, String tier) {
+        return Counter.builder("ai.analysis.cache.lookups")
+                .description("AI analysis cache lookups by result and tier")
+                .tag("result", result)
+                .tag("tier", tier)
+                .register(meterRegistry);
+    }
+
+    private static Counter evictionCounter(MeterRegistry meterRegistry, String cause) {
+        return Counter.builder("ai.analysis.cache.evictions")
+                .description("AI analysis cache evictions by cause")
+                .tag("cause", cause)
+                .register(meterRegistry);
+    }
+
+    private record CachedAnalysis(AIAnalysisResult result, Instant expiresAt) {
+    }
+}
@@ -1,13 +1,28 @@
 package com.victorlopez.incident_api.service;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.victorlopez.incident_api.dto.AIAnalysisResult;
+import com.victorlopez.incident_api.exception.AIAnalysisUnavailableException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.ai.chat.client.ChatClient;
+import org.springframework.ai.openai.OpenAiChatOptions;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
 /**
  * Service for analyzing incidents using OpenAI's GPT-4o-mini model.
  *
@@ -27,8 +42,24 @@ import org.springframework.stereotype.Service;
  *
  * Cost optimization:
  * - Uses gpt-4o-mini (cheaper than gpt-4)
+ * - Optional tiered routing: a cheap model first, escalating to a stronger one only on
+ *   low confidence (see {@link ModelTierRouter})
  * - Low temperature (0.3) for consistent responses
  * - Structured JSON output to minimize tokens
+ * - Content-addressed cache: identical incidents reuse a previous analysis
+ * - Single-flight: concurrent identical incidents share one in-flight call
+ * - Batch prompts: several incidents classified per request (see {@link AnalysisBatcher})
+ * - Local fast path: confident in-process predictions skip OpenAI (see {@link LocalIncidentClassifier})
+ * - Retrieval: a near-identical resolved incident's real resolution is reused, and less similar
+ *   ones are sent as few-shot examples (see {@link ResolvedIncidentRetriever})
+ *
+ * Every OpenAI call goes through {@link AIResilienceGuard} (deadline, bulkhead, circuit
+ * breaker); single-incident calls can additionally be hedged by {@link RequestHedger}.
+ * Before each call, {@link ProviderRateLimiter} reserves request and token budget against the
+ * provider's RPM/TPM limits, serving {@link AnalysisPriority#INTERACTIVE} calls ahead of
+ * {@link AnalysisPriority#BULK} ones. When the guard or the limiter rejects a call an
+ * {@link AIAnalysisUnavailableException} is thrown unwrapped so callers can fall back to
+ * degraded mode.
  */
 @Service
 public class AIAnalysisService {
@@ -36,18 +67,20 @@ public class AIAnalysisService {
     private static final Logger log = LoggerFactory.getLogger(AIAnalysisService.class);
 
     private final ChatClient chatClient;
+    private final AIAnalysisCache analysisCache;
+    private final AnalysisSingleFlight singleFlight;
+    private final LocalIncidentClassifier localClassifier;
+    private final AIResilienceGuard resilienceGuard;
+    private final ModelTierRouter modelRouter;
+    private final RequestHedger hedger;
+    private final ProviderRateLimiter rateLimiter;
+    private final ResolvedIncidentRetriever retriever;
     private final ObjectMapper objectMapper;
 
     /**
-     * System prompt that defines the AI's role and expected output format.
-     *
-     * Key elements:
-     * - Role definition: expert IT incident analyst
-     * - Output format: strict JSON schema
-     * - Classification rules: clear criteria for severity and category
-     * - Constraints: must respond in valid JSON only
+     * Role definition and classification rules shared by the single and batch prompts.
      */
-    private static final String SYSTEM_PROMPT = """
+    private static final String CLASSIFICATION_GUIDELINES = """
         You are an expert IT incident analyst with deep knowledge of software systems,
         infrastructure, and security. Your job is to analyze incident reports and provide
         structured analysis.
@@ -73,6 +106,18 @@ public class AIAnalysisService {
         - "Database Team" for DATABASE category
         - "Security Team" for SECURITY category
         - "DevOps Team" for NETWORK category
+        """;
+
+    /**
+     * System prompt that defines the AI's role and expected output format.
+     *
+     * Key elements:
+     * - Role definition: expert IT incident analyst
+     * - Output format: strict JSON schema
+     * - Classification rules: clear criteria for severity and category
+     * - Constraints: must respond in valid JSON only
+     */
+    private static final String SYSTEM_PROMPT = CLASSIFICATION_GUIDELINES + """
         
         You must respond ONLY with valid JSON in this exact format:
         {
@@ -87,55 +132,327 @@ public class AIAnalysisService {
         Do not include any text outside the JSON. Do not use markdown code blocks.
         """;
 
-    public AIAnalysisService(ChatClient chatClient) {
+    /**
+     * System prompt for classifying several incidents in one request. The rules are sent
+     * once per batch instead of once per incident.
+     */
+    private static final String BATCH_SYSTEM_PROMPT = CLASSIFICATION_GUIDELINES + """
+        
+        You will receive several incidents, each introduced by "Incident #<index>".
+        You must respond ONLY with a valid JSON array containing one object per incident:
+        [
+            {
+                "index": the incident index,
+                "severity": "CRITICAL|HIGH|MEDIUM|LOW",
+                "category": "BACKEND|FRONTEND|DATABASE|SECURITY|NETWORK",
+                "assignedTeam": "appropriate team name",
+                "suggestedSolution": "detailed solution with actionable steps",
+                "estimatedResolutionHours": number between 1 and 72,
+                "confidence": number between 0.0 and 1.0
+            }
+        ]
+        
+        Do not include any text outside the JSON. Do not use markdown code blocks.
+        """;
+
+    public AIAnalysisService(ChatClient chatClient,
+                             AIAnalysisCache analysisCache,
+                             AnalysisSingleFlight singleFlight,
+                             LocalIncidentClassifier localClassifier,
+                             AIResilienceGuard resilienceGuard,
+                             ModelTierRouter modelRouter,
+                             RequestHedger hedger,
+                             ProviderRateLimiter rateLimiter,
+                             ResolvedIncidentRetriever retriever) {
         this.chatClient = chatClient;
+        this.analysisCache = analysisCache;
+        this.singleFlight = singleFlight;
+        this.localClassifier = localClassifier;
+        this.resilienceGuard = resilienceGuard;
+        this.modelRouter = modelRouter;
+        this.hedger = hedger;
+        this.rateLimiter = rateLimiter;
+        this.retriever = retriever;
         this.objectMapper = new ObjectMapper();
     }
 
     /**
      * Analyzes an incident using OpenAI and returns structured analysis.
      *
+     * A cached analysis for the same normalized title and description is returned
+     * without calling the model, as is the resolution of a near-identical resolved incident
+     * or a confident prediction from the local classifier; concurrent callers for the same
+     * content share one call.
+     *
      * @param title incident title (short summary)
      * @param description detailed incident description
      * @return AIAnalysisResult with classification and recommendations
      * @throws RuntimeException if OpenAI API fails or returns invalid response
      */
     public AIAnalysisResult analyzeIncident(String title, String description) {
-        log.info("Analyzing incident: {}", title);
+        String cacheKey = AIAnalysisCache.keyFor(title, description);
+        Optional<AIAnalysisResult> cached = analysisCache.get(cacheKey);
+        if (cached.isPresent()) {
+            log.info("Using cached analysis for incident: {}", title);
+            return cached.get();
+        }
+
+        List<ResolvedIncidentRetriever.Neighbor> neighbors = retriever.findNeighbors(title, description);
+        Optional<AIAnalysisResult> reused = retriever.reusableAnalysis(neighbors);
+        if (reused.isPresent()) {
+            log.info("Reusing the resolution of a similar resolved incident for: {}", title);
+            return reused.get();
+        }
+
+        Optional<AIAnalysisResult> local = localClassifier.tryClassify(title, description);
+        if (local.isPresent()) {
+            log.info("Using local classification for incident: {}", title);
+            return local.get();
+        }
+
+        return singleFlight.execute(cacheKey, () -> {
+            AIAnalysisResult result = callModel(title, description, AnalysisPriority.INTERACTIVE, neighbors);
+            analysisCache.put(cacheKey, result);
+            return result;
+        });
+    }
+
+    /**
+     * Analyzes an incident with a fresh model call, ignoring any cached result.
+     * The new result replaces the cached one.
+     */
+    public AIAnalysisResult reanalyzeIncident(String title, String description) {
+        return reanalyzeIncident(title, description, AnalysisPriority.INTERACTIVE);
+    }
+
+    /**
+     * Fresh analysis scheduled in the given rate-limit lane; bulk re-analysis uses
+     * {@link AnalysisPriority#BULK} so it never delays interactive calls.
+     */
+    public AIAnalysisResult reanalyzeIncident(String title, String description, AnalysisPriority priority) {
+        String cacheKey = AIAnalysisCache.keyFor(title, description);
+        return singleFlight.executeFresh(cacheKey, () -> {
+            AIAnalysisResult result = callModel(title, description, priority, retriever.findNeighbors(title, description));
+            analysisCache.put(cacheKey, result);
+            return result;
+        });
+    }
+
+    /**
+     * Analyzes several incidents with a single prompt.
+     *
+     * Incidents that {@link #analyzeIncident} would answer without the model (cached, reusing a
+     * near-identical resolved incident, or confidently classified locally) are answered the same
+     * way here, and duplicates within the batch are sent once. Each returned future (in input order) fails on its own when the model's
+     * entry for that incident is missing or invalid; a failed call fails every pending entry.
+     * Batches are background work and are scheduled in the {@link AnalysisPriority#BULK} lane.
+     */
+    public List<CompletableFuture<AIAnalysisResult>> analyzeBatch(List<IncidentText> incidents) {
+        List<CompletableFuture<AIAnalysisResult>> futures = new ArrayList<>(incidents.size());
+        Map<String, IncidentText> pendingText = new LinkedHashMap<>();
+        Map<String, List<CompletableFuture<AIAnalysisResult>>> pendingFutures = new HashMap<>();
+        Map<String, AIAnalysisResult> answered = new HashMap<>();
+
+        for (IncidentText incident : incidents) {
+            CompletableFuture<AIAnalysisResult> future = new CompletableFuture<>();
+            futures.add(future);
+
+            String cacheKey = AIAnalysisCache.keyFor(incident.title(), incident.description());
+            AIAnalysisResult known = answered.get(cacheKey);
+            if (known == null && !pendingText.containsKey(cacheKey)) {
+                known = answerWithoutModel(cacheKey, incident).orElse(null);
+            }
+            if (known != null) {
+                answered.put(cacheKey, known);
+                future.complete(known);
+            } else {
+                pendingText.putIfAbsent(cacheKey, incident);
+                pendingFutures.computeIfAbsent(cacheKey, k -> new ArrayList<>()).add(future);
+            }
+        }
+
+        if (pendingText.isEmpty()) {
+            return futures;
+        }
+
+        List<String> keys = new ArrayList<>(pendingText.keySet());
+        log.info("Analyzing batch of {} incidents ({} requested)", keys.size(), incidents.size());
 
         try {
-            // Build the user message with incident details
-            String userMessage = String.format("""
-                Incident Title: %s
-                
-                Description: %s
-                
-                Provide your analysis in JSON format.
-                """, title, description);
-
-            // Call OpenAI using Spring AI ChatClient
-            String response = chatClient.prompt()
-                    .system(SYSTEM_PROMPT)
+            String userMessage = buildBatchMessage(keys.stream().map(pendingText::get).toList());
+            rateLimiter.acquire(AnalysisPriority.BULK,
+                    rateLimiter.estimateTokens(BATCH_SYSTEM_PROMPT, userMessage, keys.size()));
+            String response = resilienceGuard.call(() -> chatClient.prompt()
+                    .system(BATCH_SYSTEM_PROMPT)
                     .user(userMessage)
                     .call()
-                    .content();
+                    .content());
+
+            log.debug("OpenAI raw batch response: {}", response);
+            Map<Integer, JsonNode> entries = parseBatchResponse(response);
+
+            for (int i = 0; i < keys.size(); i++) {
+                String cacheKey = keys.get(i);
+                List<CompletableFuture<AIAnalysisResult>> waiting = pendingFutures.get(cacheKey);
+                try {
+                    AIAnalysisResult result = toBatchResult(i, entries.get(i));
+                    analysisCache.put(cacheKey, result);
+                    waiting.forEach(f -> f.complete(result));
+                } catch (RuntimeException e) {
+                    log.warn("Batch entry {} rejected: {}", i, e.getMessage());
+                    waiting.forEach(f -> f.completeExceptionally(e));
+                }
+            }
+        } catch (Exception e) {
+            log.error("Failed to analyze incident batch with AI: {}", e.getMessage(), e);
+            RuntimeException failure = e instanceof AIAnalysisUnavailableException unavailable
+                    ? unavailable
+                    : new RuntimeException("Failed to analyze incident batch: " + e.getMessage(), e);
+            pendingFutures.values().forEach(waiting -> waiting.forEach(f -> f.completeExceptionally(failure)));
+        }
 
-            log.debug("OpenAI raw response: {}", response);
+        return futures;
+    }
 
-            // Parse JSON response to AIAnalysisResult
+    /**
+     * Fresh analysis that streams the model's answer. Decoded {@code suggestedSolution} text
+     * is passed to {@code onSolutionText} as it arrives; the complete answer is then parsed
+     * and validated exactly like a blocking call and replaces the cached result.
+     *
+     * Streaming always uses the configured default model (no tiered routing or hedging).
+     */
+    public AIAnalysisResult streamReanalysis(String title, String description, Consumer<String> onSolutionText) {
+        log.info("Streaming analysis of incident: {}", title);
+
+        try {
+            String userMessage = buildUserMessage(title, description, retriever.findNeighbors(title, description));
+            rateLimiter.acquire(AnalysisPriority.INTERACTIVE, rateLimiter.estimateTokens(SYSTEM_PROMPT, userMessage, 1));
+
+            String response = resilienceGuard.callStreaming(firstResponse -> {
+                StringBuilder answer = new StringBuilder();
+                SolutionTextExtractor extractor = new SolutionTextExtractor();
+                chatClient.prompt()
+                        .system(SYSTEM_PROMPT)
+                        .user(userMessage)
+                        .stream()
+                        .content()
+                        .doOnNext(chunk -> {
+                            firstResponse.run();
+                            answer.append(chunk);
+                            String text = extractor.append(chunk);
+                            if (!text.isEmpty()) {
+                                onSolutionText.accept(text);
+                            }
+                        })
+                        .blockLast();
+                return answer.toString();
+            });
+
+            log.debug("OpenAI raw streamed response: {}", response);
             AIAnalysisResult result = parseAIResponse(response);
+            analysisCache.put(AIAnalysisCache.keyFor(title, description), result);
+            localClassifier.recordAgreement(title, description, result);
+            return result;
+
+        } catch (AIAnalysisUnavailableException e) {
+            log.warn("AI analysis unavailable for incident {}: {}", title, e.getMessage());
+            throw e;
+        } catch (Exception e) {
+            log.error("Failed to stream AI analysis: {}", e.getMessage(), e);
+            throw new RuntimeException("Failed to analyze incident: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * The fast paths of {@link #analyzeIncident}: cache, reuse of a resolved incident, local classifier.
+     */
+    private Optional<AIAnalysisResult> answerWithoutModel(String cacheKey, IncidentText incident) {
+        Optional<AIAnalysisResult> cached = analysisCache.get(cacheKey);
+        if (cached.isPresent()) {
+            return cached;
+        }
+        Optional<AIAnalysisResult> reused = retriever.reusableAnalysis(
+                retriever.findNeighbors(incident.title(), incident.description()));
+        if (reused.isPresent()) {
+            return reused;
+        }
+        return localClassifier.tryClassify(incident.title(), incident.description());
+    }
+
+    private AIAnalysisResult callModel(String title, String description, AnalysisPriority priority,
+                                       List<ResolvedIncidentRetriever.Neighbor> neighbors) {
+        log.info("Analyzing incident: {}", title);
+
+        try {
+            String userMessage = buildUserMessage(title, description, neighbors);
+
+            AIAnalysisResult result = modelRouter.isEnabled()
+                    ? requestTiered(userMessage, priority)
+                    : requestAnalysis(userMessage, null, priority);
 
             log.info("Analysis complete - Severity: {}, Category: {}, Confidence: {}",
                     result.severity(), result.category(), result.confidence());
+            localClassifier.recordAgreement(title, description, result);
 
             return result;
 
+        } catch (AIAnalysisUnavailableException e) {
+            log.warn("AI analysis unavailable for incident {}: {}", title, e.getMessage());
+            throw e;
         } catch (Exception e) {
             log.error("Failed to analyze incident with AI: {}", e.getMessage(), e);
             throw new RuntimeException("Failed to analyze incident: " + e.getMessage(), e);
         }
     }
 
+    /**
+     * Cheap-model-first: the fast tier's answer is kept when it is confident enough,
+     * otherwise (or when it is unusable) the incident is re-sent to the strong tier.
+     */
+    private AIAnalysisResult requestTiered(String userMessage, AnalysisPriority priority) {
+        try {
+            AIAnalysisResult fast = modelRouter.timed(ModelTierRouter.Tier.FAST,
+                    () -> requestAnalysis(userMessage, modelRouter.modelFor(ModelTierRouter.Tier.FAST), priority));
+            if (modelRouter.acceptFast(fast.confidence())) {
+                return fast;
+            }
+        } catch (AIAnalysisUnavailableException e) {
+            throw e;
+        } catch (RuntimeException e) {
+            modelRouter.recordInvalidFastAnswer(e.getMessage());
+        }
+        return modelRouter.timed(ModelTierRouter.Tier.STRONG,
+                () -> requestAnalysis(userMessage, modelRouter.modelFor(ModelTierRouter.Tier.STRONG), priority));
+    }
+
+    /**
+     * Calls OpenAI through the rate limiter and resilience guard and parses the answer.
+     * Each attempt of a hedged call reserves rate-limit budget and goes through the guard
+     * on its own; time spent waiting for budget does not count against the call deadline.
+     *
+     * @param model model override, or null for the configured default model
+     */
+    private AIAnalysisResult requestAnalysis(String userMessage, String model, AnalysisPriority priority) {
+        int estimatedTokens = rateLimiter.estimateTokens(SYSTEM_PROMPT, userMessage, 1);
+        String response = hedger.call(() -> {
+            rateLimiter.acquire(priority, estimatedTokens);
+            return resilienceGuard.call(() -> {
+                ChatClient.ChatClientRequestSpec request = chatClient.prompt()
+                        .system(SYSTEM_PROMPT)
+                        .user(userMessage);
+                if (model != null) {
+                    request = request.options(OpenAiChatOptions.builder().withModel(model).build());
+                }
+                return request.call().content();
+            });
+        });
+
+        log.debug("OpenAI raw response{}: {}", model != null ? " (" + model + ")" : "", response);
+
+        // Parse JSON response to AIAnalysisResult
+        return parseAIResponse(response);
+    }
+
     /**
      * Parses the JSON response from OpenAI into AIAnalysisResult.
      *
@@ -149,26 +466,169 @@ public class AIAnalysisService {
      */
     private AIAnalysisResult parseAIResponse(String jsonResponse) {
         try {
-            // Clean the response (sometimes OpenAI adds markdown code blocks)
-            String cleanJson = jsonResponse.trim();
-            if (cleanJson.startsWith("```json")) {
-                cleanJson = cleanJson.substring(7);
-            }
-            if (cleanJson.startsWith("```")) {
-                cleanJson = cleanJson.substring(3);
-            }
-            if (cleanJson.endsWith("```")) {
-                cleanJson = cleanJson.substring(0, cleanJson.length() - 3);
-            }
-            cleanJson = cleanJson.trim();
-
             // Parse JSON to AIAnalysisResult
             // The record's compact constructor will validate the fields
-            return objectMapper.readValue(cleanJson, AIAnalysisResult.class);
+            return objectMapper.readValue(stripCodeFences(jsonResponse), AIAnalysisResult.class);
 
         } catch (JsonProcessingException e) {
             log.error("Failed to parse AI response as JSON: {}", jsonResponse);
             throw new RuntimeException("Failed to parse AI response: " + e.getMessage(), e);
         }
     }
+
+    /**
+     * Parses a batch response into its entries keyed by incident index.
+     * Entries without a usable index are ignored; the affected incidents fail individually.
+     */
+    private Map<Integer, JsonNode> parseBatchResponse(String jsonResponse) {
+        JsonNode root;
+        try {
+            root = objectMapper.readTree(stripCodeFences(jsonResponse));
+        } catch (JsonProcessingException e) {
+            log.error("Failed to parse AI batch response as JSON: {}", jsonResponse);
+            throw new RuntimeException("Failed to parse AI response: " + e.getMessage(), e);
+        }
+        if (!root.isArray()) {
+            throw new RuntimeException("Failed to parse AI response: expected a JSON array");
+        }
+
+        Map<Integer, JsonNode> entries = new HashMap<>();
+        for (JsonNode entry : root) {
+            JsonNode index = entry.get("index");
+            if (entry.isObject() && index != null && index.canConvertToInt()) {
+                entries.putIfAbsent(index.asInt(), entry);
+            }
+        }
+        return entries;
+    }
+
+    private AIAnalysisResult toBatchResult(int index, JsonNode entry) {
+        if (entry == null) {
+            throw new RuntimeException("AI batch response has no entry for incident #" + index);
+        }
+        ObjectNode fields = ((ObjectNode) entry).deepCopy();
+        fields.remove("index");
+        try {
+            return objectMapper.treeToValue(fields, AIAnalysisResult.class);
+        } catch (JsonProcessingException | IllegalArgumentException e) {
+            throw new RuntimeException("Invalid AI analysis for incident #" + index + ": " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Incident details, preceded by few-shot examples from similar resolved incidents if any.
+     */
+    private static String buildUserMessage(String title, String description,
+                                           List<ResolvedIncidentRetriever.Neighbor> neighbors) {
+        return ResolvedIncidentRetriever.formatExamples(neighbors) + String.format("""
+            Incident Title: %s
+            
+            Description: %s
+            
+            Provide your analysis in JSON format.
+            """, title, description);
+    }
+
+    private static String buildBatchMessage(List<IncidentText> incidents) {
+        StringBuilder message = new StringBuilder();
+        for (int i = 0; i < incidents.size(); i++) {
+            IncidentText incident = incidents.get(i);
+            message.append("Incident #").append(i).append('\n')
+                    .append("Title: ").append(incident.title()).append('\n')
+                    .append("Description: ").append(incident.description()).append("\n\n");
+        }
+        message.append("Provide your analysis for all ").append(incidents.size())
+                .append(" incidents as a JSON array.");
+        return message.toString();
+    }
+
+    /**
+     * Removes markdown code fences (sometimes OpenAI adds them despite instructions).
+     */
+    private static String stripCodeFences(String response) {
+        String cleanJson = response.trim();
+        if (cleanJson.startsWith("```json")) {
+            cleanJson = cleanJson.substring(7);
+        }
+        if (cleanJson.startsWith("```")) {
+            cleanJson = cleanJson.substring(3);
+        }
+        if (cleanJson.endsWith("```")) {
+            cleanJson = cleanJson.substring(0, cleanJson.length() - 3);
+        }
+        return cleanJson.trim();
+    }
+
+    /**
+     * Title and description of an incident submitted for batch analysis.
+     */
+    public record IncidentText(String title, String description) {
+    }
+
+    /**
+     * Incrementally decodes the {@code suggestedSolution} string value from a JSON answer
+     * that arrives in arbitrary chunks. Escape sequences split across chunks are held back
+     * until they are complete.
+     */
+    static final class SolutionTextExtractor {
+
+        private static final Pattern VALUE_START = Pattern.compile("\"suggestedSolution\"\\s*:\\s*\"");
+
+        private final StringBuilder raw = new StringBuilder();
+        private int position = -1;
+        private boolean done;
+
+        /**
+         * Adds a chunk of the answer and returns the newly decoded solution text (possibly empty).
+         */
+        String append(String chunk) {
+            raw.append(chunk);
+            if (done) {
+                return "";
+            }
+            if (position < 0) {
+                Matcher matcher = VALUE_START.matcher(raw);
+                if (!matcher.find()) {
+                    return "";
+                }
+                position = matcher.end();
+            }
+
+            StringBuilder text = new StringBuilder();
+            while (position < raw.length()) {
+                char c = raw.charAt(position);
+                if (c == '"') {
+                    done = true;
+                    break;
+                }
+                if (c != '\\') {
+                    text.append(c);
+                    position++;
+                    continue;
+                }
+                if (position + 1 >= raw.length()) {
+                    break;
+                }
+                char escaped = raw.charAt(position + 1);
+                if (escaped == 'u') {
+                    if (position + 6 > raw.length()) {
+                        break;
+                    }
+                    text.append((char) Integer.parseInt(raw.substring(position + 2, position + 6), 16));
+                    position += 6;
+                    continue;
+                }
+                text.append(switch (escaped) {
+                    case 'n' -> '\n';
+                    case 't' -> '\t';
+                    case 'r' -> '\r';
+                    case 'b' -> '\b';
+                    case 'f' -> '\f';
+                    default -> escaped;
+                });
+                position += 2;
+            }
+            return text.toString();
+        }
+    }
 }
\ No newline at end of file
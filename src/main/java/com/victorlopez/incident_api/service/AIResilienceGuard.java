@@ -0,0 +1,429 @@
+package com.victorlopez.incident_api.service;
+
+import com.victorlopez.incident_api.exception.AIAnalysisUnavailableException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Resilience layer around calls to the AI provider.
+ *
+ * Every call passes three gates:
+ * - Circuit breaker: after too many failed or slow calls in the sliding window the
+ *   breaker opens and calls fail fast until {@code openDuration} has passed; a few
+ *   half-open trial calls then decide whether it closes again
+ * - Bulkhead: at most {@code maxConcurrentCalls} provider calls run at once, so a slow
+ *   provider cannot absorb every request thread
+ * - Deadline: the caller stops waiting after {@code timeout}, independently of the
+ *   HTTP client's own timeouts and retries
+ *
+ * Streamed calls ({@link #callStreaming}) apply {@code timeout} and the slow-call threshold
+ * to the time to the first response only; the whole stream gets its own, longer
+ * {@code streamTimeout}, so a long but healthy answer neither times out nor counts as slow.
+ *
+ * Rejections and timeouts surface as {@link AIAnalysisUnavailableException}, which callers
+ * treat as "try again later" rather than as a failed analysis.
+ *
+ * Metrics:
+ * - ai.resilience.calls{outcome=success|failure|timeout|rejected_open|rejected_bulkhead}
+ * - ai.resilience.circuit.state: 0 closed, 1 open, 2 half-open
+ * - ai.resilience.bulkhead.available: free concurrency permits
+ */
+@Component
+@Slf4j
+public class AIResilienceGuard {
+
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private final boolean enabled;
+    private final Duration timeout;
+    private final Duration streamTimeout;
+    private final Duration bulkheadWait;
+    private final Duration slowCallThreshold;
+    private final double failureRateThreshold;
+    private final double slowCallRateThreshold;
+    private final int minimumCalls;
+    private final Duration openDuration;
+    private final int halfOpenCalls;
+    private final Clock clock;
+
+    private final Semaphore bulkhead;
+    private final ExecutorService callExecutor;
+
+    // sliding window of the last outcomes, guarded by this
+    private final boolean[] failedWindow;
+    private final boolean[] slowWindow;
+    private int windowPosition;
+    private int windowCount;
+    private int failedInWindow;
+    private int slowInWindow;
+
+    private volatile State state = State.CLOSED;
+    private Instant openedAt;
+    private int halfOpenInFlight;
+    private int halfOpenSucceeded;
+
+    private final Counter successCounter;
+    private final Counter failureCounter;
+    private final Counter timeoutCounter;
+    private final Counter openRejectedCounter;
+    private final Counter bulkheadRejectedCounter;
+
+    @Autowired
+    public AIResilienceGuard(MeterRegistry meterRegistry,
+                             @Value("${ai.resilience.enabled:true}") boolean enabled,
+                             @Value("${ai.resilience.timeout-ms:20000}") long timeoutMillis,
+                             @Value("${ai.resilience.stream-timeout-ms:120000}") long streamTimeoutMillis,
+                             @Value("${ai.resilience.max-concurrent-calls:16}") int maxConcurrentCalls,
+                             @Value("${ai.resilience.bulkhead-wait-ms:250}") long bulkheadWaitMillis,
+                             @Value("${ai.resilience.window-size:20}") int windowSize,
+                             @Value("${ai.resilience.minimum-calls:10}") int minimumCalls,
+                             @Value("${ai.resilience.failure-rate-threshold:50}") double failureRateThreshold,
+                             @Value("${ai.resilience.slow-call-threshold-ms:10000}") long slowCallThresholdMillis,
+                             @Value("${ai.resilience.slow-call-rate-threshold:80}") double slowCallRateThreshold,
+                             @Value("${ai.resilience.open-duration-ms:30000}") long openDurationMillis,
+                             @Value("${ai.resilience.half-open-calls:3}") int halfOpenCalls) {
+        this(meterRegistry, enabled, Duration.ofMillis(timeoutMillis), Duration.ofMillis(streamTimeoutMillis),
+                maxConcurrentCalls,
+                Duration.ofMillis(bulkheadWaitMillis), windowSize, minimumCalls, failureRateThreshold,
+                Duration.ofMillis(slowCallThresholdMillis), slowCallRateThreshold,
+                Duration.ofMillis(openDurationMillis), halfOpenCalls, Clock.systemUTC());
+    }
+
+    AIResilienceGuard(MeterRegistry meterRegistry,
+                      boolean enabled,
+                      Duration timeout,
+                      Duration streamTimeout,
+                      int maxConcurrentCalls,
+                      Duration bulkheadWait,
+                      int windowSize,
+                      int minimumCalls,
+                      double failureRateThreshold,
+                      Duration slowCallThreshold,
+                      double slowCallRateThreshold,
+                      Duration openDuration,
+                      int halfOpenCalls,
+                      Clock clock) {
+        this.enabled = enabled;
+        this.timeout = timeout;
+        this.streamTimeout = streamTimeout;
+        this.bulkheadWait = bulkheadWait;
+        this.slowCallThreshold = slowCallThreshold;
+        this.failureRateThreshold = failureRateThreshold;
+        this.slowCallRateThreshold = slowCallRateThreshold;
+        this.minimumCalls = Math.max(1, Math.min(minimumCalls, windowSize));
+        this.openDuration = openDuration;
+        this.halfOpenCalls = Math.max(1, halfOpenCalls);
+        this.clock = clock;
+
+        this.bulkhead = new Semaphore(maxConcurrentCalls);
+        this.callExecutor = Executors.newCachedThreadPool(new CustomizableThreadFactory("ai-call-"));
+        this.failedWindow = new boolean[windowSize];
+        this.slowWindow = new boolean[windowSize];
+
+        this.successCounter = callCounter(meterRegistry, "success");
+        this.failureCounter = callCounter(meterRegistry, "failure");
+        this.timeoutCounter = callCounter(meterRegistry, "timeout");
+        this.openRejectedCounter = callCounter(meterRegistry, "rejected_open");
+        this.bulkheadRejectedCounter = callCounter(meterRegistry, "rejected_bulkhead");
+        Gauge.builder("ai.resilience.circuit.state", this, g -> g.getState().ordinal())
+                .description("AI circuit breaker state (0 closed, 1 open, 2 half-open)")
+                .register(meterRegistry);
+        Gauge.builder("ai.resilience.bulkhead.available", bulkhead, Semaphore::availablePermits)
+                .description("Free AI call concurrency permits")
+                .register(meterRegistry);
+    }
+
+    /**
+     * A guard that runs every call directly on the caller's thread.
+     */
+    public static AIResilienceGuard disabled() {
+        return new AIResilienceGuard(new SimpleMeterRegistry(), false, Duration.ZERO, Duration.ZERO, 1, Duration.ZERO,
+                1, 1, 100, Duration.ZERO, 100, Duration.ZERO, 1, Clock.systemUTC());
+    }
+
+    /**
+     * Runs a provider call through the breaker, bulkhead and deadline.
+     *
+     * @throws AIAnalysisUnavailableException if the call was rejected or timed out
+     * @throws RuntimeException whatever the call itself threw
+     */
+    public <T> T call(Supplier<T> call) {
+        if (!enabled) {
+            return call.get();
+        }
+
+        acquireBreakerPermission();
+        acquireBulkhead();
+
+        long start = System.nanoTime();
+        Future<T> future;
+        try {
+            future = callExecutor.submit(() -> {
+                try {
+                    return call.get();
+                } finally {
+                    bulkhead.release();
+                }
+            });
+        } catch (RuntimeException e) {
+            bulkhead.release();
+            releaseHalfOpenTrial();
+            throw new AIAnalysisUnavailableException("AI call could not be started", e);
+        }
+
+        try {
+            T result = future.get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+            successCounter.increment();
+            onResult(false, Duration.ofNanos(System.nanoTime() - start));
+            return result;
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            timeoutCounter.increment();
+            onResult(true, timeout);
+            throw new AIAnalysisUnavailableException("AI call exceeded its " + timeout.toMillis() + " ms deadline", e);
+        } catch (ExecutionException e) {
+            failureCounter.increment();
+            onResult(true, Duration.ofNanos(System.nanoTime() - start));
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new RuntimeException(e.getCause());
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            releaseHalfOpenTrial();
+            throw new AIAnalysisUnavailableException("Interrupted while waiting for the AI call", e);
+        }
+    }
+
+    /**
+     * Runs a streamed provider call through the breaker and bulkhead. The call receives a
+     * callback to run when the first part of the response arrives. Until then {@code timeout}
+     * applies; afterwards the whole call must finish within {@code streamTimeout}. The breaker
+     * judges slowness by the time to the first response.
+     *
+     * @throws AIAnalysisUnavailableException if the call was rejected or missed either deadline
+     * @throws RuntimeException whatever the call itself threw
+     */
+    public <T> T callStreaming(Function<Runnable, T> call) {
+        if (!enabled) {
+            return call.apply(() -> { });
+        }
+
+        acquireBreakerPermission();
+        acquireBulkhead();
+
+        long start = System.nanoTime();
+        CompletableFuture<Void> firstResponse = new CompletableFuture<>();
+        Future<T> future;
+        try {
+            future = callExecutor.submit(() -> {
+                try {
+                    return call.apply(() -> firstResponse.complete(null));
+                } finally {
+                    bulkhead.release();
+                    firstResponse.complete(null);
+                }
+            });
+        } catch (RuntimeException e) {
+            bulkhead.release();
+            releaseHalfOpenTrial();
+            throw new AIAnalysisUnavailableException("AI call could not be started", e);
+        }
+
+        Duration firstResponseTime;
+        try {
+            firstResponse.get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+            firstResponseTime = Duration.ofNanos(System.nanoTime() - start);
+            T result = future.get(streamTimeout.toMillis(), TimeUnit.MILLISECONDS);
+            successCounter.increment();
+            onResult(false, firstResponseTime);
+            return result;
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            timeoutCounter.increment();
+            boolean started = firstResponse.isDone();
+            onResult(true, started ? Duration.ZERO : timeout);
+            throw new AIAnalysisUnavailableException(started
+                    ? "AI stream exceeded its " + streamTimeout.toMillis() + " ms deadline"
+                    : "AI stream sent nothing within its " + timeout.toMillis() + " ms deadline", e);
+        } catch (ExecutionException e) {
+            failureCounter.increment();
+            onResult(true, Duration.ZERO);
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new RuntimeException(e.getCause());
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            releaseHalfOpenTrial();
+            throw new AIAnalysisUnavailableException("Interrupted while waiting for the AI call", e);
+        }
+    }
+
+    public State getState() {
+        if (state == State.OPEN) {
+            synchronized (this) {
+                if (state == State.OPEN && openDurationElapsed()) {
+                    return State.HALF_OPEN;
+                }
+            }
+        }
+        return state;
+    }
+
+    /**
+     * True while calls are being rejected without reaching the provider.
+     */
+    public boolean isOpen() {
+        return getState() == State.OPEN;
+    }
+
+    public synchronized double getFailureRate() {
+        return windowCount == 0 ? 0.0 : 100.0 * failedInWindow / windowCount;
+    }
+
+    public synchronized double getSlowCallRate() {
+        return windowCount == 0 ? 0.0 : 100.0 * slowInWindow / windowCount;
+    }
+
+    public synchronized int getBufferedCalls() {
+        return windowCount;
+    }
+
+    public int getAvailableConcurrentCalls() {
+        return bulkhead.availablePermits();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        callExecutor.shutdownNow();
+    }
+
+    // ── private helpers ──────────────────────────────────────────────────────
+
+    private synchronized void acquireBreakerPermission() {
+        if (state == State.OPEN) {
+            if (!openDurationElapsed()) {
+                openRejectedCounter.increment();
+                throw new AIAnalysisUnavailableException("AI circuit breaker is open");
+            }
+            transitionTo(State.HALF_OPEN);
+        }
+        if (state == State.HALF_OPEN) {
+            if (halfOpenInFlight + halfOpenSucceeded >= halfOpenCalls) {
+                openRejectedCounter.increment();
+                throw new AIAnalysisUnavailableException("AI circuit breaker is half-open and trial calls are in progress");
+            }
+            halfOpenInFlight++;
+        }
+    }
+
+    private void acquireBulkhead() {
+        try {
+            if (!bulkhead.tryAcquire(bulkheadWait.toMillis(), TimeUnit.MILLISECONDS)) {
+                bulkheadRejectedCounter.increment();
+                releaseHalfOpenTrial();
+                throw new AIAnalysisUnavailableException("Too many concurrent AI calls");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            releaseHalfOpenTrial();
+            throw new AIAnalysisUnavailableException("Interrupted while waiting for an AI call slot", e);
+        }
+    }
+
+    private synchronized void releaseHalfOpenTrial() {
+        if (state == State.HALF_OPEN && halfOpenInFlight > 0) {
+            halfOpenInFlight--;
+        }
+    }
+
+    private synchronized void onResult(boolean failed, Duration duration) {
+        boolean slow = duration.compareTo(slowCallThreshold) >= 0;
+
+        if (state == State.HALF_OPEN) {
+            halfOpenInFlight = Math.max(0, halfOpenInFlight - 1);
+            if (failed || slow) {
+                transitionTo(State.OPEN);
+            } else if (++halfOpenSucceeded >= halfOpenCalls) {
+                transitionTo(State.CLOSED);
+            }
+            return;
+        }
+        if (state == State.OPEN) {
+            // result of a call started before the breaker opened
+            return;
+        }
+
+        if (windowCount == failedWindow.length) {
+            failedInWindow -= failedWindow[windowPosition] ? 1 : 0;
+            slowInWindow -= slowWindow[windowPosition] ? 1 : 0;
+        } else {
+            windowCount++;
+        }
+        failedWindow[windowPosition] = failed;
+        slowWindow[windowPosition] = slow;
+        failedInWindow += failed ? 1 : 0;
+        slowInWindow += slow ? 1 : 0;
+        windowPosition = (windowPosition + 1) % failedWindow.length;
+
+        if (windowCount >= minimumCalls
+                && (getFailureRate() >= failureRateThreshold || getSlowCallRate() >= slowCallRateThreshold)) {
+            transitionTo(State.OPEN);
+        }
+    }
+
+    private void transitionTo(State next) {
+        if (state == next) {
+            return;
+        }
+        log.warn("AI circuit breaker {} -> {} (failure rate {}%, slow call rate {}%)",
+                state, next, getFailureRate(), getSlowCallRate());
+        state = next;
+        halfOpenInFlight = 0;
+        halfOpenSucceeded = 0;
+        if (next == State.OPEN) {
+            openedAt = clock.instant();
+        } else if (next == State.CLOSED) {
+            windowPosition = 0;
+            windowCount = 0;
+            failedInWindow = 0;
+            slowInWindow = 0;
+        }
+    }
+
+    private boolean openDurationElapsed() {
+        return !clock.instant().isBefore(openedAt.plus(openDuration));
+    }
+
+    private static Counter callCounter(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("ai.resilience.calls")
+                .description("AI provider calls by resilience outcome")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,220 @@
+package com.victorlopez.incident_api.service;
+
+import com.victorlopez.incident_api.dto.AIAnalysisResult;
+import com.victorlopez.incident_api.exception.AIAnalysisUnavailableException;
+import com.victorlopez.incident_api.service.AIAnalysisService.IncidentText;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Micro-batching stage in front of {@link AIAnalysisService}.
+ *
+ * Incidents submitted here are collected until either {@code maxBatchSize} are waiting or
+ * {@code maxWaitMillis} have passed since the first one arrived, and are then classified
+ * with a single prompt. This amortizes the system prompt and the HTTP round trip across
+ * the batch, which matters for the asynchronous path and bulk re-analysis.
+ *
+ * At most {@code concurrency} batches are in flight; when all are busy the dispatcher runs
+ * the next batch itself, which stops it from draining the queue and applies backpressure.
+ *
+ * Metrics:
+ * - ai.analysis.batch.size: incidents per flushed batch
+ * - ai.analysis.batch.flushes{reason=size|timeout}
+ * - ai.analysis.batch.queue.depth: incidents waiting to be batched
+ */
+@Component
+@Slf4j
+public class AnalysisBatcher {
+
+    private final AIAnalysisService aiAnalysisService;
+    private final boolean enabled;
+    private final int maxBatchSize;
+    private final long maxWaitNanos;
+    private final BlockingQueue<PendingAnalysis> queue;
+    private final ThreadPoolExecutor batchExecutor;
+
+    private final DistributionSummary batchSizes;
+    private final Counter sizeFlushes;
+    private final Counter timeoutFlushes;
+
+    private final Object lifecycle = new Object();
+    private volatile boolean running;
+    private Thread dispatcher;
+
+    public AnalysisBatcher(AIAnalysisService aiAnalysisService,
+                           MeterRegistry meterRegistry,
+                           @Value("${ai.analysis.batch.enabled:false}") boolean enabled,
+                           @Value("${ai.analysis.batch.max-size:8}") int maxBatchSize,
+                           @Value("${ai.analysis.batch.max-wait-ms:50}") long maxWaitMillis,
+                           @Value("${ai.analysis.batch.concurrency:2}") int concurrency,
+                           @Value("${ai.analysis.batch.queue-capacity:1000}") int queueCapacity) {
+        this.aiAnalysisService = aiAnalysisService;
+        this.enabled = enabled;
+        this.maxBatchSize = Math.max(1, maxBatchSize);
+        this.maxWaitNanos = TimeUnit.MILLISECONDS.toNanos(maxWaitMillis);
+        this.queue = new LinkedBlockingQueue<>(queueCapacity);
+        this.batchExecutor = new ThreadPoolExecutor(concurrency, concurrency, 60L, TimeUnit.SECONDS,
+                new SynchronousQueue<>(),
+                new CustomizableThreadFactory("ai-batch-"),
+                new ThreadPoolExecutor.CallerRunsPolicy());
+
+        this.batchSizes = DistributionSummary.builder("ai.analysis.batch.size")
+                .description("Incidents per AI analysis batch")
+                .register(meterRegistry);
+        this.sizeFlushes = flushCounter(meterRegistry, "size");
+        this.timeoutFlushes = flushCounter(meterRegistry, "timeout");
+        Gauge.builder("ai.analysis.batch.queue.depth", queue, BlockingQueue::size)
+                .description("Incidents waiting to be batched")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        running = true;
+        dispatcher = new Thread(this::dispatchLoop, "ai-batch-dispatcher");
+        dispatcher.setDaemon(true);
+        dispatcher.start();
+        log.info("AI analysis batching enabled (max size: {}, max wait: {} ms)",
+                maxBatchSize, TimeUnit.NANOSECONDS.toMillis(maxWaitNanos));
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Queues an incident for the next batch. When batching is disabled the incident is
+     * analyzed immediately on the calling thread.
+     */
+    public CompletableFuture<AIAnalysisResult> submit(String title, String description) {
+        PendingAnalysis pending = new PendingAnalysis(new IncidentText(title, description), new CompletableFuture<>());
+        // checked and offered atomically with stop(), so nothing is queued after the dispatcher's last poll
+        synchronized (lifecycle) {
+            if (running) {
+                if (!queue.offer(pending)) {
+                    pending.future().completeExceptionally(new RejectedExecutionException("AI analysis batch queue is full"));
+                }
+                return pending.future();
+            }
+        }
+
+        try {
+            return CompletableFuture.completedFuture(aiAnalysisService.analyzeIncident(title, description));
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    /**
+     * Flushes everything still queued, then waits for in-flight batches. Incidents the dispatcher
+     * did not get to in time are failed as unavailable, which leaves them PENDING_ANALYSIS.
+     */
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        synchronized (lifecycle) {
+            if (!running) {
+                batchExecutor.shutdown();
+                return;
+            }
+            running = false;
+        }
+        dispatcher.join(TimeUnit.SECONDS.toMillis(30));
+        List<PendingAnalysis> leftovers = new ArrayList<>();
+        queue.drainTo(leftovers);
+        if (!leftovers.isEmpty()) {
+            log.warn("AI analysis batcher stopped with {} incidents still queued", leftovers.size());
+            AIAnalysisUnavailableException stopped = new AIAnalysisUnavailableException("AI analysis batcher stopped");
+            leftovers.forEach(pending -> pending.future().completeExceptionally(stopped));
+        }
+        batchExecutor.shutdown();
+        if (!batchExecutor.awaitTermination(30, TimeUnit.SECONDS)) {
+            log.warn("AI analysis batches still running at shutdown");
+        }
+    }
+
+    // ── private helpers ──────────────────────────────────────────────────────
+
+    private void dispatchLoop() {
+        while (running || !queue.isEmpty()) {
+            try {
+                PendingAnalysis first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+
+                List<PendingAnalysis> batch = new ArrayList<>(maxBatchSize);
+                batch.add(first);
+                long deadline = System.nanoTime() + maxWaitNanos;
+                while (batch.size() < maxBatchSize) {
+                    long remaining = deadline - System.nanoTime();
+                    PendingAnalysis next = remaining > 0 ? queue.poll(remaining, TimeUnit.NANOSECONDS) : queue.poll();
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+
+                (batch.size() >= maxBatchSize ? sizeFlushes : timeoutFlushes).increment();
+                batchSizes.record(batch.size());
+                batchExecutor.execute(() -> runBatch(batch));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                log.error("AI batch dispatcher error: {}", e.getMessage(), e);
+            }
+        }
+    }
+
+    private void runBatch(List<PendingAnalysis> batch) {
+        try {
+            List<CompletableFuture<AIAnalysisResult>> results = aiAnalysisService.analyzeBatch(
+                    batch.stream().map(PendingAnalysis::incident).toList());
+
+            for (int i = 0; i < batch.size(); i++) {
+                CompletableFuture<AIAnalysisResult> target = batch.get(i).future();
+                results.get(i).whenComplete((result, error) -> {
+                    if (error != null) {
+                        target.completeExceptionally(error instanceof CompletionException ? error.getCause() : error);
+                    } else {
+                        target.complete(result);
+                    }
+                });
+            }
+        } catch (RuntimeException e) {
+            batch.forEach(pending -> pending.future().completeExceptionally(e));
+        }
+    }
+
+    private static Counter flushCounter(MeterRegistry meterRegistry, String reason) {
+        return Counter.builder("ai.analysis.batch.flushes")
+                .description("AI analysis batches flushed by trigger")
+                .tag("reason", reason)
+                .register(meterRegistry);
+    }
+
+    private record PendingAnalysis(IncidentText incident, CompletableFuture<AIAnalysisResult> future) {
+    }
+}
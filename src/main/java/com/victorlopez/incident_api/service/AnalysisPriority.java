@@ -0,0 +1,9 @@
+package com.victorlopez.incident_api.service;
+
+/**
+ * Scheduling lane for AI provider calls. INTERACTIVE calls (a user is waiting) are always
+ * granted rate-limit budget before BULK calls (background and bulk re-analysis).
+ */
+public enum AnalysisPriority {
+    INTERACTIVE, BULK
+}
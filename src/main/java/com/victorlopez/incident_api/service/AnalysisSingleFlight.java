@@ -0,0 +1,148 @@
+package com.victorlopez.incident_api.service;
+
+import com.victorlopez.incident_api.dto.AIAnalysisResult;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Semaphore;
+import java.util.function.Supplier;
+
+/**
+ * In-flight deduplication of AI analyses.
+ *
+ * During an alert storm several identical incidents arrive before the first analysis
+ * has been cached. Instead of each one calling the provider, the first caller for a
+ * content key becomes the leader and every concurrent caller for the same key waits
+ * on the leader's future.
+ *
+ * Independently of coalescing, at most {@code perKeyLimit} provider calls may run for
+ * one key at a time; fresh re-analyses that must not share a result queue up behind
+ * that limit instead of hammering the provider with the same prompt.
+ *
+ * Metrics:
+ * - ai.analysis.singleflight.calls{role=leader|coalesced}
+ * - ai.analysis.singleflight.throttled: calls that waited for a per-key permit
+ * - ai.analysis.singleflight.inflight: keys with a provider call in progress
+ */
+@Component
+@Slf4j
+public class AnalysisSingleFlight {
+
+    private final int perKeyLimit;
+    private final ConcurrentMap<String, CompletableFuture<AIAnalysisResult>> inFlight = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, KeyPermits> permits = new ConcurrentHashMap<>();
+
+    private final Counter leaderCalls;
+    private final Counter coalescedCalls;
+    private final Counter throttledCalls;
+
+    public AnalysisSingleFlight(MeterRegistry meterRegistry,
+                                @Value("${ai.singleflight.per-key-limit:1}") int perKeyLimit) {
+        this.perKeyLimit = Math.max(1, perKeyLimit);
+        this.leaderCalls = callCounter(meterRegistry, "leader");
+        this.coalescedCalls = callCounter(meterRegistry, "coalesced");
+        this.throttledCalls = Counter.builder("ai.analysis.singleflight.throttled")
+                .description("AI calls that waited for a per-key concurrency permit")
+                .register(meterRegistry);
+        Gauge.builder("ai.analysis.singleflight.inflight", inFlight, ConcurrentMap::size)
+                .description("Content keys with an AI call in progress")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Runs the call unless an identical one is already in flight, in which case the
+     * caller shares its result (or its failure).
+     */
+    public AIAnalysisResult execute(String key, Supplier<AIAnalysisResult> call) {
+        CompletableFuture<AIAnalysisResult> leader = new CompletableFuture<>();
+        CompletableFuture<AIAnalysisResult> existing = inFlight.putIfAbsent(key, leader);
+
+        if (existing != null) {
+            coalescedCalls.increment();
+            log.debug("Coalescing AI analysis for key {}", key);
+            return await(existing);
+        }
+
+        leaderCalls.increment();
+        try {
+            AIAnalysisResult result = withPermit(key, call);
+            leader.complete(result);
+            return result;
+        } catch (RuntimeException e) {
+            leader.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, leader);
+        }
+    }
+
+    /**
+     * Runs the call without coalescing, still bounded by the per-key concurrency limit.
+     */
+    public AIAnalysisResult executeFresh(String key, Supplier<AIAnalysisResult> call) {
+        return withPermit(key, call);
+    }
+
+    // ── private helpers ──────────────────────────────────────────────────────
+
+    private AIAnalysisResult withPermit(String key, Supplier<AIAnalysisResult> call) {
+        KeyPermits keyPermits = permits.compute(key, (k, current) -> {
+            KeyPermits p = current != null ? current : new KeyPermits(new Semaphore(perKeyLimit));
+            p.users++;
+            return p;
+        });
+
+        try {
+            if (!keyPermits.semaphore.tryAcquire()) {
+                throttledCalls.increment();
+                keyPermits.semaphore.acquire();
+            }
+            try {
+                return call.get();
+            } finally {
+                keyPermits.semaphore.release();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while waiting for AI analysis permit", e);
+        } finally {
+            permits.computeIfPresent(key, (k, p) -> --p.users == 0 ? null : p);
+        }
+    }
+
+    private static AIAnalysisResult await(CompletableFuture<AIAnalysisResult> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private static Counter callCounter(MeterRegistry meterRegistry, String role) {
+        return Counter.builder("ai.analysis.singleflight.calls")
+                .description("AI analysis requests by single-flight role")
+                .tag("role", role)
+                .register(meterRegistry);
+    }
+
+    private static final class KeyPermits {
+
+        private final Semaphore semaphore;
+        private int users;
+
+        private KeyPermits(Semaphore semaphore) {
+            this.semaphore = semaphore;
+        }
+    }
+}
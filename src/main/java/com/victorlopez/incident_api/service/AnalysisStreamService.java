@@ -0,0 +1,169 @@
+package com.victorlopez.incident_api.service;
+
+import com.victorlopez.incident_api.dto.AIAnalysisResult;
+import com.victorlopez.incident_api.dto.IncidentResponse;
+import com.victorlopez.incident_api.exception.AIAnalysisUnavailableException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.security.concurrent.DelegatingSecurityContextRunnable;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Server-Sent Events variant of incident re-analysis.
+ *
+ * The model's answer is streamed and the {@code suggestedSolution} text is pushed to the
+ * client as {@code solution} events while it is generated. Once the JSON is complete it is
+ * validated, persisted through {@link IncidentService#applyReanalysis} (same result and
+ * activity as the blocking endpoint) and sent as a final {@code result} event. Failures
+ * end the stream with an {@code error} event.
+ *
+ * Streams run on a bounded pool with the caller's security context; when every worker is
+ * busy the request is rejected with {@link AIAnalysisUnavailableException}. A client that
+ * disconnects does not abort the analysis, which is still persisted. The emitter stays open
+ * at least as long as the resilience guard's first-token and whole-stream deadlines combined.
+ *
+ * Metrics:
+ * - ai.analysis.stream.first-text: time from request to the first solution text
+ * - ai.analysis.stream.duration: end-to-end stream time
+ * - ai.analysis.stream.requests{outcome=completed|failed|rejected}
+ */
+@Service
+@Slf4j
+public class AnalysisStreamService {
+
+    // bulkhead and rate-limit waits before the call, persisting the result after it
+    private static final long EMITTER_TIMEOUT_MARGIN_MILLIS = 30_000;
+
+    private final AIAnalysisService aiAnalysisService;
+    private final IncidentService incidentService;
+    private final ThreadPoolExecutor executor;
+    private final long emitterTimeoutMillis;
+
+    private final Timer firstTextTimer;
+    private final Timer streamTimer;
+    private final Counter completedCounter;
+    private final Counter failedCounter;
+    private final Counter rejectedCounter;
+
+    public AnalysisStreamService(AIAnalysisService aiAnalysisService,
+                                 IncidentService incidentService,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${ai.analysis.stream.workers:8}") int workers,
+                                 @Value("${ai.analysis.stream.timeout-ms:0}") long emitterTimeoutMillis,
+                                 @Value("${ai.resilience.timeout-ms:20000}") long firstTokenTimeoutMillis,
+                                 @Value("${ai.resilience.stream-timeout-ms:120000}") long streamTimeoutMillis) {
+        this.aiAnalysisService = aiAnalysisService;
+        this.incidentService = incidentService;
+        // the emitter must outlive the slowest stream the resilience guard allows, or it closes before the result
+        long minimumTimeoutMillis = firstTokenTimeoutMillis + streamTimeoutMillis + EMITTER_TIMEOUT_MARGIN_MILLIS;
+        if (emitterTimeoutMillis > 0 && emitterTimeoutMillis < minimumTimeoutMillis) {
+            log.warn("ai.analysis.stream.timeout-ms={} is shorter than the AI stream deadlines allow — using {} ms",
+                    emitterTimeoutMillis, minimumTimeoutMillis);
+        }
+        this.emitterTimeoutMillis = Math.max(emitterTimeoutMillis, minimumTimeoutMillis);
+        this.executor = new ThreadPoolExecutor(workers, workers, 60L, TimeUnit.SECONDS,
+                new SynchronousQueue<>(),
+                new CustomizableThreadFactory("ai-stream-"),
+                new ThreadPoolExecutor.AbortPolicy());
+
+        this.firstTextTimer = Timer.builder("ai.analysis.stream.first-text")
+                .description("Time until the first suggested-solution text is streamed")
+                .register(meterRegistry);
+        this.streamTimer = Timer.builder("ai.analysis.stream.duration")
+                .description("End-to-end time of a streamed analysis")
+                .register(meterRegistry);
+        this.completedCounter = requestCounter(meterRegistry, "completed");
+        this.failedCounter = requestCounter(meterRegistry, "failed");
+        this.rejectedCounter = requestCounter(meterRegistry, "rejected");
+    }
+
+    /**
+     * Starts a streamed re-analysis. Unknown incidents fail before the stream is opened.
+     */
+    public SseEmitter streamReanalysis(UUID id) {
+        IncidentResponse incident = incidentService.getIncidentById(id);
+        SseEmitter emitter = new SseEmitter(emitterTimeoutMillis);
+        AtomicBoolean connected = new AtomicBoolean(true);
+        emitter.onTimeout(() -> connected.set(false));
+        emitter.onError(e -> connected.set(false));
+        try {
+            executor.execute(new DelegatingSecurityContextRunnable(() -> stream(id, incident, emitter, connected)));
+        } catch (RejectedExecutionException e) {
+            rejectedCounter.increment();
+            throw new AIAnalysisUnavailableException("Too many streaming analyses in progress");
+        }
+        return emitter;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    // ── private helpers ──────────────────────────────────────────────────────
+
+    private void stream(UUID id, IncidentResponse incident, SseEmitter emitter, AtomicBoolean connected) {
+        long start = System.nanoTime();
+        AtomicBoolean firstText = new AtomicBoolean(true);
+
+        try {
+            AIAnalysisResult result = aiAnalysisService.streamReanalysis(incident.getTitle(), incident.getDescription(),
+                    text -> {
+                        if (firstText.compareAndSet(true, false)) {
+                            firstTextTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                        }
+                        send(emitter, connected, "solution", Map.of("text", text));
+                    });
+            incidentService.applyReanalysis(id, result);
+            send(emitter, connected, "result", result);
+            completedCounter.increment();
+        } catch (Exception e) {
+            failedCounter.increment();
+            log.warn("Streamed analysis of incident {} failed: {}", id, e.getMessage());
+            String message = e instanceof AIAnalysisUnavailableException
+                    ? "AI analysis is temporarily unavailable, please retry later"
+                    : "AI analysis failed";
+            send(emitter, connected, "error", Map.of("message", message));
+        } finally {
+            streamTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            if (connected.get()) {
+                emitter.complete();
+            }
+        }
+    }
+
+    private void send(SseEmitter emitter, AtomicBoolean connected, String event, Object data) {
+        if (!connected.get()) {
+            return;
+        }
+        try {
+            emitter.send(SseEmitter.event().name(event).data(data, MediaType.APPLICATION_JSON));
+        } catch (IOException | IllegalStateException e) {
+            connected.set(false);
+            log.debug("Client left the analysis stream: {}", e.getMessage());
+        }
+    }
+
+    private static Counter requestCounter(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("ai.analysis.stream.requests")
+                .description("Streamed AI analyses by outcome")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,306 @@
+package com.victorlopez.incident_api.service;
+
+import com.victorlopez.incident_api.dto.AIAnalysisResult;
+import com.victorlopez.incident_api.event.IncidentAnalysisRequestedEvent;
+import com.victorlopez.incident_api.exception.AIAnalysisUnavailableException;
+import com.victorlopez.incident_api.model.AnalysisStatus;
+import com.victorlopez.incident_api.model.Incident;
+import com.victorlopez.incident_api.repository.IncidentRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+
+/**
+ * Background enrichment of incidents that were persisted with a PENDING_ANALYSIS marker.
+ *
+ * Work is executed on a bounded worker pool so a slow AI provider can never exhaust
+ * request threads. When the queue is full, or the AI provider is unavailable, the incident
+ * simply stays PENDING_ANALYSIS and is picked up again by the periodic pending-analysis
+ * sweep (skipped while the circuit breaker is open) or on the next startup.
+ *
+ * Analyses go through {@link AnalysisBatcher}. A worker only hands the incident over and
+ * returns, so with batching enabled any number of incidents can share a flush window and
+ * batches fill up to {@code ai.analysis.batch.max-size} regardless of the worker count.
+ * The result is applied back on the worker pool once its batch completes.
+ *
+ * Metrics:
+ * - incident.analysis.queue.depth: analyses waiting for a worker
+ * - incident.analysis.active: analyses handed to the batcher and not yet applied
+ * - incident.analysis.tasks{outcome}: submitted / completed / failed / rejected / deferred
+ * - incident.analysis.duration: end-to-end time of a background analysis
+ */
+@Service
+@Slf4j
+public class AsyncAnalysisService {
+
+    private static final long DRAIN_POLL_NANOS = TimeUnit.MILLISECONDS.toNanos(50);
+
+    private final AnalysisBatcher analysisBatcher;
+    private final IncidentService incidentService;
+    private final IncidentRepository incidentRepository;
+    private final AIResilienceGuard resilienceGuard;
+    private final ThreadPoolExecutor executor;
+    private final Set<UUID> queued = ConcurrentHashMap.newKeySet();
+    private final long shutdownTimeoutSeconds;
+
+    private final Counter submittedCounter;
+    private final Counter completedCounter;
+    private final Counter failedCounter;
+    private final Counter rejectedCounter;
+    private final Counter deferredCounter;
+    private final Timer analysisTimer;
+
+    public AsyncAnalysisService(AnalysisBatcher analysisBatcher,
+                                IncidentService incidentService,
+                                IncidentRepository incidentRepository,
+                                AIResilienceGuard resilienceGuard,
+                                MeterRegistry meterRegistry,
+                                @Value("${ai.analysis.async.workers:4}") int workers,
+                                @Value("${ai.analysis.async.queue-capacity:500}") int queueCapacity,
+                                @Value("${ai.analysis.async.shutdown-timeout-seconds:30}") long shutdownTimeoutSeconds) {
+        this.analysisBatcher = analysisBatcher;
+        this.incidentService = incidentService;
+        this.incidentRepository = incidentRepository;
+        this.resilienceGuard = resilienceGuard;
+        this.shutdownTimeoutSeconds = shutdownTimeoutSeconds;
+        this.executor = new ThreadPoolExecutor(workers, workers, 60L, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(queueCapacity),
+                new CustomizableThreadFactory("ai-analysis-"),
+                new ThreadPoolExecutor.AbortPolicy());
+
+        Gauge.builder("incident.analysis.queue.depth", executor, e -> e.getQueue().size())
+                .description("Incident analyses waiting for a worker")
+                .register(meterRegistry);
+        Gauge.builder("incident.analysis.active", this, s -> s.queued.size() - s.executor.getQueue().size())
+                .description("Incident analyses in progress")
+                .register(meterRegistry);
+
+        this.submittedCounter = taskCounter(meterRegistry, "submitted");
+        this.completedCounter = taskCounter(meterRegistry, "completed");
+        this.failedCounter = taskCounter(meterRegistry, "failed");
+        this.rejectedCounter = taskCounter(meterRegistry, "rejected");
+        this.deferredCounter = taskCounter(meterRegistry, "deferred");
+        this.analysisTimer = Timer.builder("incident.analysis.duration")
+                .description("Time spent analyzing an incident in the background")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Queues the analysis once the creating transaction has committed.
+     * fallbackExecution covers callers that publish outside a transaction.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onAnalysisRequested(IncidentAnalysisRequestedEvent event) {
+        submit(event.incidentId(), event.title(), event.description());
+    }
+
+    /**
+     * Queues a background analysis for the given incident.
+     *
+     * @return true if the analysis was accepted by the worker pool (or is already queued),
+     *         false if the queue is full or the service is shutting down
+     */
+    public boolean submit(UUID incidentId, String title, String description) {
+        boolean accepted = enqueue(incidentId, title, description);
+        if (!accepted) {
+            log.warn("AI analysis queue rejected incident {} — it stays PENDING_ANALYSIS", incidentId);
+        }
+        return accepted;
+    }
+
+    public int getQueueDepth() {
+        return executor.getQueue().size();
+    }
+
+    /**
+     * Re-queues incidents left PENDING_ANALYSIS by a previous run (queue overflow or shutdown).
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void resubmitPendingAnalyses() {
+        requeuePendingAnalyses();
+    }
+
+    /**
+     * Periodically re-queues incidents still PENDING_ANALYSIS (degraded-mode creations,
+     * queue overflow, deferred analyses), oldest first and no more than the queue has room for.
+     * Skipped while the AI circuit breaker is open or the queue is full.
+     */
+    @Scheduled(fixedDelayString = "${ai.analysis.pending-sweep-interval-ms:60000}",
+               initialDelayString = "${ai.analysis.pending-sweep-interval-ms:60000}")
+    public void requeuePendingAnalyses() {
+        if (resilienceGuard.isOpen()) {
+            log.debug("AI circuit breaker is open — skipping pending-analysis sweep");
+            return;
+        }
+        int capacity = executor.getQueue().remainingCapacity();
+        if (capacity == 0) {
+            log.debug("AI analysis queue is full — skipping pending-analysis sweep");
+            return;
+        }
+        List<Incident> pending = incidentRepository.findByAnalysisStatusAndArchivedFalseOrderByCreatedAtAsc(
+                AnalysisStatus.PENDING_ANALYSIS, PageRequest.of(0, capacity));
+        if (pending.isEmpty()) {
+            return;
+        }
+        log.info("Resubmitting {} incidents pending AI analysis", pending.size());
+        long rejected = pending.stream()
+                .filter(incident -> !enqueue(incident.getId(), incident.getTitle(), incident.getDescription()))
+                .count();
+        if (rejected > 0) {
+            log.warn("AI analysis queue rejected {} of {} pending incidents — they stay PENDING_ANALYSIS",
+                    rejected, pending.size());
+        }
+    }
+
+    /**
+     * Stops accepting work and lets queued and running analyses finish, including those whose
+     * batch is still in flight after the worker that handed them over has returned.
+     * Anything not drained within the timeout remains PENDING_ANALYSIS in the database.
+     */
+    @PreDestroy
+    public void drain() throws InterruptedException {
+        log.info("Draining AI analysis queue ({} queued, {} in progress)", executor.getQueue().size(), queued.size());
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(shutdownTimeoutSeconds);
+        executor.shutdown();
+        if (!executor.awaitTermination(deadline - System.nanoTime(), TimeUnit.NANOSECONDS)) {
+            List<Runnable> dropped = executor.shutdownNow();
+            log.warn("AI analysis drain timed out — {} queued analyses will be resubmitted on next startup", dropped.size());
+            return;
+        }
+        // results of batches still in flight are applied on the completing thread once the pool is shut down
+        while (!queued.isEmpty()) {
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+                log.warn("AI analysis drain timed out — {} analyses awaiting their batch will be resubmitted on next startup",
+                        queued.size());
+                return;
+            }
+            TimeUnit.NANOSECONDS.sleep(Math.min(remaining, DRAIN_POLL_NANOS));
+        }
+    }
+
+    // ── private helpers ──────────────────────────────────────────────────────
+
+    /**
+     * Hands the analysis to the worker pool; false, without logging, when the pool rejects it.
+     */
+    private boolean enqueue(UUID incidentId, String title, String description) {
+        if (!queued.add(incidentId)) {
+            log.debug("AI analysis for incident {} is already queued", incidentId);
+            return true;
+        }
+        try {
+            executor.execute(() -> analyze(incidentId, title, description));
+            submittedCounter.increment();
+            log.debug("Queued AI analysis for incident {} (queue depth: {})", incidentId, executor.getQueue().size());
+            return true;
+        } catch (RejectedExecutionException e) {
+            queued.remove(incidentId);
+            rejectedCounter.increment();
+            return false;
+        }
+    }
+
+    /**
+     * Hands the incident to the batcher without waiting for the batch; the result is applied
+     * when it completes.
+     */
+    private void analyze(UUID incidentId, String title, String description) {
+        Timer.Sample sample = Timer.start();
+        CompletableFuture<AIAnalysisResult> analysis;
+        try {
+            analysis = analysisBatcher.submit(title, description);
+        } catch (Exception e) {
+            complete(incidentId, sample, null, e);
+            return;
+        }
+        BiConsumer<AIAnalysisResult, Throwable> apply = (result, error) -> complete(incidentId, sample, result, error);
+        if (analysis.isDone()) {
+            analysis.whenComplete(apply);
+        } else {
+            analysis.whenCompleteAsync(apply, this::onWorker);
+        }
+    }
+
+    private void complete(UUID incidentId, Timer.Sample sample, AIAnalysisResult result, Throwable error) {
+        try {
+            if (error != null) {
+                handleFailure(incidentId, error instanceof CompletionException ? error.getCause() : error);
+                return;
+            }
+            incidentService.applyAnalysis(incidentId, result);
+            completedCounter.increment();
+        } catch (Exception e) {
+            handleFailure(incidentId, e);
+        } finally {
+            queued.remove(incidentId);
+            sample.stop(analysisTimer);
+        }
+    }
+
+    /**
+     * Runs the task on the worker pool, or on the completing thread when the pool is full or
+     * shutting down, so a finished analysis is never dropped.
+     */
+    private void onWorker(Runnable task) {
+        try {
+            executor.execute(task);
+        } catch (RejectedExecutionException e) {
+            task.run();
+        }
+    }
+
+    private void handleFailure(UUID incidentId, Throwable e) {
+        if (e instanceof AIAnalysisUnavailableException) {
+            deferredCounter.increment();
+            log.warn("AI analysis for incident {} deferred: {} — left PENDING_ANALYSIS", incidentId, e.getMessage());
+            return;
+        }
+        failedCounter.increment();
+        if (executor.isShutdown() && Thread.currentThread().isInterrupted()) {
+            log.warn("AI analysis for incident {} interrupted by shutdown — left PENDING_ANALYSIS", incidentId);
+            return;
+        }
+        log.error("Background AI analysis failed for incident {}: {}", incidentId, e.getMessage(), e);
+        markFailed(incidentId);
+    }
+
+    private void markFailed(UUID incidentId) {
+        try {
+            incidentService.markAnalysisFailed(incidentId);
+        } catch (Exception e) {
+            log.error("Could not mark incident {} as FAILED: {}", incidentId, e.getMessage());
+        }
+    }
+
+    private static Counter taskCounter(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("incident.analysis.tasks")
+                .description("Background incident analyses by outcome")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,589 @@
+package com.victorlopez.incident_api.service;
+
+import com.victorlopez.incident_api.event.IncidentEmbeddedEvent;
+import com.victorlopez.incident_api.model.Incident;
+import com.victorlopez.incident_api.model.IncidentEmbedding;
+import com.victorlopez.incident_api.repository.IncidentEmbeddingRepository;
+import com.victorlopez.incident_api.repository.IncidentRepository;
+import com.victorlopez.incident_api.service.SimilarIncidentFinder.Match;
+import com.victorlopez.incident_api.service.SimilarIncidentFinder.ScoredId;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.ai.embedding.EmbeddingModel;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.ByteBuffer;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Semantic similar-incident lookup: incident embeddings from Spring AI's {@link EmbeddingModel}
+ * in an in-process {@link HnswIndex}, selected with {@code search.similar.strategy=embedding}.
+ *
+ * Embeddings are computed off the request path. {@link IncidentService} reports creates, edits and
+ * archives after commit, and a worker pool embeds the new text, stores the float32 vector in
+ * {@code incident_embeddings}, inserts it into the graph and publishes an {@link IncidentEmbeddedEvent}. An incident edited again while queued
+ * is embedded once, with its latest text; one edited while being embedded is embedded again after.
+ * At startup the stored vectors of the current model are loaded back. A periodic refresh then queues
+ * incidents whose text has no matching vector yet, which also picks up writes from other instances,
+ * and retries incidents whose embedding failed or was rejected by a full queue.
+ *
+ * An edit marks the old graph node deleted and inserts a new one. The graph is rebuilt from the
+ * live vectors once deleted nodes reach {@code compactionRatio} of it.
+ *
+ * Calls to a remote embedding model go through the {@link ProviderRateLimiter} (queries in the
+ * INTERACTIVE lane, background embeddings in BULK) and the {@link AIResilienceGuard}, like chat calls.
+ * A rejected query fails, and {@code SimilarIncidentConfig} falls back to full-text search.
+ *
+ * Metrics:
+ * - search.embedding.build: time to load stored vectors and build the graph at startup
+ * - search.embedding.embed: time to embed and index one incident
+ * - search.embedding.query: time to embed a query and search the graph
+ * - search.embedding.tasks{outcome=completed|failed|rejected}: background embedding tasks
+ * - search.embedding.vectors / search.embedding.pending: indexed incidents, queued embeddings
+ * - search.embedding.memory: off-heap bytes reserved for vectors
+ */
+@Component
+@Slf4j
+public class EmbeddingIncidentIndex {
+
+    public static final String STRATEGY = "embedding";
+
+    private static final long GRAPH_SEED = 42L;
+
+    private final IncidentRepository incidentRepository;
+    private final IncidentEmbeddingRepository embeddingRepository;
+    private final EmbeddingModel embeddingModel;
+    private final AIResilienceGuard resilienceGuard;
+    private final ProviderRateLimiter rateLimiter;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate persistTx;
+    private final Executor executor;
+    private final boolean enabled;
+    private final String modelName;
+    private final int m;
+    private final int efConstruction;
+    private final int efSearch;
+    private final double compactionRatio;
+    private final int refreshPageSize;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<UUID, Integer> nodes = new HashMap<>();
+    private final List<UUID> nodeIncidents = new ArrayList<>();
+    private final Map<UUID, String> contentHashes = new HashMap<>();
+    // latest text of each queued or running incident; the worker embeds whatever is here when it gets to it
+    private final Map<UUID, PendingText> pending = new ConcurrentHashMap<>();
+    private final Set<UUID> retries = ConcurrentHashMap.newKeySet();
+    private HnswIndex graph;
+    private volatile String modelId;
+    private final IncidentChangeFeed changes;
+
+    private final Timer buildTimer;
+    private final Timer embedTimer;
+    private final Timer queryTimer;
+    private final Counter completedCounter;
+    private final Counter failedCounter;
+    private final Counter rejectedCounter;
+
+    @Autowired
+    public EmbeddingIncidentIndex(IncidentRepository incidentRepository,
+                                  IncidentEmbeddingRepository embeddingRepository,
+                                  EmbeddingModel embeddingModel,
+                                  AIResilienceGuard resilienceGuard,
+                                  ProviderRateLimiter rateLimiter,
+                                  ApplicationEventPublisher eventPublisher,
+                                  PlatformTransactionManager transactionManager,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${search.similar.strategy:fulltext}") String strategy,
+                                  @Value("${spring.ai.openai.embedding.options.model:text-embedding-ada-002}") String modelName,
+                                  @Value("${search.embedding.m:16}") int m,
+                                  @Value("${search.embedding.ef-construction:100}") int efConstruction,
+                                  @Value("${search.embedding.ef-search:100}") int efSearch,
+                                  @Value("${search.embedding.compaction-ratio:0.2}") double compactionRatio,
+                                  @Value("${search.embedding.refresh-page-size:500}") int refreshPageSize,
+                                  @Value("${search.embedding.workers:2}") int workers,
+                                  @Value("${search.embedding.queue-capacity:1000}") int queueCapacity) {
+        this(incidentRepository, embeddingRepository, embeddingModel, resilienceGuard, rateLimiter,
+                eventPublisher, transactionManager, meterRegistry,
+                STRATEGY.equals(strategy), modelName, m, efConstruction, efSearch, compactionRatio, refreshPageSize,
+                new ThreadPoolExecutor(workers, workers, 60L, TimeUnit.SECONDS,
+                        new LinkedBlockingQueue<>(queueCapacity),
+                        new CustomizableThreadFactory("embedding-"),
+                        new ThreadPoolExecutor.AbortPolicy()));
+    }
+
+    EmbeddingIncidentIndex(IncidentRepository incidentRepository,
+                           IncidentEmbeddingRepository embeddingRepository,
+                           EmbeddingModel embeddingModel,
+                           AIResilienceGuard resilienceGuard,
+                           ProviderRateLimiter rateLimiter,
+                           ApplicationEventPublisher eventPublisher,
+                           PlatformTransactionManager transactionManager,
+                           MeterRegistry meterRegistry,
+                           boolean enabled,
+                           String modelName,
+                           int m,
+                           int efConstruction,
+                           int efSearch,
+                           double compactionRatio,
+                           int refreshPageSize,
+                           Executor executor) {
+        this.incidentRepository = incidentRepository;
+        this.embeddingRepository = embeddingRepository;
+        this.embeddingModel = embeddingModel;
+        this.resilienceGuard = resilienceGuard;
+        this.rateLimiter = rateLimiter;
+        this.eventPublisher = eventPublisher;
+        this.enabled = enabled;
+        this.modelName = modelName;
+        this.m = m;
+        this.efConstruction = efConstruction;
+        this.efSearch = efSearch;
+        this.compactionRatio = compactionRatio;
+        this.refreshPageSize = refreshPageSize;
+        this.changes = new IncidentChangeFeed(incidentRepository, refreshPageSize);
+        this.executor = executor;
+
+        if (transactionManager != null) {
+            this.persistTx = new TransactionTemplate(transactionManager);
+            this.persistTx.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        } else {
+            this.persistTx = null;
+        }
+
+        this.buildTimer = Timer.builder("search.embedding.build")
+                .description("Time to load stored embeddings and build the HNSW graph at startup")
+                .register(meterRegistry);
+        this.embedTimer = Timer.builder("search.embedding.embed")
+                .description("Time to embed and index one incident")
+                .register(meterRegistry);
+        this.queryTimer = Timer.builder("search.embedding.query")
+                .description("Time to embed a similarity query and search the HNSW graph")
+                .register(meterRegistry);
+        this.completedCounter = taskCounter(meterRegistry, "completed");
+        this.failedCounter = taskCounter(meterRegistry, "failed");
+        this.rejectedCounter = taskCounter(meterRegistry, "rejected");
+        Gauge.builder("search.embedding.vectors", this, EmbeddingIncidentIndex::size)
+                .description("Incidents in the embedding index")
+                .register(meterRegistry);
+        Gauge.builder("search.embedding.pending", pending, Map::size)
+                .description("Incidents waiting to be embedded")
+                .register(meterRegistry);
+        Gauge.builder("search.embedding.memory", this, EmbeddingIncidentIndex::vectorBytes)
+                .description("Off-heap memory reserved for embedding vectors")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void build() {
+        if (!enabled) {
+            return;
+        }
+        long start = System.nanoTime();
+        int loaded = loadStored();
+        long elapsed = System.nanoTime() - start;
+        buildTimer.record(elapsed, TimeUnit.NANOSECONDS);
+        log.info("Embedding index built from {} stored vectors ({}) in {} ms, ~{} KB off-heap",
+                loaded, modelId(), TimeUnit.NANOSECONDS.toMillis(elapsed), vectorBytes() / 1024);
+        refresh();
+    }
+
+    /**
+     * Re-queues incidents whose embedding failed, then queues incidents changed since the previous run
+     * whose text has no matching vector, and drops archived ones.
+     */
+    @Scheduled(fixedDelayString = "${search.embedding.refresh-interval-ms:30000}",
+               initialDelayString = "${search.embedding.refresh-interval-ms:30000}")
+    public synchronized void refresh() {
+        if (!enabled) {
+            return;
+        }
+
+        if (!retries.isEmpty()) {
+            List<UUID> retrying = new ArrayList<>(retries);
+            retrying.forEach(retries::remove);
+            // current text from the database: an edit since the failure must not be overwritten by the old one
+            incidentRepository.findAllById(retrying).forEach(this::update);
+        }
+
+        changes.poll(page -> {
+            for (int i = 0; i < page.size(); i++) {
+                if (!update(page.get(i))) {
+                    // queue full: retry from this incident on the next run
+                    return i;
+                }
+            }
+            return page.size();
+        });
+    }
+
+    /**
+     * Embeds and indexes the incident in the background once the current transaction commits
+     * (immediately outside one), or removes it when archived.
+     */
+    public void onSaved(Incident incident) {
+        if (!enabled) {
+            return;
+        }
+        UUID id = incident.getId();
+        String title = incident.getTitle();
+        String description = incident.getDescription();
+        boolean archived = incident.isArchived();
+        Runnable update = () -> {
+            if (archived) {
+                remove(id);
+            } else {
+                submit(id, title, description);
+            }
+        };
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    update.run();
+                }
+            });
+        } else {
+            update.run();
+        }
+    }
+
+    /**
+     * Incidents whose embedding is closest to that of {@code text}, scored by cosine similarity.
+     * Incidents not embedded yet are not found.
+     */
+    public List<Match> findSimilar(String text, UUID excludeId, int limit) {
+        List<ScoredId> nearest = findSimilarIds(text, excludeId, limit);
+        if (nearest.isEmpty()) {
+            return List.of();
+        }
+
+        Map<UUID, Incident> incidents = new HashMap<>();
+        incidentRepository.findAllById(nearest.stream().map(ScoredId::incidentId).toList())
+                .forEach(incident -> incidents.put(incident.getId(), incident));
+        List<Match> matches = new ArrayList<>(nearest.size());
+        for (ScoredId neighbor : nearest) {
+            Incident incident = incidents.get(neighbor.incidentId());
+            if (incident != null && !incident.isArchived()) {
+                matches.add(new Match(incident, neighbor.score()));
+            }
+        }
+        return matches;
+    }
+
+    /**
+     * Ids of the incidents whose embedding is closest to that of {@code text}, scored by cosine similarity,
+     * straight from the graph without loading them.
+     */
+    public List<ScoredId> findSimilarIds(String text, UUID excludeId, int limit) {
+        if (limit <= 0 || text == null || text.isBlank()) {
+            return List.of();
+        }
+
+        long start = System.nanoTime();
+        float[] query = embed(text, AnalysisPriority.INTERACTIVE);
+        List<ScoredId> nearest = new ArrayList<>(limit);
+        lock.readLock().lock();
+        try {
+            if (graph == null || graph.dimensions() != query.length) {
+                return List.of();
+            }
+            for (HnswIndex.Candidate candidate : graph.search(query, limit + 1, Math.max(efSearch, limit + 1))) {
+                UUID id = nodeIncidents.get(candidate.node());
+                if (!id.equals(excludeId) && nearest.size() < limit) {
+                    nearest.add(new ScoredId(id, candidate.similarity()));
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+            queryTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+        return nearest;
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return nodes.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public long vectorBytes() {
+        lock.readLock().lock();
+        try {
+            return graph != null ? graph.vectorBytes() : 0L;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (executor instanceof ExecutorService service) {
+            service.shutdownNow();
+        }
+    }
+
+    // ── private helpers ──────────────────────────────────────────────────────
+
+    private int loadStored() {
+        int loaded = 0;
+        Slice<IncidentEmbedding> slice;
+        int page = 0;
+        do {
+            slice = embeddingRepository.findActiveByModel(modelId(), PageRequest.of(page++, refreshPageSize));
+            lock.writeLock().lock();
+            try {
+                for (IncidentEmbedding embedding : slice.getContent()) {
+                    index(embedding.getIncidentId(), embedding.getContentHash(), decode(embedding.getVector()));
+                    loaded++;
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        } while (slice.hasNext());
+        return loaded;
+    }
+
+    private boolean update(Incident incident) {
+        if (incident.isArchived()) {
+            remove(incident.getId());
+            return true;
+        }
+        return submit(incident.getId(), incident.getTitle(), incident.getDescription());
+    }
+
+    private boolean submit(UUID id, String title, String description) {
+        PendingText text = new PendingText(title, description, AIAnalysisCache.keyFor(title, description));
+        if (isIndexed(id, text.contentHash())) {
+            return true;
+        }
+        if (pending.put(id, text) != null) {
+            // already queued or running: the worker picks up this text
+            return true;
+        }
+        try {
+            executor.execute(() -> embedLatest(id));
+            return true;
+        } catch (RejectedExecutionException e) {
+            pending.remove(id);
+            retries.add(id);
+            rejectedCounter.increment();
+            log.warn("Embedding queue rejected incident {} — it will be retried by the next refresh", id);
+            return false;
+        }
+    }
+
+    /**
+     * Embeds the latest pending text of the incident, again if it changed meanwhile, until it is current.
+     */
+    private void embedLatest(UUID id) {
+        PendingText text = pending.get(id);
+        while (text != null) {
+            boolean embedded = isIndexed(id, text.contentHash()) || embed(id, text);
+            if (pending.remove(id, text)) {
+                if (!embedded) {
+                    retries.add(id);
+                }
+                return;
+            }
+            text = pending.get(id);
+        }
+    }
+
+    private boolean isIndexed(UUID id, String contentHash) {
+        lock.readLock().lock();
+        try {
+            return contentHash.equals(contentHashes.get(id));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private boolean embed(UUID id, PendingText text) {
+        long start = System.nanoTime();
+        try {
+            float[] vector = embed(text.title() + "\n" + text.description(), AnalysisPriority.BULK);
+            IncidentEmbedding embedding = IncidentEmbedding.builder()
+                    .incidentId(id)
+                    .contentHash(text.contentHash())
+                    .model(modelId())
+                    .dimensions(vector.length)
+                    .vector(encode(vector))
+                    .createdAt(LocalDateTime.now())
+                    .build();
+            if (persistTx != null) {
+                persistTx.executeWithoutResult(status -> embeddingRepository.save(embedding));
+            } else {
+                embeddingRepository.save(embedding);
+            }
+
+            boolean indexed = false;
+            lock.writeLock().lock();
+            try {
+                // not if archived meanwhile
+                if (pending.containsKey(id)) {
+                    indexed = index(id, text.contentHash(), vector);
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+            if (indexed) {
+                eventPublisher.publishEvent(new IncidentEmbeddedEvent(id, text.title(), text.description()));
+            }
+            completedCounter.increment();
+            return true;
+        } catch (RuntimeException e) {
+            failedCounter.increment();
+            log.warn("Embedding incident {} failed ({}) — it will be retried by the next refresh", id, e.getMessage());
+            return false;
+        } finally {
+            embedTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private void remove(UUID id) {
+        pending.remove(id);
+        retries.remove(id);
+        lock.writeLock().lock();
+        try {
+            Integer node = nodes.remove(id);
+            contentHashes.remove(id);
+            if (node != null) {
+                graph.markDeleted(node);
+                compactIfNeeded();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Inserts or replaces the incident's vector, unless its dimensions do not match the graph's;
+     * the write lock must be held.
+     */
+    private boolean index(UUID id, String contentHash, float[] vector) {
+        if (graph == null) {
+            graph = new HnswIndex(vector.length, m, efConstruction, GRAPH_SEED);
+        } else if (vector.length != graph.dimensions()) {
+            log.warn("Skipping {}-dimension embedding of incident {} in a {}-dimension index",
+                    vector.length, id, graph.dimensions());
+            return false;
+        }
+        Integer previous = nodes.get(id);
+        if (previous != null) {
+            graph.markDeleted(previous);
+        }
+        int node = graph.add(vector);
+        nodeIncidents.add(id);
+        nodes.put(id, node);
+        contentHashes.put(id, contentHash);
+        compactIfNeeded();
+        return true;
+    }
+
+    /**
+     * Rebuilds the graph from live vectors, renumbering nodes, once too many are deleted.
+     */
+    private void compactIfNeeded() {
+        if (graph.deletedCount() == 0 || graph.deletedCount() < compactionRatio * graph.size()) {
+            return;
+        }
+        HnswIndex rebuilt = new HnswIndex(graph.dimensions(), m, efConstruction, GRAPH_SEED);
+        List<UUID> rebuiltIncidents = new ArrayList<>(nodes.size());
+        for (int node = 0; node < graph.size(); node++) {
+            if (!graph.isDeleted(node)) {
+                UUID id = nodeIncidents.get(node);
+                nodes.put(id, rebuilt.add(graph.vector(node)));
+                rebuiltIncidents.add(id);
+            }
+        }
+        graph = rebuilt;
+        nodeIncidents.clear();
+        nodeIncidents.addAll(rebuiltIncidents);
+    }
+
+    /**
+     * Normalized embedding of {@code text}. A local model is called directly; a remote one within the
+     * provider's rate limit and behind the resilience guard.
+     */
+    private float[] embed(String text, AnalysisPriority priority) {
+        if (embeddingModel instanceof HashingEmbeddingModel) {
+            return normalized(embeddingModel.embed(text));
+        }
+        rateLimiter.acquire(priority, rateLimiter.estimateTokens(text));
+        return normalized(resilienceGuard.call(() -> embeddingModel.embed(text)));
+    }
+
+    private String modelId() {
+        if (modelId == null) {
+            modelId = embeddingModel.getClass().getSimpleName() + ":" + modelName + ":" + embeddingModel.dimensions();
+        }
+        return modelId;
+    }
+
+    private static float[] normalized(float[] embedding) {
+        float[] vector = Objects.requireNonNull(embedding, "embedding").clone();
+        HnswIndex.normalize(vector);
+        return vector;
+    }
+
+    private static byte[] encode(float[] vector) {
+        ByteBuffer buffer = ByteBuffer.allocate(vector.length * Float.BYTES);
+        buffer.asFloatBuffer().put(vector);
+        return buffer.array();
+    }
+
+    private static float[] decode(byte[] bytes) {
+        float[] vector = new float[bytes.length / Float.BYTES];
+        ByteBuffer.wrap(bytes).asFloatBuffer().get(vector);
+        return vector;
+    }
+
+    private static Counter taskCounter(MeterRegistry registry, String outcome) {
+        return Counter.builder("search.embedding.tasks")
+                .description("Background incident embedding tasks")
+                .tag("outcome", outcome)
+                .register(registry);
+    }
+
+    private record PendingText(String title, String description, String contentHash) {
+    }
+}
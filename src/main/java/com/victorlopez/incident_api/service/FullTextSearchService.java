@@ -0,0 +1,152 @@
+package com.victorlopez.incident_api.service;
+
+import com.victorlopez.incident_api.config.FullTextSearchSchema;
+import com.victorlopez.incident_api.model.Category;
+import com.victorlopez.incident_api.model.Incident;
+import com.victorlopez.incident_api.model.Severity;
+import com.victorlopez.incident_api.model.Status;
+import com.victorlopez.incident_api.repository.IncidentRepository;
+import com.victorlopez.incident_api.repository.IncidentSearchHit;
+import com.victorlopez.incident_api.service.IncidentTokenizer.Tokens;
+import com.victorlopez.incident_api.service.SimilarIncidentFinder.Match;
+import com.victorlopez.incident_api.service.SimilarIncidentFinder.ScoredId;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Ranked text search over incident titles and descriptions.
+ *
+ * On PostgreSQL, queries run against the GIN-indexed {@code search_vector} column created by
+ * {@link FullTextSearchSchema} and are ranked with {@code ts_rank}, so their cost depends on
+ * the number of matches rather than the table size. Only the ids and ranks of one page are
+ * selected; the incidents themselves are then loaded by id.
+ *
+ * Elsewhere (H2 in tests) search falls back to {@code LIKE} matching and similarity to a
+ * keyword scan, scored by the share of query terms that occur as terms of an incident.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+@Transactional(readOnly = true)
+public class FullTextSearchService {
+
+    private final IncidentRepository incidentRepository;
+    private final FullTextSearchSchema schema;
+
+    /**
+     * Non-archived incidents matching {@code query} (web-search syntax: words, "phrases", -exclusions),
+     * best match first. The page's sort is ignored.
+     */
+    public Page<Match> search(String query, Status status, Severity severity, Category category, Pageable pageable) {
+        Pageable unsorted = PageRequest.of(pageable.getPageNumber(), pageable.getPageSize());
+
+        if (!schema.isAvailable()) {
+            List<String> terms = terms(query);
+            return incidentRepository.searchByKeyword(query.trim(), status, severity, category, unsorted)
+                    .map(incident -> new Match(incident, keywordScore(incident, terms)));
+        }
+
+        Page<IncidentSearchHit> hits = incidentRepository.searchFullText(query, name(status), name(severity),
+                name(category), unsorted);
+        return new PageImpl<>(load(hits.getContent()), unsorted, hits.getTotalElements());
+    }
+
+    /**
+     * Incidents sharing any keyword with {@code text}, ranked by {@code ts_rank}.
+     */
+    public List<Match> findSimilar(String text, UUID excludeId, int limit) {
+        List<String> terms = terms(text);
+        if (terms.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+
+        if (!schema.isAvailable()) {
+            return incidentRepository.findByArchivedFalse().stream()
+                    .filter(incident -> !incident.getId().equals(excludeId))
+                    .map(incident -> new Match(incident, keywordScore(incident, terms)))
+                    .filter(match -> match.score() > 0)
+                    .sorted(Comparator.comparingDouble(Match::score).reversed())
+                    .limit(limit)
+                    .toList();
+        }
+
+        // terms are letters and digits only, so they are safe to join into tsquery syntax
+        String tsquery = String.join(" | ", terms);
+        return load(incidentRepository.findSimilarFullText(tsquery, excludeId, limit));
+    }
+
+    /**
+     * As {@link #findSimilar}, but only ids and ranks. With full-text search these come straight from the
+     * rank query and no incident is loaded; the keyword fallback has to load every candidate to score it.
+     */
+    public List<ScoredId> findSimilarIds(String text, UUID excludeId, int limit) {
+        if (!schema.isAvailable()) {
+            return findSimilar(text, excludeId, limit).stream()
+                    .map(match -> new ScoredId(match.incident().getId(), match.score()))
+                    .toList();
+        }
+        List<String> terms = terms(text);
+        if (terms.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        return incidentRepository.findSimilarFullText(String.join(" | ", terms), excludeId, limit).stream()
+                .map(hit -> new ScoredId(hit.getId(), hit.getRank()))
+                .toList();
+    }
+
+    // ── private helpers ──────────────────────────────────────────────────────
+
+    private List<Match> load(List<IncidentSearchHit> hits) {
+        if (hits.isEmpty()) {
+            return List.of();
+        }
+        Map<UUID, Incident> incidents = incidentRepository.findAllById(hits.stream().map(IncidentSearchHit::getId).toList())
+                .stream()
+                .collect(Collectors.toMap(Incident::getId, Function.identity()));
+
+        List<Match> matches = new ArrayList<>(hits.size());
+        for (IncidentSearchHit hit : hits) {
+            Incident incident = incidents.get(hit.getId());
+            if (incident != null) {
+                matches.add(new Match(incident, hit.getRank()));
+            }
+        }
+        return matches;
+    }
+
+    private static List<String> terms(String text) {
+        return IncidentTokenizer.SEARCH.tokenize(text).terms();
+    }
+
+    private static double keywordScore(Incident incident, List<String> terms) {
+        if (terms.isEmpty()) {
+            return 0.0;
+        }
+        Tokens tokens = IncidentTokenizer.SEARCH.tokenize(incident.getTitle(), incident.getDescription(), Integer.MAX_VALUE);
+        int matched = 0;
+        for (String term : terms) {
+            if (tokens.contains(term)) {
+                matched++;
+            }
+        }
+        return (double) matched / terms.size();
+    }
+
+    private static String name(Enum<?> value) {
+        return value != null ? value.name() : null;
+    }
+}
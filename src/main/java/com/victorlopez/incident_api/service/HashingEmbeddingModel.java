@@ -0,0 +1,83 @@
+package com.victorlopez.incident_api.service;
+
+import org.springframework.ai.document.Document;
+import org.springframework.ai.embedding.Embedding;
+import org.springframework.ai.embedding.EmbeddingModel;
+import org.springframework.ai.embedding.EmbeddingRequest;
+import org.springframework.ai.embedding.EmbeddingResponse;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Deterministic, offline {@link EmbeddingModel} based on feature hashing.
+ *
+ * Every lowercase word and every character trigram of a word (padded with {@code #}) is hashed into
+ * one of {@code dimensions} buckets with a hash-derived sign, and the vector is L2-normalized.
+ * Texts sharing words or word fragments ("timeout" / "timeouts") therefore get a high cosine
+ * similarity. Synonyms ("DB unreachable" / "Postgres cluster down") do not, which is why
+ * production uses a learned model. This one serves tests and local development without API calls.
+ */
+public class HashingEmbeddingModel implements EmbeddingModel {
+
+    private final int dimensions;
+
+    public HashingEmbeddingModel(int dimensions) {
+        this.dimensions = dimensions;
+    }
+
+    @Override
+    public EmbeddingResponse call(EmbeddingRequest request) {
+        List<String> texts = request.getInstructions();
+        List<Embedding> embeddings = new ArrayList<>(texts.size());
+        for (int i = 0; i < texts.size(); i++) {
+            embeddings.add(new Embedding(embed(texts.get(i)), i));
+        }
+        return new EmbeddingResponse(embeddings);
+    }
+
+    @Override
+    public float[] embed(Document document) {
+        return embed(document.getContent());
+    }
+
+    @Override
+    public float[] embed(String text) {
+        float[] vector = new float[dimensions];
+        if (text != null) {
+            StringBuilder word = new StringBuilder();
+            for (int i = 0; i <= text.length(); i++) {
+                char c = i < text.length() ? text.charAt(i) : ' ';
+                if (Character.isLetterOrDigit(c)) {
+                    word.append(Character.toLowerCase(c));
+                } else if (!word.isEmpty()) {
+                    addWord(vector, word.toString());
+                    word.setLength(0);
+                }
+            }
+        }
+        HnswIndex.normalize(vector);
+        return vector;
+    }
+
+    @Override
+    public int dimensions() {
+        return dimensions;
+    }
+
+    // ── private helpers ──────────────────────────────────────────────────────
+
+    private void addWord(float[] vector, String word) {
+        add(vector, word.hashCode(), 1.0f);
+        String padded = "#" + word + "#";
+        for (int i = 0; i + 3 <= padded.length(); i++) {
+            add(vector, padded.substring(i, i + 3).hashCode() * 0x9E3779B1, 0.5f);
+        }
+    }
+
+    private void add(float[] vector, int hash, float weight) {
+        int mixed = hash ^ (hash >>> 16);
+        int bucket = Math.floorMod(mixed, dimensions);
+        vector[bucket] += (mixed & 0x40000000) == 0 ? weight : -weight;
+    }
+}
@@ -0,0 +1,418 @@
+package com.victorlopez.incident_api.service;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.SplittableRandom;
+
+/**
+ * Hierarchical Navigable Small World graph for approximate nearest-neighbor search over
+ * L2-normalized vectors, with cosine similarity computed as a dot product.
+ *
+ * Vectors are kept as float32 in off-heap direct buffers (4 bytes per dimension, no per-vector
+ * object headers), so a 1536-dimension embedding costs 6 KB outside the Java heap. The first buffer
+ * doubles until it holds a chunk of at most 64 MB; further vectors go to new chunks, so no single
+ * buffer nears the 2 GB limit and growing never copies the existing vectors. Graph links are
+ * int arrays: up to {@code 2m} neighbors on the bottom layer and {@code m} on the upper ones.
+ *
+ * Nodes are identified by dense ints in insertion order. Deleting a node only marks it: it is still
+ * traversed, which keeps the graph connected, but never returned. Owners rebuild the graph once too
+ * many nodes are deleted.
+ *
+ * Not thread-safe: searches may run concurrently with each other, but not with {@link #add} or
+ * {@link #markDeleted}.
+ */
+public class HnswIndex {
+
+    private static final int INITIAL_CAPACITY = 1024;
+    private static final int CHUNK_BYTES = 64 * 1024 * 1024;
+
+    private final int dimensions;
+    private final int m;
+    private final int efConstruction;
+    private final double levelMultiplier;
+    private final SplittableRandom random;
+
+    // vectors of nodes [i << chunkShift, (i + 1) << chunkShift) in chunks[i]
+    private final int chunkShift;
+    private final int chunkMask;
+    private final List<FloatBuffer> chunks = new ArrayList<>();
+    private int capacity;
+    private int size;
+
+    // links[node][level] = {count, neighbor...}
+    private int[][][] links = new int[0][][];
+    private final BitSet deleted = new BitSet();
+    private int deletedCount;
+    private int entryPoint = -1;
+    private int topLevel = -1;
+
+    public HnswIndex(int dimensions, int m, int efConstruction, long seed) {
+        this(dimensions, m, efConstruction, seed, CHUNK_BYTES);
+    }
+
+    HnswIndex(int dimensions, int m, int efConstruction, long seed, int chunkBytes) {
+        this.dimensions = dimensions;
+        this.m = m;
+        this.efConstruction = efConstruction;
+        this.levelMultiplier = 1.0 / Math.log(m);
+        this.random = new SplittableRandom(seed);
+        // the largest power-of-two number of vectors that fits in a chunk, at least one
+        long vectorsPerChunk = Math.max(1L, chunkBytes / ((long) dimensions * Float.BYTES));
+        this.chunkShift = 63 - Long.numberOfLeadingZeros(vectorsPerChunk);
+        this.chunkMask = (1 << chunkShift) - 1;
+        grow();
+    }
+
+    /**
+     * Inserts a normalized vector and returns its node id.
+     */
+    public int add(float[] vector) {
+        if (vector.length != dimensions) {
+            throw new IllegalArgumentException("Expected " + dimensions + " dimensions, got " + vector.length);
+        }
+        if (size == capacity) {
+            grow();
+        }
+        int node = size++;
+        chunk(node).put(offset(node), vector);
+
+        int level = (int) (-Math.log(1.0 - random.nextDouble()) * levelMultiplier);
+        links[node] = new int[level + 1][];
+        for (int l = 0; l <= level; l++) {
+            links[node][l] = new int[maxDegree(l) + 1];
+        }
+
+        if (entryPoint < 0) {
+            entryPoint = node;
+            topLevel = level;
+            return node;
+        }
+
+        int current = entryPoint;
+        for (int l = topLevel; l > level; l--) {
+            current = greedyClosest(vector, current, l);
+        }
+        for (int l = Math.min(level, topLevel); l >= 0; l--) {
+            List<Candidate> nearest = searchLayer(vector, current, efConstruction, l);
+            int[] selected = selectNeighbors(nearest, m);
+            for (int neighbor : selected) {
+                addLink(node, neighbor, l);
+                addLink(neighbor, node, l);
+            }
+            current = nearest.get(0).node();
+        }
+
+        if (level > topLevel) {
+            topLevel = level;
+            entryPoint = node;
+        }
+        return node;
+    }
+
+    /**
+     * Excludes a node from future results.
+     */
+    public void markDeleted(int node) {
+        if (node >= 0 && node < size && !deleted.get(node)) {
+            deleted.set(node);
+            deletedCount++;
+        }
+    }
+
+    /**
+     * Up to {@code k} live nodes most similar to {@code query}, best first. A larger {@code ef}
+     * explores more of the graph: higher recall, slower search.
+     */
+    public List<Candidate> search(float[] query, int k, int ef) {
+        if (entryPoint < 0 || k <= 0) {
+            return List.of();
+        }
+        int current = entryPoint;
+        for (int l = topLevel; l > 0; l--) {
+            current = greedyClosest(query, current, l);
+        }
+        List<Candidate> nearest = searchLayer(query, current, Math.max(ef, k), 0);
+        List<Candidate> results = new ArrayList<>(k);
+        for (Candidate candidate : nearest) {
+            if (!deleted.get(candidate.node())) {
+                results.add(candidate);
+                if (results.size() == k) {
+                    break;
+                }
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Exact top {@code k} by scanning every live vector; the baseline for measuring recall.
+     */
+    public List<Candidate> bruteForce(float[] query, int k) {
+        PriorityQueue<Candidate> heap = new PriorityQueue<>(k + 1, Comparator.comparingDouble(Candidate::similarity));
+        for (int node = 0; node < size; node++) {
+            if (deleted.get(node)) {
+                continue;
+            }
+            float similarity = dot(query, node);
+            if (heap.size() < k) {
+                heap.add(new Candidate(node, similarity));
+            } else if (similarity > heap.peek().similarity()) {
+                heap.poll();
+                heap.add(new Candidate(node, similarity));
+            }
+        }
+        List<Candidate> results = new ArrayList<>(heap);
+        results.sort(Comparator.comparingDouble(Candidate::similarity).reversed());
+        return results;
+    }
+
+    public float[] vector(int node) {
+        float[] vector = new float[dimensions];
+        chunk(node).get(offset(node), vector);
+        return vector;
+    }
+
+    public boolean isDeleted(int node) {
+        return deleted.get(node);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int liveSize() {
+        return size - deletedCount;
+    }
+
+    public int deletedCount() {
+        return deletedCount;
+    }
+
+    public int dimensions() {
+        return dimensions;
+    }
+
+    /**
+     * Scales {@code vector} to unit length in place, as the index expects; zero vectors are left as is.
+     */
+    public static void normalize(float[] vector) {
+        double norm = 0.0;
+        for (float value : vector) {
+            norm += value * value;
+        }
+        if (norm > 0) {
+            float scale = (float) (1.0 / Math.sqrt(norm));
+            for (int i = 0; i < vector.length; i++) {
+                vector[i] *= scale;
+            }
+        }
+    }
+
+    /**
+     * Off-heap bytes reserved for vectors.
+     */
+    public long vectorBytes() {
+        return (long) capacity * dimensions * Float.BYTES;
+    }
+
+    /**
+     * A node and its cosine similarity to the query.
+     */
+    public record Candidate(int node, float similarity) {
+    }
+
+    // ── private helpers ──────────────────────────────────────────────────────
+
+    private int greedyClosest(float[] query, int start, int level) {
+        int current = start;
+        float best = dot(query, current);
+        boolean improved = true;
+        while (improved) {
+            improved = false;
+            int[] neighbors = links[current][level];
+            for (int i = 1; i <= neighbors[0]; i++) {
+                float similarity = dot(query, neighbors[i]);
+                if (similarity > best) {
+                    best = similarity;
+                    current = neighbors[i];
+                    improved = true;
+                }
+            }
+        }
+        return current;
+    }
+
+    /**
+     * Best-first search of one layer, keeping the {@code ef} most similar nodes seen; returned best first.
+     */
+    private List<Candidate> searchLayer(float[] query, int start, int ef, int level) {
+        BitSet visited = new BitSet(size);
+        PriorityQueue<Candidate> frontier = new PriorityQueue<>(
+                Comparator.comparingDouble(Candidate::similarity).reversed());
+        PriorityQueue<Candidate> found = new PriorityQueue<>(ef + 1, Comparator.comparingDouble(Candidate::similarity));
+
+        Candidate first = new Candidate(start, dot(query, start));
+        visited.set(start);
+        frontier.add(first);
+        found.add(first);
+
+        while (!frontier.isEmpty()) {
+            Candidate closest = frontier.poll();
+            if (found.size() >= ef && closest.similarity() < found.peek().similarity()) {
+                break;
+            }
+            int[][] nodeLinks = links[closest.node()];
+            if (level >= nodeLinks.length) {
+                continue;
+            }
+            int[] neighbors = nodeLinks[level];
+            for (int i = 1; i <= neighbors[0]; i++) {
+                int neighbor = neighbors[i];
+                if (visited.get(neighbor)) {
+                    continue;
+                }
+                visited.set(neighbor);
+                float similarity = dot(query, neighbor);
+                if (found.size() < ef || similarity > found.peek().similarity()) {
+                    Candidate candidate = new Candidate(neighbor, similarity);
+                    frontier.add(candidate);
+                    found.add(candidate);
+                    if (found.size() > ef) {
+                        found.poll();
+                    }
+                }
+            }
+        }
+
+        List<Candidate> results = new ArrayList<>(found);
+        results.sort(Comparator.comparingDouble(Candidate::similarity).reversed());
+        return results;
+    }
+
+    /**
+     * The HNSW neighbor heuristic: a candidate is kept only if it is closer to the new node than to any
+     * neighbor kept so far, which spreads links across directions; remaining slots go to the closest
+     * discarded candidates.
+     */
+    private int[] selectNeighbors(List<Candidate> candidates, int limit) {
+        int[] selected = new int[Math.min(limit, candidates.size())];
+        int count = 0;
+        List<Candidate> discarded = new ArrayList<>();
+        for (Candidate candidate : candidates) {
+            if (count == selected.length) {
+                break;
+            }
+            boolean diverse = true;
+            for (int i = 0; i < count; i++) {
+                if (dot(candidate.node(), selected[i]) > candidate.similarity()) {
+                    diverse = false;
+                    break;
+                }
+            }
+            if (diverse) {
+                selected[count++] = candidate.node();
+            } else {
+                discarded.add(candidate);
+            }
+        }
+        for (int i = 0; count < selected.length && i < discarded.size(); i++) {
+            selected[count++] = discarded.get(i).node();
+        }
+        return Arrays.copyOf(selected, count);
+    }
+
+    /**
+     * Links {@code from} to {@code to}; a full neighbor list keeps its {@code maxDegree} most similar entries.
+     */
+    private void addLink(int from, int to, int level) {
+        int[] neighbors = links[from][level];
+        int count = neighbors[0];
+        int maxDegree = neighbors.length - 1;
+        if (count < maxDegree) {
+            neighbors[count + 1] = to;
+            neighbors[0] = count + 1;
+            return;
+        }
+
+        List<Candidate> candidates = new ArrayList<>(maxDegree + 1);
+        candidates.add(new Candidate(to, dot(from, to)));
+        for (int i = 1; i <= count; i++) {
+            candidates.add(new Candidate(neighbors[i], dot(from, neighbors[i])));
+        }
+        candidates.sort(Comparator.comparingDouble(Candidate::similarity).reversed());
+        int[] kept = selectNeighbors(candidates, maxDegree);
+        System.arraycopy(kept, 0, neighbors, 1, kept.length);
+        neighbors[0] = kept.length;
+    }
+
+    private int maxDegree(int level) {
+        return level == 0 ? 2 * m : m;
+    }
+
+    private float dot(float[] query, int node) {
+        FloatBuffer vectors = chunk(node);
+        int offset = offset(node);
+        float sum = 0f;
+        for (int i = 0; i < dimensions; i++) {
+            sum += query[i] * vectors.get(offset + i);
+        }
+        return sum;
+    }
+
+    private float dot(int a, int b) {
+        FloatBuffer vectorsA = chunk(a);
+        FloatBuffer vectorsB = chunk(b);
+        int offsetA = offset(a);
+        int offsetB = offset(b);
+        float sum = 0f;
+        for (int i = 0; i < dimensions; i++) {
+            sum += vectorsA.get(offsetA + i) * vectorsB.get(offsetB + i);
+        }
+        return sum;
+    }
+
+    private FloatBuffer chunk(int node) {
+        return chunks.get(node >>> chunkShift);
+    }
+
+    // at most chunkBytes / Float.BYTES, so it cannot overflow
+    private int offset(int node) {
+        return (node & chunkMask) * dimensions;
+    }
+
+    /**
+     * Doubles the single first chunk up to the full chunk size, then adds full chunks.
+     */
+    private void grow() {
+        int chunkVectors = chunkMask + 1;
+        if (capacity < chunkVectors) {
+            int newCapacity = Math.min(Math.max(capacity * 2, INITIAL_CAPACITY), chunkVectors);
+            FloatBuffer grown = allocateChunk(newCapacity);
+            if (!chunks.isEmpty()) {
+                grown.put(0, chunks.get(0), 0, size * dimensions);
+                chunks.clear();
+            }
+            chunks.add(grown);
+            capacity = newCapacity;
+        } else {
+            chunks.add(allocateChunk(chunkVectors));
+            capacity = Math.addExact(capacity, chunkVectors);
+        }
+        if (links.length < capacity) {
+            links = Arrays.copyOf(links, capacity);
+        }
+    }
+
+    private FloatBuffer allocateChunk(int vectors) {
+        return ByteBuffer.allocateDirect(vectors * dimensions * Float.BYTES)
+                .order(ByteOrder.nativeOrder())
+                .asFloatBuffer();
+    }
+}
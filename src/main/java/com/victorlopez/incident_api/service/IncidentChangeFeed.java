@@ -0,0 +1,70 @@
+package com.victorlopez.incident_api.service;
+
+import com.victorlopez.incident_api.model.Incident;
+import com.victorlopez.incident_api.repository.IncidentRepository;
+import org.springframework.data.domain.PageRequest;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.ToIntFunction;
+
+/**
+ * Incidents changed since the previous poll, for in-memory indexes that refresh incrementally.
+ *
+ * Pages are read in {@code (updatedAt, id)} order and continue after the last row of the previous
+ * page, so incidents sharing a timestamp across a page boundary are not skipped. {@code updatedAt}
+ * is stamped before the transaction commits, so a slow transaction can become visible behind rows
+ * already read; every poll therefore starts {@link #OVERLAP} before the newest timestamp seen.
+ * Rows in that window are delivered again and consumers must apply them idempotently.
+ *
+ * Not thread-safe: each owner polls from a single scheduled method.
+ */
+final class IncidentChangeFeed {
+
+    static final Duration OVERLAP = Duration.ofMinutes(1);
+
+    private static final LocalDateTime EPOCH = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    private final IncidentRepository incidentRepository;
+    private final int pageSize;
+    private LocalDateTime watermark = EPOCH;
+
+    IncidentChangeFeed(IncidentRepository incidentRepository, int pageSize) {
+        this.incidentRepository = incidentRepository;
+        this.pageSize = pageSize;
+    }
+
+    /**
+     * Hands each page to {@code consumer}, which returns how many leading rows it handled.
+     * The poll stops after the last page or after a page that was not handled in full;
+     * unhandled rows are read again on the next poll.
+     *
+     * @return rows handled
+     */
+    int poll(ToIntFunction<List<Incident>> consumer) {
+        LocalDateTime since = watermark.equals(EPOCH) ? EPOCH : watermark.minus(OVERLAP);
+        List<Incident> page = incidentRepository.findByUpdatedAtGreaterThanEqualOrderByUpdatedAtAscIdAsc(
+                since, PageRequest.of(0, pageSize));
+        int handled = 0;
+        while (!page.isEmpty()) {
+            int count = consumer.applyAsInt(page);
+            if (count > 0) {
+                advance(page.get(count - 1).getUpdatedAt());
+                handled += count;
+            }
+            if (count < page.size() || page.size() < pageSize) {
+                break;
+            }
+            Incident last = page.get(page.size() - 1);
+            page = incidentRepository.findUpdatedAfter(last.getUpdatedAt(), last.getId(), PageRequest.of(0, pageSize));
+        }
+        return handled;
+    }
+
+    private void advance(LocalDateTime updatedAt) {
+        if (updatedAt != null && updatedAt.isAfter(watermark)) {
+            watermark = updatedAt;
+        }
+    }
+}
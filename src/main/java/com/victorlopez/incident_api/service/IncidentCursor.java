@@ -0,0 +1,45 @@
+package com.victorlopez.incident_api.service;
+
+import com.victorlopez.incident_api.exception.InvalidCursorException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Position in the incident listing, which is ordered by {@code (createdAt, id)} newest first.
+ *
+ * A cursor names the incident at the edge of the page it came from and the direction to move in:
+ * forward continues with older incidents after it, backward returns the newer incidents before it.
+ * Clients receive it as an opaque URL-safe token and must not build or parse it themselves.
+ */
+public record IncidentCursor(LocalDateTime createdAt, UUID id, boolean backward) {
+
+    private static final String VERSION = "1";
+    private static final String SEPARATOR = "|";
+
+    public String encode() {
+        String raw = String.join(SEPARATOR, VERSION, backward ? "b" : "f", createdAt.toString(), id.toString());
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Parses a token produced by {@link #encode()}.
+     *
+     * @throws InvalidCursorException if the token is malformed or from an unknown version
+     */
+    public static IncidentCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\" + SEPARATOR);
+            if (parts.length != 4 || !VERSION.equals(parts[0]) || !(parts[1].equals("f") || parts[1].equals("b"))) {
+                throw new InvalidCursorException(token);
+            }
+            return new IncidentCursor(LocalDateTime.parse(parts[2]), UUID.fromString(parts[3]), parts[1].equals("b"));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new InvalidCursorException(token);
+        }
+    }
+}
@@ -0,0 +1,291 @@
+package com.victorlopez.incident_api.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.victorlopez.incident_api.dto.IncidentActivityResponse;
+import com.victorlopez.incident_api.dto.IncidentFilter;
+import com.victorlopez.incident_api.model.Incident;
+import com.victorlopez.incident_api.model.IncidentActivity;
+import com.victorlopez.incident_api.repository.IncidentActivityRepository;
+import com.victorlopez.incident_api.repository.IncidentField;
+import com.victorlopez.incident_api.repository.IncidentRepository;
+import com.victorlopez.incident_api.repository.IncidentSpecifications;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Bulk export of the incident listing as NDJSON or CSV, written to the response as it is read.
+ *
+ * Incidents come from a forward-only cursor that fetches {@code export.fetch-size} rows per round trip.
+ * They are written in chunks of that size: a chunk's activity is loaded with one query (when requested),
+ * its rows are written and flushed, and the persistence context is cleared, which detaches the chunk.
+ * Memory therefore stays at one chunk however many incidents are exported. The whole export runs in one
+ * read-only transaction, which PostgreSQL needs to keep the cursor open and which skips dirty checking.
+ *
+ * Metrics:
+ * - incidents.export.rows{format}: incidents written
+ * - incidents.export{format,outcome=completed|failed}: duration of whole exports
+ */
+@Service
+@Slf4j
+public class IncidentExportService {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final String CSV_LINE_END = "\r\n";
+    private static final List<String> CSV_ACTIVITY_COLUMNS =
+            List.of("activityAction", "activityPerformedBy", "activityDetails", "activityCreatedAt");
+
+    private final IncidentRepository incidentRepository;
+    private final IncidentActivityRepository incidentActivityRepository;
+    private final EntityManager entityManager;
+    private final ObjectWriter jsonWriter;
+    private final MeterRegistry meterRegistry;
+    private final int fetchSize;
+
+    public IncidentExportService(IncidentRepository incidentRepository,
+                                 IncidentActivityRepository incidentActivityRepository,
+                                 EntityManager entityManager,
+                                 ObjectMapper objectMapper,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${export.fetch-size:500}") int fetchSize) {
+        this.incidentRepository = incidentRepository;
+        this.incidentActivityRepository = incidentActivityRepository;
+        this.entityManager = entityManager;
+        // rows are flushed per chunk, not per value; the line break is written after each row
+        this.jsonWriter = objectMapper.writer()
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE)
+                .withRootValueSeparator("");
+        this.meterRegistry = meterRegistry;
+        this.fetchSize = fetchSize;
+    }
+
+    /**
+     * Writes every incident matching {@code filter}, newest first, to {@code out} in {@code format}.
+     * With {@code includeActivity}, an NDJSON incident carries its activity log as {@code activity} and
+     * a CSV incident is repeated on one row per activity. {@code out} is left open.
+     */
+    @Transactional(readOnly = true)
+    public void export(IncidentFilter filter, ExportFormat format, boolean includeActivity, boolean gzip,
+                       OutputStream out) throws IOException {
+        log.info("Exporting incidents as {} (activity: {}, gzip: {}, filter: {})", format, includeActivity, gzip, filter);
+
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "failed";
+        Counter rows = rowCounter(meterRegistry, format);
+        OutputStream target = gzip ? new GZIPOutputStream(out, BUFFER_SIZE) : out;
+        Writer writer = new BufferedWriter(new OutputStreamWriter(target, StandardCharsets.UTF_8), BUFFER_SIZE);
+        JsonGenerator json = jsonWriter.createGenerator(writer);
+        json.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+
+        try (Stream<Incident> incidents = incidentRepository.streamAll(IncidentSpecifications.matching(filter),
+                IncidentSpecifications.LISTING_ORDER, fetchSize)) {
+            if (format == ExportFormat.CSV) {
+                writeCsvHeader(writer, includeActivity);
+            }
+            List<Incident> chunk = new ArrayList<>(fetchSize);
+            for (Iterator<Incident> it = incidents.iterator(); it.hasNext(); ) {
+                chunk.add(it.next());
+                if (chunk.size() == fetchSize) {
+                    writeChunk(chunk, format, includeActivity, writer, json);
+                    rows.increment(chunk.size());
+                    chunk.clear();
+                }
+            }
+            if (!chunk.isEmpty()) {
+                writeChunk(chunk, format, includeActivity, writer, json);
+                rows.increment(chunk.size());
+            }
+
+            json.flush();
+            writer.flush();
+            if (target instanceof GZIPOutputStream compressed) {
+                compressed.finish();
+            }
+            outcome = "completed";
+        } catch (IOException e) {
+            log.warn("Incident export aborted ({}) — the client probably disconnected", e.getMessage());
+            throw e;
+        } finally {
+            sample.stop(exportTimer(meterRegistry, format, outcome));
+        }
+    }
+
+    // ── private helpers ──────────────────────────────────────────────────────
+
+    /**
+     * Writes and flushes one chunk, then detaches its incidents and activity.
+     */
+    private void writeChunk(List<Incident> chunk, ExportFormat format, boolean includeActivity, Writer writer,
+                            JsonGenerator json) throws IOException {
+        Map<UUID, List<IncidentActivity>> activity = includeActivity ? activityOf(chunk) : Map.of();
+        for (Incident incident : chunk) {
+            List<IncidentActivity> incidentActivity = activity.getOrDefault(incident.getId(), List.of());
+            if (format == ExportFormat.NDJSON) {
+                jsonWriter.writeValue(json, jsonRow(incident, includeActivity ? incidentActivity : null));
+                json.writeRaw('\n');
+            } else if (!includeActivity || incidentActivity.isEmpty()) {
+                writeCsvRow(writer, incident, null, includeActivity);
+            } else {
+                for (IncidentActivity entry : incidentActivity) {
+                    writeCsvRow(writer, incident, entry, true);
+                }
+            }
+        }
+        json.flush();
+        writer.flush();
+        entityManager.clear();
+    }
+
+    private Map<UUID, List<IncidentActivity>> activityOf(List<Incident> chunk) {
+        return incidentActivityRepository.findByIncidentIdInOrderByCreatedAtAsc(
+                        chunk.stream().map(Incident::getId).toList())
+                .stream()
+                .collect(Collectors.groupingBy(entry -> entry.getIncident().getId()));
+    }
+
+    private static Map<String, Object> jsonRow(Incident incident, List<IncidentActivity> activity) {
+        Map<String, Object> row = new LinkedHashMap<>();
+        for (IncidentField field : IncidentField.values()) {
+            row.put(field.attribute(), value(incident, field));
+        }
+        if (activity != null) {
+            row.put("activity", activity.stream().map(IncidentExportService::activityResponse).toList());
+        }
+        return row;
+    }
+
+    private static IncidentActivityResponse activityResponse(IncidentActivity activity) {
+        return IncidentActivityResponse.builder()
+                .id(activity.getId())
+                .incidentId(activity.getIncident().getId())
+                .action(activity.getAction())
+                .performedBy(activity.getPerformedBy())
+                .details(activity.getDetails())
+                .createdAt(activity.getCreatedAt())
+                .build();
+    }
+
+    private static void writeCsvHeader(Writer writer, boolean includeActivity) throws IOException {
+        List<String> columns = new ArrayList<>();
+        for (IncidentField field : IncidentField.values()) {
+            columns.add(field.attribute());
+        }
+        if (includeActivity) {
+            columns.addAll(CSV_ACTIVITY_COLUMNS);
+        }
+        writer.write(String.join(",", columns));
+        writer.write(CSV_LINE_END);
+    }
+
+    /**
+     * One CSV row; {@code activity} fills the activity columns, which are left empty when it is null.
+     */
+    private static void writeCsvRow(Writer writer, Incident incident, IncidentActivity activity,
+                                    boolean includeActivity) throws IOException {
+        IncidentField[] fields = IncidentField.values();
+        for (int i = 0; i < fields.length; i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            writeCsvValue(writer, value(incident, fields[i]));
+        }
+        if (includeActivity) {
+            writer.write(',');
+            if (activity != null) {
+                writeCsvValue(writer, activity.getAction());
+                writer.write(',');
+                writeCsvValue(writer, activity.getPerformedBy());
+                writer.write(',');
+                writeCsvValue(writer, activity.getDetails());
+                writer.write(',');
+                writeCsvValue(writer, activity.getCreatedAt());
+            } else {
+                writer.write(",,,");
+            }
+        }
+        writer.write(CSV_LINE_END);
+    }
+
+    /**
+     * Writes {@code value} as a CSV field, quoted (with quotes doubled) when it contains a separator,
+     * quote or line break; null is an empty field.
+     */
+    private static void writeCsvValue(Writer writer, Object value) throws IOException {
+        if (value == null) {
+            return;
+        }
+        String text = value.toString();
+        boolean quote = false;
+        for (int i = 0; i < text.length() && !quote; i++) {
+            char c = text.charAt(i);
+            quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!quote) {
+            writer.write(text);
+            return;
+        }
+        writer.write('"');
+        writer.write(text.replace("\"", "\"\""));
+        writer.write('"');
+    }
+
+    private static Object value(Incident incident, IncidentField field) {
+        return switch (field) {
+            case ID -> incident.getId();
+            case TITLE -> incident.getTitle();
+            case DESCRIPTION -> incident.getDescription();
+            case SEVERITY -> incident.getSeverity();
+            case CATEGORY -> incident.getCategory();
+            case STATUS -> incident.getStatus();
+            case REPORTED_BY -> incident.getReportedBy();
+            case ASSIGNED_TEAM -> incident.getAssignedTeam();
+            case SUGGESTED_SOLUTION -> incident.getSuggestedSolution();
+            case ESTIMATED_RESOLUTION_HOURS -> incident.getEstimatedResolutionHours();
+            case AI_CONFIDENCE -> incident.getAiConfidence();
+            case ANALYSIS_STATUS -> incident.getAnalysisStatus();
+            case CREATED_AT -> incident.getCreatedAt();
+            case UPDATED_AT -> incident.getUpdatedAt();
+            case ACTUAL_RESOLUTION -> incident.getActualResolution();
+            case DUPLICATE_COUNT -> incident.getDuplicateCount();
+        };
+    }
+
+    private static Counter rowCounter(MeterRegistry registry, ExportFormat format) {
+        return Counter.builder("incidents.export.rows")
+                .description("Incidents written by bulk exports")
+                .tag("format", format.extension())
+                .register(registry);
+    }
+
+    private static Timer exportTimer(MeterRegistry registry, ExportFormat format, String outcome) {
+        return Timer.builder("incidents.export")
+                .description("Duration of bulk incident exports")
+                .tag("format", format.extension())
+                .tag("outcome", outcome)
+                .register(registry);
+    }
+}
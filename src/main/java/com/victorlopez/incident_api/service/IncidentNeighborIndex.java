@@ -0,0 +1,383 @@
+package com.victorlopez.incident_api.service;
+
+import com.victorlopez.incident_api.event.IncidentEmbeddedEvent;
+import com.victorlopez.incident_api.model.Incident;
+import com.victorlopez.incident_api.model.IncidentNeighbor;
+import com.victorlopez.incident_api.repository.IncidentNeighborRepository;
+import com.victorlopez.incident_api.repository.IncidentRepository;
+import com.victorlopez.incident_api.service.SimilarIncidentFinder.Match;
+import com.victorlopez.incident_api.service.SimilarIncidentFinder.ScoredId;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Precomputed similar-incidents lists in {@code incident_neighbors}, so that
+ * {@code GET /api/incidents/{id}/similar} is one primary-key range scan instead of a similarity query.
+ *
+ * After an incident is created or its text changes, a background worker computes its top
+ * {@code search.similar.max-results} neighbors with the configured {@link SimilarIncidentFinder} and
+ * replaces its stored list. The change also affects other lists: those that contain the incident
+ * (its score or text moved) and those of its new neighbors (it may now belong there). These are not
+ * recomputed eagerly but deleted. A read that finds no list is answered live, and the list is
+ * computed and stored by the worker, so reads never write. Archiving an incident deletes its list
+ * and invalidates the lists that contain it.
+ *
+ * With {@code search.similar.strategy=embedding} the incident only becomes findable once its vector is
+ * in the graph, so its list is refreshed on {@link IncidentEmbeddedEvent} rather than on save; lists
+ * recomputed after the invalidation then include it.
+ *
+ * A list with no neighbors at all is stored as a single row pointing at the incident itself, so that
+ * reads for it are hits too.
+ *
+ * Metrics:
+ * - search.neighbors.lookups{outcome=hit|miss}: reads served from stored lists vs computed live
+ * - search.neighbors.compute: time to compute and store one list
+ * - search.neighbors.tasks{outcome=completed|failed|rejected}: background list computations
+ */
+@Component
+@Slf4j
+public class IncidentNeighborIndex {
+
+    private final IncidentRepository incidentRepository;
+    private final IncidentNeighborRepository neighborRepository;
+    private final SimilarIncidentFinder similarIncidentFinder;
+    private final TransactionTemplate persistTx;
+    private final Executor executor;
+    private final boolean enabled;
+    private final boolean afterEmbedding;
+    private final int listSize;
+    private final Set<UUID> scheduled = ConcurrentHashMap.newKeySet();
+
+    private final Counter hitCounter;
+    private final Counter missCounter;
+    private final Timer computeTimer;
+    private final Counter completedCounter;
+    private final Counter failedCounter;
+    private final Counter rejectedCounter;
+
+    @Autowired
+    public IncidentNeighborIndex(IncidentRepository incidentRepository,
+                                 IncidentNeighborRepository neighborRepository,
+                                 SimilarIncidentFinder similarIncidentFinder,
+                                 PlatformTransactionManager transactionManager,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${search.neighbors.enabled:false}") boolean enabled,
+                                 @Value("${search.similar.strategy:fulltext}") String strategy,
+                                 @Value("${search.similar.max-results:20}") int listSize,
+                                 @Value("${search.neighbors.workers:1}") int workers,
+                                 @Value("${search.neighbors.queue-capacity:1000}") int queueCapacity) {
+        this(incidentRepository, neighborRepository, similarIncidentFinder, transactionManager, meterRegistry,
+                enabled, EmbeddingIncidentIndex.STRATEGY.equals(strategy), listSize,
+                new ThreadPoolExecutor(workers, workers, 60L, TimeUnit.SECONDS,
+                        new LinkedBlockingQueue<>(queueCapacity),
+                        new CustomizableThreadFactory("neighbors-"),
+                        new ThreadPoolExecutor.AbortPolicy()));
+    }
+
+    IncidentNeighborIndex(IncidentRepository incidentRepository,
+                          IncidentNeighborRepository neighborRepository,
+                          SimilarIncidentFinder similarIncidentFinder,
+                          PlatformTransactionManager transactionManager,
+                          MeterRegistry meterRegistry,
+                          boolean enabled,
+                          boolean afterEmbedding,
+                          int listSize,
+                          Executor executor) {
+        this.incidentRepository = incidentRepository;
+        this.neighborRepository = neighborRepository;
+        this.similarIncidentFinder = similarIncidentFinder;
+        this.enabled = enabled;
+        this.afterEmbedding = afterEmbedding;
+        this.listSize = listSize;
+        this.executor = executor;
+
+        if (transactionManager != null) {
+            this.persistTx = new TransactionTemplate(transactionManager);
+            this.persistTx.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        } else {
+            this.persistTx = null;
+        }
+
+        this.hitCounter = lookupCounter(meterRegistry, "hit");
+        this.missCounter = lookupCounter(meterRegistry, "miss");
+        this.computeTimer = Timer.builder("search.neighbors.compute")
+                .description("Time to compute and store one incident's similar-incidents list")
+                .register(meterRegistry);
+        this.completedCounter = taskCounter(meterRegistry, "completed");
+        this.failedCounter = taskCounter(meterRegistry, "failed");
+        this.rejectedCounter = taskCounter(meterRegistry, "rejected");
+    }
+
+    /**
+     * Recomputes the incident's list in the background once the current transaction commits
+     * (immediately outside one), or drops it when archived, and invalidates the lists it affects.
+     * With embedding similarity only archives are applied here; edits wait for {@link #onEmbedded}.
+     */
+    public void onSaved(Incident incident) {
+        boolean archived = incident.isArchived();
+        if (!enabled || (afterEmbedding && !archived)) {
+            return;
+        }
+        UUID id = incident.getId();
+        String text = text(incident);
+        Runnable update = () -> submit(id, text, archived);
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    update.run();
+                }
+            });
+        } else {
+            update.run();
+        }
+    }
+
+    /**
+     * Recomputes the list of an incident whose new vector is now in the embedding index,
+     * and invalidates the lists it affects.
+     */
+    @EventListener
+    public void onEmbedded(IncidentEmbeddedEvent event) {
+        if (enabled && afterEmbedding) {
+            submit(event.incidentId(), event.title() + "\n" + event.description(), false);
+        }
+    }
+
+    /**
+     * The stored neighbors of the incident, best first, or {@code null} when it has no stored list
+     * (disabled, never computed, invalidated or archived).
+     */
+    public List<Match> findStored(UUID incidentId, int limit) {
+        List<ScoredId> neighbors = findStoredIds(incidentId, limit);
+        return neighbors == null ? null : load(neighbors);
+    }
+
+    /**
+     * As {@link #findStored}, but only the neighbor ids and scores, without loading the neighbors.
+     * Neighbors archived since the list was stored are still included.
+     */
+    public List<ScoredId> findStoredIds(UUID incidentId, int limit) {
+        if (!enabled) {
+            return null;
+        }
+        List<IncidentNeighbor> rows = neighborRepository.findByIncidentIdOrderByScoreDesc(incidentId,
+                PageRequest.of(0, limit));
+        if (rows.isEmpty()) {
+            missCounter.increment();
+            return null;
+        }
+        hitCounter.increment();
+        return rows.stream()
+                .filter(row -> !row.getNeighborId().equals(incidentId))
+                .map(row -> new ScoredId(row.getNeighborId(), row.getScore()))
+                .toList();
+    }
+
+    /**
+     * The incident's neighbors computed live, best first, for a read that found no stored list.
+     * When enabled, the list is also computed and stored in the background.
+     */
+    public List<Match> findLive(Incident incident, int limit) {
+        schedule(incident);
+        return similarIncidentFinder.findSimilar(text(incident), incident.getId(), limit);
+    }
+
+    /**
+     * As {@link #findLive}, but only the neighbor ids and scores, without loading the neighbors.
+     */
+    public List<ScoredId> findLiveIds(Incident incident, int limit) {
+        schedule(incident);
+        return similarIncidentFinder.findSimilarIds(text(incident), incident.getId(), limit);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (executor instanceof ExecutorService service) {
+            service.shutdownNow();
+        }
+    }
+
+    // ── private helpers ──────────────────────────────────────────────────────
+
+    /**
+     * Queues the computation of a missing list, once per incident however many reads miss it meanwhile.
+     */
+    private void schedule(Incident incident) {
+        UUID id = incident.getId();
+        if (!enabled || !scheduled.add(id)) {
+            return;
+        }
+        String text = text(incident);
+        try {
+            executor.execute(() -> {
+                try {
+                    compute(id, text);
+                    completedCounter.increment();
+                } catch (RuntimeException e) {
+                    failedCounter.increment();
+                    log.warn("Computing neighbors of incident {} failed ({})", id, e.getMessage());
+                } finally {
+                    scheduled.remove(id);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            scheduled.remove(id);
+            rejectedCounter.increment();
+        }
+    }
+
+    private void submit(UUID id, String text, boolean archived) {
+        try {
+            executor.execute(() -> refresh(id, text, archived));
+        } catch (RejectedExecutionException e) {
+            rejectedCounter.increment();
+            log.warn("Neighbor queue rejected incident {} — its list will be computed on its next read", id);
+            try {
+                write(() -> drop(id));
+            } catch (RuntimeException dropFailure) {
+                log.warn("Dropping neighbor lists of incident {} failed ({})", id, dropFailure.getMessage());
+            }
+        }
+    }
+
+    private void refresh(UUID id, String text, boolean archived) {
+        try {
+            if (archived) {
+                write(() -> drop(id));
+            } else {
+                List<UUID> neighbors = compute(id, text).stream().map(ScoredId::incidentId).toList();
+                write(() -> invalidate(id, neighbors));
+            }
+            completedCounter.increment();
+        } catch (RuntimeException e) {
+            failedCounter.increment();
+            log.warn("Refreshing neighbors of incident {} failed ({}) — it will be computed on its next read",
+                    id, e.getMessage());
+        }
+    }
+
+    /**
+     * Deletes the incident's own list and every list that contains it.
+     */
+    private void drop(UUID id) {
+        invalidate(id, List.of());
+        neighborRepository.deleteByIncidentIdIn(List.of(id));
+    }
+
+    /**
+     * Deletes the lists that contain {@code id} or that {@code id} now belongs in, except its own.
+     */
+    private void invalidate(UUID id, List<UUID> newNeighbors) {
+        Set<UUID> affected = new LinkedHashSet<>(neighborRepository.findIncidentIdsByNeighborId(id));
+        affected.addAll(newNeighbors);
+        affected.remove(id);
+        if (!affected.isEmpty()) {
+            neighborRepository.deleteByIncidentIdIn(affected);
+        }
+    }
+
+    /**
+     * Computes the incident's top {@code listSize} neighbors and replaces its stored list;
+     * an empty list is stored as a row for the incident itself.
+     */
+    private List<ScoredId> compute(UUID id, String text) {
+        long start = System.nanoTime();
+        List<ScoredId> neighbors = similarIncidentFinder.findSimilarIds(text, id, listSize);
+        List<IncidentNeighbor> rows = neighbors.isEmpty()
+                ? List.of(IncidentNeighbor.builder().incidentId(id).neighborId(id).score(0.0).build())
+                : neighbors.stream()
+                        .map(neighbor -> IncidentNeighbor.builder()
+                                .incidentId(id)
+                                .neighborId(neighbor.incidentId())
+                                .score(neighbor.score())
+                                .build())
+                        .toList();
+        try {
+            write(() -> {
+                neighborRepository.deleteByIncidentIdIn(List.of(id));
+                neighborRepository.saveAll(rows);
+            });
+        } catch (DataIntegrityViolationException e) {
+            // a concurrent read or refresh stored the same list first
+            log.debug("Neighbor list of incident {} was stored concurrently", id);
+        } finally {
+            computeTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+        return neighbors;
+    }
+
+    /**
+     * The neighbors' incidents in list order, skipping those archived since the list was stored.
+     */
+    private List<Match> load(List<ScoredId> neighbors) {
+        Map<UUID, Incident> incidents = new HashMap<>();
+        incidentRepository.findAllById(neighbors.stream().map(ScoredId::incidentId).toList())
+                .forEach(neighbor -> incidents.put(neighbor.getId(), neighbor));
+        List<Match> matches = new ArrayList<>(neighbors.size());
+        for (ScoredId neighbor : neighbors) {
+            Incident incident = incidents.get(neighbor.incidentId());
+            if (incident != null && !incident.isArchived()) {
+                matches.add(new Match(incident, neighbor.score()));
+            }
+        }
+        return matches;
+    }
+
+    private static String text(Incident incident) {
+        return incident.getTitle() + "\n" + incident.getDescription();
+    }
+
+    private void write(Runnable work) {
+        if (persistTx != null) {
+            persistTx.executeWithoutResult(status -> work.run());
+        } else {
+            work.run();
+        }
+    }
+
+    private static Counter lookupCounter(MeterRegistry registry, String outcome) {
+        return Counter.builder("search.neighbors.lookups")
+                .description("Similar-incident reads by whether a stored list served them")
+                .tag("outcome", outcome)
+                .register(registry);
+    }
+
+    private static Counter taskCounter(MeterRegistry registry, String outcome) {
+        return Counter.builder("search.neighbors.tasks")
+                .description("Background similar-incidents list computations")
+                .tag("outcome", outcome)
+                .register(registry);
+    }
+}
@@ -1,14 +1,22 @@
 package com.victorlopez.incident_api.service;
 
 import com.victorlopez.incident_api.dto.*;
+import com.victorlopez.incident_api.event.IncidentAnalysisRequestedEvent;
+import com.victorlopez.incident_api.exception.AIAnalysisUnavailableException;
 import com.victorlopez.incident_api.exception.IncidentNotFoundException;
 import com.victorlopez.incident_api.model.*;
 import com.victorlopez.incident_api.repository.IncidentActivityRepository;
+import com.victorlopez.incident_api.repository.IncidentField;
 import com.victorlopez.incident_api.repository.IncidentRepository;
+import com.victorlopez.incident_api.repository.IncidentSpecifications;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.security.authentication.AnonymousAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -16,10 +24,20 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.BiFunction;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -31,14 +49,46 @@ public class IncidentService {
     private final IncidentRepository incidentRepository;
     private final IncidentActivityRepository incidentActivityRepository;
     private final AIAnalysisService aiAnalysisService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final SimilarIncidentFinder similarIncidentFinder;
+    private final FullTextSearchService fullTextSearchService;
+    private final InvertedIncidentIndex invertedIncidentIndex;
+    private final EmbeddingIncidentIndex embeddingIncidentIndex;
+    private final IncidentNeighborIndex incidentNeighborIndex;
+    private final NearDuplicateDetector nearDuplicateDetector;
+
+    /**
+     * When enabled, incidents are persisted immediately as PENDING_ANALYSIS and enriched
+     * by {@link AsyncAnalysisService} after the transaction commits.
+     */
+    @Value("${ai.analysis.async.enabled:false}")
+    private boolean asyncAnalysisEnabled;
+
+    @Value("${search.similar.max-results:20}")
+    private int similarMaxResults;
 
     public IncidentResponse createIncident(CreateIncidentRequest request) {
         log.info("Creating incident: {}", request.getTitle());
 
-        AIAnalysisResult aiAnalysis = aiAnalysisService.analyzeIncident(
-                request.getTitle(),
-                request.getDescription()
-        );
+        Optional<IncidentResponse> folded = foldIntoDuplicate(request);
+        if (folded.isPresent()) {
+            return folded.get();
+        }
+
+        if (asyncAnalysisEnabled) {
+            return createIncidentPendingAnalysis(request);
+        }
+
+        AIAnalysisResult aiAnalysis;
+        try {
+            aiAnalysis = aiAnalysisService.analyzeIncident(
+                    request.getTitle(),
+                    request.getDescription()
+            );
+        } catch (AIAnalysisUnavailableException e) {
+            log.warn("AI analysis unavailable ({}) — creating incident with default classification", e.getMessage());
+            return createIncidentDegraded(request);
+        }
 
         log.info("AI analysis - Severity: {}, Category: {}",
                 aiAnalysis.severity(), aiAnalysis.category());
@@ -58,6 +108,8 @@ public class IncidentService {
 
         Incident saved = incidentRepository.save(incident);
         log.info("Incident created with id: {}", saved.getId());
+        reindex(saved);
+        nearDuplicateDetector.register(saved);
 
         logActivity(saved, IncidentActivityAction.CREATED,
                 String.format("Incident created — severity: %s, category: %s",
@@ -74,38 +126,53 @@ public class IncidentService {
     }
 
     /**
-     * Returns incidents filtered by status/severity and optionally scoped to a single user.
+     * Returns the non-archived incidents matching {@code filter}, one offset page at a time.
+     * {@code filter.reportedBy} scopes a USER to their own incidents; it is null for ADMIN and anonymous callers.
+     */
+    @Transactional(readOnly = true)
+    public Page<IncidentResponse> getAllIncidents(IncidentFilter filter, Pageable pageable) {
+        return incidentRepository.findAll(IncidentSpecifications.matching(filter), pageable)
+                .map(this::mapToResponse);
+    }
+
+    /**
+     * One page of the listing by keyset on {@code (createdAt, id)}, newest first, with the same filters
+     * as {@link #getAllIncidents}. Each page seeks straight to its cursor and no total is counted, so
+     * a deep page costs the same as the first.
      *
-     * @param reportedBy when non-null (USER role), only incidents reported by this user are returned;
-     *                   when null (ADMIN or anonymous), all non-archived incidents are returned.
+     * @param cursor token from a previous page's {@code nextCursor} or {@code prevCursor}; null or blank for the first page
      */
     @Transactional(readOnly = true)
-    public Page<IncidentResponse> getAllIncidents(Status status, Severity severity, Pageable pageable, String reportedBy) {
-        Page<Incident> incidents;
-
-        if (reportedBy != null) {
-            if (status != null && severity != null) {
-                incidents = incidentRepository.findByStatusAndSeverityAndReportedByAndArchivedFalse(status, severity, reportedBy, pageable);
-            } else if (status != null) {
-                incidents = incidentRepository.findByStatusAndReportedByAndArchivedFalse(status, reportedBy, pageable);
-            } else if (severity != null) {
-                incidents = incidentRepository.findBySeverityAndReportedByAndArchivedFalse(severity, reportedBy, pageable);
-            } else {
-                incidents = incidentRepository.findByReportedByAndArchivedFalse(reportedBy, pageable);
-            }
-        } else {
-            if (status != null && severity != null) {
-                incidents = incidentRepository.findByStatusAndSeverityAndArchivedFalse(status, severity, pageable);
-            } else if (status != null) {
-                incidents = incidentRepository.findByStatusAndArchivedFalse(status, pageable);
-            } else if (severity != null) {
-                incidents = incidentRepository.findBySeverityAndArchivedFalse(severity, pageable);
-            } else {
-                incidents = incidentRepository.findByArchivedFalse(pageable);
-            }
-        }
+    public CursorPage<IncidentResponse> getIncidentsByCursor(IncidentFilter filter, String cursor, int size) {
+        return cursorPage(filter, cursor, size, incidentRepository::findAll,
+                (incident, backward) -> new IncidentCursor(incident.getCreatedAt(), incident.getId(), backward),
+                this::mapToResponse);
+    }
+
+    /**
+     * As {@link #getAllIncidents}, but each incident is only the selected {@code fields}, read as columns
+     * without loading entities.
+     */
+    @Transactional(readOnly = true)
+    public Page<Map<String, Object>> getAllIncidentFields(IncidentFilter filter, Pageable pageable,
+                                                          Set<IncidentField> fields) {
+        return incidentRepository.findFields(IncidentSpecifications.matching(filter), pageable, fields);
+    }
 
-        return incidents.map(this::mapToResponse);
+    /**
+     * As {@link #getIncidentsByCursor}, but each incident is only the selected {@code fields}. The keyset
+     * columns are always read to build the cursors and dropped again unless selected.
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<Map<String, Object>> getIncidentFieldsByCursor(IncidentFilter filter, String cursor, int size,
+                                                                      Set<IncidentField> fields) {
+        Set<IncidentField> selected = withFields(fields, IncidentField.ID, IncidentField.CREATED_AT);
+        ListingQuery<Map<String, Object>> query =
+                (spec, sort, limit) -> incidentRepository.findFields(spec, sort, limit, selected);
+        return cursorPage(filter, cursor, size, query,
+                (row, backward) -> new IncidentCursor((LocalDateTime) row.get(IncidentField.CREATED_AT.attribute()),
+                        (UUID) row.get(IncidentField.ID.attribute()), backward),
+                row -> only(row, fields));
     }
 
     public IncidentResponse updateStatus(UUID id, UpdateStatusRequest request) {
@@ -139,6 +206,7 @@ public class IncidentService {
                 .orElseThrow(() -> new IncidentNotFoundException(id));
         incident.setArchived(true);
         Incident saved = incidentRepository.save(incident);
+        reindex(saved);
 
         logActivity(saved, IncidentActivityAction.ARCHIVED, "Incident archived");
     }
@@ -148,12 +216,18 @@ public class IncidentService {
         Incident incident = incidentRepository.findByIdAndArchivedFalse(id)
                 .orElseThrow(() -> new IncidentNotFoundException(id));
 
+        boolean textChanged = (request.getTitle() != null && !request.getTitle().equals(incident.getTitle()))
+                || (request.getDescription() != null && !request.getDescription().equals(incident.getDescription()));
         if (request.getTitle() != null) incident.setTitle(request.getTitle());
         if (request.getDescription() != null) incident.setDescription(request.getDescription());
         if (request.getSeverity() != null) incident.setSeverity(request.getSeverity());
         if (request.getCategory() != null) incident.setCategory(request.getCategory());
 
         Incident saved = incidentRepository.save(incident);
+        if (textChanged) {
+            reindex(saved);
+            nearDuplicateDetector.register(saved);
+        }
 
         logActivity(saved, IncidentActivityAction.UPDATED,
                 buildUpdateDetails(request));
@@ -166,23 +240,74 @@ public class IncidentService {
         Incident incident = incidentRepository.findByIdAndArchivedFalse(id)
                 .orElseThrow(() -> new IncidentNotFoundException(id));
 
-        AIAnalysisResult analysis = aiAnalysisService.analyzeIncident(
+        AIAnalysisResult analysis = aiAnalysisService.reanalyzeIncident(
                 incident.getTitle(), incident.getDescription());
 
-        incident.setSeverity(analysis.severity());
-        incident.setCategory(analysis.category());
-        incident.setAssignedTeam(analysis.assignedTeam());
-        incident.setSuggestedSolution(analysis.suggestedSolution());
-        incident.setEstimatedResolutionHours(analysis.estimatedResolutionHours());
-        incident.setAiConfidence(analysis.confidence());
+        return saveReanalysis(incident, analysis);
+    }
+
+    /**
+     * Stores a re-analysis produced outside this service (streaming endpoint) exactly as
+     * {@link #reanalyzeIncident(UUID)} would.
+     */
+    public IncidentResponse applyReanalysis(UUID id, AIAnalysisResult analysis) {
+        Incident incident = incidentRepository.findByIdAndArchivedFalse(id)
+                .orElseThrow(() -> new IncidentNotFoundException(id));
+        return saveReanalysis(incident, analysis);
+    }
+
+    /**
+     * Stores the result of a background analysis on an incident created as PENDING_ANALYSIS.
+     * Incidents archived in the meantime are left untouched.
+     */
+    public void applyAnalysis(UUID id, AIAnalysisResult analysis) {
+        Incident incident = incidentRepository.findByIdAndArchivedFalse(id).orElse(null);
+        if (incident == null) {
+            log.info("Skipping AI analysis result for archived or missing incident {}", id);
+            return;
+        }
 
+        applyAnalysisResult(incident, analysis);
         Incident saved = incidentRepository.save(incident);
 
         logActivity(saved, IncidentActivityAction.ANALYZED,
-                String.format("AI re-analysis completed — severity: %s, category: %s, confidence: %.2f",
+                String.format("AI analysis completed — severity: %s, category: %s, confidence: %.2f",
                         analysis.severity(), analysis.category(), analysis.confidence()));
+    }
 
-        return mapToResponse(saved);
+    /**
+     * Stores the results of one page of a bulk re-analysis. Incidents and their ANALYZED
+     * activities are written with saveAll so the inserts and updates are JDBC-batched.
+     * Incidents archived since the page was read are skipped.
+     */
+    public void applyReanalysisBatch(Map<UUID, AIAnalysisResult> results, String performedBy) {
+        List<Incident> incidents = incidentRepository.findAllById(results.keySet()).stream()
+                .filter(incident -> !incident.isArchived())
+                .toList();
+
+        List<IncidentActivity> activities = new ArrayList<>(incidents.size());
+        for (Incident incident : incidents) {
+            AIAnalysisResult analysis = results.get(incident.getId());
+            applyAnalysisResult(incident, analysis);
+            activities.add(IncidentActivity.builder()
+                    .incident(incident)
+                    .action(IncidentActivityAction.ANALYZED)
+                    .performedBy(performedBy)
+                    .details(String.format("AI bulk re-analysis completed — severity: %s, category: %s, confidence: %.2f",
+                            analysis.severity(), analysis.category(), analysis.confidence()))
+                    .build());
+        }
+
+        incidentRepository.saveAll(incidents);
+        incidentActivityRepository.saveAll(activities);
+        log.debug("Applied bulk re-analysis to {} incidents", incidents.size());
+    }
+
+    public void markAnalysisFailed(UUID id) {
+        incidentRepository.findByIdAndArchivedFalse(id).ifPresent(incident -> {
+            incident.setAnalysisStatus(AnalysisStatus.FAILED);
+            incidentRepository.save(incident);
+        });
     }
 
     @Transactional(readOnly = true)
@@ -196,24 +321,91 @@ public class IncidentService {
                 .toList();
     }
 
+    /**
+     * The {@code limit} most similar incidents (capped at {@code search.similar.max-results}) scoring at
+     * least {@code minScore}, best first. Scores are BM25 with the in-memory index and {@code ts_rank}
+     * with PostgreSQL full-text search, so thresholds are specific to the configured strategy.
+     */
     @Transactional(readOnly = true)
-    public List<IncidentResponse> findSimilarIncidents(String description, UUID excludeId) {
-        log.info("Finding similar incidents for description: {} (excluding: {})", description, excludeId);
+    public List<IncidentResponse> findSimilarIncidents(String description, UUID excludeId, int limit, double minScore) {
+        log.info("Finding similar incidents for description: {} (excluding: {}, limit: {}, minScore: {})",
+                description, excludeId, limit, minScore);
 
-        String keywords = extractKeywords(description);
-        log.debug("Extracted keywords: {}", keywords);
-
-        List<Incident> allIncidents = incidentRepository.findByArchivedFalse();
-        List<Incident> similarIncidents = allIncidents.stream()
-                .filter(incident -> !incident.getId().equals(excludeId))
-                .filter(incident -> containsAnyKeyword(incident, keywords))
+        // results arrive best first, so dropping the tail below minScore keeps the top K intact
+        return similarIncidentFinder.findSimilar(description, excludeId, Math.min(limit, similarMaxResults))
+                .stream()
+                .filter(match -> match.score() >= minScore)
+                .map(this::mapToScoredResponse)
                 .toList();
+    }
 
-        return similarIncidents.stream()
-                .map(this::mapToResponse)
+    /**
+     * The incidents most similar to incident {@code id}, like {@link #findSimilarIncidents} for its title and
+     * description. Served from its precomputed neighbor list when there is one, otherwise computed live while
+     * the list is computed and stored in the background.
+     */
+    @Transactional(readOnly = true)
+    public List<IncidentResponse> findSimilarToIncident(UUID id, int limit, double minScore) {
+        log.info("Finding incidents similar to incident: {} (limit: {}, minScore: {})", id, limit, minScore);
+
+        int cappedLimit = Math.min(limit, similarMaxResults);
+        List<SimilarIncidentFinder.Match> matches = incidentNeighborIndex.findStored(id, cappedLimit);
+        if (matches == null) {
+            Incident incident = incidentRepository.findByIdAndArchivedFalse(id)
+                    .orElseThrow(() -> new IncidentNotFoundException(id));
+            matches = incidentNeighborIndex.findLive(incident, cappedLimit);
+        }
+        return matches.stream()
+                .filter(match -> match.score() >= minScore)
+                .map(this::mapToScoredResponse)
                 .toList();
     }
 
+    /**
+     * As {@link #findSimilarIncidents}, but each incident is only the selected {@code fields} plus its score.
+     * The finder ranks by id and only the selected columns of the results are read.
+     */
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> findSimilarIncidentFields(String description, UUID excludeId, int limit,
+                                                               double minScore, Set<IncidentField> fields) {
+        log.info("Finding similar incident fields for description: {} (excluding: {}, limit: {}, minScore: {}, fields: {})",
+                description, excludeId, limit, minScore, fields);
+
+        return scoredFields(similarIncidentFinder.findSimilarIds(description, excludeId,
+                Math.min(limit, similarMaxResults)), minScore, fields);
+    }
+
+    /**
+     * As {@link #findSimilarToIncident}, but each incident is only the selected {@code fields} plus its score.
+     */
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> findSimilarToIncidentFields(UUID id, int limit, double minScore,
+                                                                 Set<IncidentField> fields) {
+        log.info("Finding fields of incidents similar to incident: {} (limit: {}, minScore: {}, fields: {})",
+                id, limit, minScore, fields);
+
+        int cappedLimit = Math.min(limit, similarMaxResults);
+        List<SimilarIncidentFinder.ScoredId> neighbors = incidentNeighborIndex.findStoredIds(id, cappedLimit);
+        if (neighbors == null) {
+            Incident incident = incidentRepository.findByIdAndArchivedFalse(id)
+                    .orElseThrow(() -> new IncidentNotFoundException(id));
+            neighbors = incidentNeighborIndex.findLiveIds(incident, cappedLimit);
+        }
+        return scoredFields(neighbors, minScore, fields);
+    }
+
+    /**
+     * Ranked full-text search over non-archived incidents, best match first.
+     */
+    @Transactional(readOnly = true)
+    public Page<IncidentResponse> searchIncidents(String query, Status status, Severity severity, Category category,
+                                                  Pageable pageable) {
+        log.info("Searching incidents for: {} (status: {}, severity: {}, category: {})", query, status, severity, category);
+
+        return fullTextSearchService.search(query, status, severity, category, pageable)
+                .map(this::mapToScoredResponse);
+    }
+
     @Transactional(readOnly = true)
     public MetricsResponse getMetrics() {
         long total = incidentRepository.countByArchivedFalse();
@@ -251,6 +443,109 @@ public class IncidentService {
 
     // ── private helpers ──────────────────────────────────────────────────────
 
+    private IncidentResponse createIncidentPendingAnalysis(CreateIncidentRequest request) {
+        Incident saved = savePendingAnalysis(request, "Incident created — AI analysis pending");
+
+        eventPublisher.publishEvent(new IncidentAnalysisRequestedEvent(
+                saved.getId(), saved.getTitle(), saved.getDescription()));
+
+        return mapToResponse(saved);
+    }
+
+    /**
+     * Degraded mode: the AI provider is unavailable, so the incident keeps the default
+     * classification and stays PENDING_ANALYSIS until the pending-analysis sweep picks it up.
+     */
+    private IncidentResponse createIncidentDegraded(CreateIncidentRequest request) {
+        Incident saved = savePendingAnalysis(request,
+                "Incident created — AI unavailable, default classification applied and analysis queued");
+        return mapToResponse(saved);
+    }
+
+    /**
+     * Brings the similarity indexes and precomputed neighbor lists up to date once the transaction commits.
+     */
+    private void reindex(Incident saved) {
+        invertedIncidentIndex.onSaved(saved);
+        embeddingIncidentIndex.onSaved(saved);
+        incidentNeighborIndex.onSaved(saved);
+    }
+
+    /**
+     * Counts the report against the most similar recent incident of the same reporter that is still open,
+     * if any, instead of storing and analyzing it again. Incidents of other reporters are never folded into:
+     * a USER lists only their own incidents, so the report would vanish from the reporter's view.
+     */
+    private Optional<IncidentResponse> foldIntoDuplicate(CreateIncidentRequest request) {
+        for (NearDuplicateDetector.Duplicate candidate
+                : nearDuplicateDetector.findDuplicates(request.getTitle(), request.getDescription())) {
+            Optional<Incident> existing = incidentRepository.findByIdAndArchivedFalse(candidate.incidentId())
+                    .filter(incident -> incident.getStatus() == Status.OPEN || incident.getStatus() == Status.IN_PROGRESS);
+            if (existing.isEmpty()) {
+                nearDuplicateDetector.remove(candidate.incidentId());
+                continue;
+            }
+            if (!Objects.equals(existing.get().getReportedBy(), request.getReportedBy())) {
+                continue;
+            }
+
+            incidentRepository.incrementDuplicateCount(candidate.incidentId(), LocalDateTime.now());
+            Incident saved = incidentRepository.findById(candidate.incidentId())
+                    .orElseThrow(() -> new IncidentNotFoundException(candidate.incidentId()));
+            log.info("Folded near-duplicate report into incident {} (similarity: {})",
+                    saved.getId(), candidate.similarity());
+
+            logActivity(saved, IncidentActivityAction.DUPLICATE_REPORTED,
+                    String.format("Near-duplicate report folded in (similarity: %.2f, reported by: %s): %s",
+                            candidate.similarity(), request.getReportedBy(), request.getTitle()));
+
+            IncidentResponse response = mapToResponse(saved);
+            response.setDuplicate(true);
+            return Optional.of(response);
+        }
+        return Optional.empty();
+    }
+
+    private Incident savePendingAnalysis(CreateIncidentRequest request, String activityDetails) {
+        Incident incident = Incident.builder()
+                .title(request.getTitle())
+                .description(request.getDescription())
+                .reportedBy(request.getReportedBy())
+                .status(Status.OPEN)
+                .analysisStatus(AnalysisStatus.PENDING_ANALYSIS)
+                .build();
+
+        Incident saved = incidentRepository.save(incident);
+        log.info("Incident created with id: {} (AI analysis pending)", saved.getId());
+        reindex(saved);
+        nearDuplicateDetector.register(saved);
+
+        logActivity(saved, IncidentActivityAction.CREATED, activityDetails);
+        return saved;
+    }
+
+    private IncidentResponse saveReanalysis(Incident incident, AIAnalysisResult analysis) {
+        applyAnalysisResult(incident, analysis);
+        Incident saved = incidentRepository.save(incident);
+
+        logActivity(saved, IncidentActivityAction.ANALYZED,
+                String.format("AI re-analysis completed — severity: %s, category: %s, confidence: %.2f",
+                        analysis.severity(), analysis.category(), analysis.confidence()));
+
+        return mapToResponse(saved);
+    }
+
+    private void applyAnalysisResult(Incident incident, AIAnalysisResult analysis) {
+        incident.setSeverity(analysis.severity());
+        incident.setCategory(analysis.category());
+        incident.setAssignedTeam(analysis.assignedTeam());
+        incident.setSuggestedSolution(analysis.suggestedSolution());
+        incident.setEstimatedResolutionHours(analysis.estimatedResolutionHours());
+        incident.setAiConfidence(analysis.confidence());
+        incident.setLocallyClassified(analysis.local());
+        incident.setAnalysisStatus(AnalysisStatus.ANALYZED);
+    }
+
     private void logActivity(Incident incident, IncidentActivityAction action, String details) {
         Authentication auth = SecurityContextHolder.getContext().getAuthentication();
         String performer = (auth != null && auth.isAuthenticated()
@@ -278,33 +573,101 @@ public class IncidentService {
         return "Fields updated: " + String.join(", ", changes);
     }
 
-    private boolean containsAnyKeyword(Incident incident, String keywords) {
-        if (keywords == null || keywords.trim().isEmpty()) {
-            return false;
+    /**
+     * Fetches up to {@code limit} listing rows matching {@code spec} in {@code sort} order.
+     */
+    @FunctionalInterface
+    private interface ListingQuery<T> {
+        List<T> fetch(Specification<Incident> spec, Sort sort, int limit);
+    }
+
+    /**
+     * One keyset page of whatever rows {@code query} reads; {@code position} gives a row's keyset.
+     */
+    private <T, R> CursorPage<R> cursorPage(IncidentFilter filter, String cursor, int size, ListingQuery<T> query,
+                                            BiFunction<T, Boolean, IncidentCursor> position, Function<T, R> mapper) {
+        IncidentCursor from = cursor == null || cursor.isBlank() ? null : IncidentCursor.decode(cursor);
+        Specification<Incident> spec = IncidentSpecifications.matching(filter);
+        boolean backward = from != null && from.backward();
+
+        // one extra row tells whether another page follows in the direction of travel
+        List<T> rows;
+        if (from == null) {
+            rows = query.fetch(spec, IncidentSpecifications.LISTING_ORDER, size + 1);
+        } else if (backward) {
+            rows = new ArrayList<>(query.fetch(
+                    spec.and(IncidentSpecifications.before(from.createdAt(), from.id())),
+                    IncidentSpecifications.REVERSE_LISTING_ORDER, size + 1));
+        } else {
+            rows = query.fetch(
+                    spec.and(IncidentSpecifications.after(from.createdAt(), from.id())),
+                    IncidentSpecifications.LISTING_ORDER, size + 1);
         }
 
-        String[] keywordArray = keywords.toLowerCase().split("\\s+");
-        String titleLower = incident.getTitle().toLowerCase();
-        String descriptionLower = incident.getDescription().toLowerCase();
+        boolean more = rows.size() > size;
+        List<T> page = more ? rows.subList(0, size) : rows;
+        if (backward) {
+            Collections.reverse(page);
+        }
+
+        // moving forward there are newer rows unless this is the first page; moving backward, older ones always
+        boolean hasNext = backward || more;
+        boolean hasPrev = backward ? more : from != null;
+        return CursorPage.<R>builder()
+                .content(page.stream().map(mapper).toList())
+                .size(size)
+                .nextCursor(hasNext && !page.isEmpty() ? position.apply(page.get(page.size() - 1), false).encode() : null)
+                .prevCursor(hasPrev && !page.isEmpty() ? position.apply(page.get(0), true).encode() : null)
+                .build();
+    }
 
-        for (String keyword : keywordArray) {
-            if (titleLower.contains(keyword) || descriptionLower.contains(keyword)) {
-                return true;
+    /**
+     * The selected columns of the scored incidents, in score order with each score added, leaving out
+     * those below {@code minScore} and those archived since they were ranked.
+     */
+    private List<Map<String, Object>> scoredFields(List<SimilarIncidentFinder.ScoredId> matches, double minScore,
+                                                   Set<IncidentField> fields) {
+        // results arrive best first, so dropping the tail below minScore keeps the top K intact
+        List<SimilarIncidentFinder.ScoredId> kept = matches.stream()
+                .filter(match -> match.score() >= minScore)
+                .toList();
+        if (kept.isEmpty()) {
+            return List.of();
+        }
+
+        Map<Object, Map<String, Object>> rows = new HashMap<>();
+        for (Map<String, Object> row : incidentRepository.findFieldsById(
+                kept.stream().map(SimilarIncidentFinder.ScoredId::incidentId).toList(),
+                withFields(fields, IncidentField.ID))) {
+            rows.put(row.get(IncidentField.ID.attribute()), row);
+        }
+        List<Map<String, Object>> results = new ArrayList<>(kept.size());
+        for (SimilarIncidentFinder.ScoredId match : kept) {
+            Map<String, Object> row = rows.get(match.incidentId());
+            if (row != null) {
+                Map<String, Object> result = only(row, fields);
+                result.put("score", match.score());
+                results.add(result);
             }
         }
-        return false;
+        return results;
     }
 
-    private String extractKeywords(String description) {
-        if (description == null || description.trim().isEmpty()) {
-            return "";
-        }
+    private static Set<IncidentField> withFields(Set<IncidentField> fields, IncidentField... required) {
+        Set<IncidentField> selected = EnumSet.copyOf(fields);
+        selected.addAll(Arrays.asList(required));
+        return selected;
+    }
 
-        return description.toLowerCase()
-                .replaceAll("[^a-zA-Z0-9\\s]", "")
-                .replaceAll("\\b(the|is|are|was|were|and|or|in|on|at|to|for|of|with|by|from|a|an|that|this|it)\\b", "")
-                .trim()
-                .replaceAll("\\s+", " ");
+    /**
+     * {@code row} narrowed to the requested {@code fields}, dropping columns read only for keysets or lookups.
+     */
+    private static Map<String, Object> only(Map<String, Object> row, Set<IncidentField> fields) {
+        Map<String, Object> narrowed = new LinkedHashMap<>();
+        for (IncidentField field : fields) {
+            narrowed.put(field.attribute(), row.get(field.attribute()));
+        }
+        return narrowed;
     }
 
     private IncidentResponse mapToResponse(Incident incident) {
@@ -320,12 +683,20 @@ public class IncidentService {
                 .suggestedSolution(incident.getSuggestedSolution())
                 .estimatedResolutionHours(incident.getEstimatedResolutionHours())
                 .aiConfidence(incident.getAiConfidence())
+                .analysisStatus(incident.getAnalysisStatus())
                 .createdAt(incident.getCreatedAt())
                 .updatedAt(incident.getUpdatedAt())
                 .actualResolution(incident.getActualResolution())
+                .duplicateCount(incident.getDuplicateCount())
                 .build();
     }
 
+    private IncidentResponse mapToScoredResponse(SimilarIncidentFinder.Match match) {
+        IncidentResponse response = mapToResponse(match.incident());
+        response.setScore(match.score());
+        return response;
+    }
+
     private IncidentActivityResponse mapToActivityResponse(IncidentActivity activity) {
         return IncidentActivityResponse.builder()
                 .id(activity.getId())
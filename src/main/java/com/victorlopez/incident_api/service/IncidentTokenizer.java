@@ -0,0 +1,301 @@
+package com.victorlopez.incident_api.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Splits incident text into lowercase terms for similarity, search and classification.
+ *
+ * A term is a run of letters and digits of {@value #MIN_TERM_LENGTH} to {@value #MAX_TERM_LENGTH}
+ * characters. The text is scanned once, char by char: ASCII is case-folded arithmetically and
+ * written straight into a reusable buffer, so no lowercase copy, substring or regex match is made.
+ * Repeated terms are counted in place through a small open-addressing table, and stop words are
+ * rejected against a precomputed table before any {@code String} exists. Membership checks
+ * ({@link Tokens#contains}) probe that table directly; only callers that need a term as a
+ * {@code String} (a map key, a tsquery) materialize it with {@link Tokens#term(int)}.
+ *
+ * Instances are immutable and shared. {@link #tokenize(CharSequence, CharSequence, int)} fills a
+ * per-thread {@link Tokens}, which is only valid until the same thread tokenizes again.
+ */
+public final class IncidentTokenizer {
+
+    public static final int MIN_TERM_LENGTH = 2;
+    public static final int MAX_TERM_LENGTH = 40;
+
+    /**
+     * Drops stop words: for similarity and search, where they only add noise.
+     */
+    public static final IncidentTokenizer SEARCH = new IncidentTokenizer(true);
+
+    /**
+     * Keeps every term: for classification, where the model learns which words matter.
+     */
+    public static final IncidentTokenizer ALL_TERMS = new IncidentTokenizer(false);
+
+    private static final String[] STOP_WORDS = {"the", "is", "are", "was", "were", "and", "or", "in", "on", "at",
+            "to", "for", "of", "with", "by", "from", "an", "that", "this", "it", "be", "not"};
+    private static final char[][] STOP_WORD_TABLE = stopWordTable();
+    private static final ThreadLocal<Tokens> LOCAL_TOKENS = ThreadLocal.withInitial(Tokens::new);
+
+    private final boolean removeStopWords;
+
+    private IncidentTokenizer(boolean removeStopWords) {
+        this.removeStopWords = removeStopWords;
+    }
+
+    /**
+     * Distinct terms of {@code text} with their frequencies, in this thread's reusable {@link Tokens}.
+     */
+    public Tokens tokenize(CharSequence text) {
+        return tokenize(text, null, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Distinct terms of {@code title} followed by {@code description}, keeping at most {@code maxTerms}
+     * distinct ones (later occurrences of kept terms are still counted), in this thread's reusable {@link Tokens}.
+     */
+    public Tokens tokenize(CharSequence title, CharSequence description, int maxTerms) {
+        return tokenize(title, description, maxTerms, LOCAL_TOKENS.get());
+    }
+
+    /**
+     * As {@link #tokenize(CharSequence, CharSequence, int)}, into caller-owned {@code tokens}.
+     */
+    public Tokens tokenize(CharSequence title, CharSequence description, int maxTerms, Tokens tokens) {
+        tokens.clear();
+        scan(title, maxTerms, tokens);
+        scan(description, maxTerms, tokens);
+        return tokens;
+    }
+
+    /**
+     * Distinct terms and their frequencies from one {@code tokenize} call, in first-seen order.
+     * Term characters live in one growable buffer that is reused across calls.
+     */
+    public static final class Tokens {
+
+        private char[] chars = new char[256];
+        private int[] starts = new int[16];
+        private int[] lengths = new int[16];
+        private int[] hashes = new int[16];
+        private int[] frequencies = new int[16];
+        // open-addressing table of term index + 1; 0 marks an empty slot
+        private int[] slots = new int[32];
+        private int charCount;
+        private int size;
+        private int occurrences;
+
+        /**
+         * Number of distinct terms.
+         */
+        public int size() {
+            return size;
+        }
+
+        public boolean isEmpty() {
+            return size == 0;
+        }
+
+        /**
+         * Number of term occurrences counted, i.e. the sum of all frequencies.
+         */
+        public int occurrences() {
+            return occurrences;
+        }
+
+        public int frequency(int index) {
+            return frequencies[index];
+        }
+
+        /**
+         * The term at {@code index} as a new {@code String}.
+         */
+        public String term(int index) {
+            return new String(chars, starts[index], lengths[index]);
+        }
+
+        /**
+         * Whether {@code term} is one of the distinct terms; a hash probe that copies nothing.
+         */
+        public boolean contains(String term) {
+            int hash = term.hashCode();
+            int length = term.length();
+            int mask = slots.length - 1;
+            for (int slot = (hash ^ (hash >>> 16)) & mask; slots[slot] != 0; slot = (slot + 1) & mask) {
+                int index = slots[slot] - 1;
+                if (hashes[index] == hash && lengths[index] == length && matches(index, term)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        /**
+         * Every distinct term as a new {@code String}, in first-seen order.
+         */
+        public List<String> terms() {
+            List<String> terms = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                terms.add(term(i));
+            }
+            return terms;
+        }
+
+        private boolean matches(int index, String term) {
+            int start = starts[index];
+            for (int i = 0; i < term.length(); i++) {
+                if (chars[start + i] != term.charAt(i)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private void clear() {
+            if (size > 0) {
+                Arrays.fill(slots, 0);
+            }
+            charCount = 0;
+            size = 0;
+            occurrences = 0;
+        }
+
+        /**
+         * Counts the term just appended at {@code [start, charCount)}, keeping its characters only if it is new.
+         */
+        private void commit(int start, int hash, int maxTerms) {
+            int length = charCount - start;
+            int mask = slots.length - 1;
+            int slot = (hash ^ (hash >>> 16)) & mask;
+            while (slots[slot] != 0) {
+                int index = slots[slot] - 1;
+                if (hashes[index] == hash && lengths[index] == length
+                        && Arrays.equals(chars, starts[index], starts[index] + length, chars, start, start + length)) {
+                    frequencies[index]++;
+                    occurrences++;
+                    charCount = start;
+                    return;
+                }
+                slot = (slot + 1) & mask;
+            }
+            if (size >= maxTerms) {
+                charCount = start;
+                return;
+            }
+
+            if (size == starts.length) {
+                int capacity = size * 2;
+                starts = Arrays.copyOf(starts, capacity);
+                lengths = Arrays.copyOf(lengths, capacity);
+                hashes = Arrays.copyOf(hashes, capacity);
+                frequencies = Arrays.copyOf(frequencies, capacity);
+            }
+            starts[size] = start;
+            lengths[size] = length;
+            hashes[size] = hash;
+            frequencies[size] = 1;
+            slots[slot] = ++size;
+            occurrences++;
+            if (size * 2 > slots.length) {
+                rehash();
+            }
+        }
+
+        private void rehash() {
+            slots = new int[slots.length * 2];
+            int mask = slots.length - 1;
+            for (int index = 0; index < size; index++) {
+                int slot = (hashes[index] ^ (hashes[index] >>> 16)) & mask;
+                while (slots[slot] != 0) {
+                    slot = (slot + 1) & mask;
+                }
+                slots[slot] = index + 1;
+            }
+        }
+    }
+
+    // ── private helpers ──────────────────────────────────────────────────────
+
+    private void scan(CharSequence text, int maxTerms, Tokens tokens) {
+        if (text == null) {
+            return;
+        }
+        // the buffer and its fill level live in locals for the hot loop and are written back per term
+        char[] buffer = tokens.chars;
+        int count = tokens.charCount;
+        int length = text.length();
+        int start = -1;
+        int hash = 0;
+        for (int i = 0; i <= length; i++) {
+            char c = i < length ? text.charAt(i) : ' ';
+            if (isTermChar(c)) {
+                if (start < 0) {
+                    start = count;
+                    hash = 0;
+                }
+                if (count == buffer.length) {
+                    buffer = Arrays.copyOf(buffer, buffer.length * 2);
+                    tokens.chars = buffer;
+                }
+                char folded = fold(c);
+                buffer[count++] = folded;
+                hash = 31 * hash + folded;
+            } else if (start >= 0) {
+                int termLength = count - start;
+                tokens.charCount = count;
+                if (termLength >= MIN_TERM_LENGTH && termLength <= MAX_TERM_LENGTH
+                        && !(removeStopWords && isStopWord(buffer, start, termLength, hash))) {
+                    tokens.commit(start, hash, maxTerms);
+                } else {
+                    tokens.charCount = start;
+                }
+                count = tokens.charCount;
+                start = -1;
+            }
+        }
+    }
+
+    private static boolean isTermChar(char c) {
+        if (c < 128) {
+            return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9');
+        }
+        return Character.isLetterOrDigit(c);
+    }
+
+    private static char fold(char c) {
+        if (c < 128) {
+            return c >= 'A' && c <= 'Z' ? (char) (c + ('a' - 'A')) : c;
+        }
+        return Character.toLowerCase(c);
+    }
+
+    private static boolean isStopWord(char[] chars, int start, int length, int hash) {
+        int mask = STOP_WORD_TABLE.length - 1;
+        for (int slot = (hash ^ (hash >>> 16)) & mask; STOP_WORD_TABLE[slot] != null; slot = (slot + 1) & mask) {
+            char[] word = STOP_WORD_TABLE[slot];
+            if (Arrays.equals(word, 0, word.length, chars, start, start + length)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Stop words in an open-addressing table keyed by {@link String#hashCode()}, which the scan
+     * computes incrementally for every term.
+     */
+    private static char[][] stopWordTable() {
+        char[][] table = new char[64][];
+        int mask = table.length - 1;
+        for (String word : STOP_WORDS) {
+            int hash = word.hashCode();
+            int slot = (hash ^ (hash >>> 16)) & mask;
+            while (table[slot] != null) {
+                slot = (slot + 1) & mask;
+            }
+            table[slot] = word.toCharArray();
+        }
+        return table;
+    }
+}
@@ -0,0 +1,469 @@
+package com.victorlopez.incident_api.service;
+
+import com.victorlopez.incident_api.model.Incident;
+import com.victorlopez.incident_api.repository.IncidentRepository;
+import com.victorlopez.incident_api.service.IncidentTokenizer.Tokens;
+import com.victorlopez.incident_api.service.SimilarIncidentFinder.Match;
+import com.victorlopez.incident_api.service.SimilarIncidentFinder.ScoredId;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory inverted index over non-archived incidents for {@code GET /api/incidents/similar}.
+ *
+ * Each term maps to a posting list of primitive {@code int} document ids and term frequencies.
+ * Document ids are assigned in insertion order, so every list stays sorted and a query is a
+ * document-at-a-time merge (union) of the query terms' lists, scored with BM25. Only the best
+ * {@code limit} candidates are kept, in a bounded min-heap; the full match set is never built or sorted.
+ *
+ * BM25 needs the live document count and total length, both maintained exactly on every
+ * change. Document frequency is the posting list length, which still counts tombstoned
+ * documents, so it is slightly overestimated between compactions.
+ *
+ * The index is built at startup and kept current in two ways. {@link IncidentService} reports
+ * local creates, edits and archives after their transaction commits. A periodic refresh picks
+ * up incidents changed since the previous run, including writes from other instances.
+ * An edit tombstones the old document and appends a new one. Tombstones are compacted away
+ * once they reach {@code compactionRatio} of the index.
+ *
+ * Heap stays proportional to the live incidents: each one indexes at most
+ * {@code maxTermsPerDocument} distinct terms of bounded length.
+ *
+ * Metrics:
+ * - search.index.build: time of the startup build
+ * - search.index.documents / search.index.terms / search.index.postings: index size
+ * - search.index.memory: estimated heap used by the index, in bytes
+ */
+@Component
+@Slf4j
+public class InvertedIncidentIndex {
+
+    public static final String STRATEGY = "inverted-index";
+
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private final IncidentRepository incidentRepository;
+    private final boolean enabled;
+    private final int maxTermsPerDocument;
+    private final double compactionRatio;
+    private final double k1;
+    private final double b;
+    private final IncidentChangeFeed changes;
+    private final Timer buildTimer;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<String, PostingList> postings = new HashMap<>();
+    private final Map<UUID, Integer> documents = new HashMap<>();
+    private UUID[] incidentIds = new UUID[INITIAL_CAPACITY];
+    private int[] textHashes = new int[INITIAL_CAPACITY];
+    private int[] documentLengths = new int[INITIAL_CAPACITY];
+    private long totalLength;
+    private final BitSet deleted = new BitSet();
+    private int nextDocument;
+    private int deletedCount;
+    private long postingCount;
+
+
+    public InvertedIncidentIndex(IncidentRepository incidentRepository,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${search.similar.strategy:fulltext}") String strategy,
+                                 @Value("${search.index.max-terms-per-document:128}") int maxTermsPerDocument,
+                                 @Value("${search.index.compaction-ratio:0.2}") double compactionRatio,
+                                 @Value("${search.index.refresh-page-size:1000}") int refreshPageSize,
+                                 @Value("${search.index.bm25.k1:1.2}") double k1,
+                                 @Value("${search.index.bm25.b:0.75}") double b) {
+        this.incidentRepository = incidentRepository;
+        this.enabled = STRATEGY.equals(strategy);
+        this.maxTermsPerDocument = maxTermsPerDocument;
+        this.compactionRatio = compactionRatio;
+        this.changes = new IncidentChangeFeed(incidentRepository, refreshPageSize);
+        this.k1 = k1;
+        this.b = b;
+
+        this.buildTimer = Timer.builder("search.index.build")
+                .description("Time to build the similar-incident index at startup")
+                .register(meterRegistry);
+        Gauge.builder("search.index.documents", this, InvertedIncidentIndex::getDocumentCount)
+                .description("Incidents in the similar-incident index")
+                .register(meterRegistry);
+        Gauge.builder("search.index.terms", this, InvertedIncidentIndex::getTermCount)
+                .description("Distinct terms in the similar-incident index")
+                .register(meterRegistry);
+        Gauge.builder("search.index.postings", this, index -> index.postingCount)
+                .description("Postings in the similar-incident index, tombstones included")
+                .register(meterRegistry);
+        Gauge.builder("search.index.memory", this, InvertedIncidentIndex::estimateMemoryBytes)
+                .description("Estimated heap used by the similar-incident index")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void build() {
+        if (!enabled) {
+            return;
+        }
+        long start = System.nanoTime();
+        refresh();
+        long elapsed = System.nanoTime() - start;
+        buildTimer.record(elapsed, TimeUnit.NANOSECONDS);
+        log.info("Similar-incident index built: {} incidents, {} terms, ~{} KB in {} ms",
+                getDocumentCount(), getTermCount(), estimateMemoryBytes() / 1024,
+                TimeUnit.NANOSECONDS.toMillis(elapsed));
+    }
+
+    /**
+     * Folds incidents changed since the previous run into the index.
+     */
+    @Scheduled(fixedDelayString = "${search.index.refresh-interval-ms:30000}",
+               initialDelayString = "${search.index.refresh-interval-ms:30000}")
+    public synchronized void refresh() {
+        if (!enabled) {
+            return;
+        }
+
+        changes.poll(page -> {
+            lock.writeLock().lock();
+            try {
+                page.forEach(incident -> apply(incident.getId(), incident.getTitle(), incident.getDescription(),
+                        incident.isArchived()));
+                compactIfNeeded();
+            } finally {
+                lock.writeLock().unlock();
+            }
+            return page.size();
+        });
+    }
+
+    /**
+     * Indexes, re-indexes or (when archived) removes the incident once the current
+     * transaction commits, or immediately outside a transaction.
+     */
+    public void onSaved(Incident incident) {
+        if (!enabled) {
+            return;
+        }
+        UUID id = incident.getId();
+        String title = incident.getTitle();
+        String description = incident.getDescription();
+        boolean archived = incident.isArchived();
+        Runnable update = () -> {
+            lock.writeLock().lock();
+            try {
+                apply(id, title, description, archived);
+                compactIfNeeded();
+            } finally {
+                lock.writeLock().unlock();
+            }
+        };
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    update.run();
+                }
+            });
+        } else {
+            update.run();
+        }
+    }
+
+    /**
+     * Incidents sharing terms with {@code text}, best first by BM25 score.
+     */
+    public List<Match> findSimilar(String text, UUID excludeId, int limit) {
+        List<ScoredId> top = findSimilarIds(text, excludeId, limit);
+        if (top.isEmpty()) {
+            return List.of();
+        }
+
+        Map<UUID, Incident> incidents = new HashMap<>();
+        incidentRepository.findAllById(top.stream().map(ScoredId::incidentId).toList())
+                .forEach(incident -> incidents.put(incident.getId(), incident));
+        List<Match> matches = new ArrayList<>(top.size());
+        for (ScoredId document : top) {
+            Incident incident = incidents.get(document.incidentId());
+            if (incident != null && !incident.isArchived()) {
+                matches.add(new Match(incident, document.score()));
+            }
+        }
+        return matches;
+    }
+
+    /**
+     * Ids of the incidents sharing terms with {@code text}, best first by BM25 score, straight from the
+     * index without loading them.
+     */
+    public List<ScoredId> findSimilarIds(String text, UUID excludeId, int limit) {
+        if (limit <= 0) {
+            return List.of();
+        }
+
+        lock.readLock().lock();
+        try {
+            return topDocuments(IncidentTokenizer.SEARCH.tokenize(text), excludeId, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int getDocumentCount() {
+        lock.readLock().lock();
+        try {
+            return documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int getTermCount() {
+        lock.readLock().lock();
+        try {
+            return postings.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Rough heap estimate: posting arrays, per-document arrays and map entries.
+     */
+    public long estimateMemoryBytes() {
+        lock.readLock().lock();
+        try {
+            long bytes = 0;
+            for (Map.Entry<String, PostingList> entry : postings.entrySet()) {
+                bytes += 64 + 2L * entry.getKey().length() + 8L * entry.getValue().capacity();
+            }
+            bytes += (long) incidentIds.length * (8 + 32 + 4 + 4);
+            bytes += 64L * documents.size();
+            return bytes;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // ── private helpers ──────────────────────────────────────────────────────
+
+    /**
+     * Document-at-a-time union of the terms' posting lists into a bounded min-heap.
+     * A term contributes {@code idf * tf * (k1 + 1) / (tf + k1 * (1 - b + b * length / averageLength))}.
+     */
+    private List<ScoredId> topDocuments(Tokens terms, UUID excludeId, int limit) {
+        List<PostingList> lists = new ArrayList<>(terms.size());
+        for (int t = 0; t < terms.size(); t++) {
+            PostingList list = postings.get(terms.term(t));
+            if (list != null && list.size > 0) {
+                lists.add(list);
+            }
+        }
+        if (lists.isEmpty()) {
+            return List.of();
+        }
+
+        int liveDocuments = documents.size();
+        double averageLength = liveDocuments > 0 ? (double) totalLength / liveDocuments : 1.0;
+        double[] idf = new double[lists.size()];
+        for (int t = 0; t < lists.size(); t++) {
+            int df = Math.min(lists.get(t).size, liveDocuments);
+            idf[t] = Math.log(1 + (liveDocuments - df + 0.5) / (df + 0.5));
+        }
+
+        Integer excluded = excludeId != null ? documents.get(excludeId) : null;
+        int[] cursors = new int[lists.size()];
+        int[] frequencies = new int[lists.size()];
+        PriorityQueue<ScoredId> heap = new PriorityQueue<>(limit + 1,
+                Comparator.comparingDouble(ScoredId::score));
+
+        while (true) {
+            int document = Integer.MAX_VALUE;
+            for (int t = 0; t < lists.size(); t++) {
+                if (cursors[t] < lists.get(t).size) {
+                    document = Math.min(document, lists.get(t).documents[cursors[t]]);
+                }
+            }
+            if (document == Integer.MAX_VALUE) {
+                break;
+            }
+
+            for (int t = 0; t < lists.size(); t++) {
+                PostingList list = lists.get(t);
+                if (cursors[t] < list.size && list.documents[cursors[t]] == document) {
+                    frequencies[t] = list.frequencies[cursors[t]];
+                    cursors[t]++;
+                } else {
+                    frequencies[t] = 0;
+                }
+            }
+
+            if (deleted.get(document) || (excluded != null && excluded == document)) {
+                continue;
+            }
+            double norm = k1 * (1 - b + b * documentLengths[document] / averageLength);
+            double score = 0.0;
+            for (int t = 0; t < lists.size(); t++) {
+                if (frequencies[t] > 0) {
+                    score += idf[t] * frequencies[t] * (k1 + 1) / (frequencies[t] + norm);
+                }
+            }
+            if (heap.size() < limit) {
+                heap.add(new ScoredId(incidentIds[document], score));
+            } else if (score > heap.peek().score()) {
+                heap.poll();
+                heap.add(new ScoredId(incidentIds[document], score));
+            }
+        }
+
+        List<ScoredId> top = new ArrayList<>(heap);
+        top.sort(Comparator.comparingDouble(ScoredId::score).reversed());
+        return top;
+    }
+
+    private void apply(UUID id, String title, String description, boolean archived) {
+        Integer existing = documents.get(id);
+        int textHash = Objects.hash(title, description);
+        if (!archived && existing != null && textHashes[existing] == textHash) {
+            return;
+        }
+        if (existing != null) {
+            documents.remove(id);
+            deleted.set(existing);
+            deletedCount++;
+            totalLength -= documentLengths[existing];
+        }
+        if (archived) {
+            return;
+        }
+
+        Tokens terms = IncidentTokenizer.SEARCH.tokenize(title, description, maxTermsPerDocument);
+        if (terms.isEmpty()) {
+            return;
+        }
+        int document = nextDocument++;
+        ensureCapacity(nextDocument);
+        incidentIds[document] = id;
+        textHashes[document] = textHash;
+        documents.put(id, document);
+        for (int t = 0; t < terms.size(); t++) {
+            postings.computeIfAbsent(terms.term(t), key -> new PostingList()).add(document, terms.frequency(t));
+            postingCount++;
+        }
+        documentLengths[document] = terms.occurrences();
+        totalLength += terms.occurrences();
+    }
+
+    /**
+     * Drops tombstoned documents and renumbers the rest in their original order,
+     * so posting lists stay sorted.
+     */
+    private void compactIfNeeded() {
+        if (deletedCount == 0 || deletedCount < compactionRatio * nextDocument) {
+            return;
+        }
+
+        int[] remap = new int[nextDocument];
+        int live = 0;
+        for (int document = 0; document < nextDocument; document++) {
+            remap[document] = deleted.get(document) ? -1 : live++;
+        }
+
+        postingCount = 0;
+        postings.values().removeIf(list -> {
+            list.compact(remap);
+            postingCount += list.size;
+            return list.size == 0;
+        });
+
+        UUID[] compactedIds = new UUID[Math.max(INITIAL_CAPACITY, live * 2)];
+        int[] compactedHashes = new int[compactedIds.length];
+        int[] compactedLengths = new int[compactedIds.length];
+        for (int document = 0; document < nextDocument; document++) {
+            if (remap[document] >= 0) {
+                compactedIds[remap[document]] = incidentIds[document];
+                compactedHashes[remap[document]] = textHashes[document];
+                compactedLengths[remap[document]] = documentLengths[document];
+                documents.put(incidentIds[document], remap[document]);
+            }
+        }
+        incidentIds = compactedIds;
+        textHashes = compactedHashes;
+        documentLengths = compactedLengths;
+        deleted.clear();
+        deletedCount = 0;
+        nextDocument = live;
+    }
+
+    private void ensureCapacity(int size) {
+        if (size > incidentIds.length) {
+            int capacity = Math.max(size, incidentIds.length * 2);
+            incidentIds = Arrays.copyOf(incidentIds, capacity);
+            textHashes = Arrays.copyOf(textHashes, capacity);
+            documentLengths = Arrays.copyOf(documentLengths, capacity);
+        }
+    }
+
+    /**
+     * Sorted document ids with their term frequencies, in growable primitive arrays.
+     */
+    private static final class PostingList {
+
+        private int[] documents = new int[4];
+        private int[] frequencies = new int[4];
+        private int size;
+
+        void add(int document, int frequency) {
+            if (size == documents.length) {
+                documents = Arrays.copyOf(documents, size * 2);
+                frequencies = Arrays.copyOf(frequencies, size * 2);
+            }
+            documents[size] = document;
+            frequencies[size] = frequency;
+            size++;
+        }
+
+        void compact(int[] remap) {
+            int kept = 0;
+            for (int i = 0; i < size; i++) {
+                int document = remap[documents[i]];
+                if (document >= 0) {
+                    documents[kept] = document;
+                    frequencies[kept] = frequencies[i];
+                    kept++;
+                }
+            }
+            size = kept;
+            if (documents.length > 4 && size < documents.length / 4) {
+                documents = Arrays.copyOf(documents, Math.max(4, size * 2));
+                frequencies = Arrays.copyOf(frequencies, documents.length);
+            }
+        }
+
+        int capacity() {
+            return documents.length;
+        }
+    }
+}
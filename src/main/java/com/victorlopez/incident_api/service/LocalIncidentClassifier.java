@@ -0,0 +1,394 @@
+package com.victorlopez.incident_api.service;
+
+import com.victorlopez.incident_api.dto.AIAnalysisResult;
+import com.victorlopez.incident_api.model.AnalysisStatus;
+import com.victorlopez.incident_api.model.Category;
+import com.victorlopez.incident_api.model.Incident;
+import com.victorlopez.incident_api.model.Severity;
+import com.victorlopez.incident_api.repository.IncidentRepository;
+import com.victorlopez.incident_api.service.IncidentTokenizer.Tokens;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-process severity/category classifier used as a fast path before the LLM.
+ *
+ * Two multinomial naive Bayes models (one per label) are trained from the title and
+ * description tokens of analyzed incidents. A prediction costs a few hash lookups, so
+ * when both labels clear {@code confidenceThreshold} the incident is classified without
+ * calling OpenAI. Team and a runbook pointer come from the category, and the estimate is
+ * the average of that category's labelled incidents; no other incident's solution text is
+ * handed out.
+ *
+ * Training is incremental: every run only reads incidents updated since the previous
+ * run. Edited incidents are untrained and retrained, including their share of the
+ * category estimate; archived ones are removed. Incidents the classifier labelled itself
+ * are never trained on, so its own predictions cannot reinforce themselves.
+ *
+ * Metrics:
+ * - ai.local.classifications{path=local|llm}: how often the fast path answered
+ * - ai.local.agreement{field=severity|category, result=agree|disagree}: local vs LLM labels
+ * - ai.local.classify.duration: local prediction time
+ * - ai.local.training.samples: incidents the model is trained on
+ */
+@Component
+@Slf4j
+public class LocalIncidentClassifier {
+
+    private static final int DEFAULT_RESOLUTION_HOURS = 4;
+
+    private static final Map<Category, String> TEAMS = new EnumMap<>(Map.of(
+            Category.BACKEND, "Backend Team",
+            Category.FRONTEND, "Frontend Team",
+            Category.DATABASE, "Database Team",
+            Category.SECURITY, "Security Team",
+            Category.NETWORK, "DevOps Team"));
+
+    private final IncidentRepository incidentRepository;
+    private final boolean enabled;
+    private final double confidenceThreshold;
+    private final int minSamples;
+    private final double shadowSampleRate;
+    private final IncidentChangeFeed changes;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<String, Integer> vocabulary = new HashMap<>();
+    private final NaiveBayes<Severity> severityModel = new NaiveBayes<>(Severity.class);
+    private final NaiveBayes<Category> categoryModel = new NaiveBayes<>(Category.class);
+    private final Map<UUID, TrainedIncident> trained = new HashMap<>();
+    private final Map<Category, CategoryProfile> profiles = new EnumMap<>(Category.class);
+
+    private final Counter localPath;
+    private final Counter llmPath;
+    private final Counter severityAgree;
+    private final Counter severityDisagree;
+    private final Counter categoryAgree;
+    private final Counter categoryDisagree;
+    private final Timer classifyTimer;
+
+    @Autowired
+    public LocalIncidentClassifier(IncidentRepository incidentRepository,
+                                   MeterRegistry meterRegistry,
+                                   @Value("${ai.local.enabled:false}") boolean enabled,
+                                   @Value("${ai.local.confidence-threshold:0.9}") double confidenceThreshold,
+                                   @Value("${ai.local.min-samples:50}") int minSamples,
+                                   @Value("${ai.local.shadow-sample-rate:0.05}") double shadowSampleRate,
+                                   @Value("${ai.local.training-page-size:500}") int trainingPageSize) {
+        this.incidentRepository = incidentRepository;
+        this.enabled = enabled;
+        this.confidenceThreshold = confidenceThreshold;
+        this.minSamples = minSamples;
+        this.shadowSampleRate = shadowSampleRate;
+        this.changes = new IncidentChangeFeed(incidentRepository, trainingPageSize);
+
+        this.localPath = pathCounter(meterRegistry, "local");
+        this.llmPath = pathCounter(meterRegistry, "llm");
+        this.severityAgree = agreementCounter(meterRegistry, "severity", "agree");
+        this.severityDisagree = agreementCounter(meterRegistry, "severity", "disagree");
+        this.categoryAgree = agreementCounter(meterRegistry, "category", "agree");
+        this.categoryDisagree = agreementCounter(meterRegistry, "category", "disagree");
+        this.classifyTimer = Timer.builder("ai.local.classify.duration")
+                .description("Time spent in the local incident classifier")
+                .register(meterRegistry);
+        Gauge.builder("ai.local.training.samples", this, LocalIncidentClassifier::getTrainingSamples)
+                .description("Incidents the local classifier is trained on")
+                .register(meterRegistry);
+    }
+
+    /**
+     * A classifier that never answers. Useful when the AI service is used standalone.
+     */
+    public static LocalIncidentClassifier disabled() {
+        return new LocalIncidentClassifier(null, new SimpleMeterRegistry(), false, 1.0, Integer.MAX_VALUE, 0.0, 1);
+    }
+
+    /**
+     * Classifies the incident locally when the model is trained and confident enough.
+     *
+     * A small share of confident predictions is deliberately sent to the LLM anyway
+     * ({@code shadowSampleRate}) so agreement keeps being measured while the fast path is hot.
+     *
+     * @return the local analysis, or empty if the LLM should be called
+     */
+    public Optional<AIAnalysisResult> tryClassify(String title, String description) {
+        if (!enabled) {
+            return Optional.empty();
+        }
+
+        Optional<AIAnalysisResult> result = classifyTimer.record(() -> {
+            lock.readLock().lock();
+            try {
+                if (trained.size() < minSamples) {
+                    return Optional.<AIAnalysisResult>empty();
+                }
+                Prediction prediction = predict(title, description);
+                if (prediction.confidence() < confidenceThreshold) {
+                    return Optional.<AIAnalysisResult>empty();
+                }
+                return Optional.of(toResult(prediction));
+            } finally {
+                lock.readLock().unlock();
+            }
+        });
+
+        if (result.isPresent() && ThreadLocalRandom.current().nextDouble() >= shadowSampleRate) {
+            localPath.increment();
+            log.debug("Local classifier answered for incident: {} (confidence {})", title, result.get().confidence());
+            return result;
+        }
+        llmPath.increment();
+        return Optional.empty();
+    }
+
+    /**
+     * Compares the local prediction with the labels the LLM produced for the same incident.
+     */
+    public void recordAgreement(String title, String description, AIAnalysisResult llmResult) {
+        if (!enabled) {
+            return;
+        }
+
+        Prediction prediction;
+        lock.readLock().lock();
+        try {
+            if (trained.size() < minSamples) {
+                return;
+            }
+            prediction = predict(title, description);
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        (prediction.severity() == llmResult.severity() ? severityAgree : severityDisagree).increment();
+        (prediction.category() == llmResult.category() ? categoryAgree : categoryDisagree).increment();
+    }
+
+    public int getTrainingSamples() {
+        lock.readLock().lock();
+        try {
+            return trained.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Folds incidents created or changed since the previous run into the model.
+     */
+    @Scheduled(fixedDelayString = "${ai.local.retrain-interval-ms:300000}",
+               initialDelayString = "${ai.local.initial-delay-ms:10000}")
+    public void train() {
+        if (!enabled) {
+            return;
+        }
+
+        int seen = changes.poll(page -> {
+            lock.writeLock().lock();
+            try {
+                page.forEach(this::apply);
+            } finally {
+                lock.writeLock().unlock();
+            }
+            return page.size();
+        });
+
+        if (seen > 0) {
+            log.info("Local classifier updated from {} incidents ({} training samples)", seen, getTrainingSamples());
+        }
+    }
+
+    // ── private helpers ──────────────────────────────────────────────────────
+
+    private void apply(Incident incident) {
+        TrainedIncident previous = trained.remove(incident.getId());
+        if (previous != null) {
+            severityModel.update(previous.severity(), previous.tokens(), -1);
+            categoryModel.update(previous.category(), previous.tokens(), -1);
+            profiles.get(previous.category()).remove(previous.hours());
+        }
+
+        AnalysisStatus status = incident.getAnalysisStatus();
+        boolean labelled = !incident.isArchived()
+                && incident.getCategory() != null
+                && incident.getSeverity() != null
+                && !incident.isLocallyClassified()
+                && (status == null || status == AnalysisStatus.ANALYZED);
+        if (!labelled) {
+            return;
+        }
+
+        int[] tokens = tokenIds(incident.getTitle(), incident.getDescription(), true);
+        severityModel.update(incident.getSeverity(), tokens, 1);
+        categoryModel.update(incident.getCategory(), tokens, 1);
+        Integer hours = incident.getEstimatedResolutionHours();
+        trained.put(incident.getId(),
+                new TrainedIncident(incident.getSeverity(), incident.getCategory(), tokens, hours));
+        profiles.computeIfAbsent(incident.getCategory(), c -> new CategoryProfile()).add(hours);
+    }
+
+    private Prediction predict(String title, String description) {
+        int[] tokens = tokenIds(title, description, false);
+        NaiveBayes.Posterior<Severity> severity = severityModel.classify(tokens, vocabulary.size());
+        NaiveBayes.Posterior<Category> category = categoryModel.classify(tokens, vocabulary.size());
+        return new Prediction(severity.label(), category.label(),
+                Math.min(severity.probability(), category.probability()));
+    }
+
+    private AIAnalysisResult toResult(Prediction prediction) {
+        String team = TEAMS.get(prediction.category());
+        CategoryProfile profile = profiles.get(prediction.category());
+        String solution = "Triage with the " + team + " and follow the standard runbook for "
+                + prediction.category() + " incidents.";
+        int hours = profile != null ? profile.averageHours() : DEFAULT_RESOLUTION_HOURS;
+        return new AIAnalysisResult(prediction.severity(), prediction.category(), team, solution, hours,
+                prediction.confidence(), true);
+    }
+
+    /**
+     * Maps text to vocabulary ids. Unknown tokens are added only while training;
+     * at prediction time they carry no evidence and are skipped.
+     */
+    private int[] tokenIds(String title, String description, boolean grow) {
+        Tokens tokens = IncidentTokenizer.ALL_TERMS.tokenize(title, description, Integer.MAX_VALUE);
+        int[] ids = new int[tokens.occurrences()];
+        int count = 0;
+        for (int i = 0; i < tokens.size(); i++) {
+            String token = tokens.term(i);
+            Integer id = grow ? vocabulary.computeIfAbsent(token, t -> vocabulary.size()) : vocabulary.get(token);
+            if (id != null) {
+                Arrays.fill(ids, count, count + tokens.frequency(i), id);
+                count += tokens.frequency(i);
+            }
+        }
+        return Arrays.copyOf(ids, count);
+    }
+
+    private static Counter pathCounter(MeterRegistry meterRegistry, String path) {
+        return Counter.builder("ai.local.classifications")
+                .description("Incident classifications by path taken")
+                .tag("path", path)
+                .register(meterRegistry);
+    }
+
+    private static Counter agreementCounter(MeterRegistry meterRegistry, String field, String result) {
+        return Counter.builder("ai.local.agreement")
+                .description("Local classifier predictions compared with LLM labels")
+                .tag("field", field)
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    private record Prediction(Severity severity, Category category, double confidence) {
+    }
+
+    private record TrainedIncident(Severity severity, Category category, int[] tokens, Integer hours) {
+    }
+
+    private static final class CategoryProfile {
+
+        private long hoursTotal;
+        private int hoursCount;
+
+        private void add(Integer hours) {
+            if (hours != null) {
+                hoursTotal += hours;
+                hoursCount++;
+            }
+        }
+
+        private void remove(Integer hours) {
+            if (hours != null) {
+                hoursTotal -= hours;
+                hoursCount--;
+            }
+        }
+
+        private int averageHours() {
+            return hoursCount == 0 ? DEFAULT_RESOLUTION_HOURS : (int) Math.round((double) hoursTotal / hoursCount);
+        }
+    }
+
+    /**
+     * Multinomial naive Bayes over vocabulary ids with Laplace smoothing.
+     */
+    private static final class NaiveBayes<L extends Enum<L>> {
+
+        private final L[] labels;
+        private final int[] documents;
+        private final long[] tokenTotals;
+        private final Map<Integer, int[]> tokenCounts = new HashMap<>();
+        private int totalDocuments;
+
+        private NaiveBayes(Class<L> type) {
+            this.labels = type.getEnumConstants();
+            this.documents = new int[labels.length];
+            this.tokenTotals = new long[labels.length];
+        }
+
+        private void update(L label, int[] tokens, int delta) {
+            int c = label.ordinal();
+            documents[c] += delta;
+            totalDocuments += delta;
+            tokenTotals[c] += (long) delta * tokens.length;
+            for (int token : tokens) {
+                int[] counts = tokenCounts.computeIfAbsent(token, t -> new int[labels.length]);
+                counts[c] += delta;
+            }
+        }
+
+        private Posterior<L> classify(int[] tokens, int vocabularySize) {
+            if (totalDocuments == 0) {
+                return new Posterior<>(labels[0], 0.0);
+            }
+            double[] logScores = new double[labels.length];
+            for (int c = 0; c < labels.length; c++) {
+                if (documents[c] == 0) {
+                    logScores[c] = Double.NEGATIVE_INFINITY;
+                    continue;
+                }
+                double score = Math.log((double) documents[c] / totalDocuments);
+                double denominator = Math.log(tokenTotals[c] + vocabularySize);
+                for (int token : tokens) {
+                    int[] counts = tokenCounts.get(token);
+                    int count = counts == null ? 0 : counts[c];
+                    score += Math.log(count + 1.0) - denominator;
+                }
+                logScores[c] = score;
+            }
+
+            int best = 0;
+            for (int c = 1; c < labels.length; c++) {
+                if (logScores[c] > logScores[best]) {
+                    best = c;
+                }
+            }
+            // softmax over log scores, shifted by the maximum for numerical stability
+            double sum = 0.0;
+            for (double logScore : logScores) {
+                sum += Math.exp(logScore - logScores[best]);
+            }
+            return new Posterior<>(labels[best], 1.0 / sum);
+        }
+
+        private record Posterior<L>(L label, double probability) {
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package com.victorlopez.incident_api.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.function.Supplier;
+
+/**
+ * Routing policy for cheap-model-first analysis.
+ *
+ * Each incident is first sent to {@code fastModel}; its answer is accepted when the
+ * reported confidence reaches {@code confidenceThreshold}. Low-confidence or unparseable
+ * answers are escalated to {@code strongModel}.
+ *
+ * Metrics for tuning the threshold:
+ * - ai.analysis.routing{decision=fast_accepted|escalated_low_confidence|escalated_invalid}
+ * - ai.analysis.model.duration{tier=fast|strong}: per-tier call latency
+ * - ai.analysis.routing.fast.confidence: confidence reported by the fast tier
+ */
+@Component
+@Slf4j
+public class ModelTierRouter {
+
+    public enum Tier { FAST, STRONG }
+
+    private final boolean enabled;
+    private final String fastModel;
+    private final String strongModel;
+    private final double confidenceThreshold;
+
+    private final Counter fastAccepted;
+    private final Counter escalatedLowConfidence;
+    private final Counter escalatedInvalid;
+    private final Timer fastTimer;
+    private final Timer strongTimer;
+    private final DistributionSummary fastConfidence;
+
+    public ModelTierRouter(MeterRegistry meterRegistry,
+                           @Value("${ai.routing.enabled:false}") boolean enabled,
+                           @Value("${ai.routing.fast-model:gpt-4o-mini}") String fastModel,
+                           @Value("${ai.routing.strong-model:gpt-4o}") String strongModel,
+                           @Value("${ai.routing.confidence-threshold:0.8}") double confidenceThreshold) {
+        this.enabled = enabled;
+        this.fastModel = fastModel;
+        this.strongModel = strongModel;
+        this.confidenceThreshold = confidenceThreshold;
+
+        this.fastAccepted = decisionCounter(meterRegistry, "fast_accepted");
+        this.escalatedLowConfidence = decisionCounter(meterRegistry, "escalated_low_confidence");
+        this.escalatedInvalid = decisionCounter(meterRegistry, "escalated_invalid");
+        this.fastTimer = tierTimer(meterRegistry, "fast");
+        this.strongTimer = tierTimer(meterRegistry, "strong");
+        this.fastConfidence = DistributionSummary.builder("ai.analysis.routing.fast.confidence")
+                .description("Confidence reported by the fast model tier")
+                .register(meterRegistry);
+    }
+
+    /**
+     * A router that never routes; the configured default model handles every call.
+     */
+    public static ModelTierRouter disabled() {
+        return new ModelTierRouter(new SimpleMeterRegistry(), false, null, null, 0.0);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public String modelFor(Tier tier) {
+        return tier == Tier.FAST ? fastModel : strongModel;
+    }
+
+    /**
+     * Decides whether a fast-tier confidence is good enough and records the decision.
+     *
+     * @return true if the fast answer should be used
+     */
+    public boolean acceptFast(double confidence) {
+        fastConfidence.record(confidence);
+        if (confidence >= confidenceThreshold) {
+            fastAccepted.increment();
+            return true;
+        }
+        escalatedLowConfidence.increment();
+        log.info("Escalating to {}: fast-tier confidence {} below {}", strongModel, confidence, confidenceThreshold);
+        return false;
+    }
+
+    public void recordInvalidFastAnswer(String reason) {
+        escalatedInvalid.increment();
+        log.warn("Escalating to {}: fast-tier answer unusable ({})", strongModel, reason);
+    }
+
+    public <T> T timed(Tier tier, Supplier<T> call) {
+        return (tier == Tier.FAST ? fastTimer : strongTimer).record(call);
+    }
+
+    private static Counter decisionCounter(MeterRegistry meterRegistry, String decision) {
+        return Counter.builder("ai.analysis.routing")
+                .description("Model routing decisions")
+                .tag("decision", decision)
+                .register(meterRegistry);
+    }
+
+    private static Timer tierTimer(MeterRegistry meterRegistry, String tier) {
+        return Timer.builder("ai.analysis.model.duration")
+                .description("AI analysis latency per model tier")
+                .tag("tier", tier)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,401 @@
+package com.victorlopez.incident_api.service;
+
+import com.victorlopez.incident_api.model.Incident;
+import com.victorlopez.incident_api.model.IncidentSketch;
+import com.victorlopez.incident_api.model.Status;
+import com.victorlopez.incident_api.repository.IncidentSketchRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Finds recent open incidents whose text nearly matches a new report, so that
+ * {@link IncidentService} can fold the report into the existing incident instead
+ * of storing and analyzing it again.
+ *
+ * Text is reduced to a 128-value MinHash signature over character 5-shingles. The fraction
+ * of equal values estimates the Jaccard similarity of the shingle sets. Signatures are
+ * bucketed with locality-sensitive hashing: 16 bands of 8 values each. Pairs at Jaccard 0.9
+ * almost surely share a bucket, pairs at 0.8 with probability ~0.95 and pairs at 0.5 with ~0.06.
+ * A lookup therefore costs one signature and 16 hash probes, whatever the number of incidents.
+ *
+ * Only incidents created within {@code windowHours} are indexed. Signatures are
+ * persisted in {@code incident_sketches} and replaced when an incident's text is edited.
+ * At startup, and periodically, those of open incidents within the window are re-read
+ * in full, which picks up reports accepted or edited by other instances, however late
+ * they commit, and drops incidents those instances resolved.
+ *
+ * Metrics:
+ * - incident.dedup.checks{outcome=duplicate|unique}: lookups made for new reports
+ * - incident.dedup.lookup: time to sketch a report and probe the index
+ * - incident.dedup.sketches: signatures currently indexed
+ */
+@Component
+@Slf4j
+public class NearDuplicateDetector {
+
+    static final int NUM_HASHES = 128;
+    static final int BANDS = 16;
+    static final int ROWS = NUM_HASHES / BANDS;
+
+    private static final int SHINGLE_LENGTH = 5;
+    private static final Set<Status> ACTIVE_STATUSES = Set.of(Status.OPEN, Status.IN_PROGRESS);
+
+    private final IncidentSketchRepository sketchRepository;
+    private final boolean enabled;
+    private final double threshold;
+    private final Duration window;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<UUID, IndexedSketch> sketches = new HashMap<>();
+    private final List<Map<Long, List<UUID>>> buckets = new ArrayList<>(BANDS);
+
+    private final Counter duplicates;
+    private final Counter uniques;
+    private final Timer lookupTimer;
+
+    public NearDuplicateDetector(IncidentSketchRepository sketchRepository,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${incident.dedup.enabled:false}") boolean enabled,
+                                 @Value("${incident.dedup.threshold:0.8}") double threshold,
+                                 @Value("${incident.dedup.window-hours:24}") long windowHours) {
+        this.sketchRepository = sketchRepository;
+        this.enabled = enabled;
+        this.threshold = threshold;
+        this.window = Duration.ofHours(windowHours);
+        for (int band = 0; band < BANDS; band++) {
+            buckets.add(new HashMap<>());
+        }
+
+        this.duplicates = checkCounter(meterRegistry, "duplicate");
+        this.uniques = checkCounter(meterRegistry, "unique");
+        this.lookupTimer = Timer.builder("incident.dedup.lookup")
+                .description("Time to sketch a new report and probe the near-duplicate index")
+                .register(meterRegistry);
+        Gauge.builder("incident.dedup.sketches", this, NearDuplicateDetector::size)
+                .description("Incident signatures held in the near-duplicate index")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Indexed incidents estimated at or above the Jaccard threshold, most similar first.
+     * Callers must still check each candidate is open: the index is pruned lazily.
+     */
+    public List<Duplicate> findDuplicates(String title, String description) {
+        if (!enabled) {
+            return List.of();
+        }
+
+        long start = System.nanoTime();
+        List<Duplicate> found = new ArrayList<>();
+        int[] signature = signature(title, description);
+        if (signature != null) {
+            lock.readLock().lock();
+            try {
+                Set<UUID> candidates = new HashSet<>();
+                for (int band = 0; band < BANDS; band++) {
+                    candidates.addAll(buckets.get(band).getOrDefault(bandKey(signature, band), List.of()));
+                }
+                for (UUID candidate : candidates) {
+                    double similarity = similarity(signature, sketches.get(candidate).signature());
+                    if (similarity >= threshold) {
+                        found.add(new Duplicate(candidate, similarity));
+                    }
+                }
+            } finally {
+                lock.readLock().unlock();
+            }
+            found.sort(Comparator.comparingDouble(Duplicate::similarity).reversed());
+        }
+        lookupTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        (found.isEmpty() ? uniques : duplicates).increment();
+        return found;
+    }
+
+    /**
+     * Persists the incident's signature in the current transaction, replacing the one of its previous text,
+     * and indexes it once that commits. Text without letters or digits drops the incident from the index.
+     */
+    public void register(Incident incident) {
+        if (!enabled) {
+            return;
+        }
+        UUID id = incident.getId();
+        LocalDateTime createdAt = incident.getCreatedAt() != null ? incident.getCreatedAt() : LocalDateTime.now();
+        if (createdAt.isBefore(LocalDateTime.now().minus(window))) {
+            return;
+        }
+        int[] signature = signature(incident.getTitle(), incident.getDescription());
+        if (signature == null) {
+            sketchRepository.deleteById(id);
+        } else {
+            sketchRepository.save(IncidentSketch.builder()
+                    .incidentId(id)
+                    .signature(encode(signature))
+                    .createdAt(createdAt)
+                    .build());
+        }
+
+        Runnable index = () -> {
+            lock.writeLock().lock();
+            try {
+                if (signature == null) {
+                    removeIndexed(id);
+                } else {
+                    add(id, signature);
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        };
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    index.run();
+                }
+            });
+        } else {
+            index.run();
+        }
+    }
+
+    /**
+     * Drops an incident that is no longer a valid fold target (resolved, closed or archived).
+     */
+    public void remove(UUID incidentId) {
+        lock.writeLock().lock();
+        try {
+            removeIndexed(incidentId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        if (!enabled) {
+            return;
+        }
+        long start = System.nanoTime();
+        refresh();
+        log.info("Near-duplicate index loaded: {} sketches in {} ms", size(),
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+
+    /**
+     * Evicts signatures older than the window and re-reads the rest. Only new or changed signatures
+     * are re-bucketed; incidents no longer open, or whose sketch is gone, are dropped.
+     */
+    @Scheduled(fixedDelayString = "${incident.dedup.refresh-interval-ms:60000}",
+               initialDelayString = "${incident.dedup.refresh-interval-ms:60000}")
+    @Transactional
+    public synchronized void refresh() {
+        if (!enabled) {
+            return;
+        }
+
+        long readAt = System.nanoTime();
+        LocalDateTime cutoff = LocalDateTime.now().minus(window);
+        int purged = sketchRepository.deleteExpired(cutoff);
+        // the whole window rather than what is newer than the last load: a sketch committed late by another
+        // instance can be older than one already loaded, and re-sketched edits keep their createdAt
+        Map<UUID, IncidentSketch> loaded = new HashMap<>();
+        for (IncidentSketch sketch : sketchRepository.findActiveCreatedAfter(cutoff, ACTIVE_STATUSES)) {
+            loaded.put(sketch.getIncidentId(), sketch);
+        }
+
+        int changed = 0;
+        lock.writeLock().lock();
+        try {
+            // entries indexed locally after the read started may be newer than what it saw
+            sketches.entrySet().stream()
+                    .filter(entry -> !loaded.containsKey(entry.getKey()) && indexedBefore(entry.getValue(), readAt))
+                    .map(Map.Entry::getKey)
+                    .toList()
+                    .forEach(this::removeIndexed);
+            for (IncidentSketch sketch : loaded.values()) {
+                int[] signature = decode(sketch.getSignature());
+                IndexedSketch indexed = sketches.get(sketch.getIncidentId());
+                if (indexed == null
+                        || (indexedBefore(indexed, readAt) && !Arrays.equals(indexed.signature(), signature))) {
+                    add(sketch.getIncidentId(), signature);
+                    changed++;
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.debug("Near-duplicate index refreshed: {} loaded, {} changed, {} purged, {} indexed",
+                loaded.size(), changed, purged, size());
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return sketches.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * An indexed incident and its estimated Jaccard similarity to the new report.
+     */
+    public record Duplicate(UUID incidentId, double similarity) {
+    }
+
+    // ── private helpers ──────────────────────────────────────────────────────
+
+    private void add(UUID id, int[] signature) {
+        removeIndexed(id);
+        sketches.put(id, new IndexedSketch(signature, System.nanoTime()));
+        for (int band = 0; band < BANDS; band++) {
+            buckets.get(band).computeIfAbsent(bandKey(signature, band), key -> new ArrayList<>(1)).add(id);
+        }
+    }
+
+    private void removeIndexed(UUID id) {
+        IndexedSketch removed = sketches.remove(id);
+        if (removed == null) {
+            return;
+        }
+        for (int band = 0; band < BANDS; band++) {
+            long key = bandKey(removed.signature(), band);
+            List<UUID> bucket = buckets.get(band).get(key);
+            if (bucket != null) {
+                bucket.remove(id);
+                if (bucket.isEmpty()) {
+                    buckets.get(band).remove(key);
+                }
+            }
+        }
+    }
+
+    private static boolean indexedBefore(IndexedSketch sketch, long nanoTime) {
+        return sketch.indexedAt() - nanoTime < 0;
+    }
+
+    /**
+     * MinHash signature of the normalized text, or null when it has no letters or digits.
+     * The 128 hash functions are derived from one 64-bit shingle hash as h1 + i * h2 (Kirsch–Mitzenmacher),
+     * finalized with the MurmurHash3 mixer.
+     */
+    static int[] signature(String title, String description) {
+        String text = normalize(title + " " + description);
+        if (text.isEmpty()) {
+            return null;
+        }
+
+        int[] signature = new int[NUM_HASHES];
+        Arrays.fill(signature, Integer.MAX_VALUE);
+        int shingles = Math.max(1, text.length() - SHINGLE_LENGTH + 1);
+        for (int start = 0; start < shingles; start++) {
+            long hash = 0xcbf29ce484222325L;
+            int end = Math.min(text.length(), start + SHINGLE_LENGTH);
+            for (int i = start; i < end; i++) {
+                hash = (hash ^ text.charAt(i)) * 0x100000001b3L;
+            }
+            int h1 = (int) hash;
+            int h2 = (int) (hash >>> 32);
+            for (int i = 0; i < NUM_HASHES; i++) {
+                int value = mix(h1 + i * h2);
+                if (value < signature[i]) {
+                    signature[i] = value;
+                }
+            }
+        }
+        return signature;
+    }
+
+    static double similarity(int[] a, int[] b) {
+        int equal = 0;
+        for (int i = 0; i < NUM_HASHES; i++) {
+            if (a[i] == b[i]) {
+                equal++;
+            }
+        }
+        return (double) equal / NUM_HASHES;
+    }
+
+    private static long bandKey(int[] signature, int band) {
+        long key = 1125899906842597L;
+        for (int i = band * ROWS; i < (band + 1) * ROWS; i++) {
+            key = 31 * key + signature[i];
+        }
+        return key;
+    }
+
+    private static String normalize(String text) {
+        StringBuilder normalized = new StringBuilder(text.length());
+        boolean space = true;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (Character.isLetterOrDigit(c)) {
+                normalized.append(Character.toLowerCase(c));
+                space = false;
+            } else if (!space) {
+                normalized.append(' ');
+                space = true;
+            }
+        }
+        return normalized.toString().trim();
+    }
+
+    private static int mix(int h) {
+        h ^= h >>> 16;
+        h *= 0x85ebca6b;
+        h ^= h >>> 13;
+        h *= 0xc2b2ae35;
+        h ^= h >>> 16;
+        return h;
+    }
+
+    private static byte[] encode(int[] signature) {
+        ByteBuffer buffer = ByteBuffer.allocate(signature.length * Integer.BYTES);
+        buffer.asIntBuffer().put(signature);
+        return buffer.array();
+    }
+
+    private static int[] decode(byte[] bytes) {
+        int[] signature = new int[bytes.length / Integer.BYTES];
+        ByteBuffer.wrap(bytes).asIntBuffer().get(signature);
+        return signature;
+    }
+
+    private static Counter checkCounter(MeterRegistry registry, String outcome) {
+        return Counter.builder("incident.dedup.checks")
+                .description("Near-duplicate lookups for new incident reports")
+                .tag("outcome", outcome)
+                .register(registry);
+    }
+
+    private record IndexedSketch(int[] signature, long indexedAt) {
+    }
+}
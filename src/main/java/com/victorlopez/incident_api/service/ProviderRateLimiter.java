@@ -0,0 +1,250 @@
+package com.victorlopez.incident_api.service;
+
+import com.victorlopez.incident_api.exception.AIRateLimitExceededException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Client-side scheduler for the provider's requests-per-minute and tokens-per-minute limits.
+ *
+ * Two token buckets refill continuously at RPM/60 and TPM/60 per second. A call needs one
+ * request and its estimated tokens (prompt length / 4 plus the expected completion). Calls
+ * wait in FIFO lanes; the head of the INTERACTIVE lane is always served before any BULK
+ * call, so user-facing analyses overtake background and bulk work during storms.
+ *
+ * A caller that cannot be served within its lane's maximum wait, or finds its lane full,
+ * gets an {@link AIRateLimitExceededException} instead of a provider 429.
+ *
+ * Metrics:
+ * - ai.ratelimit.wait{priority}: time spent waiting for budget
+ * - ai.ratelimit.rejected{priority, reason=timeout|queue_full}
+ * - ai.ratelimit.queued{priority}: calls waiting for budget
+ * - ai.ratelimit.requests.available / ai.ratelimit.tokens.available: current bucket levels
+ */
+@Component
+@Slf4j
+public class ProviderRateLimiter {
+
+    private static final int CHARS_PER_TOKEN = 4;
+
+    private final boolean enabled;
+    private final double requestCapacity;
+    private final double tokenCapacity;
+    private final double requestsPerNano;
+    private final double tokensPerNano;
+    private final int completionTokens;
+    private final int maxQueued;
+    private final Map<AnalysisPriority, Long> maxWaitNanos = new EnumMap<>(AnalysisPriority.class);
+
+    private final ReentrantLock lock = new ReentrantLock(true);
+    private final Condition budgetChanged = lock.newCondition();
+    private final Map<AnalysisPriority, Deque<Object>> lanes = new EnumMap<>(AnalysisPriority.class);
+    private double requestBudget;
+    private double tokenBudget;
+    private long lastRefill;
+
+    private final Map<AnalysisPriority, Timer> waitTimers = new EnumMap<>(AnalysisPriority.class);
+    private final Map<AnalysisPriority, Counter> timeoutRejections = new EnumMap<>(AnalysisPriority.class);
+    private final Map<AnalysisPriority, Counter> queueFullRejections = new EnumMap<>(AnalysisPriority.class);
+
+    public ProviderRateLimiter(MeterRegistry meterRegistry,
+                               @Value("${ai.rate-limit.enabled:false}") boolean enabled,
+                               @Value("${ai.rate-limit.requests-per-minute:500}") int requestsPerMinute,
+                               @Value("${ai.rate-limit.tokens-per-minute:200000}") int tokensPerMinute,
+                               @Value("${ai.rate-limit.completion-tokens:400}") int completionTokens,
+                               @Value("${ai.rate-limit.interactive-max-wait-ms:5000}") long interactiveMaxWaitMillis,
+                               @Value("${ai.rate-limit.bulk-max-wait-ms:120000}") long bulkMaxWaitMillis,
+                               @Value("${ai.rate-limit.max-queued:200}") int maxQueued) {
+        this.enabled = enabled;
+        this.requestCapacity = Math.max(1, requestsPerMinute);
+        this.tokenCapacity = Math.max(1, tokensPerMinute);
+        this.requestsPerNano = requestCapacity / TimeUnit.MINUTES.toNanos(1);
+        this.tokensPerNano = tokenCapacity / TimeUnit.MINUTES.toNanos(1);
+        this.completionTokens = completionTokens;
+        this.maxQueued = maxQueued;
+        this.maxWaitNanos.put(AnalysisPriority.INTERACTIVE, TimeUnit.MILLISECONDS.toNanos(interactiveMaxWaitMillis));
+        this.maxWaitNanos.put(AnalysisPriority.BULK, TimeUnit.MILLISECONDS.toNanos(bulkMaxWaitMillis));
+        this.requestBudget = requestCapacity;
+        this.tokenBudget = tokenCapacity;
+        this.lastRefill = System.nanoTime();
+
+        for (AnalysisPriority priority : AnalysisPriority.values()) {
+            Deque<Object> lane = new ArrayDeque<>();
+            lanes.put(priority, lane);
+            String tag = priority.name().toLowerCase();
+            waitTimers.put(priority, Timer.builder("ai.ratelimit.wait")
+                    .description("Time AI calls waited for rate-limit budget")
+                    .tag("priority", tag)
+                    .register(meterRegistry));
+            timeoutRejections.put(priority, rejectionCounter(meterRegistry, tag, "timeout"));
+            queueFullRejections.put(priority, rejectionCounter(meterRegistry, tag, "queue_full"));
+            Gauge.builder("ai.ratelimit.queued", this, l -> l.queued(priority))
+                    .description("AI calls waiting for rate-limit budget")
+                    .tag("priority", tag)
+                    .register(meterRegistry);
+        }
+        Gauge.builder("ai.ratelimit.requests.available", this, l -> l.available(true))
+                .description("Requests currently available in the RPM bucket")
+                .register(meterRegistry);
+        Gauge.builder("ai.ratelimit.tokens.available", this, l -> l.available(false))
+                .description("Tokens currently available in the TPM bucket")
+                .register(meterRegistry);
+    }
+
+    /**
+     * A limiter that grants every call immediately.
+     */
+    public static ProviderRateLimiter disabled() {
+        return new ProviderRateLimiter(new SimpleMeterRegistry(), false, 1, 1, 0, 0, 0, 0);
+    }
+
+    /**
+     * Rough token count of a call: prompt characters / 4 plus the expected completion
+     * for each answer the model has to produce.
+     */
+    public int estimateTokens(String systemPrompt, String userMessage, int answers) {
+        int promptChars = (systemPrompt == null ? 0 : systemPrompt.length())
+                + (userMessage == null ? 0 : userMessage.length());
+        return promptChars / CHARS_PER_TOKEN + completionTokens * Math.max(1, answers);
+    }
+
+    /**
+     * Rough token count of a call without a completion, such as an embedding: text characters / 4.
+     */
+    public int estimateTokens(String text) {
+        return (text == null ? 0 : text.length()) / CHARS_PER_TOKEN;
+    }
+
+    /**
+     * Blocks until one request and {@code estimatedTokens} tokens can be taken from the
+     * buckets, respecting lane priority.
+     *
+     * @throws AIRateLimitExceededException if the lane is full or the budget does not
+     *         become available within the lane's maximum wait
+     */
+    public void acquire(AnalysisPriority priority, int estimatedTokens) {
+        if (!enabled) {
+            return;
+        }
+
+        // a call larger than the whole bucket could never be served
+        double tokens = Math.min(estimatedTokens, tokenCapacity);
+        long start = System.nanoTime();
+        long deadline = start + maxWaitNanos.get(priority);
+        Object ticket = new Object();
+        Deque<Object> lane = lanes.get(priority);
+
+        lock.lock();
+        try {
+            if (lane.size() >= maxQueued) {
+                queueFullRejections.get(priority).increment();
+                throw new AIRateLimitExceededException("AI rate limit queue for " + priority + " calls is full");
+            }
+            lane.addLast(ticket);
+
+            while (true) {
+                long now = System.nanoTime();
+                refill(now);
+                boolean next = isNext(ticket);
+                if (next && requestBudget >= 1.0 && tokenBudget >= tokens) {
+                    requestBudget -= 1.0;
+                    tokenBudget -= tokens;
+                    lane.removeFirst();
+                    budgetChanged.signalAll();
+                    waitTimers.get(priority).record(now - start, TimeUnit.NANOSECONDS);
+                    return;
+                }
+
+                long remaining = deadline - now;
+                if (remaining <= 0) {
+                    lane.remove(ticket);
+                    budgetChanged.signalAll();
+                    timeoutRejections.get(priority).increment();
+                    log.warn("AI rate limit budget not available within {} ms for a {} call",
+                            TimeUnit.NANOSECONDS.toMillis(maxWaitNanos.get(priority)), priority);
+                    throw new AIRateLimitExceededException("AI rate limit budget not available for " + priority + " call");
+                }
+                long wait = next ? nanosUntilAvailable(tokens) : remaining;
+                budgetChanged.awaitNanos(Math.max(TimeUnit.MILLISECONDS.toNanos(1), Math.min(wait, remaining)));
+            }
+        } catch (InterruptedException e) {
+            lane.remove(ticket);
+            budgetChanged.signalAll();
+            Thread.currentThread().interrupt();
+            throw new AIRateLimitExceededException("Interrupted while waiting for AI rate limit budget");
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // ── private helpers ──────────────────────────────────────────────────────
+
+    private void refill(long now) {
+        long elapsed = now - lastRefill;
+        if (elapsed > 0) {
+            requestBudget = Math.min(requestCapacity, requestBudget + elapsed * requestsPerNano);
+            tokenBudget = Math.min(tokenCapacity, tokenBudget + elapsed * tokensPerNano);
+            lastRefill = now;
+        }
+    }
+
+    /**
+     * The ticket may take budget only if it heads the highest-priority non-empty lane.
+     */
+    private boolean isNext(Object ticket) {
+        for (AnalysisPriority priority : AnalysisPriority.values()) {
+            Deque<Object> lane = lanes.get(priority);
+            if (!lane.isEmpty()) {
+                return lane.peekFirst() == ticket;
+            }
+        }
+        return false;
+    }
+
+    private long nanosUntilAvailable(double tokens) {
+        double requestWait = requestBudget >= 1.0 ? 0 : (1.0 - requestBudget) / requestsPerNano;
+        double tokenWait = tokenBudget >= tokens ? 0 : (tokens - tokenBudget) / tokensPerNano;
+        return (long) Math.ceil(Math.max(requestWait, tokenWait));
+    }
+
+    private int queued(AnalysisPriority priority) {
+        lock.lock();
+        try {
+            return lanes.get(priority).size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private double available(boolean requests) {
+        lock.lock();
+        try {
+            refill(System.nanoTime());
+            return requests ? requestBudget : tokenBudget;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static Counter rejectionCounter(MeterRegistry meterRegistry, String priority, String reason) {
+        return Counter.builder("ai.ratelimit.rejected")
+                .description("AI calls rejected by the client-side rate limiter")
+                .tag("priority", priority)
+                .tag("reason", reason)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,333 @@
+package com.victorlopez.incident_api.service;
+
+import com.victorlopez.incident_api.dto.AIAnalysisResult;
+import com.victorlopez.incident_api.dto.ReanalysisJobResponse;
+import com.victorlopez.incident_api.exception.AIAnalysisUnavailableException;
+import com.victorlopez.incident_api.exception.ReanalysisJobConflictException;
+import com.victorlopez.incident_api.exception.ReanalysisJobNotFoundException;
+import com.victorlopez.incident_api.model.Incident;
+import com.victorlopez.incident_api.model.ReanalysisJob;
+import com.victorlopez.incident_api.model.ReanalysisJobStatus;
+import com.victorlopez.incident_api.repository.IncidentRepository;
+import com.victorlopez.incident_api.repository.ReanalysisJobRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Bulk re-analysis of every non-archived incident, e.g. after a prompt or model change.
+ *
+ * A job walks the incidents in id order with keyset pagination. Each page is fanned out to
+ * {@link AIAnalysisService} on a bounded worker pool in the {@link AnalysisPriority#BULK}
+ * rate-limit lane, then the page's results, ANALYZED activities and the job checkpoint are
+ * committed in one transaction. A restarted or resumed job continues after its checkpoint.
+ *
+ * Pause and cancel take effect between pages. When the AI provider becomes unavailable the
+ * page is checkpointed up to the last incident before the failure and the job stays RUNNING;
+ * the periodic resume sweep (skipped while the circuit breaker is open) picks it up again,
+ * as does the next application startup. Only one job can be active at a time.
+ *
+ * Metrics:
+ * - ai.reanalysis.incidents{outcome=succeeded|failed|deferred}
+ */
+@Service
+@Slf4j
+public class ReanalysisJobService {
+
+    private static final Set<ReanalysisJobStatus> ACTIVE = EnumSet.of(ReanalysisJobStatus.RUNNING, ReanalysisJobStatus.PAUSED);
+
+    private final ReanalysisJobRepository jobRepository;
+    private final IncidentRepository incidentRepository;
+    private final IncidentService incidentService;
+    private final AIAnalysisService aiAnalysisService;
+    private final AIResilienceGuard resilienceGuard;
+    private final TransactionTemplate transactionTemplate;
+    private final int pageSize;
+    private final ExecutorService runner;
+    private final ExecutorService workers;
+    private final Set<UUID> runningLocally = ConcurrentHashMap.newKeySet();
+
+    private final Counter succeededCounter;
+    private final Counter failedCounter;
+    private final Counter deferredCounter;
+
+    public ReanalysisJobService(ReanalysisJobRepository jobRepository,
+                                IncidentRepository incidentRepository,
+                                IncidentService incidentService,
+                                AIAnalysisService aiAnalysisService,
+                                AIResilienceGuard resilienceGuard,
+                                PlatformTransactionManager transactionManager,
+                                MeterRegistry meterRegistry,
+                                @Value("${ai.reanalysis.concurrency:4}") int concurrency,
+                                @Value("${ai.reanalysis.page-size:100}") int pageSize) {
+        this.jobRepository = jobRepository;
+        this.incidentRepository = incidentRepository;
+        this.incidentService = incidentService;
+        this.aiAnalysisService = aiAnalysisService;
+        this.resilienceGuard = resilienceGuard;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.pageSize = Math.max(1, pageSize);
+        this.runner = Executors.newSingleThreadExecutor(new CustomizableThreadFactory("reanalysis-job-"));
+        this.workers = Executors.newFixedThreadPool(Math.max(1, concurrency), new CustomizableThreadFactory("ai-reanalysis-"));
+
+        this.succeededCounter = incidentCounter(meterRegistry, "succeeded");
+        this.failedCounter = incidentCounter(meterRegistry, "failed");
+        this.deferredCounter = incidentCounter(meterRegistry, "deferred");
+    }
+
+    public synchronized ReanalysisJobResponse startJob(String startedBy) {
+        if (jobRepository.existsByStatusIn(ACTIVE)) {
+            throw new ReanalysisJobConflictException("A reanalysis job is already running or paused");
+        }
+
+        ReanalysisJob job = jobRepository.save(ReanalysisJob.builder()
+                .status(ReanalysisJobStatus.RUNNING)
+                .totalIncidents(incidentRepository.countByArchivedFalse())
+                .startedBy(startedBy)
+                .build());
+        log.info("Reanalysis job {} started by {} for {} incidents", job.getId(), startedBy, job.getTotalIncidents());
+
+        launch(job.getId());
+        return mapToResponse(job);
+    }
+
+    public ReanalysisJobResponse getJob(UUID id) {
+        return mapToResponse(findJob(id));
+    }
+
+    public ReanalysisJobResponse pauseJob(UUID id) {
+        transition(id, EnumSet.of(ReanalysisJobStatus.RUNNING), ReanalysisJobStatus.PAUSED);
+        log.info("Reanalysis job {} paused", id);
+        return getJob(id);
+    }
+
+    public ReanalysisJobResponse resumeJob(UUID id) {
+        transition(id, EnumSet.of(ReanalysisJobStatus.PAUSED), ReanalysisJobStatus.RUNNING);
+        log.info("Reanalysis job {} resumed", id);
+        launch(id);
+        return getJob(id);
+    }
+
+    public ReanalysisJobResponse cancelJob(UUID id) {
+        findJob(id);
+        if (jobRepository.finish(id, ACTIVE, ReanalysisJobStatus.CANCELLED, LocalDateTime.now()) == 0) {
+            throw new ReanalysisJobConflictException("Reanalysis job " + id + " is not running or paused");
+        }
+        log.info("Reanalysis job {} cancelled", id);
+        return getJob(id);
+    }
+
+    /**
+     * Continues jobs that were RUNNING when the application stopped.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumeJobsOnStartup() {
+        resumeStalledJobs();
+    }
+
+    /**
+     * Relaunches RUNNING jobs that have no runner, i.e. jobs that stopped because the AI
+     * provider was unavailable. Skipped while the AI circuit breaker is open.
+     */
+    @Scheduled(fixedDelayString = "${ai.reanalysis.resume-interval-ms:60000}",
+               initialDelayString = "${ai.reanalysis.resume-interval-ms:60000}")
+    public void resumeStalledJobs() {
+        if (resilienceGuard.isOpen()) {
+            log.debug("AI circuit breaker is open — not resuming reanalysis jobs");
+            return;
+        }
+        jobRepository.findByStatus(ReanalysisJobStatus.RUNNING).forEach(job -> launch(job.getId()));
+    }
+
+    /**
+     * Stops the runner and workers. The page in progress is not checkpointed and is
+     * processed again when the job resumes.
+     */
+    @PreDestroy
+    public void shutdown() {
+        runner.shutdownNow();
+        workers.shutdownNow();
+    }
+
+    /**
+     * Processes pages until the job is complete, paused, cancelled or the AI provider
+     * becomes unavailable.
+     */
+    void runJob(UUID jobId) {
+        ReanalysisJob job = jobRepository.findById(jobId).orElse(null);
+        if (job == null) {
+            return;
+        }
+        UUID checkpoint = job.getCheckpointId();
+        log.info("Running reanalysis job {} from checkpoint {}", jobId, checkpoint);
+
+        while (!Thread.currentThread().isInterrupted()) {
+            ReanalysisJobStatus status = jobRepository.findById(jobId)
+                    .map(ReanalysisJob::getStatus)
+                    .orElse(ReanalysisJobStatus.CANCELLED);
+            if (status != ReanalysisJobStatus.RUNNING) {
+                log.info("Reanalysis job {} stopped: {}", jobId, status);
+                return;
+            }
+
+            List<Incident> page = nextPage(checkpoint);
+            if (page.isEmpty()) {
+                jobRepository.finish(jobId, EnumSet.of(ReanalysisJobStatus.RUNNING), ReanalysisJobStatus.COMPLETED,
+                        LocalDateTime.now());
+                log.info("Reanalysis job {} completed", jobId);
+                return;
+            }
+
+            PageOutcome outcome = processPage(page);
+            if (outcome.checkpointId() != null) {
+                transactionTemplate.executeWithoutResult(tx -> {
+                    if (!outcome.results().isEmpty()) {
+                        incidentService.applyReanalysisBatch(outcome.results(), job.getStartedBy());
+                    }
+                    jobRepository.recordProgress(jobId, outcome.checkpointId(), outcome.results().size(),
+                            outcome.failed(), LocalDateTime.now());
+                });
+                checkpoint = outcome.checkpointId();
+            }
+
+            if (outcome.deferred()) {
+                log.warn("AI unavailable — reanalysis job {} will resume after incident {}", jobId, checkpoint);
+                return;
+            }
+        }
+    }
+
+    // ── private helpers ──────────────────────────────────────────────────────
+
+    private void launch(UUID jobId) {
+        if (!runningLocally.add(jobId)) {
+            return;
+        }
+        try {
+            runner.execute(() -> {
+                try {
+                    runJob(jobId);
+                } catch (Exception e) {
+                    log.error("Reanalysis job {} failed: {}", jobId, e.getMessage(), e);
+                } finally {
+                    runningLocally.remove(jobId);
+                }
+            });
+        } catch (RuntimeException e) {
+            runningLocally.remove(jobId);
+            log.warn("Could not launch reanalysis job {}: {}", jobId, e.getMessage());
+        }
+    }
+
+    private List<Incident> nextPage(UUID checkpoint) {
+        Pageable firstPage = PageRequest.of(0, pageSize);
+        return checkpoint == null
+                ? incidentRepository.findByArchivedFalseOrderByIdAsc(firstPage)
+                : incidentRepository.findByArchivedFalseAndIdGreaterThanOrderByIdAsc(checkpoint, firstPage);
+    }
+
+    /**
+     * Analyzes a page concurrently and collects the results in id order. Processing stops at
+     * the first incident the AI provider could not serve; results after it are discarded and
+     * produced again when the job resumes.
+     */
+    private PageOutcome processPage(List<Incident> page) {
+        List<CompletableFuture<AIAnalysisResult>> futures = page.stream()
+                .map(incident -> CompletableFuture.supplyAsync(() -> aiAnalysisService.reanalyzeIncident(
+                        incident.getTitle(), incident.getDescription(), AnalysisPriority.BULK), workers))
+                .toList();
+
+        Map<UUID, AIAnalysisResult> results = new LinkedHashMap<>();
+        UUID checkpointId = null;
+        long failed = 0;
+        for (int i = 0; i < page.size(); i++) {
+            Incident incident = page.get(i);
+            try {
+                results.put(incident.getId(), futures.get(i).join());
+                succeededCounter.increment();
+            } catch (CompletionException | CancellationException e) {
+                Throwable cause = e instanceof CompletionException ? e.getCause() : e;
+                if (cause instanceof AIAnalysisUnavailableException || cause instanceof CancellationException) {
+                    deferredCounter.increment();
+                    futures.subList(i + 1, futures.size()).forEach(f -> f.cancel(false));
+                    return new PageOutcome(results, failed, checkpointId, true);
+                }
+                failed++;
+                failedCounter.increment();
+                log.warn("Bulk re-analysis failed for incident {}: {}", incident.getId(), cause.getMessage());
+            }
+            checkpointId = incident.getId();
+        }
+        return new PageOutcome(results, failed, checkpointId, false);
+    }
+
+    private void transition(UUID id, Set<ReanalysisJobStatus> from, ReanalysisJobStatus to) {
+        findJob(id);
+        if (jobRepository.transition(id, from, to, LocalDateTime.now()) == 0) {
+            throw new ReanalysisJobConflictException("Reanalysis job " + id + " cannot move to " + to);
+        }
+    }
+
+    private ReanalysisJob findJob(UUID id) {
+        return jobRepository.findById(id).orElseThrow(() -> new ReanalysisJobNotFoundException(id));
+    }
+
+    private ReanalysisJobResponse mapToResponse(ReanalysisJob job) {
+        double percent = job.getStatus() == ReanalysisJobStatus.COMPLETED || job.getTotalIncidents() == 0
+                ? 100.0
+                : Math.min(100.0, 100.0 * job.getProcessedCount() / job.getTotalIncidents());
+        return ReanalysisJobResponse.builder()
+                .id(job.getId())
+                .status(job.getStatus())
+                .totalIncidents(job.getTotalIncidents())
+                .processedCount(job.getProcessedCount())
+                .succeededCount(job.getSucceededCount())
+                .failedCount(job.getFailedCount())
+                .percentComplete(percent)
+                .checkpointId(job.getCheckpointId())
+                .startedBy(job.getStartedBy())
+                .createdAt(job.getCreatedAt())
+                .updatedAt(job.getUpdatedAt())
+                .completedAt(job.getCompletedAt())
+                .build();
+    }
+
+    private static Counter incidentCounter(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("ai.reanalysis.incidents")
+                .description("Incidents processed by bulk re-analysis jobs")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Results of one page. {@code checkpointId} is the last incident handled (succeeded or
+     * permanently failed), or null if none was.
+     */
+    private record PageOutcome(Map<UUID, AIAnalysisResult> results, long failed, UUID checkpointId, boolean deferred) {
+    }
+}
@@ -0,0 +1,201 @@
+package com.victorlopez.incident_api.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Hedged requests for the long latency tail of the AI provider.
+ *
+ * If a call has not returned after the {@code percentile} of recently observed latencies,
+ * an identical second call is started and whichever succeeds first wins; the other is
+ * cancelled. Hedges are paid for from a budget that grows by {@code budgetPercent}% of
+ * a hedge per primary call, so provider load can never more than double.
+ *
+ * Until {@code minSamples} latencies have been observed no hedging takes place.
+ *
+ * Metrics:
+ * - ai.hedging.winner{attempt=primary|hedge}: which attempt answered when a hedge was fired
+ * - ai.hedging.hedges{result=fired|budget_exhausted}
+ * - ai.hedging.delay: current hedge delay in milliseconds
+ */
+@Component
+@Slf4j
+public class RequestHedger {
+
+    private final boolean enabled;
+    private final double percentile;
+    private final long minDelayMillis;
+    private final double budgetPerCall;
+    private final int minSamples;
+    private final ExecutorService executor;
+
+    // ring buffer of recent successful latencies and the hedge budget, guarded by this
+    private final long[] latencies;
+    private int latencyPosition;
+    private int latencyCount;
+    private double hedgeBudget;
+
+    private final Counter primaryWins;
+    private final Counter hedgeWins;
+    private final Counter hedgesFired;
+    private final Counter budgetExhausted;
+
+    public RequestHedger(MeterRegistry meterRegistry,
+                         @Value("${ai.hedging.enabled:false}") boolean enabled,
+                         @Value("${ai.hedging.percentile:0.95}") double percentile,
+                         @Value("${ai.hedging.min-delay-ms:500}") long minDelayMillis,
+                         @Value("${ai.hedging.budget-percent:10}") double budgetPercent,
+                         @Value("${ai.hedging.window-size:200}") int windowSize,
+                         @Value("${ai.hedging.min-samples:20}") int minSamples) {
+        this.enabled = enabled;
+        this.percentile = Math.min(1.0, Math.max(0.0, percentile));
+        this.minDelayMillis = minDelayMillis;
+        this.budgetPerCall = Math.min(100.0, Math.max(0.0, budgetPercent)) / 100.0;
+        this.minSamples = Math.max(1, minSamples);
+        this.latencies = new long[Math.max(1, windowSize)];
+        this.executor = Executors.newCachedThreadPool(new CustomizableThreadFactory("ai-hedge-"));
+
+        this.primaryWins = winnerCounter(meterRegistry, "primary");
+        this.hedgeWins = winnerCounter(meterRegistry, "hedge");
+        this.hedgesFired = hedgeCounter(meterRegistry, "fired");
+        this.budgetExhausted = hedgeCounter(meterRegistry, "budget_exhausted");
+        Gauge.builder("ai.hedging.delay", this, h -> h.currentDelayMillis())
+                .description("Current hedge delay in milliseconds (-1 until enough samples)")
+                .baseUnit("milliseconds")
+                .register(meterRegistry);
+    }
+
+    /**
+     * A hedger that runs every call once, on the caller's thread.
+     */
+    public static RequestHedger disabled() {
+        return new RequestHedger(new SimpleMeterRegistry(), false, 1.0, 0, 0, 1, 1);
+    }
+
+    /**
+     * Runs the call, hedging it once if it is slower than the current hedge delay.
+     * Failures are only surfaced once every started attempt has failed.
+     */
+    public <T> T call(Supplier<T> call) {
+        if (!enabled) {
+            return call.get();
+        }
+
+        long delay = startPrimary();
+        CompletionService<T> completion = new ExecutorCompletionService<>(executor);
+        List<Future<T>> attempts = new ArrayList<>(2);
+        long start = System.nanoTime();
+        Future<T> primary = completion.submit(call::get);
+        attempts.add(primary);
+
+        try {
+            Future<T> done = delay < 0 ? completion.take() : completion.poll(delay, TimeUnit.MILLISECONDS);
+            if (done == null) {
+                if (tryConsumeBudget()) {
+                    hedgesFired.increment();
+                    log.debug("AI call slower than {} ms — firing hedge", delay);
+                    attempts.add(completion.submit(call::get));
+                } else {
+                    budgetExhausted.increment();
+                }
+                done = completion.take();
+            }
+
+            RuntimeException failure = null;
+            for (int remaining = attempts.size(); remaining > 0; remaining--) {
+                try {
+                    T result = done.get();
+                    recordLatency(System.nanoTime() - start);
+                    if (attempts.size() > 1) {
+                        (done == primary ? primaryWins : hedgeWins).increment();
+                    }
+                    return result;
+                } catch (ExecutionException e) {
+                    failure = e.getCause() instanceof RuntimeException cause ? cause : new RuntimeException(e.getCause());
+                    if (remaining > 1) {
+                        done = completion.take();
+                    }
+                }
+            }
+            throw failure;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while waiting for AI call", e);
+        } finally {
+            attempts.forEach(attempt -> attempt.cancel(true));
+        }
+    }
+
+    /**
+     * The current hedge delay, or -1 while there are not enough samples to hedge.
+     */
+    public synchronized long currentDelayMillis() {
+        if (latencyCount < minSamples) {
+            return -1;
+        }
+        long[] sorted = Arrays.copyOf(latencies, latencyCount);
+        Arrays.sort(sorted);
+        int index = (int) Math.ceil(percentile * latencyCount) - 1;
+        long nanos = sorted[Math.max(0, Math.min(index, latencyCount - 1))];
+        return Math.max(minDelayMillis, TimeUnit.NANOSECONDS.toMillis(nanos));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    // ── private helpers ──────────────────────────────────────────────────────
+
+    private synchronized long startPrimary() {
+        hedgeBudget = Math.min(hedgeBudget + budgetPerCall, 10.0);
+        return currentDelayMillis();
+    }
+
+    private synchronized boolean tryConsumeBudget() {
+        if (hedgeBudget < 1.0) {
+            return false;
+        }
+        hedgeBudget -= 1.0;
+        return true;
+    }
+
+    private synchronized void recordLatency(long nanos) {
+        latencies[latencyPosition] = nanos;
+        latencyPosition = (latencyPosition + 1) % latencies.length;
+        latencyCount = Math.min(latencyCount + 1, latencies.length);
+    }
+
+    private static Counter winnerCounter(MeterRegistry meterRegistry, String attempt) {
+        return Counter.builder("ai.hedging.winner")
+                .description("Attempt that answered a hedged AI call")
+                .tag("attempt", attempt)
+                .register(meterRegistry);
+    }
+
+    private static Counter hedgeCounter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("ai.hedging.hedges")
+                .description("Hedge decisions for slow AI calls")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+}
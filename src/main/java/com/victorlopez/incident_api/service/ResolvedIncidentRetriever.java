@@ -0,0 +1,323 @@
+package com.victorlopez.incident_api.service;
+
+import com.victorlopez.incident_api.dto.AIAnalysisResult;
+import com.victorlopez.incident_api.model.Category;
+import com.victorlopez.incident_api.model.Incident;
+import com.victorlopez.incident_api.model.Severity;
+import com.victorlopez.incident_api.model.Status;
+import com.victorlopez.incident_api.repository.IncidentRepository;
+import com.victorlopez.incident_api.service.IncidentTokenizer.Tokens;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.UUID;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Retrieval of already-resolved incidents similar to a new one.
+ *
+ * RESOLVED/CLOSED incidents with an {@code actualResolution} are kept in an in-memory
+ * index of log-scaled term vectors and compared by cosine similarity. As in
+ * {@link InvertedIncidentIndex}, each term maps to a posting list of the cases containing it,
+ * so a lookup only scores cases that share a term with the query and keeps the best
+ * {@code maxExamples} in a bounded min-heap. When the nearest one
+ * reaches {@code reuseThreshold} its real resolution, team and resolution time are reused
+ * without calling the LLM; otherwise the nearest ones above {@code contextThreshold} are
+ * given to the LLM as compact few-shot examples.
+ *
+ * Like {@link LocalIncidentClassifier}, the index is refreshed incrementally from incidents
+ * updated since the previous run; reopened or archived incidents are dropped.
+ *
+ * Metrics:
+ * - ai.retrieval.lookups{outcome=reused|few_shot|none}
+ * - ai.retrieval.top.similarity: similarity of the nearest resolved incident
+ * - ai.retrieval.index.size: resolved incidents in the index
+ */
+@Component
+@Slf4j
+public class ResolvedIncidentRetriever {
+
+    private static final int MAX_EXAMPLE_CHARS = 300;
+    private static final int DEFAULT_RESOLUTION_HOURS = 4;
+
+    private final IncidentRepository incidentRepository;
+    private final boolean enabled;
+    private final double reuseThreshold;
+    private final double contextThreshold;
+    private final int maxExamples;
+    private final IncidentChangeFeed changes;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<UUID, ResolvedCase> cases = new HashMap<>();
+    private final Map<String, Map<UUID, Double>> postings = new HashMap<>();
+
+    private final Counter reusedCounter;
+    private final Counter fewShotCounter;
+    private final Counter noneCounter;
+    private final DistributionSummary topSimilarity;
+
+    @Autowired
+    public ResolvedIncidentRetriever(IncidentRepository incidentRepository,
+                                     MeterRegistry meterRegistry,
+                                     @Value("${ai.retrieval.enabled:false}") boolean enabled,
+                                     @Value("${ai.retrieval.reuse-threshold:0.85}") double reuseThreshold,
+                                     @Value("${ai.retrieval.context-threshold:0.3}") double contextThreshold,
+                                     @Value("${ai.retrieval.max-examples:3}") int maxExamples,
+                                     @Value("${ai.retrieval.refresh-page-size:500}") int refreshPageSize) {
+        this.incidentRepository = incidentRepository;
+        this.enabled = enabled;
+        this.reuseThreshold = reuseThreshold;
+        this.contextThreshold = contextThreshold;
+        this.maxExamples = maxExamples;
+        this.changes = new IncidentChangeFeed(incidentRepository, refreshPageSize);
+
+        this.reusedCounter = lookupCounter(meterRegistry, "reused");
+        this.fewShotCounter = lookupCounter(meterRegistry, "few_shot");
+        this.noneCounter = lookupCounter(meterRegistry, "none");
+        this.topSimilarity = DistributionSummary.builder("ai.retrieval.top.similarity")
+                .description("Similarity of the nearest resolved incident")
+                .register(meterRegistry);
+        Gauge.builder("ai.retrieval.index.size", this, ResolvedIncidentRetriever::getIndexSize)
+                .description("Resolved incidents available for retrieval")
+                .register(meterRegistry);
+    }
+
+    /**
+     * A retriever that never finds anything.
+     */
+    public static ResolvedIncidentRetriever disabled() {
+        return new ResolvedIncidentRetriever(null, new SimpleMeterRegistry(), false, 1.0, 1.0, 0, 1);
+    }
+
+    /**
+     * The nearest resolved incidents above the context threshold, most similar first.
+     */
+    public List<Neighbor> findNeighbors(String title, String description) {
+        if (!enabled || maxExamples <= 0) {
+            return List.of();
+        }
+
+        Map<String, Double> query = vector(title, description);
+        double queryNorm = norm(query);
+        if (queryNorm == 0.0) {
+            return List.of();
+        }
+
+        PriorityQueue<Neighbor> heap = new PriorityQueue<>(maxExamples + 1,
+                Comparator.comparingDouble(Neighbor::similarity));
+        lock.readLock().lock();
+        try {
+            Map<UUID, Double> dots = new HashMap<>();
+            for (Map.Entry<String, Double> term : query.entrySet()) {
+                Map<UUID, Double> list = postings.get(term.getKey());
+                if (list == null) {
+                    continue;
+                }
+                for (Map.Entry<UUID, Double> posting : list.entrySet()) {
+                    dots.merge(posting.getKey(), term.getValue() * posting.getValue(), Double::sum);
+                }
+            }
+            for (Map.Entry<UUID, Double> dot : dots.entrySet()) {
+                ResolvedCase candidate = cases.get(dot.getKey());
+                double similarity = dot.getValue() / (queryNorm * candidate.norm());
+                if (similarity >= contextThreshold) {
+                    heap.offer(candidate.toNeighbor(similarity));
+                    if (heap.size() > maxExamples) {
+                        heap.poll();
+                    }
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        List<Neighbor> nearest = new ArrayList<>(heap);
+        nearest.sort(Comparator.comparingDouble(Neighbor::similarity).reversed());
+        if (!nearest.isEmpty()) {
+            topSimilarity.record(nearest.get(0).similarity());
+        }
+        return List.copyOf(nearest);
+    }
+
+    /**
+     * The nearest neighbor's resolution as an analysis, if it is similar enough to reuse.
+     * Records the lookup outcome.
+     */
+    public Optional<AIAnalysisResult> reusableAnalysis(List<Neighbor> neighbors) {
+        if (!enabled) {
+            return Optional.empty();
+        }
+        if (neighbors.isEmpty()) {
+            noneCounter.increment();
+            return Optional.empty();
+        }
+        Neighbor nearest = neighbors.get(0);
+        if (nearest.similarity() < reuseThreshold) {
+            fewShotCounter.increment();
+            return Optional.empty();
+        }
+        reusedCounter.increment();
+        return Optional.of(new AIAnalysisResult(nearest.severity(), nearest.category(), nearest.assignedTeam(),
+                nearest.resolution(), nearest.resolutionHours(), Math.min(1.0, nearest.similarity())));
+    }
+
+    /**
+     * Compact few-shot block for the user prompt, or an empty string when there are no neighbors.
+     */
+    public static String formatExamples(List<Neighbor> neighbors) {
+        if (neighbors.isEmpty()) {
+            return "";
+        }
+        StringBuilder examples = new StringBuilder("Similar resolved incidents (use as reference if relevant):\n");
+        for (Neighbor neighbor : neighbors) {
+            String resolution = neighbor.resolution().length() > MAX_EXAMPLE_CHARS
+                    ? neighbor.resolution().substring(0, MAX_EXAMPLE_CHARS) + "…"
+                    : neighbor.resolution();
+            examples.append("- \"").append(neighbor.title()).append("\" → ")
+                    .append(neighbor.severity()).append('/').append(neighbor.category())
+                    .append(", ").append(neighbor.assignedTeam())
+                    .append(", resolved in ").append(neighbor.resolutionHours()).append("h: ")
+                    .append(resolution.replace('\n', ' ')).append('\n');
+        }
+        return examples.toString();
+    }
+
+    public int getIndexSize() {
+        lock.readLock().lock();
+        try {
+            return cases.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Folds incidents resolved, reopened or archived since the previous run into the index.
+     */
+    @Scheduled(fixedDelayString = "${ai.retrieval.refresh-interval-ms:60000}",
+               initialDelayString = "${ai.retrieval.initial-delay-ms:10000}")
+    public void refresh() {
+        if (!enabled) {
+            return;
+        }
+
+        changes.poll(page -> {
+            lock.writeLock().lock();
+            try {
+                page.forEach(this::apply);
+            } finally {
+                lock.writeLock().unlock();
+            }
+            return page.size();
+        });
+    }
+
+    // ── private helpers ──────────────────────────────────────────────────────
+
+    private void apply(Incident incident) {
+        remove(incident.getId());
+        boolean resolved = !incident.isArchived()
+                && (incident.getStatus() == Status.RESOLVED || incident.getStatus() == Status.CLOSED)
+                && incident.getActualResolution() != null && !incident.getActualResolution().isBlank()
+                && incident.getCategory() != null && incident.getSeverity() != null
+                && incident.getAssignedTeam() != null;
+        if (!resolved) {
+            return;
+        }
+
+        Map<String, Double> vector = vector(incident.getTitle(), incident.getDescription());
+        double norm = norm(vector);
+        if (norm == 0.0) {
+            return;
+        }
+        cases.put(incident.getId(), new ResolvedCase(incident.getId(), incident.getTitle(), incident.getSeverity(),
+                incident.getCategory(), incident.getAssignedTeam(), incident.getActualResolution().trim(),
+                resolutionHours(incident),
+                vector, norm));
+        vector.forEach((term, weight) -> postings.computeIfAbsent(term, t -> new HashMap<>())
+                .put(incident.getId(), weight));
+    }
+
+    private void remove(UUID id) {
+        ResolvedCase previous = cases.remove(id);
+        if (previous == null) {
+            return;
+        }
+        for (String term : previous.vector().keySet()) {
+            Map<UUID, Double> list = postings.get(term);
+            list.remove(id);
+            if (list.isEmpty()) {
+                postings.remove(term);
+            }
+        }
+    }
+
+    /**
+     * Actual time to resolution when known, otherwise the original estimate.
+     */
+    private static int resolutionHours(Incident incident) {
+        if (incident.getCreatedAt() != null && incident.getResolvedAt() != null) {
+            long hours = Duration.between(incident.getCreatedAt(), incident.getResolvedAt()).toHours();
+            return (int) Math.max(1, Math.min(72, hours));
+        }
+        return incident.getEstimatedResolutionHours() != null
+                ? incident.getEstimatedResolutionHours()
+                : DEFAULT_RESOLUTION_HOURS;
+    }
+
+    private static Map<String, Double> vector(String title, String description) {
+        Tokens tokens = IncidentTokenizer.SEARCH.tokenize(title, description, Integer.MAX_VALUE);
+        Map<String, Double> weights = new HashMap<>(tokens.size() * 2);
+        for (int i = 0; i < tokens.size(); i++) {
+            weights.put(tokens.term(i), 1.0 + Math.log(tokens.frequency(i)));
+        }
+        return weights;
+    }
+
+    private static double norm(Map<String, Double> vector) {
+        double sum = 0.0;
+        for (double weight : vector.values()) {
+            sum += weight * weight;
+        }
+        return Math.sqrt(sum);
+    }
+
+    private static Counter lookupCounter(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("ai.retrieval.lookups")
+                .description("Resolved-incident retrieval lookups by outcome")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    /**
+     * A resolved incident close to the one being analyzed.
+     */
+    public record Neighbor(UUID id, String title, Severity severity, Category category, String assignedTeam,
+                           String resolution, int resolutionHours, double similarity) {
+    }
+
+    private record ResolvedCase(UUID id, String title, Severity severity, Category category, String assignedTeam,
+                                String resolution, int resolutionHours, Map<String, Double> vector, double norm) {
+
+        private Neighbor toNeighbor(double similarity) {
+            return new Neighbor(id, title, severity, category, assignedTeam, resolution, resolutionHours, similarity);
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.victorlopez.incident_api.service;
+
+import com.victorlopez.incident_api.model.Incident;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Strategy for finding non-archived incidents similar to a piece of text.
+ */
+public interface SimilarIncidentFinder {
+
+    /**
+     * Most similar incidents first.
+     *
+     * @param excludeId incident to leave out, typically the one being compared against
+     * @param limit     maximum number of results
+     */
+    List<Match> findSimilar(String text, UUID excludeId, int limit);
+
+    /**
+     * As {@link #findSimilar}, but only the ids and scores, for callers that load just the columns they need.
+     * Implementations that rank by id override this to skip loading the incidents altogether.
+     */
+    default List<ScoredId> findSimilarIds(String text, UUID excludeId, int limit) {
+        return findSimilar(text, excludeId, limit).stream()
+                .map(match -> new ScoredId(match.incident().getId(), match.score()))
+                .toList();
+    }
+
+    /**
+     * An incident with its relevance score; higher is more similar.
+     */
+    record Match(Incident incident, double score) {
+    }
+
+    /**
+     * An incident id with its relevance score; higher is more similar.
+     */
+    record ScoredId(UUID incidentId, double score) {
+    }
+}
@@ -0,0 +1,67 @@
+package com.victorlopez.incident_api.config;
+
+import com.victorlopez.incident_api.support.FakeOpenAIServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.web.client.RestClient;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AIHttpClientConfigTest {
+
+    private final AIHttpClientConfig config = new AIHttpClientConfig();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private FakeOpenAIServer openAI;
+    private AIHttpClientConfig.MeteredConnectionManager connectionManager;
+    private CloseableHttpClient httpClient;
+    private RestClient restClient;
+
+    @BeforeEach
+    void setUp() {
+        openAI = FakeOpenAIServer.builder().start();
+        connectionManager = config.aiConnectionManager(meterRegistry, 4, 1_000, 5_000, 10);
+        httpClient = config.aiHttpClient(connectionManager, 5_000, 1_000, 60);
+        RestClient.Builder builder = RestClient.builder().baseUrl(openAI.getBaseUrl());
+        config.aiRestClientCustomizer(httpClient).customize(builder);
+        restClient = builder.build();
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        httpClient.close();
+        connectionManager.close();
+        openAI.close();
+    }
+
+    private String complete() {
+        return restClient.post()
+                .uri("/v1/chat/completions")
+                .contentType(MediaType.APPLICATION_JSON)
+                .body("{\"model\": \"gpt-4o-mini\"}")
+                .retrieve()
+                .body(String.class);
+    }
+
+    private double connections(String type) {
+        return meterRegistry.get("ai.http.connections").tag("type", type).counter().count();
+    }
+
+    @Test
+    @DisplayName("Sequential calls should reuse one keep-alive connection")
+    void shouldReuseConnection() {
+        for (int i = 0; i < 3; i++) {
+            assertThat(complete()).contains("chat.completion");
+        }
+
+        assertThat(connections("new")).isEqualTo(1.0);
+        assertThat(connections("reused")).isEqualTo(2.0);
+        assertThat(meterRegistry.get("ai.http.connect").timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("httpcomponents.httpclient.pool.total.max").gauge().value()).isEqualTo(4.0);
+    }
+}
@@ -2,17 +2,25 @@ package com.victorlopez.incident_api.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.victorlopez.incident_api.dto.CreateIncidentRequest;
+import com.victorlopez.incident_api.dto.CursorPage;
 import com.victorlopez.incident_api.dto.IncidentActivityResponse;
+import com.victorlopez.incident_api.dto.IncidentFilter;
 import com.victorlopez.incident_api.dto.IncidentResponse;
 import com.victorlopez.incident_api.dto.MetricsResponse;
 import com.victorlopez.incident_api.dto.UpdateIncidentRequest;
 import com.victorlopez.incident_api.dto.UpdateStatusRequest;
 import com.victorlopez.incident_api.exception.IncidentNotFoundException;
+import com.victorlopez.incident_api.exception.InvalidCursorException;
+import com.victorlopez.incident_api.model.AnalysisStatus;
 import com.victorlopez.incident_api.model.Category;
 import com.victorlopez.incident_api.model.IncidentActivityAction;
 import com.victorlopez.incident_api.model.Severity;
 import com.victorlopez.incident_api.model.Status;
 import com.victorlopez.incident_api.config.SecurityConfig;
+import com.victorlopez.incident_api.repository.IncidentField;
+import com.victorlopez.incident_api.service.AnalysisStreamService;
+import com.victorlopez.incident_api.service.ExportFormat;
+import com.victorlopez.incident_api.service.IncidentExportService;
 import com.victorlopez.incident_api.service.IncidentService;
 import com.victorlopez.incident_api.service.JwtService;
 import org.junit.jupiter.api.DisplayName;
@@ -24,19 +32,33 @@ import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.context.annotation.Import;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.containsString;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
@@ -53,6 +75,12 @@ class IncidentControllerTest {
     @MockBean
     private IncidentService incidentService;
 
+    @MockBean
+    private AnalysisStreamService analysisStreamService;
+
+    @MockBean
+    private IncidentExportService incidentExportService;
+
     @MockBean
     private JwtService jwtService;
 
@@ -104,6 +132,65 @@ class IncidentControllerTest {
                 .andExpect(jsonPath("$.aiConfidence").value(0.92));
     }
 
+    @Test
+    @DisplayName("POST /api/incidents - Should return 202 when AI analysis is pending")
+    void shouldReturn202WhenAnalysisIsPending() throws Exception {
+        // ARRANGE
+        CreateIncidentRequest request = new CreateIncidentRequest();
+        request.setTitle("API gateway returning 503");
+        request.setDescription("Gateway returns 503 for a third of all requests");
+
+        IncidentResponse response = IncidentResponse.builder()
+                .id(UUID.randomUUID())
+                .title("API gateway returning 503")
+                .description("Gateway returns 503 for a third of all requests")
+                .severity(Severity.MEDIUM)
+                .status(Status.OPEN)
+                .analysisStatus(AnalysisStatus.PENDING_ANALYSIS)
+                .createdAt(LocalDateTime.now())
+                .updatedAt(LocalDateTime.now())
+                .build();
+
+        when(incidentService.createIncident(any(CreateIncidentRequest.class))).thenReturn(response);
+
+        // ACT & ASSERT
+        mockMvc.perform(post("/api/incidents")
+                        .with(user("testuser").roles("USER"))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isAccepted())
+                .andExpect(jsonPath("$.analysisStatus").value("PENDING_ANALYSIS"));
+    }
+
+    @Test
+    @DisplayName("POST /api/incidents - Should return 200 with the existing incident for a near-duplicate")
+    void shouldReturn200WhenFoldedIntoDuplicate() throws Exception {
+        // ARRANGE
+        CreateIncidentRequest request = new CreateIncidentRequest();
+        request.setTitle("API gateway returning 503");
+        request.setDescription("Gateway returns 503 for a third of requests");
+
+        IncidentResponse response = IncidentResponse.builder()
+                .id(UUID.randomUUID())
+                .title("API gateway returning 503")
+                .status(Status.OPEN)
+                .analysisStatus(AnalysisStatus.ANALYZED)
+                .duplicateCount(3)
+                .duplicate(true)
+                .build();
+
+        when(incidentService.createIncident(any(CreateIncidentRequest.class))).thenReturn(response);
+
+        // ACT & ASSERT
+        mockMvc.perform(post("/api/incidents")
+                        .with(user("testuser").roles("USER"))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.duplicate").value(true))
+                .andExpect(jsonPath("$.duplicateCount").value(3));
+    }
+
     @Test
     @DisplayName("POST /api/incidents - Should return 400 when title is blank")
     void shouldReturn400WhenTitleIsBlank() throws Exception {
@@ -168,7 +255,7 @@ class IncidentControllerTest {
                         .build()
         );
 
-        when(incidentService.getAllIncidents(any(), any(), any(Pageable.class), any()))
+        when(incidentService.getAllIncidents(any(IncidentFilter.class), any(Pageable.class)))
                 .thenReturn(new PageImpl<>(incidentList));
 
         // ACT & ASSERT
@@ -198,7 +285,7 @@ class IncidentControllerTest {
                         .build()
         );
 
-        when(incidentService.getAllIncidents(eq(Status.OPEN), any(), any(Pageable.class), any()))
+        when(incidentService.getAllIncidents(argThat(filter -> filter.getStatus() == Status.OPEN), any(Pageable.class)))
                 .thenReturn(new PageImpl<>(openIncidents));
 
         // ACT & ASSERT
@@ -208,13 +295,41 @@ class IncidentControllerTest {
                 .andExpect(jsonPath("$.content[0].status").value("OPEN"));
     }
 
+    @Test
+    @DisplayName("GET /api/incidents - Should pass category, team and creation-time filters to the service")
+    void shouldPassAllFiltersToService() throws Exception {
+        // ARRANGE
+        when(incidentService.getAllIncidents(any(IncidentFilter.class), any(Pageable.class)))
+                .thenReturn(new PageImpl<>(List.of()));
+
+        // ACT
+        mockMvc.perform(get("/api/incidents")
+                        .param("severity", "HIGH")
+                        .param("category", "DATABASE")
+                        .param("assignedTeam", "Database Team")
+                        .param("createdFrom", "2026-01-01T00:00:00")
+                        .param("createdTo", "2026-02-01T00:00:00"))
+                .andExpect(status().isOk());
+
+        // ASSERT
+        ArgumentCaptor<IncidentFilter> filterCaptor = ArgumentCaptor.forClass(IncidentFilter.class);
+        verify(incidentService).getAllIncidents(filterCaptor.capture(), any(Pageable.class));
+        assertThat(filterCaptor.getValue()).isEqualTo(IncidentFilter.builder()
+                .severity(Severity.HIGH)
+                .category(Category.DATABASE)
+                .assignedTeam("Database Team")
+                .createdFrom(LocalDateTime.of(2026, 1, 1, 0, 0))
+                .createdTo(LocalDateTime.of(2026, 2, 1, 0, 0))
+                .build());
+    }
+
     // ==================== Step 5: USER vs ADMIN scoping ====================
 
     @Test
     @DisplayName("GET /api/incidents - USER role: service called with own username as filter")
     void shouldPassUsernameFilterForUserRole() throws Exception {
         // ARRANGE
-        when(incidentService.getAllIncidents(any(), any(), any(Pageable.class), any()))
+        when(incidentService.getAllIncidents(any(IncidentFilter.class), any(Pageable.class)))
                 .thenReturn(new PageImpl<>(List.of()));
 
         // ACT
@@ -223,16 +338,16 @@ class IncidentControllerTest {
                 .andExpect(status().isOk());
 
         // ASSERT — service must be called with "alice" as the reportedBy filter
-        ArgumentCaptor<String> reportedByCaptor = ArgumentCaptor.forClass(String.class);
-        verify(incidentService).getAllIncidents(any(), any(), any(Pageable.class), reportedByCaptor.capture());
-        assertThat(reportedByCaptor.getValue()).isEqualTo("alice");
+        ArgumentCaptor<IncidentFilter> filterCaptor = ArgumentCaptor.forClass(IncidentFilter.class);
+        verify(incidentService).getAllIncidents(filterCaptor.capture(), any(Pageable.class));
+        assertThat(filterCaptor.getValue().getReportedBy()).isEqualTo("alice");
     }
 
     @Test
     @DisplayName("GET /api/incidents - ADMIN role: service called with null filter (sees all)")
     void shouldPassNullFilterForAdminRole() throws Exception {
         // ARRANGE
-        when(incidentService.getAllIncidents(any(), any(), any(Pageable.class), any()))
+        when(incidentService.getAllIncidents(any(IncidentFilter.class), any(Pageable.class)))
                 .thenReturn(new PageImpl<>(List.of()));
 
         // ACT
@@ -241,9 +356,166 @@ class IncidentControllerTest {
                 .andExpect(status().isOk());
 
         // ASSERT — service must be called with null (no restriction)
-        ArgumentCaptor<String> reportedByCaptor = ArgumentCaptor.forClass(String.class);
-        verify(incidentService).getAllIncidents(any(), any(), any(Pageable.class), reportedByCaptor.capture());
-        assertThat(reportedByCaptor.getValue()).isNull();
+        ArgumentCaptor<IncidentFilter> filterCaptor = ArgumentCaptor.forClass(IncidentFilter.class);
+        verify(incidentService).getAllIncidents(filterCaptor.capture(), any(Pageable.class));
+        assertThat(filterCaptor.getValue().getReportedBy()).isNull();
+    }
+
+    // ==================== GET /api/incidents?cursor= ====================
+
+    @Test
+    @DisplayName("GET /api/incidents?cursor= - USER role: returns a cursor page scoped to the user")
+    void shouldReturnCursorPageScopedToUser() throws Exception {
+        // ARRANGE
+        CursorPage<IncidentResponse> page = CursorPage.<IncidentResponse>builder()
+                .content(List.of(IncidentResponse.builder()
+                        .id(UUID.randomUUID())
+                        .title("API gateway timeout")
+                        .status(Status.OPEN)
+                        .build()))
+                .size(1)
+                .nextCursor("next-token")
+                .build();
+        when(incidentService.getIncidentsByCursor(
+                argThat(filter -> filter.getStatus() == Status.OPEN && "alice".equals(filter.getReportedBy())),
+                eq(""), eq(1)))
+                .thenReturn(page);
+
+        // ACT & ASSERT
+        mockMvc.perform(get("/api/incidents")
+                        .param("cursor", "")
+                        .param("status", "OPEN")
+                        .param("size", "1")
+                        .with(user("alice").roles("USER")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(1))
+                .andExpect(jsonPath("$.nextCursor").value("next-token"))
+                .andExpect(jsonPath("$.prevCursor").doesNotExist())
+                .andExpect(jsonPath("$.totalElements").doesNotExist());
+    }
+
+    @Test
+    @DisplayName("GET /api/incidents?cursor= - Should return 400 for an out-of-range size")
+    void shouldRejectCursorPageSizeOutOfRange() throws Exception {
+        mockMvc.perform(get("/api/incidents").param("cursor", "").param("size", "101"))
+                .andExpect(status().isBadRequest());
+
+        verify(incidentService, never()).getIncidentsByCursor(any(), any(), anyInt());
+    }
+
+    @Test
+    @DisplayName("GET /api/incidents?cursor= - Should return 400 for a malformed cursor")
+    void shouldRejectMalformedCursor() throws Exception {
+        when(incidentService.getIncidentsByCursor(any(), eq("garbage"), anyInt()))
+                .thenThrow(new InvalidCursorException("garbage"));
+
+        mockMvc.perform(get("/api/incidents").param("cursor", "garbage"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Invalid cursor: garbage"));
+    }
+
+    // ==================== GET /api/incidents?fields= ====================
+
+    @Test
+    @DisplayName("GET /api/incidents?fields= - Should return only the selected fields")
+    void shouldReturnSelectedFields() throws Exception {
+        UUID id = UUID.randomUUID();
+        Map<String, Object> row = new LinkedHashMap<>();
+        row.put("id", id);
+        row.put("title", "API gateway timeout");
+        row.put("status", Status.OPEN);
+        when(incidentService.getAllIncidentFields(any(IncidentFilter.class), any(Pageable.class),
+                eq(EnumSet.of(IncidentField.ID, IncidentField.TITLE, IncidentField.STATUS))))
+                .thenReturn(new PageImpl<>(List.of(row)));
+
+        mockMvc.perform(get("/api/incidents").param("fields", "title, status,id"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].id").value(id.toString()))
+                .andExpect(jsonPath("$.content[0].title").value("API gateway timeout"))
+                .andExpect(jsonPath("$.content[0].status").value("OPEN"))
+                .andExpect(jsonPath("$.content[0].description").doesNotExist());
+    }
+
+    @Test
+    @DisplayName("GET /api/incidents?cursor=&fields= - Should return a sparse cursor page")
+    void shouldReturnSelectedFieldsByCursor() throws Exception {
+        CursorPage<Map<String, Object>> page = CursorPage.<Map<String, Object>>builder()
+                .content(List.of(Map.of("title", "API gateway timeout")))
+                .size(1)
+                .nextCursor("next-token")
+                .build();
+        when(incidentService.getIncidentFieldsByCursor(any(IncidentFilter.class), eq(""), eq(1),
+                eq(EnumSet.of(IncidentField.TITLE))))
+                .thenReturn(page);
+
+        mockMvc.perform(get("/api/incidents").param("cursor", "").param("size", "1").param("fields", "title"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].title").value("API gateway timeout"))
+                .andExpect(jsonPath("$.nextCursor").value("next-token"));
+    }
+
+    @Test
+    @DisplayName("GET /api/incidents?fields= - Should return 400 for an unknown field")
+    void shouldRejectUnknownField() throws Exception {
+        mockMvc.perform(get("/api/incidents").param("fields", "id,password"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Unknown field: password"));
+
+        verify(incidentService, never()).getAllIncidentFields(any(), any(), any());
+    }
+
+    // ==================== GET /api/incidents/export ====================
+
+    @Test
+    @DisplayName("GET /api/incidents/export - USER role: streams a gzip CSV export scoped to the user")
+    void shouldStreamExportScopedToUser() throws Exception {
+        doAnswer(invocation -> {
+            invocation.<OutputStream>getArgument(4).write("id,title\r\n".getBytes(StandardCharsets.UTF_8));
+            return null;
+        }).when(incidentExportService).export(any(), any(), anyBoolean(), anyBoolean(), any());
+
+        MvcResult result = mockMvc.perform(get("/api/incidents/export")
+                        .param("format", "CSV")
+                        .param("status", "OPEN")
+                        .header(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate")
+                        .with(user("alice").roles("USER")))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith("text/csv"))
+                .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+                .andExpect(header().string(HttpHeaders.CONTENT_DISPOSITION, containsString("incidents.csv")))
+                .andExpect(content().string("id,title\r\n"));
+        verify(incidentExportService).export(
+                argThat(filter -> filter.getStatus() == Status.OPEN && "alice".equals(filter.getReportedBy())),
+                eq(ExportFormat.CSV), eq(false), eq(true), any());
+    }
+
+    @Test
+    @DisplayName("GET /api/incidents/export - Should default to uncompressed NDJSON without Accept-Encoding")
+    void shouldExportNdjsonUncompressedByDefault() throws Exception {
+        MvcResult result = mockMvc.perform(get("/api/incidents/export")
+                        .param("includeActivity", "true")
+                        .with(user("admin").roles("ADMIN")))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith("application/x-ndjson"))
+                .andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING));
+        verify(incidentExportService).export(any(), eq(ExportFormat.NDJSON), eq(true), eq(false), any());
+    }
+
+    @Test
+    @DisplayName("GET /api/incidents/export - Unauthenticated request should get 403 and export nothing")
+    void shouldRejectAnonymousExport() throws Exception {
+        mockMvc.perform(get("/api/incidents/export").param("includeActivity", "true"))
+                .andExpect(status().isForbidden());
+
+        verify(incidentExportService, never()).export(any(), any(), anyBoolean(), anyBoolean(), any());
     }
 
     // ==================== GET /api/incidents/{id} ====================
@@ -472,6 +744,35 @@ class IncidentControllerTest {
         verify(incidentService).reanalyzeIncident(id);
     }
 
+    @Test
+    @DisplayName("POST /api/incidents/{id}/analyze/stream - USER role should get 403")
+    void shouldReturn403WhenUserStreamsAnalysis() throws Exception {
+        mockMvc.perform(post("/api/incidents/{id}/analyze/stream", UUID.randomUUID())
+                        .with(user("testuser").roles("USER")))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    @DisplayName("POST /api/incidents/{id}/analyze/stream - ADMIN role should open an event stream")
+    void shouldOpenAnalysisStreamForAdmin() throws Exception {
+        UUID id = UUID.randomUUID();
+        SseEmitter emitter = new SseEmitter();
+        when(analysisStreamService.streamReanalysis(id)).thenReturn(emitter);
+
+        MvcResult result = mockMvc.perform(post("/api/incidents/{id}/analyze/stream", id)
+                        .with(user("admin").roles("ADMIN")))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        emitter.send(SseEmitter.event().name("solution").data(Map.of("text", "Restart the pool"), MediaType.APPLICATION_JSON));
+        emitter.complete();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(content().string(containsString("event:solution")));
+        verify(analysisStreamService).streamReanalysis(id);
+    }
+
     // ==================== GET /api/incidents/metrics ====================
 
     @Test
@@ -500,6 +801,45 @@ class IncidentControllerTest {
                 .andExpect(jsonPath("$.bySeverity.CRITICAL").value(3));
     }
 
+    // ==================== GET /api/incidents/search ====================
+
+    @Test
+    @DisplayName("GET /api/incidents/search - Should return ranked results with filters and paging")
+    void shouldSearchIncidents() throws Exception {
+        // ARRANGE
+        IncidentResponse match = IncidentResponse.builder()
+                .id(UUID.randomUUID())
+                .title("Database connection pool exhausted")
+                .severity(Severity.CRITICAL)
+                .category(Category.DATABASE)
+                .status(Status.OPEN)
+                .score(0.61)
+                .build();
+        when(incidentService.searchIncidents(eq("connection pool"), eq(Status.OPEN), isNull(), eq(Category.DATABASE),
+                any(Pageable.class)))
+                .thenReturn(new PageImpl<>(List.of(match)));
+
+        // ACT & ASSERT
+        mockMvc.perform(get("/api/incidents/search")
+                        .param("q", "connection pool")
+                        .param("status", "OPEN")
+                        .param("category", "DATABASE")
+                        .param("page", "0")
+                        .param("size", "10"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].title").value("Database connection pool exhausted"))
+                .andExpect(jsonPath("$.content[0].score").value(0.61));
+    }
+
+    @Test
+    @DisplayName("GET /api/incidents/search - Should return 400 when the query is blank")
+    void shouldReturnBadRequestWhenSearchQueryBlank() throws Exception {
+        // ACT & ASSERT
+        mockMvc.perform(get("/api/incidents/search")
+                        .param("q", "  "))
+                .andExpect(status().isBadRequest());
+    }
+
     // ==================== GET /api/incidents/similar ====================
 
     @Test
@@ -531,7 +871,7 @@ class IncidentControllerTest {
                         .build()
         );
 
-        when(incidentService.findSimilarIncidents(eq(description), any(UUID.class)))
+        when(incidentService.findSimilarIncidents(eq(description), any(UUID.class), eq(10), eq(0.0)))
                 .thenReturn(similarIncidents);
 
         // ACT & ASSERT
@@ -550,7 +890,7 @@ class IncidentControllerTest {
         // ARRANGE
         String description = "Very unique error that never happened before";
 
-        when(incidentService.findSimilarIncidents(eq(description), any(UUID.class)))
+        when(incidentService.findSimilarIncidents(eq(description), any(UUID.class), eq(10), eq(0.0)))
                 .thenReturn(List.of());
 
         // ACT & ASSERT
@@ -561,6 +901,35 @@ class IncidentControllerTest {
                 .andExpect(jsonPath("$.length()").value(0));
     }
 
+    @Test
+    @DisplayName("GET /api/incidents/similar - Should pass limit and minScore through and return scores")
+    void shouldReturnScoredSimilarIncidentsWithLimit() throws Exception {
+        String description = "Database connection timeout error";
+        when(incidentService.findSimilarIncidents(eq(description), any(UUID.class), eq(3), eq(1.5)))
+                .thenReturn(List.of(IncidentResponse.builder()
+                        .id(UUID.randomUUID())
+                        .title("Database connection issues")
+                        .score(4.2)
+                        .build()));
+
+        mockMvc.perform(get("/api/incidents/similar")
+                        .param("description", description)
+                        .param("limit", "3")
+                        .param("minScore", "1.5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].score").value(4.2));
+    }
+
+    @Test
+    @DisplayName("GET /api/incidents/similar - Should return 400 when limit is not positive")
+    void shouldReturnBadRequestWhenLimitNotPositive() throws Exception {
+        mockMvc.perform(get("/api/incidents/similar")
+                        .param("description", "Database timeout")
+                        .param("limit", "0"))
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     @DisplayName("GET /api/incidents/similar - Should return 400 when description parameter is missing")
     void shouldReturnBadRequestWhenDescriptionMissing() throws Exception {
@@ -580,6 +949,54 @@ class IncidentControllerTest {
                 .andExpect(status().isBadRequest());
     }
 
+    @Test
+    @DisplayName("GET /api/incidents/similar?fields= - Should return the selected fields with scores")
+    void shouldReturnSelectedFieldsOfSimilarIncidents() throws Exception {
+        when(incidentService.findSimilarIncidentFields(eq("Database timeout"), any(UUID.class), eq(10), eq(0.0),
+                eq(EnumSet.of(IncidentField.TITLE))))
+                .thenReturn(List.of(Map.of("title", "Database connection issues", "score", 0.8)));
+
+        mockMvc.perform(get("/api/incidents/similar")
+                        .param("description", "Database timeout")
+                        .param("fields", "title"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].title").value("Database connection issues"))
+                .andExpect(jsonPath("$[0].score").value(0.8))
+                .andExpect(jsonPath("$[0].description").doesNotExist());
+
+        verify(incidentService, never()).findSimilarIncidents(any(), any(), anyInt(), anyDouble());
+    }
+
+    // ==================== GET /api/incidents/{id}/similar ====================
+
+    @Test
+    @DisplayName("GET /api/incidents/{id}/similar - Should return the incident's similar incidents with scores")
+    void shouldReturnIncidentsSimilarToIncident() throws Exception {
+        UUID id = UUID.randomUUID();
+        when(incidentService.findSimilarToIncident(id, 3, 0.0))
+                .thenReturn(List.of(IncidentResponse.builder()
+                        .id(UUID.randomUUID())
+                        .title("Database connection issues")
+                        .score(0.8)
+                        .build()));
+
+        mockMvc.perform(get("/api/incidents/{id}/similar", id)
+                        .param("limit", "3"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].score").value(0.8));
+    }
+
+    @Test
+    @DisplayName("GET /api/incidents/{id}/similar - Should return 404 when incident does not exist")
+    void shouldReturnNotFoundForSimilarToUnknownIncident() throws Exception {
+        UUID id = UUID.randomUUID();
+        when(incidentService.findSimilarToIncident(id, 10, 0.0)).thenThrow(new IncidentNotFoundException(id));
+
+        mockMvc.perform(get("/api/incidents/{id}/similar", id))
+                .andExpect(status().isNotFound());
+    }
+
     // ==================== GET /api/incidents/{id}/activity ====================
 
     @Test
@@ -0,0 +1,122 @@
+package com.victorlopez.incident_api.controller;
+
+import com.victorlopez.incident_api.config.SecurityConfig;
+import com.victorlopez.incident_api.dto.ReanalysisJobResponse;
+import com.victorlopez.incident_api.exception.ReanalysisJobConflictException;
+import com.victorlopez.incident_api.exception.ReanalysisJobNotFoundException;
+import com.victorlopez.incident_api.model.ReanalysisJobStatus;
+import com.victorlopez.incident_api.service.JwtService;
+import com.victorlopez.incident_api.service.ReanalysisJobService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.UUID;
+
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(ReanalysisJobController.class)
+@Import(SecurityConfig.class)
+class ReanalysisJobControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private ReanalysisJobService reanalysisJobService;
+
+    @MockBean
+    private JwtService jwtService;
+
+    private static ReanalysisJobResponse job(UUID id, ReanalysisJobStatus status) {
+        return ReanalysisJobResponse.builder()
+                .id(id)
+                .status(status)
+                .totalIncidents(200)
+                .processedCount(50)
+                .succeededCount(49)
+                .failedCount(1)
+                .percentComplete(25.0)
+                .startedBy("admin")
+                .build();
+    }
+
+    @Test
+    @DisplayName("POST /api/admin/reanalysis-jobs - ADMIN should start a job and get 202")
+    void shouldStartJob() throws Exception {
+        UUID id = UUID.randomUUID();
+        when(reanalysisJobService.startJob("admin")).thenReturn(job(id, ReanalysisJobStatus.RUNNING));
+
+        mockMvc.perform(post("/api/admin/reanalysis-jobs")
+                        .with(user("admin").roles("ADMIN")))
+                .andExpect(status().isAccepted())
+                .andExpect(jsonPath("$.id").value(id.toString()))
+                .andExpect(jsonPath("$.status").value("RUNNING"));
+
+        verify(reanalysisJobService).startJob("admin");
+    }
+
+    @Test
+    @DisplayName("POST /api/admin/reanalysis-jobs - USER role should get 403")
+    void shouldReturn403ForUser() throws Exception {
+        mockMvc.perform(post("/api/admin/reanalysis-jobs")
+                        .with(user("testuser").roles("USER")))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    @DisplayName("GET /api/admin/reanalysis-jobs/{id} - Should return progress")
+    void shouldReturnProgress() throws Exception {
+        UUID id = UUID.randomUUID();
+        when(reanalysisJobService.getJob(id)).thenReturn(job(id, ReanalysisJobStatus.RUNNING));
+
+        mockMvc.perform(get("/api/admin/reanalysis-jobs/{id}", id)
+                        .with(user("admin").roles("ADMIN")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.processedCount").value(50))
+                .andExpect(jsonPath("$.percentComplete").value(25.0));
+    }
+
+    @Test
+    @DisplayName("GET /api/admin/reanalysis-jobs/{id} - Should return 404 for an unknown job")
+    void shouldReturn404ForUnknownJob() throws Exception {
+        UUID id = UUID.randomUUID();
+        when(reanalysisJobService.getJob(id)).thenThrow(new ReanalysisJobNotFoundException(id));
+
+        mockMvc.perform(get("/api/admin/reanalysis-jobs/{id}", id)
+                        .with(user("admin").roles("ADMIN")))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    @DisplayName("POST /api/admin/reanalysis-jobs/{id}/pause - Should return 409 when the job is not running")
+    void shouldReturn409WhenPausingFinishedJob() throws Exception {
+        UUID id = UUID.randomUUID();
+        when(reanalysisJobService.pauseJob(id))
+                .thenThrow(new ReanalysisJobConflictException("Reanalysis job " + id + " cannot move to PAUSED"));
+
+        mockMvc.perform(post("/api/admin/reanalysis-jobs/{id}/pause", id)
+                        .with(user("admin").roles("ADMIN")))
+                .andExpect(status().isConflict());
+    }
+
+    @Test
+    @DisplayName("POST /api/admin/reanalysis-jobs/{id}/cancel - Should cancel the job")
+    void shouldCancelJob() throws Exception {
+        UUID id = UUID.randomUUID();
+        when(reanalysisJobService.cancelJob(id)).thenReturn(job(id, ReanalysisJobStatus.CANCELLED));
+
+        mockMvc.perform(post("/api/admin/reanalysis-jobs/{id}/cancel", id)
+                        .with(user("admin").roles("ADMIN")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("CANCELLED"));
+    }
+}
@@ -0,0 +1,198 @@
+package com.victorlopez.incident_api.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.victorlopez.incident_api.support.FakeOpenAIServer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Load test of incident creation through the AI path, against {@link FakeOpenAIServer}
+ * instead of the real OpenAI API.
+ *
+ * Skipped unless {@code -Dloadtest=true}. Tunable with system properties:
+ * - loadtest.requests (500), loadtest.concurrency (32), loadtest.warmup (20)
+ * - loadtest.latency-median-ms (400), loadtest.latency-sigma (0.5)
+ * - loadtest.error-rate (0.0), loadtest.rate-limit-rate (0.0), loadtest.max-rps (0 = unlimited)
+ *
+ * Prints throughput, p50/p95/p99 latency and status counts. Any other {@code ai.*} setting
+ * can be passed the same way to compare configurations, e.g. {@code -Dai.cache.enabled=true}.
+ *
+ * <pre>
+ * ./mvnw test -Dtest=IncidentCreationLoadTest -Dloadtest=true -Dloadtest.concurrency=64
+ * </pre>
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+@EnabledIfSystemProperty(named = "loadtest", matches = "true")
+class IncidentCreationLoadTest {
+
+    private static FakeOpenAIServer openAI;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+
+    @LocalServerPort
+    private int port;
+
+    @DynamicPropertySource
+    static void fakeOpenAI(DynamicPropertyRegistry registry) {
+        openAI = FakeOpenAIServer.builder()
+                .latency(FakeOpenAIServer.Latency.logNormal(
+                        Long.getLong("loadtest.latency-median-ms", 400),
+                        Double.parseDouble(System.getProperty("loadtest.latency-sigma", "0.5"))))
+                .errorRate(Double.parseDouble(System.getProperty("loadtest.error-rate", "0.0")))
+                .rateLimitRate(Double.parseDouble(System.getProperty("loadtest.rate-limit-rate", "0.0")))
+                .maxRequestsPerSecond(Integer.getInteger("loadtest.max-rps", 0))
+                .start();
+        registry.add("spring.ai.openai.base-url", openAI::getBaseUrl);
+        registry.add("spring.ai.retry.max-attempts", () -> System.getProperty("spring.ai.retry.max-attempts", "1"));
+        registry.add("ai.http.enabled", () -> System.getProperty("ai.http.enabled", "true"));
+        // every request carries a unique title, so the cache would only add noise by default
+        registry.add("ai.cache.enabled", () -> System.getProperty("ai.cache.enabled", "false"));
+    }
+
+    @AfterAll
+    static void stopFakeOpenAI() {
+        if (openAI != null) {
+            openAI.close();
+        }
+    }
+
+    @Test
+    @DisplayName("Incident creation through the AI path under concurrent load")
+    void incidentCreationUnderLoad() throws Exception {
+        int requests = Integer.getInteger("loadtest.requests", 500);
+        int concurrency = Integer.getInteger("loadtest.concurrency", 32);
+        int warmup = Integer.getInteger("loadtest.warmup", 20);
+        String token = registerUser();
+
+        for (int i = 0; i < warmup; i++) {
+            createIncident(token, "warmup-" + i);
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(concurrency);
+        List<Future<Sample>> futures = new ArrayList<>(requests);
+        long start = System.nanoTime();
+        for (int i = 0; i < requests; i++) {
+            int n = i;
+            futures.add(executor.submit(() -> createIncident(token, "load-" + n)));
+        }
+        List<Sample> samples = new ArrayList<>(requests);
+        for (Future<Sample> future : futures) {
+            samples.add(future.get());
+        }
+        long elapsedNanos = System.nanoTime() - start;
+        executor.shutdown();
+        executor.awaitTermination(10, TimeUnit.SECONDS);
+
+        LoadTestReport report = LoadTestReport.of(samples, elapsedNanos, concurrency);
+        System.out.println(report.format(openAI));
+
+        assertThat(report.statusCounts().keySet()).allMatch(status -> status == 201 || status == 202);
+    }
+
+    // ── private helpers ──────────────────────────────────────────────────────
+
+    private String registerUser() throws Exception {
+        String username = "load" + UUID.randomUUID().toString().substring(0, 8);
+        String body = objectMapper.writeValueAsString(Map.of(
+                "username", username,
+                "email", username + "@example.com",
+                "password", "loadtest-password"));
+        HttpResponse<String> response = httpClient.send(jsonPost("/api/auth/register", body, null),
+                HttpResponse.BodyHandlers.ofString());
+        assertThat(response.statusCode()).isEqualTo(201);
+        return objectMapper.readTree(response.body()).path("token").asText();
+    }
+
+    private Sample createIncident(String token, String suffix) throws Exception {
+        String body = objectMapper.writeValueAsString(Map.of(
+                "title", "Checkout API returns 500 " + suffix,
+                "description", "Customers cannot complete payments since the last deployment (" + suffix + ")"));
+        long start = System.nanoTime();
+        HttpResponse<Void> response = httpClient.send(jsonPost("/api/incidents", body, token),
+                HttpResponse.BodyHandlers.discarding());
+        return new Sample(response.statusCode(), System.nanoTime() - start);
+    }
+
+    private HttpRequest jsonPost(String path, String body, String token) {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+                .timeout(Duration.ofSeconds(60))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body));
+        if (token != null) {
+            request.header("Authorization", "Bearer " + token);
+        }
+        return request.build();
+    }
+
+    private record Sample(int status, long nanos) {
+    }
+
+    private record LoadTestReport(int requests, int concurrency, double throughput,
+                                  double p50Millis, double p95Millis, double p99Millis, double maxMillis,
+                                  Map<Integer, Integer> statusCounts) {
+
+        static LoadTestReport of(List<Sample> samples, long elapsedNanos, int concurrency) {
+            long[] latencies = samples.stream().mapToLong(Sample::nanos).sorted().toArray();
+            Map<Integer, Integer> statusCounts = new TreeMap<>();
+            samples.forEach(sample -> statusCounts.merge(sample.status(), 1, Integer::sum));
+            return new LoadTestReport(samples.size(), concurrency,
+                    samples.size() / (elapsedNanos / 1e9),
+                    percentile(latencies, 0.50), percentile(latencies, 0.95), percentile(latencies, 0.99),
+                    latencies.length == 0 ? 0 : latencies[latencies.length - 1] / 1e6,
+                    statusCounts);
+        }
+
+        /**
+         * Nearest-rank percentile in milliseconds.
+         */
+        static double percentile(long[] sortedNanos, double quantile) {
+            if (sortedNanos.length == 0) {
+                return 0;
+            }
+            int rank = (int) Math.ceil(quantile * sortedNanos.length);
+            return sortedNanos[Math.max(0, rank - 1)] / 1e6;
+        }
+
+        String format(FakeOpenAIServer openAI) {
+            return String.format("""
+
+                    ── AI-path load test ──────────────────────────────
+                    requests     %d (concurrency %d)
+                    throughput   %.1f req/s
+                    latency ms   p50 %.1f | p95 %.1f | p99 %.1f | max %.1f
+                    statuses     %s
+                    fake OpenAI  %d calls, %d 500s, %d 429s
+                    """,
+                    requests, concurrency, throughput, p50Millis, p95Millis, p99Millis, maxMillis, statusCounts,
+                    openAI.getRequestCount(), openAI.getFailedCount(), openAI.getRateLimitedCount());
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package com.victorlopez.incident_api.loadtest;
+
+import com.victorlopez.incident_api.service.HnswIndex;
+import com.victorlopez.incident_api.service.HnswIndex.Candidate;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Recall and latency of {@link HnswIndex} against an exact brute-force scan, on synthetic
+ * embeddings: normalized vectors drawn around random cluster centres, as real incident
+ * embeddings group by topic.
+ *
+ * Skipped unless {@code -Dloadtest=true}. Tunable with system properties:
+ * - benchmark.vectors (10000), benchmark.dimensions (384), benchmark.clusters (50), benchmark.noise (1.0)
+ * - benchmark.queries (500), benchmark.k (10), benchmark.m (16), benchmark.ef-construction (100)
+ * - benchmark.ef (comma-separated ef-search values, 16,32,64,128,256)
+ *
+ * Prints build time, off-heap size, and recall@k with p50/p99 query latency per ef next to the
+ * brute-force baseline.
+ *
+ * <pre>
+ * ./mvnw test -Dtest=SimilaritySearchBenchmark -Dloadtest=true -Dbenchmark.vectors=100000
+ * </pre>
+ */
+@EnabledIfSystemProperty(named = "loadtest", matches = "true")
+class SimilaritySearchBenchmark {
+
+    @Test
+    @DisplayName("HNSW recall and latency against brute force")
+    void hnswAgainstBruteForce() {
+        int vectors = Integer.getInteger("benchmark.vectors", 10_000);
+        int dimensions = Integer.getInteger("benchmark.dimensions", 384);
+        int clusters = Integer.getInteger("benchmark.clusters", 50);
+        double noise = Double.parseDouble(System.getProperty("benchmark.noise", "1.0"));
+        int queries = Integer.getInteger("benchmark.queries", 500);
+        int k = Integer.getInteger("benchmark.k", 10);
+        int m = Integer.getInteger("benchmark.m", 16);
+        int efConstruction = Integer.getInteger("benchmark.ef-construction", 100);
+        int[] efs = Arrays.stream(System.getProperty("benchmark.ef", "16,32,64,128,256").split(","))
+                .map(String::trim).mapToInt(Integer::parseInt).toArray();
+
+        Random random = new Random(42);
+        float[][] centres = new float[clusters][];
+        for (int c = 0; c < clusters; c++) {
+            centres[c] = around(null, 1.0, dimensions, random);
+        }
+
+        HnswIndex index = new HnswIndex(dimensions, m, efConstruction, 42);
+        long buildStart = System.nanoTime();
+        for (int i = 0; i < vectors; i++) {
+            index.add(around(centres[random.nextInt(clusters)], noise, dimensions, random));
+        }
+        double buildMillis = (System.nanoTime() - buildStart) / 1e6;
+
+        float[][] queryVectors = new float[queries][];
+        List<Set<Integer>> exact = new ArrayList<>(queries);
+        long[] bruteNanos = new long[queries];
+        for (int q = 0; q < queries; q++) {
+            queryVectors[q] = around(centres[random.nextInt(clusters)], noise, dimensions, random);
+            long start = System.nanoTime();
+            List<Candidate> top = index.bruteForce(queryVectors[q], k);
+            bruteNanos[q] = System.nanoTime() - start;
+            Set<Integer> nodes = new HashSet<>();
+            top.forEach(candidate -> nodes.add(candidate.node()));
+            exact.add(nodes);
+        }
+
+        StringBuilder report = new StringBuilder(String.format("""
+
+                ── Similarity search benchmark ────────────────────
+                vectors      %d x %d dims (%d clusters, noise %.2f), m=%d, efConstruction=%d
+                build        %.0f ms, %d KB off-heap
+                brute force  recall 1.000 | p50 %.3f ms | p99 %.3f ms
+                """, vectors, dimensions, clusters, noise, m, efConstruction,
+                buildMillis, index.vectorBytes() / 1024, percentile(bruteNanos, 0.50), percentile(bruteNanos, 0.99)));
+
+        double lastRecall = 0;
+        for (int ef : efs) {
+            long[] nanos = new long[queries];
+            int hits = 0;
+            for (int q = 0; q < queries; q++) {
+                long start = System.nanoTime();
+                List<Candidate> found = index.search(queryVectors[q], k, ef);
+                nanos[q] = System.nanoTime() - start;
+                for (Candidate candidate : found) {
+                    if (exact.get(q).contains(candidate.node())) {
+                        hits++;
+                    }
+                }
+            }
+            lastRecall = hits / (double) (queries * k);
+            report.append(String.format("hnsw ef=%-4d recall %.3f | p50 %.3f ms | p99 %.3f ms%n",
+                    ef, lastRecall, percentile(nanos, 0.50), percentile(nanos, 0.99)));
+        }
+        System.out.println(report);
+
+        assertThat(lastRecall).isGreaterThanOrEqualTo(0.9);
+    }
+
+    // ── private helpers ──────────────────────────────────────────────────────
+
+    /**
+     * A normalized vector at Gaussian distance {@code spread} from {@code centre} (the origin when null).
+     */
+    private static float[] around(float[] centre, double spread, int dimensions, Random random) {
+        float[] vector = new float[dimensions];
+        double scale = spread / Math.sqrt(dimensions);
+        for (int i = 0; i < dimensions; i++) {
+            vector[i] = (float) ((centre != null ? centre[i] : 0) + random.nextGaussian() * scale);
+        }
+        HnswIndex.normalize(vector);
+        return vector;
+    }
+
+    /**
+     * Nearest-rank percentile in milliseconds.
+     */
+    private static double percentile(long[] nanos, double quantile) {
+        long[] sorted = nanos.clone();
+        Arrays.sort(sorted);
+        int rank = (int) Math.ceil(quantile * sorted.length);
+        return sorted[Math.max(0, rank - 1)] / 1e6;
+    }
+}
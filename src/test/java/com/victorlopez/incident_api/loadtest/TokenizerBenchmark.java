@@ -0,0 +1,173 @@
+package com.victorlopez.incident_api.loadtest;
+
+import com.victorlopez.incident_api.service.IncidentTokenizer;
+import com.victorlopez.incident_api.service.IncidentTokenizer.Tokens;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH comparison of {@link IncidentTokenizer} with the regex and {@code toLowerCase} code it replaced,
+ * on the three hot paths: extracting query terms, the keyword scan that scores every incident
+ * against them, and per-document term frequencies for the inverted index.
+ *
+ * Skipped unless {@code -Dloadtest=true}. Runs with JMH's GC profiler; compare
+ * {@code gc.alloc.rate.norm} (bytes allocated per operation) alongside throughput.
+ * {@code -Dbenchmark.include} narrows the run to benchmarks matching a regex.
+ *
+ * <pre>
+ * ./mvnw test -Dtest=TokenizerBenchmark -Dloadtest=true
+ * </pre>
+ */
+@EnabledIfSystemProperty(named = "loadtest", matches = "true")
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TokenizerBenchmark {
+
+    private static final Set<String> LEGACY_STOP_WORDS = Set.of("the", "is", "are", "was", "were", "and", "or", "in",
+            "on", "at", "to", "for", "of", "with", "by", "from", "an", "that", "this", "it", "be", "not");
+
+    private static final String[] WORDS = {"Database", "connection", "TIMEOUT", "on", "the", "primary", "cluster",
+            "checkout", "API", "returns", "500", "errors", "for", "EU", "customers", "after", "deployment",
+            "payment", "gateway", "latency", "spikes", "disk", "full", "replica", "lag", "is", "growing"};
+
+    private String query;
+    private String[][] incidents;
+    private List<String> queryTerms;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        query = sentence(random, 12);
+        incidents = new String[200][];
+        for (int i = 0; i < incidents.length; i++) {
+            incidents[i] = new String[]{sentence(random, 6), sentence(random, 40)};
+        }
+        queryTerms = IncidentTokenizer.SEARCH.tokenize(query).terms();
+    }
+
+    @Benchmark
+    public List<String> queryTermsRegex() {
+        return Arrays.stream(query.toLowerCase(Locale.ROOT).split("[^a-z0-9]+"))
+                .filter(term -> !term.isEmpty() && !LEGACY_STOP_WORDS.contains(term))
+                .distinct()
+                .toList();
+    }
+
+    @Benchmark
+    public List<String> queryTermsTokenizer() {
+        return IncidentTokenizer.SEARCH.tokenize(query).terms();
+    }
+
+    @Benchmark
+    public int keywordScanLowercase() {
+        int matched = 0;
+        for (String[] incident : incidents) {
+            String title = incident[0].toLowerCase(Locale.ROOT);
+            String description = incident[1].toLowerCase(Locale.ROOT);
+            for (String term : queryTerms) {
+                if (title.contains(term) || description.contains(term)) {
+                    matched++;
+                }
+            }
+        }
+        return matched;
+    }
+
+    @Benchmark
+    public int keywordScanTokenizer() {
+        int matched = 0;
+        for (String[] incident : incidents) {
+            Tokens tokens = IncidentTokenizer.SEARCH.tokenize(incident[0], incident[1], Integer.MAX_VALUE);
+            for (String term : queryTerms) {
+                if (tokens.contains(term)) {
+                    matched++;
+                }
+            }
+        }
+        return matched;
+    }
+
+    @Benchmark
+    public void documentTermsSubstring(Blackhole blackhole) {
+        for (String[] incident : incidents) {
+            String text = incident[0] + " " + incident[1];
+            Map<String, Integer> terms = new HashMap<>();
+            int start = -1;
+            for (int i = 0; i <= text.length(); i++) {
+                boolean alphanumeric = i < text.length() && Character.isLetterOrDigit(text.charAt(i));
+                if (alphanumeric && start < 0) {
+                    start = i;
+                } else if (!alphanumeric && start >= 0) {
+                    if (i - start >= IncidentTokenizer.MIN_TERM_LENGTH && i - start <= IncidentTokenizer.MAX_TERM_LENGTH) {
+                        String term = text.substring(start, i).toLowerCase();
+                        if (!LEGACY_STOP_WORDS.contains(term)) {
+                            terms.merge(term, 1, Integer::sum);
+                        }
+                    }
+                    start = -1;
+                }
+            }
+            blackhole.consume(terms);
+        }
+    }
+
+    @Benchmark
+    public void documentTermsTokenizer(Blackhole blackhole) {
+        for (String[] incident : incidents) {
+            Tokens tokens = IncidentTokenizer.SEARCH.tokenize(incident[0], incident[1], Integer.MAX_VALUE);
+            for (int t = 0; t < tokens.size(); t++) {
+                // the index keys postings by term, so materialize it as it does
+                blackhole.consume(tokens.term(t));
+                blackhole.consume(tokens.frequency(t));
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Tokenizer throughput and allocation against the regex path")
+    void runBenchmarks() throws Exception {
+        new Runner(new OptionsBuilder()
+                .include(TokenizerBenchmark.class.getSimpleName() + "." + System.getProperty("benchmark.include", ".*"))
+                .addProfiler(GCProfiler.class)
+                .build())
+                .run();
+    }
+
+    // ── private helpers ──────────────────────────────────────────────────────
+
+    private static String sentence(Random random, int words) {
+        StringBuilder sentence = new StringBuilder();
+        for (int i = 0; i < words; i++) {
+            sentence.append(i > 0 ? (random.nextInt(8) == 0 ? ", " : " ") : "").append(WORDS[random.nextInt(WORDS.length)]);
+        }
+        return sentence.append('.').toString();
+    }
+}
@@ -0,0 +1,227 @@
+package com.victorlopez.incident_api.repository;
+
+import com.victorlopez.incident_api.config.IncidentIndexSchema;
+import com.victorlopez.incident_api.dto.IncidentFilter;
+import com.victorlopez.incident_api.model.Category;
+import com.victorlopez.incident_api.model.Incident;
+import com.victorlopez.incident_api.model.Severity;
+import com.victorlopez.incident_api.model.Status;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Plans every listing filter combination on PostgreSQL with realistic statistics and checks that
+ * each is served by one of the partial indexes from {@link IncidentIndexSchema}, never a
+ * sequential scan of {@code incidents}.
+ *
+ * The SQL checked is what Hibernate generates from {@link IncidentSpecifications}: it is captured
+ * as it runs, then prepared and explained with the same parameter values. Needs Docker; skipped
+ * without it.
+ */
+@DataJpaTest(properties = "spring.jpa.database-platform=org.hibernate.dialect.PostgreSQLDialect")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@Import(IncidentIndexSchema.class)
+@Testcontainers(disabledWithoutDocker = true)
+class IncidentListingIndexTest {
+
+    private static final int ROWS = 50_000;
+    private static final int PAGE_SIZE = 20;
+    private static final LocalDateTime EPOCH = LocalDateTime.of(2026, 1, 1, 0, 0);
+    private static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+
+    @Container
+    static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", POSTGRES::getJdbcUrl);
+        registry.add("spring.datasource.username", POSTGRES::getUsername);
+        registry.add("spring.datasource.password", POSTGRES::getPassword);
+        registry.add("spring.datasource.driver-class-name", POSTGRES::getDriverClassName);
+    }
+
+    @TestConfiguration
+    static class StatementCapture {
+
+        @Bean
+        HibernatePropertiesCustomizer statementInspector() {
+            return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR,
+                    (StatementInspector) sql -> {
+                        STATEMENTS.add(sql);
+                        return sql;
+                    });
+        }
+    }
+
+    @Autowired
+    private IncidentRepository incidentRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    /**
+     * 50k incidents, a tenth archived, one per minute: 4 statuses and severities, 5 categories with
+     * one team each, 200 reporters. Statistics are gathered so the planner sees the real distribution.
+     */
+    @BeforeEach
+    void seed() {
+        jdbcTemplate.update("""
+                INSERT INTO incidents (id, title, description, severity, status, category, assigned_team,
+                                       reported_by, duplicate_count, analysis_status, archived, created_at, updated_at)
+                SELECT gen_random_uuid(), 'Incident ' || n, 'Seeded incident number ' || n,
+                       (ARRAY['CRITICAL', 'HIGH', 'MEDIUM', 'LOW'])[1 + n % 4],
+                       (ARRAY['OPEN', 'IN_PROGRESS', 'RESOLVED', 'CLOSED'])[1 + (n / 3) % 4],
+                       (ARRAY['BACKEND', 'FRONTEND', 'DATABASE', 'SECURITY', 'NETWORK'])[1 + n % 5],
+                       (ARRAY['Backend Team', 'Frontend Team', 'Database Team', 'Security Team', 'Network Team'])[1 + n % 5],
+                       'user' || n % 200, 0, 'ANALYZED', n % 10 = 0,
+                       ? + n * interval '1 minute', ? + n * interval '1 minute'
+                FROM generate_series(1, ?) AS n
+                """, EPOCH, EPOCH, ROWS);
+        jdbcTemplate.execute("ANALYZE incidents");
+        STATEMENTS.clear();
+    }
+
+    @Test
+    @DisplayName("Every filter combination of the listing is served by a partial index scan")
+    void shouldServeEveryFilterCombinationFromAnIndex() {
+        LocalDateTime weekStart = EPOCH.plusDays(10);
+        List<IncidentFilter> filters = List.of(
+                IncidentFilter.builder().build(),
+                IncidentFilter.builder().status(Status.OPEN).build(),
+                IncidentFilter.builder().severity(Severity.CRITICAL).build(),
+                IncidentFilter.builder().status(Status.OPEN).severity(Severity.HIGH).build(),
+                IncidentFilter.builder().category(Category.DATABASE).build(),
+                IncidentFilter.builder().category(Category.DATABASE).severity(Severity.LOW).build(),
+                IncidentFilter.builder().assignedTeam("Network Team").build(),
+                IncidentFilter.builder().reportedBy("user42").build(),
+                IncidentFilter.builder().reportedBy("user42").status(Status.OPEN).severity(Severity.HIGH).build(),
+                IncidentFilter.builder().createdFrom(weekStart).createdTo(weekStart.plusDays(7)).build(),
+                IncidentFilter.builder().status(Status.IN_PROGRESS).createdFrom(weekStart).createdTo(weekStart.plusDays(7)).build());
+
+        for (IncidentFilter filter : filters) {
+            Specification<Incident> spec = IncidentSpecifications.matching(filter);
+            List<Object> values = values(filter);
+
+            // offset page as GET /api/incidents sorts it by default
+            assertIndexScan(filter, values, () -> incidentRepository.findAll(spec,
+                    PageRequest.of(0, PAGE_SIZE, Sort.by(Sort.Direction.DESC, "createdAt"))));
+
+            // first cursor page, then the page after its last row
+            List<Incident> first = new ArrayList<>();
+            assertIndexScan(filter, values, () -> first.addAll(
+                    incidentRepository.findAll(spec, IncidentSpecifications.LISTING_ORDER, PAGE_SIZE + 1)));
+            if (!first.isEmpty()) {
+                Incident key = first.get(first.size() - 1);
+                List<Object> keysetValues = new ArrayList<>(values);
+                keysetValues.addAll(List.of(key.getCreatedAt(), key.getCreatedAt(), key.getId()));
+                assertIndexScan(filter, keysetValues, () -> incidentRepository.findAll(
+                        spec.and(IncidentSpecifications.after(key.getCreatedAt(), key.getId())),
+                        IncidentSpecifications.LISTING_ORDER, PAGE_SIZE + 1));
+            }
+        }
+    }
+
+    // ── private helpers ──────────────────────────────────────────────────────
+
+    /**
+     * Runs {@code query}, then explains each listing statement it issued (count queries excluded)
+     * with {@code values} bound in order and every remaining parameter (limit, offset) set to the page size.
+     */
+    private void assertIndexScan(IncidentFilter filter, List<Object> values, Runnable query) {
+        STATEMENTS.clear();
+        query.run();
+        List<String> listings = STATEMENTS.stream()
+                .filter(sql -> sql.startsWith("select") && !sql.contains("count("))
+                .toList();
+        assertThat(listings).as("listing statements for %s", filter).isNotEmpty();
+
+        for (String sql : listings) {
+            String plan = explain(sql, values);
+            assertThat(plan)
+                    .as("plan for %s:%n%s%n%s", filter, sql, plan)
+                    .doesNotContain("Seq Scan")
+                    .containsPattern("(Index (Only )?Scan( Backward)? using|Bitmap Index Scan on) idx_incident_live_\\w+");
+        }
+    }
+
+    private String explain(String sql, List<Object> values) {
+        StringBuilder numbered = new StringBuilder();
+        int parameters = 0;
+        for (char c : sql.toCharArray()) {
+            if (c == '?') {
+                numbered.append('$').append(++parameters);
+            } else {
+                numbered.append(c);
+            }
+        }
+        List<String> arguments = new ArrayList<>();
+        for (int i = 0; i < parameters; i++) {
+            Object value = i < values.size() ? values.get(i) : PAGE_SIZE;
+            arguments.add("'" + value.toString().replace("'", "''") + "'");
+        }
+
+        jdbcTemplate.execute("DEALLOCATE ALL");
+        jdbcTemplate.execute("PREPARE listing AS " + numbered);
+        return jdbcTemplate.queryForList("EXPLAIN EXECUTE listing(" + String.join(", ", arguments) + ")", String.class)
+                .stream()
+                .collect(Collectors.joining("\n"));
+    }
+
+    /**
+     * Parameter values in the order {@link IncidentSpecifications#matching} adds its predicates.
+     */
+    private static List<Object> values(IncidentFilter filter) {
+        List<Object> values = new ArrayList<>();
+        if (filter.getStatus() != null) {
+            values.add(filter.getStatus().name());
+        }
+        if (filter.getSeverity() != null) {
+            values.add(filter.getSeverity().name());
+        }
+        if (filter.getCategory() != null) {
+            values.add(filter.getCategory().name());
+        }
+        if (filter.getAssignedTeam() != null) {
+            values.add(filter.getAssignedTeam());
+        }
+        if (filter.getReportedBy() != null) {
+            values.add(filter.getReportedBy());
+        }
+        if (filter.getCreatedFrom() != null) {
+            values.add(filter.getCreatedFrom());
+        }
+        if (filter.getCreatedTo() != null) {
+            values.add(filter.getCreatedTo());
+        }
+        return values;
+    }
+}
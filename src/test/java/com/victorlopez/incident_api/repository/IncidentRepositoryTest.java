@@ -1,16 +1,29 @@
 package com.victorlopez.incident_api.repository;
 
+import com.victorlopez.incident_api.dto.IncidentFilter;
+import com.victorlopez.incident_api.model.Category;
 import com.victorlopez.incident_api.model.Incident;
 import com.victorlopez.incident_api.model.Severity;
 import com.victorlopez.incident_api.model.Status;
+import org.hibernate.Session;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.test.context.ActiveProfiles;
 
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Comparator;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -21,6 +34,9 @@ class IncidentRepositoryTest {
     @Autowired
     private IncidentRepository incidentRepository;
 
+    @Autowired
+    private TestEntityManager entityManager;
+
     @Test
     @DisplayName("Should save and retrieve an incident")
     void shouldSaveAndRetrieveIncident() {
@@ -251,4 +267,200 @@ class IncidentRepositoryTest {
         assertThat(similar).hasSize(1);
         assertThat(similar.get(0).getId()).isEqualTo(active.getId());
     }
+
+    // ==================== Filtered listing (IncidentSpecifications) ====================
+
+    @Test
+    @DisplayName("matching - Should filter by status and exclude archived incidents")
+    void shouldFilterListingByStatus() {
+        // ARRANGE
+        Incident open = incidentRepository.save(listed("Open incident", Status.OPEN, Category.BACKEND, "alice"));
+        incidentRepository.save(listed("Closed incident", Status.CLOSED, Category.BACKEND, "alice"));
+        Incident archived = listed("Archived open incident", Status.OPEN, Category.BACKEND, "alice");
+        archived.setArchived(true);
+        incidentRepository.save(archived);
+
+        // ACT
+        Page<Incident> page = incidentRepository.findAll(
+                IncidentSpecifications.matching(IncidentFilter.builder().status(Status.OPEN).build()),
+                PageRequest.of(0, 20));
+
+        // ASSERT
+        assertThat(page.getContent()).containsExactly(open);
+        assertThat(page.getTotalElements()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("matching - Should scope the listing to the reporting user")
+    void shouldFilterListingByReportedBy() {
+        // ARRANGE
+        Incident alices = incidentRepository.save(listed("Alice incident", Status.OPEN, Category.BACKEND, "alice"));
+        incidentRepository.save(listed("Bob incident", Status.OPEN, Category.BACKEND, "bob"));
+
+        // ACT
+        List<Incident> listed = incidentRepository.findAll(
+                IncidentSpecifications.matching(IncidentFilter.builder().reportedBy("alice").build()),
+                IncidentSpecifications.LISTING_ORDER, 20);
+
+        // ASSERT
+        assertThat(listed).containsExactly(alices);
+    }
+
+    @Test
+    @DisplayName("matching - Should combine category, team and creation-time filters")
+    void shouldCombineListingFilters() {
+        // ARRANGE
+        Incident match = incidentRepository.save(listed("Database match", Status.OPEN, Category.DATABASE, "alice"));
+        incidentRepository.save(listed("Backend incident", Status.OPEN, Category.BACKEND, "alice"));
+        Incident otherTeam = listed("Database other team", Status.OPEN, Category.DATABASE, "alice");
+        otherTeam.setAssignedTeam("Platform Team");
+        incidentRepository.save(otherTeam);
+
+        IncidentFilter filter = IncidentFilter.builder()
+                .category(Category.DATABASE)
+                .assignedTeam("Database Team")
+                .createdFrom(match.getCreatedAt().minusMinutes(1))
+                .createdTo(match.getCreatedAt().plusMinutes(1))
+                .build();
+
+        // ACT
+        List<Incident> listed = incidentRepository.findAll(IncidentSpecifications.matching(filter),
+                IncidentSpecifications.LISTING_ORDER, 20);
+        List<Incident> outsideRange = incidentRepository.findAll(IncidentSpecifications.matching(
+                        IncidentFilter.builder().category(Category.DATABASE).createdTo(match.getCreatedAt()).build()),
+                IncidentSpecifications.LISTING_ORDER, 20);
+
+        // ASSERT — createdTo is exclusive
+        assertThat(listed).containsExactly(match);
+        assertThat(outsideRange).isEmpty();
+    }
+
+    @Test
+    @DisplayName("after/before - Should seek to the rows on either side of a keyset in listing order")
+    void shouldSeekKeysetPagesAroundKey() {
+        // ARRANGE
+        for (int i = 0; i < 5; i++) {
+            incidentRepository.save(listed("Keyset incident " + i, Status.OPEN, Category.BACKEND, "alice"));
+        }
+        incidentRepository.save(listed("Keyset incident closed", Status.CLOSED, Category.BACKEND, "alice"));
+
+        // ACT
+        Specification<Incident> open = IncidentSpecifications.matching(IncidentFilter.builder().status(Status.OPEN).build());
+        List<Incident> all = incidentRepository.findAll(open, IncidentSpecifications.LISTING_ORDER, 10);
+        Incident key = all.get(1);
+        List<Incident> after = incidentRepository.findAll(
+                open.and(IncidentSpecifications.after(key.getCreatedAt(), key.getId())),
+                IncidentSpecifications.LISTING_ORDER, 2);
+        List<Incident> before = incidentRepository.findAll(
+                open.and(IncidentSpecifications.before(key.getCreatedAt(), key.getId())),
+                IncidentSpecifications.REVERSE_LISTING_ORDER, 2);
+
+        // ASSERT — newest first; before comes back nearest first
+        assertThat(all).hasSize(5).isSortedAccordingTo(Comparator.comparing(Incident::getCreatedAt).reversed());
+        assertThat(after).containsExactly(all.get(2), all.get(3));
+        assertThat(before).containsExactly(all.get(0));
+    }
+
+    @Test
+    @DisplayName("findFields - Should read only the selected columns without attaching incidents")
+    void shouldReadSelectedFieldsWithoutEntities() {
+        // ARRANGE
+        Incident open = incidentRepository.save(listed("Open incident", Status.OPEN, Category.BACKEND, "alice"));
+        Incident archived = listed("Archived open incident", Status.OPEN, Category.BACKEND, "alice");
+        archived.setArchived(true);
+        archived = incidentRepository.save(archived);
+        entityManager.flush();
+        entityManager.clear();
+
+        // ACT
+        Page<Map<String, Object>> page = incidentRepository.findFields(
+                IncidentSpecifications.matching(IncidentFilter.builder().status(Status.OPEN).build()),
+                PageRequest.of(0, 10), EnumSet.of(IncidentField.ID, IncidentField.TITLE, IncidentField.STATUS));
+        List<Map<String, Object>> byId = incidentRepository.findFieldsById(List.of(open.getId(), archived.getId()),
+                EnumSet.of(IncidentField.TITLE));
+
+        // ASSERT
+        assertThat(page.getTotalElements()).isEqualTo(1);
+        assertThat(page.getContent()).containsExactly(
+                Map.of("id", open.getId(), "title", "Open incident", "status", Status.OPEN));
+        assertThat(byId).containsExactly(Map.of("title", "Open incident"));
+        assertThat(entityManager.getEntityManager().unwrap(Session.class).getStatistics().getEntityCount())
+                .isZero();
+    }
+
+    @Test
+    @DisplayName("streamAll - Should stream matching incidents in listing order")
+    void shouldStreamMatchingIncidentsInOrder() {
+        // ARRANGE
+        for (int i = 0; i < 3; i++) {
+            incidentRepository.save(listed("Exported incident " + i, Status.OPEN, Category.BACKEND, "alice"));
+        }
+        Incident archived = listed("Archived incident", Status.OPEN, Category.BACKEND, "alice");
+        archived.setArchived(true);
+        incidentRepository.save(archived);
+
+        // ACT — a fetch size below the row count still yields every row
+        List<Incident> streamed;
+        try (Stream<Incident> incidents = incidentRepository.streamAll(
+                IncidentSpecifications.matching(IncidentFilter.builder().build()),
+                IncidentSpecifications.LISTING_ORDER, 2)) {
+            streamed = incidents.toList();
+        }
+
+        // ASSERT
+        assertThat(streamed).hasSize(3)
+                .isSortedAccordingTo(Comparator.comparing(Incident::getCreatedAt).reversed())
+                .noneMatch(Incident::isArchived);
+    }
+
+    @Test
+    @DisplayName("incrementDuplicateCount - Should increment in the database, not from a stale copy")
+    void shouldIncrementDuplicateCountInPlace() {
+        // ARRANGE
+        Incident incident = incidentRepository.saveAndFlush(listed("Folded incident", Status.OPEN, Category.BACKEND, "alice"));
+
+        // ACT — two folds in the same persistence context both count
+        incidentRepository.incrementDuplicateCount(incident.getId(), LocalDateTime.now());
+        incidentRepository.incrementDuplicateCount(incident.getId(), LocalDateTime.now());
+
+        // ASSERT
+        assertThat(incidentRepository.findById(incident.getId()).orElseThrow().getDuplicateCount()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("findUpdatedAfter - Should continue past a page boundary inside a run of equal timestamps")
+    void shouldPageChangesByUpdatedAtAndId() {
+        // ARRANGE — three incidents stamped with the same updatedAt
+        LocalDateTime stamp = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.MICROS);
+        List<UUID> ids = Stream.of("First tied incident", "Second tied incident", "Third tied incident")
+                .map(title -> incidentRepository.saveAndFlush(listed(title, Status.OPEN, Category.BACKEND, "alice")))
+                .map(Incident::getId)
+                .toList();
+        ids.forEach(id -> incidentRepository.incrementDuplicateCount(id, stamp));
+
+        // ACT
+        List<Incident> first = incidentRepository.findByUpdatedAtGreaterThanEqualOrderByUpdatedAtAscIdAsc(
+                stamp, PageRequest.of(0, 2));
+        Incident last = first.get(first.size() - 1);
+        List<Incident> second = incidentRepository.findUpdatedAfter(last.getUpdatedAt(), last.getId(),
+                PageRequest.of(0, 2));
+
+        // ASSERT
+        assertThat(first).hasSize(2);
+        assertThat(second).hasSize(1);
+        assertThat(Stream.concat(first.stream(), second.stream()).map(Incident::getId))
+                .containsExactlyInAnyOrderElementsOf(ids);
+    }
+
+    private static Incident listed(String title, Status status, Category category, String reportedBy) {
+        return Incident.builder()
+                .title(title)
+                .description(title + " for the filtered listing")
+                .severity(Severity.HIGH)
+                .status(status)
+                .category(category)
+                .assignedTeam(category == Category.DATABASE ? "Database Team" : "Backend Team")
+                .reportedBy(reportedBy)
+                .build();
+    }
 }
\ No newline at end of file
@@ -0,0 +1,189 @@
+package com.victorlopez.incident_api.service;
+
+import com.victorlopez.incident_api.dto.AIAnalysisResult;
+import com.victorlopez.incident_api.model.AIAnalysisCacheEntry;
+import com.victorlopez.incident_api.model.Category;
+import com.victorlopez.incident_api.model.Severity;
+import com.victorlopez.incident_api.repository.AIAnalysisCacheRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class AIAnalysisCacheTest {
+
+    @Mock
+    private AIAnalysisCacheRepository repository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private SimpleMeterRegistry meterRegistry;
+    private MutableClock clock;
+
+    private final AIAnalysisResult analysis = new AIAnalysisResult(
+            Severity.HIGH, Category.BACKEND, "Backend Team", "Restart the gateway", 2, 0.9);
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        clock = new MutableClock(Instant.parse("2025-01-01T00:00:00Z"));
+    }
+
+    private AIAnalysisCache memoryCache(int maxEntries) {
+        return new AIAnalysisCache(repository, transactionManager, meterRegistry, true, maxEntries,
+                Duration.ofMinutes(10), false, clock);
+    }
+
+    private double lookups(String result, String tier) {
+        return meterRegistry.get("ai.analysis.cache.lookups").tag("result", result).tag("tier", tier).counter().count();
+    }
+
+    @Test
+    @DisplayName("Should produce the same key regardless of case, punctuation and whitespace")
+    void shouldNormalizeKey() {
+        String key = AIAnalysisCache.keyFor("API gateway returning 503", "Gateway is down.");
+
+        assertThat(AIAnalysisCache.keyFor("  api GATEWAY returning 503!", "gateway   is down"))
+                .isEqualTo(key)
+                .hasSize(64);
+        assertThat(AIAnalysisCache.keyFor("API gateway returning 502", "Gateway is down."))
+                .isNotEqualTo(key);
+    }
+
+    @Test
+    @DisplayName("Should return cached result and count hits and misses")
+    void shouldCountHitsAndMisses() {
+        AIAnalysisCache cache = memoryCache(10);
+
+        assertThat(cache.get("k")).isEmpty();
+        cache.put("k", analysis);
+
+        assertThat(cache.get("k")).contains(analysis);
+        assertThat(lookups("miss", "none")).isEqualTo(1.0);
+        assertThat(lookups("hit", "memory")).isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("Should expire entries after the TTL")
+    void shouldExpireEntries() {
+        AIAnalysisCache cache = memoryCache(10);
+        cache.put("k", analysis);
+
+        clock.advance(Duration.ofMinutes(11));
+
+        assertThat(cache.get("k")).isEmpty();
+        assertThat(cache.size()).isZero();
+        assertThat(meterRegistry.get("ai.analysis.cache.evictions").tag("cause", "expired").counter().count())
+                .isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("Should evict the least recently used entry when full")
+    void shouldEvictLeastRecentlyUsed() {
+        AIAnalysisCache cache = memoryCache(2);
+        cache.put("a", analysis);
+        cache.put("b", analysis);
+        cache.get("a");
+        cache.put("c", analysis);
+
+        assertThat(cache.size()).isEqualTo(2);
+        assertThat(cache.get("b")).isEmpty();
+        assertThat(cache.get("a")).isPresent();
+        assertThat(meterRegistry.get("ai.analysis.cache.evictions").tag("cause", "size").counter().count())
+                .isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("Should fall back to the persistent tier and promote the entry to memory")
+    void shouldReadFromPersistentTier() {
+        AIAnalysisCache cache = new AIAnalysisCache(repository, transactionManager, meterRegistry, true, 10,
+                Duration.ofMinutes(10), true, clock);
+        AIAnalysisCacheEntry entry = AIAnalysisCacheEntry.builder()
+                .contentHash("k")
+                .severity(Severity.HIGH)
+                .category(Category.BACKEND)
+                .assignedTeam("Backend Team")
+                .suggestedSolution("Restart the gateway")
+                .estimatedResolutionHours(2)
+                .confidence(0.9)
+                .createdAt(LocalDateTime.ofInstant(clock.instant(), ZoneOffset.UTC))
+                .build();
+        when(repository.findById("k")).thenReturn(Optional.of(entry));
+
+        assertThat(cache.get("k")).contains(analysis);
+        assertThat(cache.get("k")).contains(analysis);
+
+        assertThat(lookups("hit", "persistent")).isEqualTo(1.0);
+        assertThat(lookups("hit", "memory")).isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("Should write through to the persistent tier")
+    void shouldWriteThroughToPersistentTier() {
+        AIAnalysisCache cache = new AIAnalysisCache(repository, transactionManager, meterRegistry, true, 10,
+                Duration.ofMinutes(10), true, clock);
+
+        cache.put("k", analysis);
+
+        verify(repository).save(any(AIAnalysisCacheEntry.class));
+    }
+
+    @Test
+    @DisplayName("Should never store anything when disabled")
+    void shouldDoNothingWhenDisabled() {
+        AIAnalysisCache cache = AIAnalysisCache.disabled();
+
+        cache.put("k", analysis);
+
+        assertThat(cache.get("k")).isEmpty();
+        verify(repository, never()).save(any());
+    }
+
+    static class MutableClock extends Clock {
+
+        private Instant now;
+
+        MutableClock(Instant start) {
+            this.now = start;
+        }
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
@@ -4,6 +4,7 @@ import com.fasterxml.jackson.core.JsonProcessingException;
 import com.victorlopez.incident_api.dto.AIAnalysisResult;
 import com.victorlopez.incident_api.model.Category;
 import com.victorlopez.incident_api.model.Severity;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -17,6 +18,15 @@ import org.springframework.ai.chat.model.ChatResponse;
 import org.springframework.ai.chat.model.Generation;
 import org.springframework.ai.chat.prompt.ChatOptions;
 
+import reactor.core.publisher.Flux;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
 import static org.assertj.core.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
@@ -57,7 +67,28 @@ class AIAnalysisServiceTest {
 
     @BeforeEach
     void setUp() {
-        aiAnalysisService = new AIAnalysisService(chatClient);
+        aiAnalysisService = buildService(AIAnalysisCache.disabled());
+    }
+
+    private AIAnalysisService buildService(AIAnalysisCache cache) {
+        return buildService(cache, LocalIncidentClassifier.disabled(), ModelTierRouter.disabled());
+    }
+
+    private AIAnalysisService buildService(AIAnalysisCache cache, LocalIncidentClassifier localClassifier,
+                                           ModelTierRouter modelRouter) {
+        return new AIAnalysisService(chatClient, cache, new AnalysisSingleFlight(new SimpleMeterRegistry(), 1),
+                localClassifier, AIResilienceGuard.disabled(), modelRouter, RequestHedger.disabled(),
+                ProviderRateLimiter.disabled(), ResolvedIncidentRetriever.disabled());
+    }
+
+    private AIAnalysisService buildRoutedService(SimpleMeterRegistry registry) {
+        return buildService(AIAnalysisCache.disabled(), LocalIncidentClassifier.disabled(),
+                new ModelTierRouter(registry, true, "gpt-4o-mini", "gpt-4o", 0.8));
+    }
+
+    private static AIAnalysisCache inMemoryCache() {
+        return new AIAnalysisCache(null, null, new SimpleMeterRegistry(), true, 100,
+                Duration.ofMinutes(5), false, Clock.systemUTC());
     }
 
     @Test
@@ -267,4 +298,293 @@ class AIAnalysisServiceTest {
                 .hasRootCauseInstanceOf(IllegalArgumentException.class)
                 .hasRootCauseMessage("Confidence must be between 0.0 and 1.0");
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("Should serve identical incidents from the cache without calling the LLM again")
+    void shouldServeRepeatedIncidentFromCache() {
+        // Given
+        AIAnalysisService cachingService = buildService(inMemoryCache());
+        stubModelResponse(VALID_RESPONSE);
+
+        // When
+        AIAnalysisResult first = cachingService.analyzeIncident("API gateway returning 503", "Gateway is down");
+        AIAnalysisResult second = cachingService.analyzeIncident("api gateway returning 503!", "gateway is down");
+
+        // Then
+        assertThat(second).isEqualTo(first);
+        verify(chatClient, times(1)).prompt();
+    }
+
+    @Test
+    @DisplayName("Should bypass the cache on re-analysis")
+    void shouldBypassCacheOnReanalysis() {
+        // Given
+        AIAnalysisService cachingService = buildService(inMemoryCache());
+        stubModelResponse(VALID_RESPONSE);
+
+        // When
+        cachingService.analyzeIncident("API gateway returning 503", "Gateway is down");
+        cachingService.reanalyzeIncident("API gateway returning 503", "Gateway is down");
+
+        // Then
+        verify(chatClient, times(2)).prompt();
+    }
+
+    @Test
+    @DisplayName("Should parse the model's JSON answer into a result that is not marked local")
+    void shouldParseModelJsonAnswer() {
+        // Given
+        stubModelResponse("""
+            ```json
+            {"severity": "CRITICAL", "category": "DATABASE", "assignedTeam": "Database Team",
+             "suggestedSolution": "Raise the pool size", "estimatedResolutionHours": 2, "confidence": 0.95}
+            ```
+            """);
+
+        // When
+        AIAnalysisResult result = aiAnalysisService.analyzeIncident("Database down", "Pool exhausted");
+
+        // Then
+        assertThat(result).isEqualTo(new AIAnalysisResult(Severity.CRITICAL, Category.DATABASE, "Database Team",
+                "Raise the pool size", 2, 0.95));
+        assertThat(result.local()).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should use a confident local classification without calling the LLM")
+    void shouldUseLocalClassificationWhenConfident() {
+        // Given
+        LocalIncidentClassifier localClassifier = mock(LocalIncidentClassifier.class);
+        AIAnalysisResult local = new AIAnalysisResult(
+                Severity.HIGH, Category.NETWORK, "DevOps Team", "Check DNS resolvers", 3, 0.97);
+        when(localClassifier.tryClassify("DNS failing", "Lookups time out")).thenReturn(Optional.of(local));
+        AIAnalysisService service = buildService(AIAnalysisCache.disabled(), localClassifier, ModelTierRouter.disabled());
+
+        // When
+        AIAnalysisResult result = service.analyzeIncident("DNS failing", "Lookups time out");
+
+        // Then
+        assertThat(result).isEqualTo(local);
+        verifyNoInteractions(chatClient);
+    }
+
+    @Test
+    @DisplayName("Should send similar resolved incidents to the LLM as few-shot examples")
+    void shouldSendSimilarResolvedIncidentsAsExamples() {
+        // Given
+        ResolvedIncidentRetriever retriever = mock(ResolvedIncidentRetriever.class);
+        List<ResolvedIncidentRetriever.Neighbor> neighbors = List.of(new ResolvedIncidentRetriever.Neighbor(
+                UUID.randomUUID(), "Replica lag on orders DB", Severity.HIGH, Category.DATABASE,
+                "Database Team", "Throttled the batch import", 2, 0.6));
+        when(retriever.findNeighbors("Orders DB slow", "Reads are stale")).thenReturn(neighbors);
+        when(retriever.reusableAnalysis(neighbors)).thenReturn(Optional.empty());
+        AIAnalysisService service = new AIAnalysisService(chatClient, AIAnalysisCache.disabled(),
+                new AnalysisSingleFlight(new SimpleMeterRegistry(), 1), LocalIncidentClassifier.disabled(),
+                AIResilienceGuard.disabled(), ModelTierRouter.disabled(), RequestHedger.disabled(),
+                ProviderRateLimiter.disabled(), retriever);
+        stubModelResponse("""
+            {"severity": "HIGH", "category": "DATABASE", "assignedTeam": "Database Team",
+             "suggestedSolution": "Throttle writers", "estimatedResolutionHours": 2, "confidence": 0.9}
+            """);
+
+        // When
+        service.analyzeIncident("Orders DB slow", "Reads are stale");
+
+        // Then
+        verify(requestSpec).user(contains("Throttled the batch import"));
+    }
+
+    @Test
+    @DisplayName("Should keep the fast model's answer when it is confident enough")
+    void shouldAcceptConfidentFastTierAnswer() {
+        // Given
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        AIAnalysisService routedService = buildRoutedService(registry);
+        stubModelResponse(VALID_RESPONSE);
+        when(requestSpec.options(any())).thenReturn(requestSpec);
+
+        // When
+        AIAnalysisResult result = routedService.analyzeIncident("API gateway returning 503", "Gateway is down");
+
+        // Then
+        assertThat(result.confidence()).isEqualTo(0.9);
+        verify(chatClient, times(1)).prompt();
+        assertThat(registry.get("ai.analysis.routing").tag("decision", "fast_accepted").counter().count())
+                .isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("Should escalate to the strong model when the fast model is not confident")
+    void shouldEscalateLowConfidenceAnswer() {
+        // Given
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        AIAnalysisService routedService = buildRoutedService(registry);
+        String unsure = VALID_RESPONSE.replace("0.9", "0.4");
+        when(chatClient.prompt()).thenReturn(requestSpec);
+        when(requestSpec.system(anyString())).thenReturn(requestSpec);
+        when(requestSpec.user(anyString())).thenReturn(requestSpec);
+        when(requestSpec.options(any())).thenReturn(requestSpec);
+        when(requestSpec.call()).thenReturn(callResponseSpec);
+        when(callResponseSpec.content()).thenReturn(unsure, VALID_RESPONSE);
+
+        // When
+        AIAnalysisResult result = routedService.analyzeIncident("API gateway returning 503", "Gateway is down");
+
+        // Then
+        assertThat(result.confidence()).isEqualTo(0.9);
+        verify(chatClient, times(2)).prompt();
+        assertThat(registry.get("ai.analysis.routing").tag("decision", "escalated_low_confidence").counter().count())
+                .isEqualTo(1.0);
+        assertThat(registry.get("ai.analysis.model.duration").tag("tier", "strong").timer().count())
+                .isEqualTo(1L);
+    }
+
+    @Test
+    @DisplayName("Should classify a batch of incidents with a single prompt")
+    void shouldAnalyzeBatchWithOnePrompt() {
+        // Given
+        stubModelResponse("""
+            [
+                {"index": 1, "severity": "LOW", "category": "FRONTEND", "assignedTeam": "Frontend Team",
+                 "suggestedSolution": "Fix the CSS", "estimatedResolutionHours": 1, "confidence": 0.8},
+                {"index": 0, "severity": "CRITICAL", "category": "DATABASE", "assignedTeam": "Database Team",
+                 "suggestedSolution": "Raise the pool size", "estimatedResolutionHours": 2, "confidence": 0.95}
+            ]
+            """);
+
+        // When
+        List<CompletableFuture<AIAnalysisResult>> results = aiAnalysisService.analyzeBatch(List.of(
+                new AIAnalysisService.IncidentText("Database down", "Pool exhausted"),
+                new AIAnalysisService.IncidentText("Button misaligned", "Login button overlaps footer")));
+
+        // Then
+        assertThat(results.get(0).join().category()).isEqualTo(Category.DATABASE);
+        assertThat(results.get(1).join().category()).isEqualTo(Category.FRONTEND);
+        verify(chatClient, times(1)).prompt();
+        verify(requestSpec).system(contains("JSON array"));
+        verify(requestSpec).user(contains("Incident #1"));
+    }
+
+    @Test
+    @DisplayName("Should answer batch entries the local classifier is confident about without sending them")
+    void shouldClassifyBatchEntriesLocally() {
+        // Given
+        LocalIncidentClassifier localClassifier = mock(LocalIncidentClassifier.class);
+        AIAnalysisResult local = new AIAnalysisResult(
+                Severity.HIGH, Category.NETWORK, "DevOps Team", "Check DNS resolvers", 3, 0.97, true);
+        when(localClassifier.tryClassify("DNS failing", "Lookups time out")).thenReturn(Optional.of(local));
+        AIAnalysisService service = buildService(AIAnalysisCache.disabled(), localClassifier, ModelTierRouter.disabled());
+        stubModelResponse("""
+            [
+                {"index": 0, "severity": "HIGH", "category": "NETWORK", "assignedTeam": "DevOps Team",
+                 "suggestedSolution": "Restart the VPN gateway", "estimatedResolutionHours": 2, "confidence": 0.9}
+            ]
+            """);
+
+        // When
+        List<CompletableFuture<AIAnalysisResult>> results = service.analyzeBatch(List.of(
+                new AIAnalysisService.IncidentText("DNS failing", "Lookups time out"),
+                new AIAnalysisService.IncidentText("VPN down", "Remote users disconnected")));
+
+        // Then
+        assertThat(results.get(0).join()).isEqualTo(local);
+        assertThat(results.get(1).join().suggestedSolution()).isEqualTo("Restart the VPN gateway");
+        verify(requestSpec).user(argThat((String message) -> !message.contains("DNS failing")));
+    }
+
+    @Test
+    @DisplayName("Should fail only the batch entries the model got wrong")
+    void shouldFailMissingBatchEntriesIndividually() {
+        // Given
+        stubModelResponse("""
+            [
+                {"index": 0, "severity": "HIGH", "category": "NETWORK", "assignedTeam": "DevOps Team",
+                 "suggestedSolution": "Check DNS", "estimatedResolutionHours": 3, "confidence": 0.9},
+                {"index": 1, "severity": "HIGH", "category": "NETWORK", "assignedTeam": "DevOps Team",
+                 "suggestedSolution": "Check DNS", "estimatedResolutionHours": 3, "confidence": 7.5}
+            ]
+            """);
+
+        // When
+        List<CompletableFuture<AIAnalysisResult>> results = aiAnalysisService.analyzeBatch(List.of(
+                new AIAnalysisService.IncidentText("DNS failing", "Lookups time out"),
+                new AIAnalysisService.IncidentText("VPN down", "Remote users disconnected"),
+                new AIAnalysisService.IncidentText("Mail delayed", "Queue growing")));
+
+        // Then
+        assertThat(results.get(0).join().severity()).isEqualTo(Severity.HIGH);
+        assertThatThrownBy(results.get(1)::join).hasMessageContaining("Invalid AI analysis for incident #1");
+        assertThatThrownBy(results.get(2)::join).hasMessageContaining("no entry for incident #2");
+    }
+
+    @Test
+    @DisplayName("Should fail every batch entry when the AI call fails")
+    void shouldFailWholeBatchWhenCallFails() {
+        // Given
+        when(chatClient.prompt()).thenThrow(new RuntimeException("OpenAI API is down"));
+
+        // When
+        List<CompletableFuture<AIAnalysisResult>> results = aiAnalysisService.analyzeBatch(List.of(
+                new AIAnalysisService.IncidentText("DNS failing", "Lookups time out"),
+                new AIAnalysisService.IncidentText("VPN down", "Remote users disconnected")));
+
+        // Then
+        assertThat(results).allSatisfy(future -> assertThatThrownBy(future::join)
+                .hasMessageContaining("Failed to analyze incident batch")
+                .hasRootCauseMessage("OpenAI API is down"));
+    }
+
+    @Test
+    @DisplayName("Should stream suggested solution text and return the validated result")
+    void shouldStreamSolutionText() {
+        // Given
+        ChatClient.StreamResponseSpec streamSpec = mock(ChatClient.StreamResponseSpec.class);
+        when(chatClient.prompt()).thenReturn(requestSpec);
+        when(requestSpec.system(anyString())).thenReturn(requestSpec);
+        when(requestSpec.user(anyString())).thenReturn(requestSpec);
+        when(requestSpec.stream()).thenReturn(streamSpec);
+        when(streamSpec.content()).thenReturn(Flux.just(
+                "{\"severity\": \"HIGH\", \"category\": \"NETWORK\", \"assignedTeam\": \"DevOps Team\", \"sugg",
+                "estedSolution\": \"1. Check load ",
+                "balancer\\",
+                "n2. Restart\", \"estimatedResolutionHours\": 3, \"confidence\": 0.9}"));
+        StringBuilder streamed = new StringBuilder();
+
+        // When
+        AIAnalysisResult result = aiAnalysisService.streamReanalysis("VPN down", "Remote users disconnected", streamed::append);
+
+        // Then
+        assertThat(streamed.toString()).isEqualTo("1. Check load balancer\n2. Restart");
+        assertThat(result.suggestedSolution()).isEqualTo(streamed.toString());
+        assertThat(result.category()).isEqualTo(Category.NETWORK);
+    }
+
+    @Test
+    @DisplayName("Should hold back unicode escapes split across chunks")
+    void shouldDecodeSplitUnicodeEscape() {
+        AIAnalysisService.SolutionTextExtractor extractor = new AIAnalysisService.SolutionTextExtractor();
+
+        assertThat(extractor.append("{\"suggestedSolution\": \"caf\\u00")).isEqualTo("caf");
+        assertThat(extractor.append("e9 \\\"ok\\\"\", \"confidence\": 0.9}")).isEqualTo("\u00e9 \"ok\"");
+        assertThat(extractor.append(" trailing")).isEmpty();
+    }
+
+    private static final String VALID_RESPONSE = """
+        {
+            "severity": "HIGH",
+            "category": "NETWORK",
+            "assignedTeam": "DevOps Team",
+            "suggestedSolution": "Check load balancer health checks",
+            "estimatedResolutionHours": 3,
+            "confidence": 0.9
+        }
+        """;
+
+    private void stubModelResponse(String response) {
+        when(chatClient.prompt()).thenReturn(requestSpec);
+        when(requestSpec.system(anyString())).thenReturn(requestSpec);
+        when(requestSpec.user(anyString())).thenReturn(requestSpec);
+        when(requestSpec.call()).thenReturn(callResponseSpec);
+        when(callResponseSpec.content()).thenReturn(response);
+    }
+}
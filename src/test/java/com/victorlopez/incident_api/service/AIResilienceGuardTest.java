@@ -0,0 +1,202 @@
+package com.victorlopez.incident_api.service;
+
+import com.victorlopez.incident_api.exception.AIAnalysisUnavailableException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class AIResilienceGuardTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private AIAnalysisCacheTest.MutableClock clock;
+    private AIResilienceGuard guard;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        clock = new AIAnalysisCacheTest.MutableClock(Instant.parse("2025-01-01T00:00:00Z"));
+        guard = guard(Duration.ofSeconds(2), 2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        guard.shutdown();
+    }
+
+    private AIResilienceGuard guard(Duration timeout, int maxConcurrentCalls) {
+        // window of 4, opens at 50% failures, 30 s open, 1 half-open trial
+        return new AIResilienceGuard(meterRegistry, true, timeout, Duration.ofSeconds(5), maxConcurrentCalls,
+                Duration.ZERO, 4, 4, 50, Duration.ofSeconds(1), 100, Duration.ofSeconds(30), 1, clock);
+    }
+
+    private double calls(String outcome) {
+        return meterRegistry.get("ai.resilience.calls").tag("outcome", outcome).counter().count();
+    }
+
+    private void fail() {
+        assertThatThrownBy(() -> guard.call(() -> {
+            throw new RuntimeException("OpenAI API is down");
+        })).hasMessage("OpenAI API is down");
+    }
+
+    @Test
+    @DisplayName("Should pass results and call failures through unchanged")
+    void shouldPassThroughResults() {
+        assertThat(guard.call(() -> "ok")).isEqualTo("ok");
+        fail();
+
+        assertThat(calls("success")).isEqualTo(1.0);
+        assertThat(calls("failure")).isEqualTo(1.0);
+        assertThat(guard.getState()).isEqualTo(AIResilienceGuard.State.CLOSED);
+    }
+
+    @Test
+    @DisplayName("Should open after the failure rate threshold and fail fast while open")
+    void shouldOpenOnFailureRate() {
+        guard.call(() -> "ok");
+        guard.call(() -> "ok");
+        fail();
+        fail();
+
+        assertThat(guard.getState()).isEqualTo(AIResilienceGuard.State.OPEN);
+        assertThatThrownBy(() -> guard.call(() -> "never called"))
+                .isInstanceOf(AIAnalysisUnavailableException.class)
+                .hasMessageContaining("circuit breaker is open");
+        assertThat(calls("rejected_open")).isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("Should close again after a successful half-open trial")
+    void shouldRecoverThroughHalfOpen() {
+        for (int i = 0; i < 4; i++) {
+            fail();
+        }
+        assertThat(guard.isOpen()).isTrue();
+
+        clock.advance(Duration.ofSeconds(31));
+        assertThat(guard.getState()).isEqualTo(AIResilienceGuard.State.HALF_OPEN);
+
+        assertThat(guard.call(() -> "ok")).isEqualTo("ok");
+        assertThat(guard.getState()).isEqualTo(AIResilienceGuard.State.CLOSED);
+        assertThat(guard.getBufferedCalls()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should reopen when the half-open trial fails")
+    void shouldReopenWhenTrialFails() {
+        for (int i = 0; i < 4; i++) {
+            fail();
+        }
+        clock.advance(Duration.ofSeconds(31));
+
+        fail();
+
+        assertThat(guard.isOpen()).isTrue();
+    }
+
+    @Test
+    @DisplayName("Should abandon calls that exceed the deadline")
+    void shouldEnforceDeadline() {
+        AIResilienceGuard fast = guard(Duration.ofMillis(100), 2);
+        try {
+            assertThatThrownBy(() -> fast.call(() -> {
+                sleep(2000);
+                return "late";
+            })).isInstanceOf(AIAnalysisUnavailableException.class)
+                    .hasMessageContaining("deadline");
+            assertThat(calls("timeout")).isEqualTo(1.0);
+        } finally {
+            fast.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("Should reject calls beyond the concurrency bulkhead")
+    void shouldRejectWhenBulkheadIsFull() throws Exception {
+        AIResilienceGuard single = guard(Duration.ofSeconds(5), 1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        try {
+            executor.submit(() -> single.call(() -> {
+                started.countDown();
+                await(release);
+                return "slow";
+            }));
+            assertThat(started.await(2, TimeUnit.SECONDS)).isTrue();
+
+            assertThatThrownBy(() -> single.call(() -> "rejected"))
+                    .isInstanceOf(AIAnalysisUnavailableException.class)
+                    .hasMessageContaining("concurrent");
+            assertThat(calls("rejected_bulkhead")).isEqualTo(1.0);
+        } finally {
+            release.countDown();
+            executor.shutdown();
+            single.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("Should let a stream outlast the call deadline once the first response has arrived")
+    void shouldApplyDeadlineToFirstStreamResponse() {
+        AIResilienceGuard streaming = guard(Duration.ofMillis(200), 2);
+        try {
+            String result = streaming.callStreaming(firstResponse -> {
+                firstResponse.run();
+                sleep(400);
+                return "streamed";
+            });
+
+            assertThat(result).isEqualTo("streamed");
+            assertThat(calls("success")).isEqualTo(1.0);
+            assertThat(streaming.getSlowCallRate()).isZero();
+        } finally {
+            streaming.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("Should time out a stream that sends nothing within the call deadline")
+    void shouldTimeOutSilentStream() {
+        AIResilienceGuard streaming = guard(Duration.ofMillis(100), 2);
+        try {
+            assertThatThrownBy(() -> streaming.callStreaming(firstResponse -> {
+                sleep(1000);
+                return "too late";
+            }))
+                    .isInstanceOf(AIAnalysisUnavailableException.class)
+                    .hasMessageContaining("sent nothing");
+            assertThat(calls("timeout")).isEqualTo(1.0);
+        } finally {
+            streaming.shutdown();
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package com.victorlopez.incident_api.service;
+
+import com.victorlopez.incident_api.dto.AIAnalysisResult;
+import com.victorlopez.incident_api.model.Category;
+import com.victorlopez.incident_api.model.Severity;
+import com.victorlopez.incident_api.service.AIAnalysisService.IncidentText;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class AnalysisBatcherTest {
+
+    @Mock
+    private AIAnalysisService aiAnalysisService;
+
+    private SimpleMeterRegistry meterRegistry;
+    private AnalysisBatcher batcher;
+
+    private final AIAnalysisResult analysis = new AIAnalysisResult(
+            Severity.MEDIUM, Category.BACKEND, "Backend Team", "Restart the worker", 2, 0.85);
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        if (batcher != null) {
+            batcher.stop();
+        }
+    }
+
+    private void startBatcher(int maxSize, long maxWaitMillis) {
+        batcher = new AnalysisBatcher(aiAnalysisService, meterRegistry, true, maxSize, maxWaitMillis, 2, 100);
+        batcher.start();
+    }
+
+    private void stubBatchSuccess() {
+        when(aiAnalysisService.analyzeBatch(anyList())).thenAnswer(inv -> {
+            List<IncidentText> incidents = inv.getArgument(0);
+            return incidents.stream().map(i -> CompletableFuture.completedFuture(analysis)).toList();
+        });
+    }
+
+    @Test
+    @DisplayName("Should send a full batch as soon as it reaches the maximum size")
+    @SuppressWarnings("unchecked")
+    void shouldFlushWhenBatchIsFull() throws Exception {
+        stubBatchSuccess();
+        startBatcher(3, 5000);
+
+        List<CompletableFuture<AIAnalysisResult>> futures = List.of(
+                batcher.submit("a", "first"),
+                batcher.submit("b", "second"),
+                batcher.submit("c", "third"));
+
+        for (CompletableFuture<AIAnalysisResult> future : futures) {
+            assertThat(future.get(2, TimeUnit.SECONDS)).isEqualTo(analysis);
+        }
+        ArgumentCaptor<List<IncidentText>> batch = ArgumentCaptor.forClass(List.class);
+        verify(aiAnalysisService).analyzeBatch(batch.capture());
+        assertThat(batch.getValue()).extracting(IncidentText::title).containsExactly("a", "b", "c");
+        assertThat(meterRegistry.get("ai.analysis.batch.flushes").tag("reason", "size").counter().count())
+                .isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("Should send a partial batch once the wait window elapses")
+    void shouldFlushPartialBatchAfterTimeout() throws Exception {
+        stubBatchSuccess();
+        startBatcher(10, 50);
+
+        assertThat(batcher.submit("a", "lonely").get(2, TimeUnit.SECONDS)).isEqualTo(analysis);
+
+        assertThat(meterRegistry.get("ai.analysis.batch.flushes").tag("reason", "timeout").counter().count())
+                .isEqualTo(1.0);
+        assertThat(meterRegistry.get("ai.analysis.batch.size").summary().max()).isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("Should propagate per-incident failures to the matching caller")
+    void shouldPropagateItemFailure() {
+        when(aiAnalysisService.analyzeBatch(anyList())).thenThrow(new RuntimeException("OpenAI API is down"));
+        startBatcher(1, 10);
+
+        CompletableFuture<AIAnalysisResult> future = batcher.submit("a", "broken");
+
+        assertThatThrownBy(() -> future.get(2, TimeUnit.SECONDS)).hasRootCauseMessage("OpenAI API is down");
+    }
+
+    @Test
+    @DisplayName("Should analyze directly when batching is disabled")
+    void shouldAnalyzeDirectlyWhenDisabled() {
+        when(aiAnalysisService.analyzeIncident("a", "direct")).thenReturn(analysis);
+        batcher = new AnalysisBatcher(aiAnalysisService, meterRegistry, false, 8, 50, 2, 100);
+        batcher.start();
+
+        assertThat(batcher.submit("a", "direct").join()).isEqualTo(analysis);
+        verify(aiAnalysisService, never()).analyzeBatch(anyList());
+    }
+}
@@ -0,0 +1,144 @@
+package com.victorlopez.incident_api.service;
+
+import com.victorlopez.incident_api.dto.AIAnalysisResult;
+import com.victorlopez.incident_api.model.Category;
+import com.victorlopez.incident_api.model.Severity;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class AnalysisSingleFlightTest {
+
+    private final AIAnalysisResult analysis = new AIAnalysisResult(
+            Severity.HIGH, Category.NETWORK, "DevOps Team", "Check the load balancer", 3, 0.9);
+
+    private SimpleMeterRegistry meterRegistry;
+    private AnalysisSingleFlight singleFlight;
+    private ExecutorService executor;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        singleFlight = new AnalysisSingleFlight(meterRegistry, 1);
+        executor = Executors.newFixedThreadPool(8);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    private double calls(String role) {
+        return meterRegistry.get("ai.analysis.singleflight.calls").tag("role", role).counter().count();
+    }
+
+    @Test
+    @DisplayName("Should share one call among concurrent identical requests")
+    void shouldCoalesceConcurrentCalls() throws Exception {
+        CountDownLatch leaderStarted = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger providerCalls = new AtomicInteger();
+
+        Future<AIAnalysisResult> leader = executor.submit(() -> singleFlight.execute("key", () -> {
+            providerCalls.incrementAndGet();
+            leaderStarted.countDown();
+            await(release);
+            return analysis;
+        }));
+        assertThat(leaderStarted.await(2, TimeUnit.SECONDS)).isTrue();
+
+        List<Future<AIAnalysisResult>> followers = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            followers.add(executor.submit(() -> singleFlight.execute("key", () -> {
+                providerCalls.incrementAndGet();
+                return analysis;
+            })));
+        }
+        // give followers time to attach to the in-flight future
+        Thread.sleep(200);
+        release.countDown();
+
+        assertThat(leader.get(2, TimeUnit.SECONDS)).isEqualTo(analysis);
+        for (Future<AIAnalysisResult> follower : followers) {
+            assertThat(follower.get(2, TimeUnit.SECONDS)).isEqualTo(analysis);
+        }
+        assertThat(providerCalls.get()).isEqualTo(1);
+        assertThat(calls("leader")).isEqualTo(1.0);
+        assertThat(calls("coalesced")).isEqualTo(5.0);
+    }
+
+    @Test
+    @DisplayName("Should propagate the leader's failure and allow a new leader afterwards")
+    void shouldPropagateFailure() {
+        assertThatThrownBy(() -> singleFlight.execute("key", () -> {
+            throw new RuntimeException("OpenAI API is down");
+        })).hasMessage("OpenAI API is down");
+
+        assertThat(singleFlight.execute("key", () -> analysis)).isEqualTo(analysis);
+        assertThat(calls("leader")).isEqualTo(2.0);
+    }
+
+    @Test
+    @DisplayName("Should not coalesce different keys")
+    void shouldNotCoalesceDifferentKeys() {
+        singleFlight.execute("a", () -> analysis);
+        singleFlight.execute("b", () -> analysis);
+
+        assertThat(calls("leader")).isEqualTo(2.0);
+        assertThat(calls("coalesced")).isZero();
+    }
+
+    @Test
+    @DisplayName("Should serialize fresh calls for the same key beyond the per-key limit")
+    void shouldLimitFreshCallsPerKey() throws Exception {
+        AtomicInteger concurrent = new AtomicInteger();
+        AtomicInteger maxConcurrent = new AtomicInteger();
+
+        List<Future<AIAnalysisResult>> futures = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            futures.add(executor.submit(() -> singleFlight.executeFresh("key", () -> {
+                int now = concurrent.incrementAndGet();
+                maxConcurrent.accumulateAndGet(now, Math::max);
+                sleep(50);
+                concurrent.decrementAndGet();
+                return analysis;
+            })));
+        }
+        for (Future<AIAnalysisResult> future : futures) {
+            future.get(5, TimeUnit.SECONDS);
+        }
+
+        assertThat(maxConcurrent.get()).isEqualTo(1);
+        assertThat(meterRegistry.get("ai.analysis.singleflight.throttled").counter().count()).isPositive();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
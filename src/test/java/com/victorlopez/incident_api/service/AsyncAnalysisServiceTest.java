@@ -0,0 +1,225 @@
+package com.victorlopez.incident_api.service;
+
+import com.victorlopez.incident_api.dto.AIAnalysisResult;
+import com.victorlopez.incident_api.event.IncidentAnalysisRequestedEvent;
+import com.victorlopez.incident_api.exception.AIAnalysisUnavailableException;
+import com.victorlopez.incident_api.model.AnalysisStatus;
+import com.victorlopez.incident_api.model.Category;
+import com.victorlopez.incident_api.model.Incident;
+import com.victorlopez.incident_api.model.Severity;
+import com.victorlopez.incident_api.repository.IncidentRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.after;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class AsyncAnalysisServiceTest {
+
+    @Mock
+    private AIAnalysisService aiAnalysisService;
+
+    @Mock
+    private IncidentService incidentService;
+
+    @Mock
+    private IncidentRepository incidentRepository;
+
+    private SimpleMeterRegistry meterRegistry;
+    private AsyncAnalysisService asyncAnalysisService;
+
+    private final AIAnalysisResult analysis = new AIAnalysisResult(
+            Severity.HIGH, Category.BACKEND, "Backend Team", "Restart the gateway", 2, 0.9);
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        asyncAnalysisService = new AsyncAnalysisService(
+                unbatched(meterRegistry), incidentService, incidentRepository, AIResilienceGuard.disabled(),
+                meterRegistry, 2, 10, 5);
+    }
+
+    private AnalysisBatcher unbatched(SimpleMeterRegistry registry) {
+        return new AnalysisBatcher(aiAnalysisService, registry, false, 8, 50, 1, 10);
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        asyncAnalysisService.drain();
+    }
+
+    @Test
+    @DisplayName("Should analyze queued incident in the background and apply the result")
+    void shouldAnalyzeAndApplyResult() {
+        UUID id = UUID.randomUUID();
+        when(aiAnalysisService.analyzeIncident("Gateway down", "Gateway returns 503")).thenReturn(analysis);
+
+        asyncAnalysisService.onAnalysisRequested(
+                new IncidentAnalysisRequestedEvent(id, "Gateway down", "Gateway returns 503"));
+
+        verify(incidentService, timeout(2000)).applyAnalysis(id, analysis);
+    }
+
+    @Test
+    @DisplayName("Should mark incident as FAILED when background analysis throws")
+    void shouldMarkFailedWhenAnalysisThrows() {
+        UUID id = UUID.randomUUID();
+        when(aiAnalysisService.analyzeIncident(any(), any())).thenThrow(new RuntimeException("OpenAI API is down"));
+
+        asyncAnalysisService.submit(id, "Gateway down", "Gateway returns 503");
+
+        verify(incidentService, timeout(2000)).markAnalysisFailed(id);
+        verify(incidentService, never()).applyAnalysis(any(), any());
+    }
+
+    @Test
+    @DisplayName("Should leave incident PENDING_ANALYSIS when the AI provider is unavailable")
+    void shouldDeferWhenAIUnavailable() {
+        UUID id = UUID.randomUUID();
+        when(aiAnalysisService.analyzeIncident(any(), any()))
+                .thenThrow(new AIAnalysisUnavailableException("AI circuit breaker is open"));
+
+        asyncAnalysisService.submit(id, "Gateway down", "Gateway returns 503");
+
+        verify(aiAnalysisService, timeout(2000)).analyzeIncident("Gateway down", "Gateway returns 503");
+        verify(incidentService, after(200).never()).markAnalysisFailed(any());
+        assertThat(meterRegistry.get("incident.analysis.tasks").tag("outcome", "deferred").counter().count())
+                .isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("Should reject work and report queue depth when the queue is full")
+    void shouldRejectWhenQueueIsFull() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        when(aiAnalysisService.analyzeIncident(any(), any())).thenAnswer(inv -> {
+            release.await(5, TimeUnit.SECONDS);
+            return analysis;
+        });
+        SimpleMeterRegistry tinyRegistry = new SimpleMeterRegistry();
+        AsyncAnalysisService tiny = new AsyncAnalysisService(
+                unbatched(tinyRegistry), incidentService, incidentRepository, AIResilienceGuard.disabled(),
+                tinyRegistry, 1, 1, 5);
+
+        assertThat(tiny.submit(UUID.randomUUID(), "first", "running")).isTrue();
+        // wait until the single worker picked up the first task
+        verify(aiAnalysisService, timeout(2000)).analyzeIncident("first", "running");
+        assertThat(tiny.submit(UUID.randomUUID(), "second", "queued")).isTrue();
+        assertThat(tiny.getQueueDepth()).isEqualTo(1);
+        assertThat(tiny.submit(UUID.randomUUID(), "third", "rejected")).isFalse();
+
+        release.countDown();
+        tiny.drain();
+    }
+
+    @Test
+    @DisplayName("Should fill a batch beyond the worker count because workers do not wait for it")
+    void shouldBatchMoreIncidentsThanWorkers() throws InterruptedException {
+        when(aiAnalysisService.analyzeBatch(any())).thenAnswer(inv -> {
+            List<AIAnalysisService.IncidentText> incidents = inv.getArgument(0);
+            return incidents.stream().map(incident -> CompletableFuture.completedFuture(analysis)).toList();
+        });
+        SimpleMeterRegistry batchRegistry = new SimpleMeterRegistry();
+        AnalysisBatcher batcher = new AnalysisBatcher(aiAnalysisService, batchRegistry, true, 8, 500, 1, 10);
+        batcher.start();
+        AsyncAnalysisService batched = new AsyncAnalysisService(
+                batcher, incidentService, incidentRepository, AIResilienceGuard.disabled(),
+                batchRegistry, 2, 10, 5);
+
+        for (int i = 0; i < 8; i++) {
+            batched.submit(UUID.randomUUID(), "Gateway down " + i, "Gateway returns 503");
+        }
+
+        verify(incidentService, timeout(2000).times(8)).applyAnalysis(any(), any());
+        verify(aiAnalysisService).analyzeBatch(argThat(incidents -> incidents.size() == 8));
+        batched.drain();
+        batcher.stop();
+    }
+
+    @Test
+    @DisplayName("Should wait on drain for analyses whose batch is still in flight")
+    void shouldDrainAnalysesAwaitingTheirBatch() throws InterruptedException {
+        CompletableFuture<AIAnalysisResult> inFlight = new CompletableFuture<>();
+        when(aiAnalysisService.analyzeBatch(any())).thenReturn(List.of(inFlight));
+        SimpleMeterRegistry batchRegistry = new SimpleMeterRegistry();
+        AnalysisBatcher batcher = new AnalysisBatcher(aiAnalysisService, batchRegistry, true, 1, 50, 1, 10);
+        batcher.start();
+        AsyncAnalysisService batched = new AsyncAnalysisService(
+                batcher, incidentService, incidentRepository, AIResilienceGuard.disabled(),
+                batchRegistry, 2, 10, 5);
+        UUID id = UUID.randomUUID();
+
+        batched.submit(id, "Gateway down", "Gateway returns 503");
+        verify(aiAnalysisService, timeout(2000)).analyzeBatch(any());
+        CompletableFuture.delayedExecutor(200, TimeUnit.MILLISECONDS).execute(() -> inFlight.complete(analysis));
+        batched.drain();
+
+        verify(incidentService).applyAnalysis(id, analysis);
+        batcher.stop();
+    }
+
+    @Test
+    @DisplayName("Should resubmit incidents left PENDING_ANALYSIS on startup")
+    void shouldResubmitPendingAnalysesOnStartup() {
+        UUID id = UUID.randomUUID();
+        Incident pending = Incident.builder()
+                .id(id)
+                .title("Queue stuck")
+                .description("Email queue is not draining")
+                .analysisStatus(AnalysisStatus.PENDING_ANALYSIS)
+                .build();
+        when(incidentRepository.findByAnalysisStatusAndArchivedFalseOrderByCreatedAtAsc(
+                AnalysisStatus.PENDING_ANALYSIS, PageRequest.of(0, 10)))
+                .thenReturn(List.of(pending));
+        when(aiAnalysisService.analyzeIncident("Queue stuck", "Email queue is not draining")).thenReturn(analysis);
+
+        asyncAnalysisService.resubmitPendingAnalyses();
+
+        verify(incidentService, timeout(2000)).applyAnalysis(id, analysis);
+        assertThat(meterRegistry.get("incident.analysis.tasks").tag("outcome", "submitted").counter().count())
+                .isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("Should sweep no more pending incidents than the queue has room for")
+    void shouldPageSweepToFreeQueueCapacity() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        when(aiAnalysisService.analyzeIncident(any(), any())).thenAnswer(inv -> {
+            release.await(5, TimeUnit.SECONDS);
+            return analysis;
+        });
+        SimpleMeterRegistry sweepRegistry = new SimpleMeterRegistry();
+        AsyncAnalysisService small = new AsyncAnalysisService(
+                unbatched(sweepRegistry), incidentService, incidentRepository, AIResilienceGuard.disabled(),
+                sweepRegistry, 1, 3, 5);
+        small.submit(UUID.randomUUID(), "first", "running");
+        verify(aiAnalysisService, timeout(2000)).analyzeIncident("first", "running");
+        small.submit(UUID.randomUUID(), "second", "queued");
+
+        small.requeuePendingAnalyses();
+
+        verify(incidentRepository).findByAnalysisStatusAndArchivedFalseOrderByCreatedAtAsc(
+                AnalysisStatus.PENDING_ANALYSIS, PageRequest.of(0, 2));
+        release.countDown();
+        small.drain();
+    }
+}
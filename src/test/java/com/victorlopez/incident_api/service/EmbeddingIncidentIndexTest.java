@@ -0,0 +1,242 @@
+package com.victorlopez.incident_api.service;
+
+import com.victorlopez.incident_api.event.IncidentEmbeddedEvent;
+import com.victorlopez.incident_api.model.Incident;
+import com.victorlopez.incident_api.model.IncidentEmbedding;
+import com.victorlopez.incident_api.repository.IncidentEmbeddingRepository;
+import com.victorlopez.incident_api.repository.IncidentRepository;
+import com.victorlopez.incident_api.service.SimilarIncidentFinder.Match;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.ai.embedding.EmbeddingModel;
+import org.springframework.data.domain.SliceImpl;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class EmbeddingIncidentIndexTest {
+
+    private static final int DIMENSIONS = 256;
+
+    @Mock
+    private IncidentRepository incidentRepository;
+
+    @Mock
+    private IncidentEmbeddingRepository embeddingRepository;
+
+    private SimpleMeterRegistry meterRegistry;
+    private EmbeddingIncidentIndex index;
+    private final List<Incident> stored = new ArrayList<>();
+    private final List<Object> events = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        index = newIndex(new HashingEmbeddingModel(DIMENSIONS), true);
+        lenient().when(incidentRepository.findAllById(any())).thenAnswer(invocation -> {
+            Iterable<UUID> ids = invocation.getArgument(0);
+            List<Incident> found = new ArrayList<>();
+            ids.forEach(id -> stored.stream().filter(i -> i.getId().equals(id)).forEach(found::add));
+            return found;
+        });
+    }
+
+    // Runnable::run embeds synchronously, so every onSaved is indexed before it returns
+    private EmbeddingIncidentIndex newIndex(EmbeddingModel model, boolean enabled) {
+        return new EmbeddingIncidentIndex(incidentRepository, embeddingRepository, model,
+                AIResilienceGuard.disabled(), ProviderRateLimiter.disabled(), events::add, null, meterRegistry,
+                enabled, "test-model", 8, 50, 50, 0.2, 100, Runnable::run);
+    }
+
+    private Incident incident(String title, String description) {
+        Incident incident = Incident.builder()
+                .id(UUID.randomUUID())
+                .title(title)
+                .description(description)
+                .updatedAt(LocalDateTime.now())
+                .build();
+        stored.add(incident);
+        return incident;
+    }
+
+    @Test
+    @DisplayName("Should rank the incident with the closest embedding first and skip the excluded one")
+    void shouldRankByCosineSimilarity() {
+        Incident database = incident("Database connection timeouts", "Primary database refuses connections under load");
+        Incident api = incident("API latency", "Requests to the orders API time out");
+        Incident css = incident("Login button misaligned", "CSS layout broken on mobile");
+        List.of(database, api, css).forEach(index::onSaved);
+
+        List<Match> matches = index.findSimilar("database connection timeout", null, 2);
+        List<Match> excluding = index.findSimilar("database connection timeout", database.getId(), 2);
+
+        assertThat(matches).hasSize(2);
+        assertThat(matches.get(0).incident()).isEqualTo(database);
+        assertThat(matches.get(0).score()).isGreaterThan(matches.get(1).score());
+        assertThat(excluding).extracting(Match::incident).doesNotContain(database);
+        assertThat(meterRegistry.get("search.embedding.tasks").tag("outcome", "completed").counter().count())
+                .isEqualTo(3.0);
+    }
+
+    @Test
+    @DisplayName("Should store float32 vectors and re-embed only when the text changes")
+    void shouldPersistCompactVectors() {
+        Incident incident = incident("Disk full", "Data volume on the primary host is at 100%");
+        index.onSaved(incident);
+        index.onSaved(incident);
+
+        ArgumentCaptor<IncidentEmbedding> captor = ArgumentCaptor.forClass(IncidentEmbedding.class);
+        verify(embeddingRepository).save(captor.capture());
+        assertThat(captor.getValue().getVector()).hasSize(DIMENSIONS * Float.BYTES);
+        assertThat(captor.getValue().getDimensions()).isEqualTo(DIMENSIONS);
+        assertThat(index.size()).isEqualTo(1);
+        assertThat(events).containsExactly(
+                new IncidentEmbeddedEvent(incident.getId(), incident.getTitle(), incident.getDescription()));
+    }
+
+    @Test
+    @DisplayName("Should stop returning an incident once it is archived")
+    void shouldRemoveArchivedIncidents() {
+        Incident incident = incident("Disk full", "Data volume on the primary host is at 100%");
+        index.onSaved(incident);
+
+        incident.setArchived(true);
+        index.onSaved(incident);
+
+        assertThat(index.size()).isZero();
+        assertThat(index.findSimilar("disk full", null, 5)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should rebuild the graph from stored vectors without calling the model for them")
+    void shouldLoadStoredVectorsOnStartup() {
+        Incident incident = incident("Disk full", "Data volume on the primary host is at 100%");
+        index.onSaved(incident);
+        ArgumentCaptor<IncidentEmbedding> captor = ArgumentCaptor.forClass(IncidentEmbedding.class);
+        verify(embeddingRepository).save(captor.capture());
+
+        EmbeddingModel model = mock(EmbeddingModel.class);
+        when(model.dimensions()).thenReturn(DIMENSIONS);
+        EmbeddingIncidentIndex restarted = new EmbeddingIncidentIndex(incidentRepository, embeddingRepository, model,
+                AIResilienceGuard.disabled(), ProviderRateLimiter.disabled(), events::add, null,
+                new SimpleMeterRegistry(), true, "test-model", 8, 50, 50, 0.2, 100, Runnable::run);
+        when(embeddingRepository.findActiveByModel(anyString(), any()))
+                .thenReturn(new SliceImpl<>(List.of(captor.getValue())));
+        when(incidentRepository.findByUpdatedAtGreaterThanEqualOrderByUpdatedAtAscIdAsc(any(), any()))
+                .thenReturn(List.of(incident));
+
+        restarted.build();
+
+        assertThat(restarted.size()).isEqualTo(1);
+        verify(model, never()).embed(anyString());
+    }
+
+    @Test
+    @DisplayName("Should count a failed embedding and leave the index unchanged")
+    void shouldSurviveEmbeddingFailures() {
+        EmbeddingModel model = mock(EmbeddingModel.class);
+        when(model.embed(anyString())).thenThrow(new IllegalStateException("provider down"));
+        EmbeddingIncidentIndex failing = newIndex(model, true);
+
+        failing.onSaved(incident("Disk full", "Data volume on the primary host is at 100%"));
+
+        assertThat(failing.size()).isZero();
+        assertThat(meterRegistry.get("search.embedding.tasks").tag("outcome", "failed").counter().count())
+                .isEqualTo(1.0);
+        verify(embeddingRepository, never()).save(any());
+    }
+
+    @Test
+    @DisplayName("Should retry a failed embedding on the next refresh")
+    void shouldRetryFailedEmbeddingsOnRefresh() {
+        EmbeddingModel model = mock(EmbeddingModel.class);
+        HashingEmbeddingModel working = new HashingEmbeddingModel(DIMENSIONS);
+        when(model.embed(anyString()))
+                .thenThrow(new IllegalStateException("provider down"))
+                .thenAnswer(invocation -> working.embed(invocation.<String>getArgument(0)));
+        EmbeddingIncidentIndex flaky = newIndex(model, true);
+
+        flaky.onSaved(incident("Disk full", "Data volume on the primary host is at 100%"));
+        flaky.refresh();
+
+        assertThat(flaky.size()).isEqualTo(1);
+        verify(embeddingRepository).save(any());
+    }
+
+    @Test
+    @DisplayName("Should embed only the latest text of an incident edited while its embedding was queued")
+    void shouldEmbedLatestTextOfQueuedIncident() {
+        List<Runnable> queued = new ArrayList<>();
+        EmbeddingModel model = mock(EmbeddingModel.class);
+        HashingEmbeddingModel working = new HashingEmbeddingModel(DIMENSIONS);
+        when(model.embed(anyString())).thenAnswer(invocation -> working.embed(invocation.<String>getArgument(0)));
+        EmbeddingIncidentIndex queueing = new EmbeddingIncidentIndex(incidentRepository, embeddingRepository, model,
+                AIResilienceGuard.disabled(), ProviderRateLimiter.disabled(), events::add, null, meterRegistry,
+                true, "test-model", 8, 50, 50, 0.2, 100, queued::add);
+        Incident incident = incident("Disk full", "Data volume on the primary host is at 100%");
+
+        queueing.onSaved(incident);
+        incident.setDescription("Data volume on the primary host is at 100% and writes are failing");
+        queueing.onSaved(incident);
+        queued.forEach(Runnable::run);
+
+        assertThat(queued).hasSize(1);
+        verify(model).embed("Disk full\nData volume on the primary host is at 100% and writes are failing");
+        assertThat(queueing.size()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should call a remote model within the rate limit and behind the resilience guard")
+    void shouldGuardRemoteEmbeddingCalls() {
+        EmbeddingModel model = mock(EmbeddingModel.class);
+        HashingEmbeddingModel working = new HashingEmbeddingModel(DIMENSIONS);
+        when(model.embed(anyString())).thenAnswer(invocation -> working.embed(invocation.<String>getArgument(0)));
+        AIResilienceGuard guard = mock(AIResilienceGuard.class);
+        when(guard.call(any())).thenAnswer(invocation -> invocation.<Supplier<?>>getArgument(0).get());
+        ProviderRateLimiter limiter = mock(ProviderRateLimiter.class);
+        EmbeddingIncidentIndex guarded = new EmbeddingIncidentIndex(incidentRepository, embeddingRepository, model,
+                guard, limiter, events::add, null, meterRegistry, true, "test-model", 8, 50, 50, 0.2, 100, Runnable::run);
+
+        guarded.onSaved(incident("Disk full", "Data volume on the primary host is at 100%"));
+        guarded.findSimilarIds("disk full", null, 5);
+
+        verify(limiter).acquire(eq(AnalysisPriority.BULK), anyInt());
+        verify(limiter).acquire(eq(AnalysisPriority.INTERACTIVE), anyInt());
+        verify(guard, times(2)).call(any());
+    }
+
+    @Test
+    @DisplayName("Should do nothing when another strategy is selected")
+    void shouldDoNothingWhenDisabled() {
+        EmbeddingIncidentIndex disabled = newIndex(new HashingEmbeddingModel(DIMENSIONS), false);
+
+        disabled.onSaved(incident("Disk full", "Data volume on the primary host is at 100%"));
+        disabled.build();
+
+        assertThat(disabled.size()).isZero();
+        verifyNoInteractions(embeddingRepository);
+    }
+}
@@ -0,0 +1,124 @@
+package com.victorlopez.incident_api.service;
+
+import com.victorlopez.incident_api.config.FullTextSearchSchema;
+import com.victorlopez.incident_api.model.Incident;
+import com.victorlopez.incident_api.model.Status;
+import com.victorlopez.incident_api.repository.IncidentRepository;
+import com.victorlopez.incident_api.repository.IncidentSearchHit;
+import com.victorlopez.incident_api.service.SimilarIncidentFinder.Match;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class FullTextSearchServiceTest {
+
+    @Mock
+    private IncidentRepository incidentRepository;
+
+    @Mock
+    private FullTextSearchSchema schema;
+
+    @InjectMocks
+    private FullTextSearchService searchService;
+
+    private static Incident incident(String title, String description) {
+        return Incident.builder()
+                .id(UUID.randomUUID())
+                .title(title)
+                .description(description)
+                .build();
+    }
+
+    private static IncidentSearchHit hit(UUID id, float rank) {
+        return new IncidentSearchHit() {
+            @Override
+            public UUID getId() {
+                return id;
+            }
+
+            @Override
+            public Float getRank() {
+                return rank;
+            }
+        };
+    }
+
+    @Test
+    @DisplayName("Should OR the keywords into a tsquery and keep ts_rank order")
+    void shouldQueryFullTextIndex() {
+        when(schema.isAvailable()).thenReturn(true);
+        UUID excludeId = UUID.randomUUID();
+        Incident best = incident("Database connection issues", "Connection pool exhausted");
+        Incident other = incident("Timeout on API calls", "API endpoints timing out");
+        when(incidentRepository.findSimilarFullText("database | connection | timing | out", excludeId, 5))
+                .thenReturn(List.of(hit(best.getId(), 0.9f), hit(other.getId(), 0.2f)));
+        when(incidentRepository.findAllById(any())).thenReturn(List.of(other, best));
+
+        List<Match> matches = searchService.findSimilar("The database connection is timing out!", excludeId, 5);
+
+        assertThat(matches).extracting(Match::incident).containsExactly(best, other);
+        assertThat(matches.get(0).score()).isCloseTo(0.9, within(1e-6));
+        verify(incidentRepository, never()).findByArchivedFalse();
+    }
+
+    @Test
+    @DisplayName("Should fall back to a ranked keyword scan without full-text search")
+    void shouldFallBackToKeywordScan() {
+        when(schema.isAvailable()).thenReturn(false);
+        Incident excluded = incident("Database connection issues", "Connection timeout in production");
+        Incident partial = incident("Timeout error on API calls", "API endpoints timing out during peak traffic");
+        Incident full = incident("Database timeout", "Connection timeout error on the primary database");
+        Incident unrelated = incident("Login button misaligned", "CSS layout broken on mobile");
+        when(incidentRepository.findByArchivedFalse()).thenReturn(List.of(excluded, partial, full, unrelated));
+
+        List<Match> matches = searchService.findSimilar("Database connection timeout error", excluded.getId(), 10);
+
+        assertThat(matches).extracting(Match::incident).containsExactly(full, partial);
+        assertThat(matches.get(0).score()).isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("Should return nothing for a description made only of stop words")
+    void shouldIgnoreStopWordsOnlyDescription() {
+        List<Match> matches = searchService.findSimilar("the and of it", UUID.randomUUID(), 10);
+
+        assertThat(matches).isEmpty();
+        verify(incidentRepository, never()).findByArchivedFalse();
+    }
+
+    @Test
+    @DisplayName("Should search the full-text index with enum filters and an unsorted page")
+    void shouldSearchFullTextIndex() {
+        when(schema.isAvailable()).thenReturn(true);
+        Incident incident = incident("Database connection issues", "Connection pool exhausted");
+        PageRequest unsorted = PageRequest.of(1, 10);
+        when(incidentRepository.searchFullText(eq("connection pool"), eq("OPEN"), eq(null), eq(null), eq(unsorted)))
+                .thenReturn(new PageImpl<>(List.of(hit(incident.getId(), 0.5f)), unsorted, 11));
+        when(incidentRepository.findAllById(any())).thenReturn(List.of(incident));
+
+        Page<Match> page = searchService.search("connection pool", Status.OPEN, null, null,
+                PageRequest.of(1, 10, Sort.by("createdAt")));
+
+        assertThat(page.getTotalElements()).isEqualTo(11);
+        assertThat(page.getContent()).extracting(Match::incident).containsExactly(incident);
+    }
+}
@@ -0,0 +1,101 @@
+package com.victorlopez.incident_api.service;
+
+import com.victorlopez.incident_api.service.HnswIndex.Candidate;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class HnswIndexTest {
+
+    private static float[] randomVector(Random random, int dimensions) {
+        float[] vector = new float[dimensions];
+        for (int i = 0; i < dimensions; i++) {
+            vector[i] = (float) random.nextGaussian();
+        }
+        HnswIndex.normalize(vector);
+        return vector;
+    }
+
+    @Test
+    @DisplayName("Should find at least 95% of the exact top 10 with far fewer comparisons")
+    void shouldMatchBruteForceRecall() {
+        Random random = new Random(7);
+        HnswIndex index = new HnswIndex(32, 16, 100, 42);
+        for (int i = 0; i < 2000; i++) {
+            index.add(randomVector(random, 32));
+        }
+
+        int hits = 0;
+        int queries = 100;
+        for (int q = 0; q < queries; q++) {
+            float[] query = randomVector(random, 32);
+            Set<Integer> exact = index.bruteForce(query, 10).stream().map(Candidate::node).collect(Collectors.toSet());
+            hits += (int) index.search(query, 10, 64).stream().filter(c -> exact.contains(c.node())).count();
+        }
+
+        assertThat(hits / (queries * 10.0)).isGreaterThanOrEqualTo(0.95);
+    }
+
+    @Test
+    @DisplayName("Should return the exact vector first and never return deleted nodes")
+    void shouldSkipDeletedNodes() {
+        Random random = new Random(11);
+        HnswIndex index = new HnswIndex(16, 8, 50, 42);
+        float[] target = randomVector(random, 16);
+        int targetNode = index.add(target);
+        for (int i = 0; i < 300; i++) {
+            index.add(randomVector(random, 16));
+        }
+
+        assertThat(index.search(target, 1, 32).get(0).node()).isEqualTo(targetNode);
+        assertThat(index.search(target, 1, 32).get(0).similarity()).isCloseTo(1.0f, org.assertj.core.data.Offset.offset(1e-5f));
+
+        index.markDeleted(targetNode);
+
+        List<Candidate> results = index.search(target, 10, 32);
+        assertThat(results).hasSize(10).extracting(Candidate::node).doesNotContain(targetNode);
+        assertThat(index.liveSize()).isEqualTo(300);
+    }
+
+    @Test
+    @DisplayName("Should keep vectors off-heap as float32 and reject other dimensions")
+    void shouldStoreCompactVectors() {
+        HnswIndex index = new HnswIndex(8, 4, 20, 42);
+
+        assertThat(index.search(new float[8], 5, 10)).isEmpty();
+        float[] vector = {1, 0, 0, 0, 0, 0, 0, 0};
+        int node = index.add(vector);
+
+        assertThat(index.vector(node)).containsExactly(vector);
+        assertThat(index.vectorBytes()).isEqualTo(1024L * 8 * Float.BYTES);
+        assertThatThrownBy(() -> index.add(new float[4])).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    @DisplayName("Should spread vectors over fixed-size chunks once the first one is full")
+    void shouldGrowInChunks() {
+        Random random = new Random(13);
+        // 16 dimensions * 4 bytes * 1024 vectors per chunk
+        HnswIndex index = new HnswIndex(16, 8, 50, 42, 16 * Float.BYTES * 1024);
+        List<float[]> added = new ArrayList<>();
+        for (int i = 0; i < 2500; i++) {
+            float[] vector = randomVector(random, 16);
+            added.add(vector);
+            index.add(vector);
+        }
+
+        assertThat(index.vectorBytes()).isEqualTo(3L * 1024 * 16 * Float.BYTES);
+        for (int node : new int[]{0, 1023, 1024, 2047, 2048, 2499}) {
+            assertThat(index.vector(node)).containsExactly(added.get(node));
+            assertThat(index.search(added.get(node), 1, 100).get(0).node()).isEqualTo(node);
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.victorlopez.incident_api.service;
+
+import com.victorlopez.incident_api.model.Incident;
+import com.victorlopez.incident_api.repository.IncidentRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class IncidentChangeFeedTest {
+
+    private static final LocalDateTime STAMP = LocalDateTime.of(2026, 3, 1, 12, 0);
+
+    @Mock
+    private IncidentRepository incidentRepository;
+
+    private static Incident incident(LocalDateTime updatedAt) {
+        return Incident.builder().id(UUID.randomUUID()).updatedAt(updatedAt).build();
+    }
+
+    @Test
+    @DisplayName("Should continue after the last (updatedAt, id) of a page so equal timestamps are not skipped")
+    void shouldContinueFromLastRowOfPage() {
+        Incident first = incident(STAMP);
+        Incident second = incident(STAMP);
+        Incident third = incident(STAMP);
+        when(incidentRepository.findByUpdatedAtGreaterThanEqualOrderByUpdatedAtAscIdAsc(any(), any()))
+                .thenReturn(List.of(first, second));
+        when(incidentRepository.findUpdatedAfter(eq(STAMP), eq(second.getId()), any())).thenReturn(List.of(third));
+        IncidentChangeFeed feed = new IncidentChangeFeed(incidentRepository, 2);
+
+        List<Incident> seen = new ArrayList<>();
+        int handled = feed.poll(page -> {
+            seen.addAll(page);
+            return page.size();
+        });
+
+        assertThat(handled).isEqualTo(3);
+        assertThat(seen).containsExactly(first, second, third);
+    }
+
+    @Test
+    @DisplayName("Should start the next poll an overlap window before the newest timestamp seen")
+    void shouldReReadOverlapWindow() {
+        when(incidentRepository.findByUpdatedAtGreaterThanEqualOrderByUpdatedAtAscIdAsc(any(), any()))
+                .thenReturn(List.of(incident(STAMP)));
+        IncidentChangeFeed feed = new IncidentChangeFeed(incidentRepository, 10);
+
+        feed.poll(List::size);
+        feed.poll(List::size);
+
+        verify(incidentRepository).findByUpdatedAtGreaterThanEqualOrderByUpdatedAtAscIdAsc(
+                eq(STAMP.minus(IncidentChangeFeed.OVERLAP)), any());
+    }
+
+    @Test
+    @DisplayName("Should stop after a page that was not handled in full and keep the watermark at the last handled row")
+    void shouldStopOnPartialPage() {
+        Incident handled = incident(STAMP);
+        Incident skipped = incident(STAMP.plusHours(1));
+        when(incidentRepository.findByUpdatedAtGreaterThanEqualOrderByUpdatedAtAscIdAsc(any(), any()))
+                .thenReturn(List.of(handled, skipped));
+        IncidentChangeFeed feed = new IncidentChangeFeed(incidentRepository, 2);
+
+        assertThat(feed.poll(page -> 1)).isEqualTo(1);
+        feed.poll(page -> 0);
+
+        verify(incidentRepository, never()).findUpdatedAfter(any(), any(), any());
+        verify(incidentRepository).findByUpdatedAtGreaterThanEqualOrderByUpdatedAtAscIdAsc(
+                eq(STAMP.minus(IncidentChangeFeed.OVERLAP)), any());
+    }
+}
@@ -0,0 +1,165 @@
+package com.victorlopez.incident_api.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.victorlopez.incident_api.dto.IncidentFilter;
+import com.victorlopez.incident_api.model.Incident;
+import com.victorlopez.incident_api.model.IncidentActivity;
+import com.victorlopez.incident_api.model.IncidentActivityAction;
+import com.victorlopez.incident_api.model.Severity;
+import com.victorlopez.incident_api.model.Status;
+import com.victorlopez.incident_api.repository.IncidentActivityRepository;
+import com.victorlopez.incident_api.repository.IncidentRepository;
+import com.victorlopez.incident_api.repository.IncidentSpecifications;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class IncidentExportServiceTest {
+
+    @Mock
+    private IncidentRepository incidentRepository;
+
+    @Mock
+    private IncidentActivityRepository incidentActivityRepository;
+
+    @Mock
+    private EntityManager entityManager;
+
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .findAndRegisterModules()
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+    private SimpleMeterRegistry meterRegistry;
+    private IncidentExportService exportService;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        // chunks of two, so three incidents are written in two chunks
+        exportService = new IncidentExportService(incidentRepository, incidentActivityRepository, entityManager,
+                objectMapper, meterRegistry, 2);
+    }
+
+    private static Incident incident(String title, String description) {
+        return Incident.builder()
+                .id(UUID.randomUUID())
+                .title(title)
+                .description(description)
+                .severity(Severity.HIGH)
+                .status(Status.OPEN)
+                .createdAt(LocalDateTime.of(2026, 1, 15, 10, 30))
+                .build();
+    }
+
+    private static IncidentActivity activity(Incident incident, IncidentActivityAction action) {
+        return IncidentActivity.builder()
+                .id(UUID.randomUUID())
+                .incident(incident)
+                .action(action)
+                .performedBy("alice")
+                .details(action + " by alice")
+                .createdAt(LocalDateTime.of(2026, 1, 15, 11, 0))
+                .build();
+    }
+
+    @SuppressWarnings("unchecked")
+    private void streaming(Incident... incidents) {
+        when(incidentRepository.streamAll(any(Specification.class), eq(IncidentSpecifications.LISTING_ORDER), eq(2)))
+                .thenReturn(Stream.of(incidents));
+    }
+
+    @Test
+    @DisplayName("Should write gzip NDJSON one incident per line with its activity, clearing the context per chunk")
+    void shouldExportGzipNdjsonWithActivity() throws IOException {
+        Incident first = incident("Database timeout", "Primary database times out");
+        Incident second = incident("API errors", "Checkout returns 500");
+        Incident third = incident("Disk full", "Log volume is full");
+        streaming(first, second, third);
+        when(incidentActivityRepository.findByIncidentIdInOrderByCreatedAtAsc(List.of(first.getId(), second.getId())))
+                .thenReturn(List.of(activity(first, IncidentActivityAction.CREATED)));
+        when(incidentActivityRepository.findByIncidentIdInOrderByCreatedAtAsc(List.of(third.getId())))
+                .thenReturn(List.of());
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        exportService.export(IncidentFilter.builder().build(), ExportFormat.NDJSON, true, true, out);
+
+        String ndjson = new String(new GZIPInputStream(new ByteArrayInputStream(out.toByteArray())).readAllBytes(),
+                StandardCharsets.UTF_8);
+        String[] lines = ndjson.split("\n");
+        assertThat(ndjson).endsWith("\n");
+        assertThat(lines).hasSize(3);
+        JsonNode row = objectMapper.readTree(lines[0]);
+        assertThat(row.get("id").asText()).isEqualTo(first.getId().toString());
+        assertThat(row.get("severity").asText()).isEqualTo("HIGH");
+        assertThat(row.get("createdAt").asText()).isEqualTo("2026-01-15T10:30:00");
+        assertThat(row.get("activity").get(0).get("action").asText()).isEqualTo("CREATED");
+        assertThat(objectMapper.readTree(lines[2]).get("activity")).isEmpty();
+        verify(entityManager, times(2)).clear();
+        assertThat(meterRegistry.get("incidents.export.rows").tag("format", "ndjson").counter().count())
+                .isEqualTo(3.0);
+        assertThat(meterRegistry.get("incidents.export").tag("outcome", "completed").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should write CSV with a header, quoting fields that need it")
+    void shouldExportCsv() throws IOException {
+        Incident incident = incident("Database \"primary\" timeout", "Times out, then\nrecovers");
+        streaming(incident);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        exportService.export(IncidentFilter.builder().build(), ExportFormat.CSV, false, false, out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\r\n");
+        assertThat(lines[0]).startsWith("id,title,description,severity,category,status,").endsWith(",duplicateCount");
+        assertThat(lines[1]).startsWith(incident.getId() + ",\"Database \"\"primary\"\" timeout\",\"Times out, then\nrecovers\",HIGH,,OPEN,");
+        assertThat(lines).hasSize(2);
+        verifyNoInteractions(incidentActivityRepository);
+    }
+
+    @Test
+    @DisplayName("Should repeat an incident on one CSV row per activity and leave the activity columns empty without any")
+    void shouldExportCsvRowPerActivity() throws IOException {
+        Incident withActivity = incident("Database timeout", "Primary database times out");
+        Incident withoutActivity = incident("API errors", "Checkout returns 500");
+        streaming(withActivity, withoutActivity);
+        when(incidentActivityRepository.findByIncidentIdInOrderByCreatedAtAsc(any())).thenReturn(List.of(
+                activity(withActivity, IncidentActivityAction.CREATED),
+                activity(withActivity, IncidentActivityAction.STATUS_CHANGED)));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        exportService.export(IncidentFilter.builder().build(), ExportFormat.CSV, true, false, out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\r\n");
+        assertThat(lines[0]).endsWith(",activityAction,activityPerformedBy,activityDetails,activityCreatedAt");
+        assertThat(lines).hasSize(4);
+        assertThat(lines[1]).startsWith(withActivity.getId().toString()).endsWith(",CREATED,alice,CREATED by alice,2026-01-15T11:00");
+        assertThat(lines[2]).startsWith(withActivity.getId().toString()).contains(",STATUS_CHANGED,alice,");
+        assertThat(lines[3]).startsWith(withoutActivity.getId().toString()).endsWith(",,,,");
+    }
+}
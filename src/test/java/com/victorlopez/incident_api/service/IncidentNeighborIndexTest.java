@@ -0,0 +1,244 @@
+package com.victorlopez.incident_api.service;
+
+import com.victorlopez.incident_api.event.IncidentEmbeddedEvent;
+import com.victorlopez.incident_api.model.Incident;
+import com.victorlopez.incident_api.model.IncidentNeighbor;
+import com.victorlopez.incident_api.repository.IncidentNeighborRepository;
+import com.victorlopez.incident_api.repository.IncidentRepository;
+import com.victorlopez.incident_api.service.SimilarIncidentFinder.Match;
+import com.victorlopez.incident_api.service.SimilarIncidentFinder.ScoredId;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class IncidentNeighborIndexTest {
+
+    @Mock
+    private IncidentRepository incidentRepository;
+
+    @Mock
+    private IncidentNeighborRepository neighborRepository;
+
+    @Mock
+    private SimilarIncidentFinder similarIncidentFinder;
+
+    private SimpleMeterRegistry meterRegistry;
+    private IncidentNeighborIndex index;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        // Runnable::run computes synchronously, so every onSaved is applied before it returns
+        index = new IncidentNeighborIndex(incidentRepository, neighborRepository, similarIncidentFinder, null,
+                meterRegistry, true, false, 20, Runnable::run);
+    }
+
+    private static Incident incident(String title) {
+        return Incident.builder()
+                .id(UUID.randomUUID())
+                .title(title)
+                .description(title + " in production")
+                .createdAt(LocalDateTime.now())
+                .build();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static ArgumentCaptor<Collection<UUID>> idsCaptor() {
+        return ArgumentCaptor.forClass(Collection.class);
+    }
+
+    @Test
+    @DisplayName("Should store the top neighbors on write and invalidate the lists the incident affects")
+    void shouldStoreNeighborsAndInvalidateAffectedLists() {
+        Incident incident = incident("Database timeout");
+        Incident neighbor = incident("Database connection issues");
+        UUID listingIncident = UUID.randomUUID();
+        when(similarIncidentFinder.findSimilarIds(anyString(), eq(incident.getId()), eq(20)))
+                .thenReturn(List.of(new ScoredId(neighbor.getId(), 0.8)));
+        when(neighborRepository.findIncidentIdsByNeighborId(incident.getId())).thenReturn(List.of(listingIncident));
+
+        index.onSaved(incident);
+
+        ArgumentCaptor<List<IncidentNeighbor>> rows = ArgumentCaptor.forClass(List.class);
+        verify(neighborRepository).saveAll(rows.capture());
+        assertThat(rows.getValue()).containsExactly(IncidentNeighbor.builder()
+                .incidentId(incident.getId()).neighborId(neighbor.getId()).score(0.8).build());
+
+        ArgumentCaptor<Collection<UUID>> deleted = idsCaptor();
+        verify(neighborRepository, times(2)).deleteByIncidentIdIn(deleted.capture());
+        assertThat(deleted.getAllValues().get(0)).containsExactly(incident.getId());
+        assertThat(deleted.getAllValues().get(1)).containsExactlyInAnyOrder(listingIncident, neighbor.getId());
+        assertThat(meterRegistry.get("search.neighbors.tasks").tag("outcome", "completed").counter().count())
+                .isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("Should serve stored lists best first, skipping neighbors archived since")
+    void shouldServeStoredNeighbors() {
+        UUID id = UUID.randomUUID();
+        Incident live = incident("Database connection issues");
+        Incident archived = incident("Old database outage");
+        archived.setArchived(true);
+        when(neighborRepository.findByIncidentIdOrderByScoreDesc(eq(id), any())).thenReturn(List.of(
+                new IncidentNeighbor(id, live.getId(), 0.9),
+                new IncidentNeighbor(id, archived.getId(), 0.5)));
+        when(incidentRepository.findAllById(any())).thenReturn(List.of(archived, live));
+
+        List<Match> matches = index.findStored(id, 10);
+
+        assertThat(matches).containsExactly(new Match(live, 0.9));
+        assertThat(meterRegistry.get("search.neighbors.lookups").tag("outcome", "hit").counter().count())
+                .isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("Should serve stored neighbor ids without loading the neighbors")
+    void shouldServeStoredNeighborIds() {
+        UUID id = UUID.randomUUID();
+        UUID neighbor = UUID.randomUUID();
+        when(neighborRepository.findByIncidentIdOrderByScoreDesc(eq(id), any()))
+                .thenReturn(List.of(new IncidentNeighbor(id, neighbor, 0.9)));
+
+        assertThat(index.findStoredIds(id, 10)).containsExactly(new ScoredId(neighbor, 0.9));
+        verifyNoInteractions(incidentRepository);
+    }
+
+    @Test
+    @DisplayName("Should report a miss when no list is stored")
+    void shouldReportMissingList() {
+        when(neighborRepository.findByIncidentIdOrderByScoreDesc(any(), any())).thenReturn(List.of());
+
+        assertThat(index.findStored(UUID.randomUUID(), 10)).isNull();
+        assertThat(meterRegistry.get("search.neighbors.lookups").tag("outcome", "miss").counter().count())
+                .isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("Should store an incident without neighbors as a hit with an empty list")
+    void shouldStoreEmptyListAsHit() {
+        Incident incident = incident("Unique outage");
+        when(similarIncidentFinder.findSimilarIds(anyString(), eq(incident.getId()), eq(20))).thenReturn(List.of());
+
+        index.onSaved(incident);
+
+        ArgumentCaptor<List<IncidentNeighbor>> rows = ArgumentCaptor.forClass(List.class);
+        verify(neighborRepository).saveAll(rows.capture());
+        when(neighborRepository.findByIncidentIdOrderByScoreDesc(eq(incident.getId()), any()))
+                .thenReturn(rows.getValue());
+
+        assertThat(index.findStoredIds(incident.getId(), 10)).isEmpty();
+        assertThat(meterRegistry.get("search.neighbors.lookups").tag("outcome", "hit").counter().count())
+                .isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("Should answer a miss live and compute the list in the background, once")
+    void shouldComputeMissingListInBackground() {
+        List<Runnable> queued = new ArrayList<>();
+        IncidentNeighborIndex deferred = new IncidentNeighborIndex(incidentRepository, neighborRepository,
+                similarIncidentFinder, null, meterRegistry, true, false, 20, queued::add);
+        Incident incident = incident("Database timeout");
+        ScoredId neighbor = new ScoredId(UUID.randomUUID(), 0.7);
+        when(similarIncidentFinder.findSimilarIds(anyString(), eq(incident.getId()), anyInt()))
+                .thenReturn(List.of(neighbor));
+
+        assertThat(deferred.findLiveIds(incident, 5)).containsExactly(neighbor);
+        assertThat(deferred.findLiveIds(incident, 5)).containsExactly(neighbor);
+
+        assertThat(queued).hasSize(1);
+        verify(neighborRepository, never()).saveAll(any());
+        queued.forEach(Runnable::run);
+        verify(neighborRepository).saveAll(List.of(IncidentNeighbor.builder()
+                .incidentId(incident.getId()).neighborId(neighbor.incidentId()).score(0.7).build()));
+    }
+
+    @Test
+    @DisplayName("Should refresh lists once the incident is embedded, not on save, with embedding similarity")
+    void shouldWaitForEmbeddingWithEmbeddingStrategy() {
+        IncidentNeighborIndex embedding = new IncidentNeighborIndex(incidentRepository, neighborRepository,
+                similarIncidentFinder, null, meterRegistry, true, true, 20, Runnable::run);
+        Incident incident = incident("Database timeout");
+        when(similarIncidentFinder.findSimilarIds(anyString(), eq(incident.getId()), eq(20))).thenReturn(List.of());
+
+        embedding.onSaved(incident);
+        verifyNoInteractions(similarIncidentFinder, neighborRepository);
+
+        embedding.onEmbedded(new IncidentEmbeddedEvent(incident.getId(), incident.getTitle(), incident.getDescription()));
+        verify(similarIncidentFinder).findSimilarIds(anyString(), eq(incident.getId()), eq(20));
+        verify(neighborRepository).saveAll(any());
+    }
+
+    @Test
+    @DisplayName("Should drop the lists of an archived incident without computing neighbors")
+    void shouldDropListsOnArchive() {
+        Incident incident = incident("Database timeout");
+        incident.setArchived(true);
+        UUID listingIncident = UUID.randomUUID();
+        when(neighborRepository.findIncidentIdsByNeighborId(incident.getId())).thenReturn(List.of(listingIncident));
+
+        index.onSaved(incident);
+
+        ArgumentCaptor<Collection<UUID>> deleted = idsCaptor();
+        verify(neighborRepository, times(2)).deleteByIncidentIdIn(deleted.capture());
+        assertThat(deleted.getAllValues()).containsExactly(List.of(listingIncident), List.of(incident.getId()));
+        verifyNoInteractions(similarIncidentFinder);
+    }
+
+    @Test
+    @DisplayName("Should drop the lists instead of computing when the queue is full")
+    void shouldDropListsWhenQueueFull() {
+        IncidentNeighborIndex saturated = new IncidentNeighborIndex(incidentRepository, neighborRepository,
+                similarIncidentFinder, null, meterRegistry, true, false, 20, task -> {
+                    throw new RejectedExecutionException("queue full");
+                });
+        Incident incident = incident("Database timeout");
+        when(neighborRepository.findIncidentIdsByNeighborId(incident.getId())).thenReturn(List.of());
+
+        saturated.onSaved(incident);
+
+        verify(neighborRepository).deleteByIncidentIdIn(List.of(incident.getId()));
+        verify(similarIncidentFinder, never()).findSimilarIds(anyString(), any(), anyInt());
+        assertThat(meterRegistry.get("search.neighbors.tasks").tag("outcome", "rejected").counter().count())
+                .isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("Should compute live without storing when disabled")
+    void shouldComputeLiveWhenDisabled() {
+        IncidentNeighborIndex disabled = new IncidentNeighborIndex(incidentRepository, neighborRepository,
+                similarIncidentFinder, null, meterRegistry, false, false, 20, Runnable::run);
+        Incident incident = incident("Database timeout");
+        Match match = new Match(incident("Database connection issues"), 0.8);
+        when(similarIncidentFinder.findSimilar(anyString(), eq(incident.getId()), eq(5))).thenReturn(List.of(match));
+
+        disabled.onSaved(incident);
+
+        assertThat(disabled.findStored(incident.getId(), 5)).isNull();
+        assertThat(disabled.findLive(incident, 5)).containsExactly(match);
+        verifyNoInteractions(neighborRepository);
+    }
+}
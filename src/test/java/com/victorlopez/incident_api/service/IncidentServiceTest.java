@@ -2,12 +2,18 @@ package com.victorlopez.incident_api.service;
 
 import com.victorlopez.incident_api.dto.AIAnalysisResult;
 import com.victorlopez.incident_api.dto.CreateIncidentRequest;
+import com.victorlopez.incident_api.dto.CursorPage;
 import com.victorlopez.incident_api.dto.IncidentActivityResponse;
+import com.victorlopez.incident_api.dto.IncidentFilter;
 import com.victorlopez.incident_api.dto.IncidentResponse;
 import com.victorlopez.incident_api.dto.MetricsResponse;
 import com.victorlopez.incident_api.dto.UpdateIncidentRequest;
 import com.victorlopez.incident_api.dto.UpdateStatusRequest;
+import com.victorlopez.incident_api.event.IncidentAnalysisRequestedEvent;
+import com.victorlopez.incident_api.exception.AIAnalysisUnavailableException;
 import com.victorlopez.incident_api.exception.IncidentNotFoundException;
+import com.victorlopez.incident_api.exception.InvalidCursorException;
+import com.victorlopez.incident_api.model.AnalysisStatus;
 import com.victorlopez.incident_api.model.Category;
 import com.victorlopez.incident_api.model.Incident;
 import com.victorlopez.incident_api.model.IncidentActivity;
@@ -15,7 +21,9 @@ import com.victorlopez.incident_api.model.IncidentActivityAction;
 import com.victorlopez.incident_api.model.Severity;
 import com.victorlopez.incident_api.model.Status;
 import com.victorlopez.incident_api.repository.IncidentActivityRepository;
+import com.victorlopez.incident_api.repository.IncidentField;
 import com.victorlopez.incident_api.repository.IncidentRepository;
+import com.victorlopez.incident_api.repository.IncidentSpecifications;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -24,23 +32,35 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -55,6 +75,27 @@ class IncidentServiceTest {
     @Mock
     private AIAnalysisService aiAnalysisService;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private SimilarIncidentFinder similarIncidentFinder;
+
+    @Mock
+    private FullTextSearchService fullTextSearchService;
+
+    @Mock
+    private InvertedIncidentIndex invertedIncidentIndex;
+
+    @Mock
+    private EmbeddingIncidentIndex embeddingIncidentIndex;
+
+    @Mock
+    private IncidentNeighborIndex incidentNeighborIndex;
+
+    @Mock
+    private NearDuplicateDetector nearDuplicateDetector;
+
     @InjectMocks
     private IncidentService incidentService;
 
@@ -126,6 +167,7 @@ class IncidentServiceTest {
                 "API endpoint returning 500",
                 "Users getting internal server error on checkout endpoint");
         verify(incidentRepository).save(any(Incident.class));
+        verify(nearDuplicateDetector).register(savedIncident);
     }
 
     @Test
@@ -159,6 +201,166 @@ class IncidentServiceTest {
         assertThat(logged.getDetails()).contains("BACKEND");
     }
 
+    @Test
+    @DisplayName("Should persist PENDING_ANALYSIS incident and defer AI analysis in async mode")
+    void shouldCreatePendingIncidentInAsyncMode() {
+        // ARRANGE
+        ReflectionTestUtils.setField(incidentService, "asyncAnalysisEnabled", true);
+        CreateIncidentRequest request = new CreateIncidentRequest();
+        request.setTitle("API gateway returning 503");
+        request.setDescription("Gateway returns 503 for a third of all requests");
+
+        UUID id = UUID.randomUUID();
+        Incident saved = Incident.builder()
+                .id(id)
+                .title(request.getTitle())
+                .description(request.getDescription())
+                .status(Status.OPEN)
+                .analysisStatus(AnalysisStatus.PENDING_ANALYSIS)
+                .build();
+        when(incidentRepository.save(any(Incident.class))).thenReturn(saved);
+
+        // ACT
+        IncidentResponse response = incidentService.createIncident(request);
+
+        // ASSERT
+        assertThat(response.getAnalysisStatus()).isEqualTo(AnalysisStatus.PENDING_ANALYSIS);
+        verify(aiAnalysisService, never()).analyzeIncident(anyString(), anyString());
+
+        ArgumentCaptor<Incident> incidentCaptor = ArgumentCaptor.forClass(Incident.class);
+        verify(incidentRepository).save(incidentCaptor.capture());
+        assertThat(incidentCaptor.getValue().getAnalysisStatus()).isEqualTo(AnalysisStatus.PENDING_ANALYSIS);
+
+        ArgumentCaptor<IncidentAnalysisRequestedEvent> eventCaptor =
+                ArgumentCaptor.forClass(IncidentAnalysisRequestedEvent.class);
+        verify(eventPublisher).publishEvent(eventCaptor.capture());
+        assertThat(eventCaptor.getValue().incidentId()).isEqualTo(id);
+    }
+
+    @Test
+    @DisplayName("Should create incident in degraded mode when AI analysis is unavailable")
+    void shouldCreateDegradedIncidentWhenAIUnavailable() {
+        // ARRANGE
+        CreateIncidentRequest request = new CreateIncidentRequest();
+        request.setTitle("API gateway returning 503");
+        request.setDescription("Gateway returns 503 for a third of all requests");
+
+        when(aiAnalysisService.analyzeIncident(anyString(), anyString()))
+                .thenThrow(new AIAnalysisUnavailableException("AI circuit breaker is open"));
+        when(incidentRepository.save(any(Incident.class))).thenAnswer(inv -> inv.getArgument(0));
+
+        // ACT
+        IncidentResponse response = incidentService.createIncident(request);
+
+        // ASSERT
+        assertThat(response.getAnalysisStatus()).isEqualTo(AnalysisStatus.PENDING_ANALYSIS);
+        assertThat(response.getSeverity()).isEqualTo(Severity.MEDIUM);
+
+        ArgumentCaptor<IncidentActivity> captor = ArgumentCaptor.forClass(IncidentActivity.class);
+        verify(incidentActivityRepository).save(captor.capture());
+        assertThat(captor.getValue().getDetails()).contains("AI unavailable");
+        // picked up by the pending-analysis sweep, not queued immediately
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+
+    @Test
+    @DisplayName("Should fold a near-duplicate report into the reporter's open incident without calling the AI")
+    void shouldFoldNearDuplicateIntoOpenIncident() {
+        // ARRANGE
+        CreateIncidentRequest request = new CreateIncidentRequest();
+        request.setTitle("API gateway returning 503");
+        request.setDescription("Gateway returns 503 for a third of requests");
+        request.setReportedBy("oncall");
+
+        UUID resolvedId = UUID.randomUUID();
+        Incident resolved = buildSavedIncident(resolvedId, "API gateway returning 503", "Gateway returns 503");
+        resolved.setStatus(Status.RESOLVED);
+        Incident othersReport = buildSavedIncident(UUID.randomUUID(), "API gateway returning 503",
+                "Gateway returns 503 for a third of requests");
+        othersReport.setReportedBy("alice");
+        Incident open = buildSavedIncident(UUID.randomUUID(), "API gateway returning 503",
+                "Gateway returns 503 for a third of all requests");
+        open.setReportedBy("oncall");
+
+        when(nearDuplicateDetector.findDuplicates(request.getTitle(), request.getDescription())).thenReturn(List.of(
+                new NearDuplicateDetector.Duplicate(othersReport.getId(), 0.98),
+                new NearDuplicateDetector.Duplicate(resolvedId, 0.95),
+                new NearDuplicateDetector.Duplicate(open.getId(), 0.9)));
+        when(incidentRepository.findByIdAndArchivedFalse(othersReport.getId())).thenReturn(Optional.of(othersReport));
+        when(incidentRepository.findByIdAndArchivedFalse(resolvedId)).thenReturn(Optional.of(resolved));
+        when(incidentRepository.findByIdAndArchivedFalse(open.getId())).thenReturn(Optional.of(open));
+        when(incidentRepository.incrementDuplicateCount(eq(open.getId()), any(LocalDateTime.class))).thenAnswer(inv -> {
+            open.setDuplicateCount(open.getDuplicateCount() + 1);
+            return 1;
+        });
+        when(incidentRepository.findById(open.getId())).thenReturn(Optional.of(open));
+
+        // ACT
+        IncidentResponse response = incidentService.createIncident(request);
+
+        // ASSERT
+        assertThat(response.getId()).isEqualTo(open.getId());
+        assertThat(response.getDuplicate()).isTrue();
+        assertThat(response.getDuplicateCount()).isEqualTo(1);
+        verify(nearDuplicateDetector).remove(resolvedId);
+        // another reporter's incident stays a valid fold target for that reporter
+        verify(nearDuplicateDetector, never()).remove(othersReport.getId());
+        verify(incidentRepository, never()).incrementDuplicateCount(eq(othersReport.getId()), any());
+        verify(aiAnalysisService, never()).analyzeIncident(anyString(), anyString());
+        verify(nearDuplicateDetector, never()).register(any());
+        verify(incidentRepository, never()).save(any(Incident.class));
+
+        ArgumentCaptor<IncidentActivity> captor = ArgumentCaptor.forClass(IncidentActivity.class);
+        verify(incidentActivityRepository).save(captor.capture());
+        assertThat(captor.getValue().getAction()).isEqualTo(IncidentActivityAction.DUPLICATE_REPORTED);
+        assertThat(captor.getValue().getDetails()).contains("oncall");
+    }
+
+    @Test
+    @DisplayName("Should apply background analysis and log ANALYZED activity")
+    void shouldApplyBackgroundAnalysis() {
+        // ARRANGE
+        UUID id = UUID.randomUUID();
+        Incident pending = Incident.builder()
+                .id(id)
+                .title("API gateway returning 503")
+                .description("Gateway returns 503 for a third of all requests")
+                .status(Status.OPEN)
+                .analysisStatus(AnalysisStatus.PENDING_ANALYSIS)
+                .build();
+        AIAnalysisResult analysis = new AIAnalysisResult(
+                Severity.HIGH, Category.NETWORK, "DevOps Team", "Check load balancer health checks", 3, 0.9);
+
+        when(incidentRepository.findByIdAndArchivedFalse(id)).thenReturn(Optional.of(pending));
+        when(incidentRepository.save(any(Incident.class))).thenAnswer(inv -> inv.getArgument(0));
+
+        // ACT
+        incidentService.applyAnalysis(id, analysis);
+
+        // ASSERT
+        assertThat(pending.getAnalysisStatus()).isEqualTo(AnalysisStatus.ANALYZED);
+        assertThat(pending.getSeverity()).isEqualTo(Severity.HIGH);
+        assertThat(pending.getCategory()).isEqualTo(Category.NETWORK);
+        assertThat(pending.getAssignedTeam()).isEqualTo("DevOps Team");
+
+        ArgumentCaptor<IncidentActivity> captor = ArgumentCaptor.forClass(IncidentActivity.class);
+        verify(incidentActivityRepository).save(captor.capture());
+        assertThat(captor.getValue().getAction()).isEqualTo(IncidentActivityAction.ANALYZED);
+        assertThat(captor.getValue().getPerformedBy()).isEqualTo("system");
+    }
+
+    @Test
+    @DisplayName("Should skip background analysis result for archived incident")
+    void shouldSkipAnalysisForArchivedIncident() {
+        UUID id = UUID.randomUUID();
+        when(incidentRepository.findByIdAndArchivedFalse(id)).thenReturn(Optional.empty());
+
+        incidentService.applyAnalysis(id, new AIAnalysisResult(
+                Severity.LOW, Category.FRONTEND, "Frontend Team", "Fix CSS", 1, 0.8));
+
+        verify(incidentRepository, never()).save(any(Incident.class));
+    }
+
     // ── getIncidentById ───────────────────────────────────────────────────────
 
     @Test
@@ -173,54 +375,103 @@ class IncidentServiceTest {
     }
 
     // ── getAllIncidents ────────────────────────────────────────────────────────
+    // Which rows each filter combination selects is covered against a real database in IncidentRepositoryTest.
 
     @Test
-    @DisplayName("Should return paginated incidents when no filters applied (ADMIN view)")
+    @DisplayName("Should return a page of the incidents matching the filter")
     void shouldReturnAllIncidents() {
         Pageable pageable = PageRequest.of(0, 20);
         List<Incident> incidents = List.of(
                 buildSavedIncident(UUID.randomUUID(), "First incident", "First incident description"),
                 buildSavedIncident(UUID.randomUUID(), "Second incident", "Second incident description"));
 
-        when(incidentRepository.findByArchivedFalse(pageable)).thenReturn(new PageImpl<>(incidents));
+        when(incidentRepository.findAll(any(Specification.class), eq(pageable))).thenReturn(new PageImpl<>(incidents));
 
-        Page<IncidentResponse> responses = incidentService.getAllIncidents(null, null, pageable, null);
+        Page<IncidentResponse> responses = incidentService.getAllIncidents(IncidentFilter.builder().build(), pageable);
 
         assertThat(responses.getContent()).hasSize(2);
         assertThat(responses.getTotalElements()).isEqualTo(2);
     }
 
-    @Test
-    @DisplayName("Should filter incidents by status (ADMIN view)")
-    void shouldFilterIncidentsByStatus() {
-        Pageable pageable = PageRequest.of(0, 20);
-        List<Incident> openIncidents = List.of(
-                buildSavedIncident(UUID.randomUUID(), "Open incident", "Open incident description"));
-
-        when(incidentRepository.findByStatusAndArchivedFalse(Status.OPEN, pageable))
-                .thenReturn(new PageImpl<>(openIncidents));
+    // ── getIncidentsByCursor ──────────────────────────────────────────────────
 
-        Page<IncidentResponse> responses = incidentService.getAllIncidents(Status.OPEN, null, pageable, null);
-
-        assertThat(responses.getContent()).hasSize(1);
-        assertThat(responses.getContent().get(0).getStatus()).isEqualTo(Status.OPEN);
+    @Test
+    @DisplayName("Should return the first cursor page with a next cursor at its last incident")
+    void shouldReturnFirstCursorPage() {
+        List<Incident> rows = List.of(
+                buildSavedIncident(UUID.randomUUID(), "Newest incident", "Newest incident description"),
+                buildSavedIncident(UUID.randomUUID(), "Middle incident", "Middle incident description"),
+                buildSavedIncident(UUID.randomUUID(), "Oldest incident", "Oldest incident description"));
+        when(incidentRepository.findAll(any(Specification.class), eq(IncidentSpecifications.LISTING_ORDER), eq(3)))
+                .thenReturn(rows);
+
+        CursorPage<IncidentResponse> page = incidentService.getIncidentsByCursor(IncidentFilter.builder().build(), "", 2);
+
+        assertThat(page.getContent()).extracting(IncidentResponse::getTitle)
+                .containsExactly("Newest incident", "Middle incident");
+        assertThat(page.getPrevCursor()).isNull();
+        assertThat(IncidentCursor.decode(page.getNextCursor()))
+                .isEqualTo(new IncidentCursor(rows.get(1).getCreatedAt(), rows.get(1).getId(), false));
     }
 
     @Test
-    @DisplayName("Should filter incidents by reportedBy when USER role (Step 5)")
-    void shouldFilterIncidentsByReportedByForUser() {
-        Pageable pageable = PageRequest.of(0, 20);
-        String username = "alice";
-        Incident incident = buildSavedIncident(UUID.randomUUID(), "Alice incident", "Alice incident description");
-        incident.setReportedBy(username);
+    @DisplayName("Should return a previous cursor page newest first and without a prev cursor at the start")
+    void shouldReturnPreviousCursorPage() {
+        Incident key = buildSavedIncident(UUID.randomUUID(), "Key incident", "Key incident description");
+        Incident nearer = buildSavedIncident(UUID.randomUUID(), "Nearer incident", "Nearer incident description");
+        Incident newest = buildSavedIncident(UUID.randomUUID(), "Newest incident", "Newest incident description");
+        when(incidentRepository.findAll(any(Specification.class), eq(IncidentSpecifications.REVERSE_LISTING_ORDER), eq(3)))
+                .thenReturn(List.of(nearer, newest));
+
+        String cursor = new IncidentCursor(key.getCreatedAt(), key.getId(), true).encode();
+        IncidentFilter filter = IncidentFilter.builder().status(Status.OPEN).reportedBy("alice").build();
+        CursorPage<IncidentResponse> page = incidentService.getIncidentsByCursor(filter, cursor, 2);
+
+        assertThat(page.getContent()).extracting(IncidentResponse::getTitle)
+                .containsExactly("Newest incident", "Nearer incident");
+        assertThat(page.getPrevCursor()).isNull();
+        assertThat(IncidentCursor.decode(page.getNextCursor()))
+                .isEqualTo(new IncidentCursor(nearer.getCreatedAt(), nearer.getId(), false));
+    }
 
-        when(incidentRepository.findByReportedByAndArchivedFalse(username, pageable))
-                .thenReturn(new PageImpl<>(List.of(incident)));
+    @Test
+    @DisplayName("Should reject a malformed cursor")
+    void shouldRejectMalformedCursor() {
+        assertThatThrownBy(() -> incidentService.getIncidentsByCursor(IncidentFilter.builder().build(), "not-a-cursor", 20))
+                .isInstanceOf(InvalidCursorException.class);
+        verifyNoInteractions(incidentRepository);
+    }
 
-        Page<IncidentResponse> responses = incidentService.getAllIncidents(null, null, pageable, username);
+    @Test
+    @DisplayName("Should read the keyset with the selected fields and return only the selected fields")
+    void shouldReturnSparseCursorPage() {
+        LocalDateTime createdAt = LocalDateTime.now();
+        UUID newest = UUID.randomUUID();
+        UUID oldest = UUID.randomUUID();
+        Set<IncidentField> fields = EnumSet.of(IncidentField.TITLE, IncidentField.STATUS);
+        Set<IncidentField> selected = EnumSet.of(IncidentField.ID, IncidentField.TITLE, IncidentField.STATUS,
+                IncidentField.CREATED_AT);
+        when(incidentRepository.findFields(any(Specification.class), eq(IncidentSpecifications.LISTING_ORDER), eq(2),
+                eq(selected))).thenReturn(List.of(
+                        row(newest, "Newest incident", createdAt),
+                        row(oldest, "Oldest incident", createdAt.minusMinutes(1))));
+
+        CursorPage<Map<String, Object>> page = incidentService.getIncidentFieldsByCursor(
+                IncidentFilter.builder().build(), "", 1, fields);
+
+        assertThat(page.getContent()).containsExactly(Map.of("title", "Newest incident", "status", Status.OPEN));
+        assertThat(IncidentCursor.decode(page.getNextCursor()))
+                .isEqualTo(new IncidentCursor(createdAt, newest, false));
+        verify(incidentRepository, never()).findAll(any(Specification.class), any(Sort.class), anyInt());
+    }
 
-        assertThat(responses.getContent()).hasSize(1);
-        assertThat(responses.getContent().get(0).getReportedBy()).isEqualTo(username);
+    private static Map<String, Object> row(UUID id, String title, LocalDateTime createdAt) {
+        Map<String, Object> row = new LinkedHashMap<>();
+        row.put("id", id);
+        row.put("title", title);
+        row.put("status", Status.OPEN);
+        row.put("createdAt", createdAt);
+        return row;
     }
 
     // ── updateStatus ──────────────────────────────────────────────────────────
@@ -295,6 +546,9 @@ class IncidentServiceTest {
 
         assertThat(existing.isArchived()).isTrue();
         verify(incidentRepository).save(existing);
+        verify(invertedIncidentIndex).onSaved(existing);
+        verify(embeddingIncidentIndex).onSaved(existing);
+        verify(incidentNeighborIndex).onSaved(existing);
     }
 
     @Test
@@ -353,6 +607,7 @@ class IncidentServiceTest {
         assertThat(response.getTitle()).isEqualTo("New updated title");
         assertThat(response.getSeverity()).isEqualTo(Severity.HIGH);
         verify(incidentRepository).save(existing);
+        verify(nearDuplicateDetector).register(saved);
     }
 
     @Test
@@ -385,6 +640,24 @@ class IncidentServiceTest {
         assertThat(logged.getDetails()).contains("CRITICAL");
     }
 
+    @Test
+    @DisplayName("Should not refresh similarity data when an update leaves the text unchanged")
+    void shouldNotReindexWhenTextUnchanged() {
+        UUID id = UUID.randomUUID();
+        Incident existing = buildSavedIncident(id, "Same title", "Same description that is long enough");
+        UpdateIncidentRequest request = UpdateIncidentRequest.builder()
+                .title("Same title").severity(Severity.CRITICAL).build();
+
+        when(incidentRepository.findByIdAndArchivedFalse(id)).thenReturn(Optional.of(existing));
+        when(incidentRepository.save(any(Incident.class))).thenReturn(existing);
+
+        incidentService.updateIncident(id, request);
+
+        verify(incidentNeighborIndex, never()).onSaved(any());
+        verify(invertedIncidentIndex, never()).onSaved(any());
+        verify(nearDuplicateDetector, never()).register(any());
+    }
+
     // ── reanalyzeIncident ─────────────────────────────────────────────────────
 
     @Test
@@ -407,7 +680,7 @@ class IncidentServiceTest {
         saved.setAiConfidence(0.95);
 
         when(incidentRepository.findByIdAndArchivedFalse(id)).thenReturn(Optional.of(existing));
-        when(aiAnalysisService.analyzeIncident(existing.getTitle(), existing.getDescription()))
+        when(aiAnalysisService.reanalyzeIncident(existing.getTitle(), existing.getDescription()))
                 .thenReturn(newAnalysis);
         when(incidentRepository.save(any(Incident.class))).thenReturn(saved);
 
@@ -417,7 +690,8 @@ class IncidentServiceTest {
         assertThat(response.getCategory()).isEqualTo(Category.DATABASE);
         assertThat(response.getAssignedTeam()).isEqualTo("Database Team");
         assertThat(response.getAiConfidence()).isEqualTo(0.95);
-        verify(aiAnalysisService).analyzeIncident(existing.getTitle(), existing.getDescription());
+        verify(aiAnalysisService).reanalyzeIncident(existing.getTitle(), existing.getDescription());
+        verify(aiAnalysisService, never()).analyzeIncident(anyString(), anyString());
     }
 
     @Test
@@ -437,7 +711,7 @@ class IncidentServiceTest {
         saved.setCategory(Category.DATABASE);
 
         when(incidentRepository.findByIdAndArchivedFalse(id)).thenReturn(Optional.of(existing));
-        when(aiAnalysisService.analyzeIncident(anyString(), anyString())).thenReturn(newAnalysis);
+        when(aiAnalysisService.reanalyzeIncident(anyString(), anyString())).thenReturn(newAnalysis);
         when(incidentRepository.save(any(Incident.class))).thenReturn(saved);
 
         // ACT
@@ -554,47 +828,138 @@ class IncidentServiceTest {
     // ── similarity search ─────────────────────────────────────────────────────
 
     @Test
-    @DisplayName("Should find similar incidents and return responses")
+    @DisplayName("Should find similar incidents and return scored responses")
     void shouldFindSimilarIncidents() {
+        ReflectionTestUtils.setField(incidentService, "similarMaxResults", 20);
         UUID excludeId = UUID.randomUUID();
         String description = "Database connection timeout error in production";
 
-        List<Incident> similarIncidents = List.of(
-                buildSavedIncident(UUID.randomUUID(), "Database connection issues",
-                        "Connection pool exhausted in production environment"),
-                buildSavedIncident(UUID.randomUUID(), "Timeout error on API calls",
-                        "API endpoints timing out during peak traffic"));
-
-        when(incidentRepository.findByArchivedFalse()).thenReturn(similarIncidents);
+        when(similarIncidentFinder.findSimilar(description, excludeId, 20)).thenReturn(List.of(
+                new SimilarIncidentFinder.Match(buildSavedIncident(UUID.randomUUID(), "Database connection issues",
+                        "Connection pool exhausted in production environment"), 0.8),
+                new SimilarIncidentFinder.Match(buildSavedIncident(UUID.randomUUID(), "Timeout error on API calls",
+                        "API endpoints timing out during peak traffic"), 0.4)));
 
-        List<IncidentResponse> responses = incidentService.findSimilarIncidents(description, excludeId);
+        List<IncidentResponse> responses = incidentService.findSimilarIncidents(description, excludeId, 50, 0.0);
 
         assertThat(responses).hasSize(2);
         assertThat(responses.get(0).getTitle()).isEqualTo("Database connection issues");
-        verify(incidentRepository).findByArchivedFalse();
+        assertThat(responses.get(0).getScore()).isEqualTo(0.8);
+    }
+
+    @Test
+    @DisplayName("Should drop similar incidents scoring below minScore")
+    void shouldFilterSimilarIncidentsByMinScore() {
+        ReflectionTestUtils.setField(incidentService, "similarMaxResults", 20);
+        UUID excludeId = UUID.randomUUID();
+        String description = "Database connection timeout error in production";
+
+        when(similarIncidentFinder.findSimilar(description, excludeId, 5)).thenReturn(List.of(
+                new SimilarIncidentFinder.Match(buildSavedIncident(UUID.randomUUID(), "Database connection issues",
+                        "Connection pool exhausted in production environment"), 0.8),
+                new SimilarIncidentFinder.Match(buildSavedIncident(UUID.randomUUID(), "Timeout error on API calls",
+                        "API endpoints timing out during peak traffic"), 0.4)));
+
+        List<IncidentResponse> responses = incidentService.findSimilarIncidents(description, excludeId, 5, 0.5);
+
+        assertThat(responses).extracting(IncidentResponse::getTitle).containsExactly("Database connection issues");
     }
 
     @Test
     @DisplayName("Should return empty list when no similar incidents found")
     void shouldReturnEmptyListWhenNoSimilarIncidentsFound() {
         UUID excludeId = UUID.randomUUID();
-        when(incidentRepository.findByArchivedFalse()).thenReturn(List.of());
+        when(similarIncidentFinder.findSimilar(any(), any(), anyInt())).thenReturn(List.of());
 
         List<IncidentResponse> responses = incidentService.findSimilarIncidents(
-                "Very unique error that never happened before", excludeId);
+                "Very unique error that never happened before", excludeId, 10, 0.0);
 
         assertThat(responses).isEmpty();
-        verify(incidentRepository).findByArchivedFalse();
     }
 
     @Test
-    @DisplayName("Should extract keywords correctly from description")
-    void shouldExtractKeywordsCorrectly() {
-        UUID excludeId = UUID.randomUUID();
-        when(incidentRepository.findByArchivedFalse()).thenReturn(List.of());
+    @DisplayName("Should serve similar incidents of a known incident from its stored neighbor list")
+    void shouldFindSimilarToIncidentFromStoredNeighbors() {
+        ReflectionTestUtils.setField(incidentService, "similarMaxResults", 20);
+        UUID id = UUID.randomUUID();
+        when(incidentNeighborIndex.findStored(id, 5)).thenReturn(List.of(
+                new SimilarIncidentFinder.Match(buildSavedIncident(UUID.randomUUID(), "Database connection issues",
+                        "Connection pool exhausted in production environment"), 0.8),
+                new SimilarIncidentFinder.Match(buildSavedIncident(UUID.randomUUID(), "Timeout error on API calls",
+                        "API endpoints timing out during peak traffic"), 0.4)));
+
+        List<IncidentResponse> responses = incidentService.findSimilarToIncident(id, 5, 0.5);
+
+        assertThat(responses).extracting(IncidentResponse::getTitle).containsExactly("Database connection issues");
+        verify(incidentRepository, never()).findByIdAndArchivedFalse(any());
+        verifyNoInteractions(similarIncidentFinder);
+    }
+
+    @Test
+    @DisplayName("Should answer live when no neighbor list is stored")
+    void shouldComputeNeighborsWhenNoneStored() {
+        ReflectionTestUtils.setField(incidentService, "similarMaxResults", 20);
+        UUID id = UUID.randomUUID();
+        Incident incident = buildSavedIncident(id, "Database timeout", "Primary database times out");
+        SimilarIncidentFinder.Match match = new SimilarIncidentFinder.Match(
+                buildSavedIncident(UUID.randomUUID(), "Database connection issues", "Connection pool exhausted"), 0.7);
+        when(incidentNeighborIndex.findStored(id, 20)).thenReturn(null);
+        when(incidentRepository.findByIdAndArchivedFalse(id)).thenReturn(Optional.of(incident));
+        when(incidentNeighborIndex.findLive(incident, 20)).thenReturn(List.of(match));
 
-        incidentService.findSimilarIncidents("The database connection is timing out!", excludeId);
+        List<IncidentResponse> responses = incidentService.findSimilarToIncident(id, 50, 0.0);
+
+        assertThat(responses).hasSize(1);
+        assertThat(responses.get(0).getScore()).isEqualTo(0.7);
+    }
+
+    @Test
+    @DisplayName("Should throw IncidentNotFoundException for similar incidents of an unknown incident")
+    void shouldThrowWhenFindingSimilarToUnknownIncident() {
+        UUID id = UUID.randomUUID();
+        when(incidentNeighborIndex.findStored(eq(id), anyInt())).thenReturn(null);
+        when(incidentRepository.findByIdAndArchivedFalse(id)).thenReturn(Optional.empty());
 
-        verify(incidentRepository).findByArchivedFalse();
+        assertThatThrownBy(() -> incidentService.findSimilarToIncident(id, 10, 0.0))
+                .isInstanceOf(IncidentNotFoundException.class);
+    }
+
+    @Test
+    @DisplayName("Should return the selected fields of similar incidents in score order without loading them")
+    void shouldFindSimilarIncidentFields() {
+        ReflectionTestUtils.setField(incidentService, "similarMaxResults", 20);
+        UUID excludeId = UUID.randomUUID();
+        UUID best = UUID.randomUUID();
+        UUID archived = UUID.randomUUID();
+        UUID weak = UUID.randomUUID();
+        Set<IncidentField> fields = EnumSet.of(IncidentField.TITLE);
+        when(similarIncidentFinder.findSimilarIds("database timeout", excludeId, 10)).thenReturn(List.of(
+                new SimilarIncidentFinder.ScoredId(best, 0.8),
+                new SimilarIncidentFinder.ScoredId(archived, 0.6),
+                new SimilarIncidentFinder.ScoredId(weak, 0.1)));
+        when(incidentRepository.findFieldsById(List.of(best, archived), EnumSet.of(IncidentField.ID, IncidentField.TITLE)))
+                .thenReturn(List.of(new LinkedHashMap<>(Map.of("id", best, "title", "Database connection issues"))));
+
+        List<Map<String, Object>> results = incidentService.findSimilarIncidentFields("database timeout", excludeId,
+                10, 0.5, fields);
+
+        assertThat(results).containsExactly(Map.of("title", "Database connection issues", "score", 0.8));
+        verify(similarIncidentFinder, never()).findSimilar(any(), any(), anyInt());
+        verify(incidentRepository, never()).findAllById(any());
+    }
+
+    @Test
+    @DisplayName("Should return ranked search results with their scores")
+    void shouldSearchIncidents() {
+        Pageable pageable = PageRequest.of(0, 10);
+        Incident incident = buildSavedIncident(UUID.randomUUID(), "Database connection issues",
+                "Connection pool exhausted in production environment");
+        when(fullTextSearchService.search("connection pool", Status.OPEN, null, null, pageable))
+                .thenReturn(new PageImpl<>(List.of(new SimilarIncidentFinder.Match(incident, 0.6)), pageable, 1));
+
+        Page<IncidentResponse> results = incidentService.searchIncidents("connection pool", Status.OPEN, null, null, pageable);
+
+        assertThat(results.getTotalElements()).isEqualTo(1);
+        assertThat(results.getContent().get(0).getScore()).isEqualTo(0.6);
     }
 }
@@ -0,0 +1,68 @@
+package com.victorlopez.incident_api.service;
+
+import com.victorlopez.incident_api.service.IncidentTokenizer.Tokens;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class IncidentTokenizerTest {
+
+    @Test
+    @DisplayName("Should fold case, drop stop words and short terms, and count repeats")
+    void shouldTokenizeSearchTerms() {
+        Tokens tokens = IncidentTokenizer.SEARCH.tokenize("Database TIMEOUT on the primary database (a 30s timeout)");
+
+        assertThat(tokens.terms()).containsExactly("database", "timeout", "primary", "30s");
+        assertThat(tokens.frequency(0)).isEqualTo(2);
+        assertThat(tokens.frequency(1)).isEqualTo(2);
+        assertThat(tokens.occurrences()).isEqualTo(6);
+    }
+
+    @Test
+    @DisplayName("Should keep stop words for classification and handle non-ASCII letters")
+    void shouldKeepAllTermsAndUnicode() {
+        Tokens tokens = IncidentTokenizer.ALL_TERMS.tokenize("Das Zahlungssystem ist NICHT erreichbar", "Ärger in the API", 100);
+
+        assertThat(tokens.terms()).containsExactly("das", "zahlungssystem", "ist", "nicht", "erreichbar",
+                "ärger", "in", "the", "api");
+    }
+
+    @Test
+    @DisplayName("Should cap distinct terms while still counting terms already kept")
+    void shouldCapDistinctTerms() {
+        Tokens tokens = IncidentTokenizer.SEARCH.tokenize("alpha beta gamma", "alpha delta beta", 2);
+
+        assertThat(tokens.terms()).containsExactly("alpha", "beta");
+        assertThat(tokens.occurrences()).isEqualTo(4);
+    }
+
+    @Test
+    @DisplayName("Should reuse the per-thread buffer and grow it for many and long terms")
+    void shouldReuseBuffers() {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < 500; i++) {
+            text.append("term").append(i).append(' ');
+        }
+        text.append("x".repeat(41));
+
+        Tokens large = IncidentTokenizer.SEARCH.tokenize(text);
+        assertThat(large.size()).isEqualTo(500);
+        assertThat(large.term(499)).isEqualTo("term499");
+
+        Tokens small = IncidentTokenizer.SEARCH.tokenize("disk full");
+        assertThat(small).isSameAs(large);
+        assertThat(small.terms()).containsExactly("disk", "full");
+    }
+
+    @Test
+    @DisplayName("Should look up whole terms without materializing them")
+    void shouldLookUpTerms() {
+        Tokens tokens = IncidentTokenizer.SEARCH.tokenize("Connection TIMEOUTS on checkout", "Retry later", 100);
+
+        assertThat(tokens.contains("timeouts")).isTrue();
+        assertThat(tokens.contains("retry")).isTrue();
+        assertThat(tokens.contains("timeout")).isFalse();
+        assertThat(tokens.contains("on")).isFalse();
+    }
+}
@@ -0,0 +1,140 @@
+package com.victorlopez.incident_api.service;
+
+import com.victorlopez.incident_api.model.Incident;
+import com.victorlopez.incident_api.repository.IncidentRepository;
+import com.victorlopez.incident_api.service.SimilarIncidentFinder.Match;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class InvertedIncidentIndexTest {
+
+    @Mock
+    private IncidentRepository incidentRepository;
+
+    private SimpleMeterRegistry meterRegistry;
+    private InvertedIncidentIndex index;
+    private final List<Incident> stored = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        index = new InvertedIncidentIndex(incidentRepository, meterRegistry, InvertedIncidentIndex.STRATEGY,
+                128, 0.2, 100, 1.2, 0.75);
+        lenient().when(incidentRepository.findAllById(any())).thenAnswer(invocation -> {
+            Iterable<UUID> ids = invocation.getArgument(0);
+            List<Incident> found = new ArrayList<>();
+            ids.forEach(id -> stored.stream().filter(i -> i.getId().equals(id)).forEach(found::add));
+            return found;
+        });
+    }
+
+    private Incident incident(String title, String description) {
+        Incident incident = Incident.builder()
+                .id(UUID.randomUUID())
+                .title(title)
+                .description(description)
+                .updatedAt(LocalDateTime.now())
+                .build();
+        stored.add(incident);
+        return incident;
+    }
+
+    @Test
+    @DisplayName("Should rank incidents sharing more and rarer terms first")
+    void shouldRankByTermOverlap() {
+        Incident both = incident("Database timeout", "Connection timeout on the primary database");
+        Incident one = incident("Slow API", "API requests timeout under load");
+        Incident unrelated = incident("Login button misaligned", "CSS layout broken on mobile");
+        List.of(both, one, unrelated).forEach(index::onSaved);
+
+        List<Match> matches = index.findSimilar("database timeout", null, 10);
+
+        assertThat(matches).extracting(Match::incident).containsExactly(both, one);
+        assertThat(matches.get(0).score()).isGreaterThan(matches.get(1).score());
+    }
+
+    @Test
+    @DisplayName("Should favour the shorter incident when term frequencies are equal (BM25 length normalization)")
+    void shouldNormalizeByDocumentLength() {
+        Incident concise = incident("Payment gateway down", "Checkout failing");
+        Incident verbose = incident("Payment gateway down",
+                "Checkout failing for customers across regions while retries saturate workers and queues overflow");
+        List.of(verbose, concise).forEach(index::onSaved);
+
+        List<Match> matches = index.findSimilar("payment gateway", null, 10);
+
+        assertThat(matches).extracting(Match::incident).containsExactly(concise, verbose);
+    }
+
+    @Test
+    @DisplayName("Should keep only the top K and leave out the excluded incident")
+    void shouldKeepTopKAndExclude() {
+        Incident excluded = incident("Cache eviction storm", "Redis cache evicting keys");
+        for (int i = 0; i < 20; i++) {
+            index.onSaved(incident("Cache miss " + i, "cache"));
+        }
+        Incident best = incident("Redis cache eviction", "Cache eviction storm on redis, cache cold");
+        index.onSaved(excluded);
+        index.onSaved(best);
+
+        List<Match> matches = index.findSimilar("redis cache eviction storm", excluded.getId(), 3);
+
+        assertThat(matches).hasSize(3);
+        assertThat(matches.get(0).incident()).isEqualTo(best);
+        assertThat(matches).extracting(Match::incident).doesNotContain(excluded);
+    }
+
+    @Test
+    @DisplayName("Should re-index edits and drop archived incidents")
+    void shouldMaintainIncrementally() {
+        Incident incident = incident("Disk full", "Disk usage at 100% on node");
+        index.onSaved(incident);
+
+        incident.setTitle("Certificate expired");
+        incident.setDescription("TLS certificate expired on gateway");
+        index.onSaved(incident);
+
+        assertThat(index.findSimilar("disk usage", null, 5)).isEmpty();
+        assertThat(index.findSimilar("certificate gateway", null, 5)).extracting(Match::incident)
+                .containsExactly(incident);
+
+        incident.setArchived(true);
+        index.onSaved(incident);
+
+        assertThat(index.findSimilar("certificate gateway", null, 5)).isEmpty();
+        assertThat(index.getDocumentCount()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should build from the repository at startup and report its size")
+    void shouldBuildAtStartup() {
+        Incident first = incident("Queue backlog", "Kafka consumer lag growing");
+        Incident second = incident("Queue stalled", "Kafka partition leader missing");
+        when(incidentRepository.findByUpdatedAtGreaterThanEqualOrderByUpdatedAtAscIdAsc(any(), any()))
+                .thenReturn(List.of(first, second));
+
+        index.build();
+
+        assertThat(index.getDocumentCount()).isEqualTo(2);
+        assertThat(meterRegistry.get("search.index.documents").gauge().value()).isEqualTo(2.0);
+        assertThat(meterRegistry.get("search.index.terms").gauge().value()).isGreaterThan(0.0);
+        assertThat(meterRegistry.get("search.index.build").timer().count()).isEqualTo(1);
+        assertThat(index.findSimilar("kafka lag", null, 5).get(0).incident()).isEqualTo(first);
+    }
+}
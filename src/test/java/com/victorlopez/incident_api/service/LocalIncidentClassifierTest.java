@@ -0,0 +1,180 @@
+package com.victorlopez.incident_api.service;
+
+import com.victorlopez.incident_api.dto.AIAnalysisResult;
+import com.victorlopez.incident_api.model.Category;
+import com.victorlopez.incident_api.model.Incident;
+import com.victorlopez.incident_api.model.Severity;
+import com.victorlopez.incident_api.repository.IncidentRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class LocalIncidentClassifierTest {
+
+    @Mock
+    private IncidentRepository incidentRepository;
+
+    private SimpleMeterRegistry meterRegistry;
+    private LocalIncidentClassifier classifier;
+    private final List<Incident> history = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        classifier = new LocalIncidentClassifier(incidentRepository, meterRegistry, true, 0.8, 6, 0.0, 100);
+
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < 4; i++) {
+            history.add(incident("Database connection pool exhausted " + i,
+                    "Postgres refuses connections, pool at 100% and queries time out",
+                    Severity.CRITICAL, Category.DATABASE, now.plusSeconds(i)));
+            history.add(incident("Login button misaligned on page " + i,
+                    "CSS layout broken, button overlaps the footer in the browser",
+                    Severity.LOW, Category.FRONTEND, now.plusSeconds(10 + i)));
+        }
+    }
+
+    private static Incident incident(String title, String description, Severity severity, Category category,
+                                     LocalDateTime updatedAt) {
+        return Incident.builder()
+                .id(UUID.randomUUID())
+                .title(title)
+                .description(description)
+                .severity(severity)
+                .category(category)
+                .suggestedSolution("Known fix for " + category)
+                .estimatedResolutionHours(2)
+                .updatedAt(updatedAt)
+                .build();
+    }
+
+    private double classifications(String path) {
+        return meterRegistry.get("ai.local.classifications").tag("path", path).counter().count();
+    }
+
+    @Test
+    @DisplayName("Should classify familiar incidents locally once trained")
+    void shouldClassifyFamiliarIncidentLocally() {
+        when(incidentRepository.findByUpdatedAtGreaterThanEqualOrderByUpdatedAtAscIdAsc(any(), any()))
+                .thenReturn(history);
+        classifier.train();
+
+        Optional<AIAnalysisResult> result = classifier.tryClassify(
+                "Database connection pool exhausted", "Postgres refuses connections and queries time out");
+
+        assertThat(result).isPresent();
+        assertThat(result.get().severity()).isEqualTo(Severity.CRITICAL);
+        assertThat(result.get().category()).isEqualTo(Category.DATABASE);
+        assertThat(result.get().assignedTeam()).isEqualTo("Database Team");
+        assertThat(result.get().suggestedSolution()).doesNotContain("Known fix").contains("DATABASE");
+        assertThat(result.get().local()).isTrue();
+        assertThat(classifications("local")).isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("Should defer to the LLM before enough incidents have been seen")
+    void shouldDeferWhenUndertrained() {
+        when(incidentRepository.findByUpdatedAtGreaterThanEqualOrderByUpdatedAtAscIdAsc(any(), any()))
+                .thenReturn(history.subList(0, 3));
+        classifier.train();
+
+        assertThat(classifier.tryClassify("Database connection pool exhausted", "Postgres refuses connections"))
+                .isEmpty();
+        assertThat(classifications("llm")).isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("Should defer to the LLM for unfamiliar incidents")
+    void shouldDeferWhenNotConfident() {
+        when(incidentRepository.findByUpdatedAtGreaterThanEqualOrderByUpdatedAtAscIdAsc(any(), any()))
+                .thenReturn(history);
+        classifier.train();
+
+        assertThat(classifier.tryClassify("Certificate expired", "TLS handshake failing for partners")).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should forget archived incidents on the next incremental run")
+    void shouldUntrainArchivedIncidents() {
+        when(incidentRepository.findByUpdatedAtGreaterThanEqualOrderByUpdatedAtAscIdAsc(any(), any()))
+                .thenReturn(history);
+        classifier.train();
+        assertThat(classifier.getTrainingSamples()).isEqualTo(8);
+
+        Incident archived = history.get(0);
+        archived.setArchived(true);
+        archived.setUpdatedAt(LocalDateTime.now().plusMinutes(5));
+        when(incidentRepository.findByUpdatedAtGreaterThanEqualOrderByUpdatedAtAscIdAsc(any(), any()))
+                .thenReturn(List.of(archived));
+        classifier.train();
+
+        assertThat(classifier.getTrainingSamples()).isEqualTo(7);
+    }
+
+    @Test
+    @DisplayName("Should replace an edited incident's share of the category estimate instead of adding to it")
+    void shouldNotDriftEstimateOnRetraining() {
+        history.stream().filter(i -> i.getCategory() == Category.DATABASE)
+                .forEach(i -> i.setEstimatedResolutionHours(4));
+        when(incidentRepository.findByUpdatedAtGreaterThanEqualOrderByUpdatedAtAscIdAsc(any(), any()))
+                .thenReturn(history);
+        classifier.train();
+
+        Incident edited = history.get(0);
+        edited.setEstimatedResolutionHours(12);
+        edited.setUpdatedAt(LocalDateTime.now().plusMinutes(5));
+        when(incidentRepository.findByUpdatedAtGreaterThanEqualOrderByUpdatedAtAscIdAsc(any(), any()))
+                .thenReturn(List.of(edited));
+        classifier.train();
+        classifier.train();
+
+        Optional<AIAnalysisResult> result = classifier.tryClassify(
+                "Database connection pool exhausted", "Postgres refuses connections and queries time out");
+
+        // (12 + 4 + 4 + 4) / 4, not skewed by the edited incident being read again
+        assertThat(result).isPresent();
+        assertThat(result.get().estimatedResolutionHours()).isEqualTo(6);
+    }
+
+    @Test
+    @DisplayName("Should not train on incidents it labelled itself")
+    void shouldSkipLocallyClassifiedIncidents() {
+        history.forEach(i -> i.setLocallyClassified(true));
+        when(incidentRepository.findByUpdatedAtGreaterThanEqualOrderByUpdatedAtAscIdAsc(any(), any()))
+                .thenReturn(history);
+        classifier.train();
+
+        assertThat(classifier.getTrainingSamples()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should count agreement between local predictions and LLM labels")
+    void shouldRecordAgreement() {
+        when(incidentRepository.findByUpdatedAtGreaterThanEqualOrderByUpdatedAtAscIdAsc(any(), any()))
+                .thenReturn(history);
+        classifier.train();
+
+        classifier.recordAgreement("Login button misaligned", "CSS layout broken in the browser",
+                new AIAnalysisResult(Severity.MEDIUM, Category.FRONTEND, "Frontend Team", "Fix the CSS", 1, 0.8));
+
+        assertThat(meterRegistry.get("ai.local.agreement").tag("field", "category").tag("result", "agree")
+                .counter().count()).isEqualTo(1.0);
+        assertThat(meterRegistry.get("ai.local.agreement").tag("field", "severity").tag("result", "disagree")
+                .counter().count()).isEqualTo(1.0);
+    }
+}
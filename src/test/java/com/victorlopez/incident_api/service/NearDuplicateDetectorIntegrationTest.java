@@ -0,0 +1,75 @@
+package com.victorlopez.incident_api.service;
+
+import com.victorlopez.incident_api.dto.AIAnalysisResult;
+import com.victorlopez.incident_api.dto.CreateIncidentRequest;
+import com.victorlopez.incident_api.dto.IncidentResponse;
+import com.victorlopez.incident_api.model.Category;
+import com.victorlopez.incident_api.model.Severity;
+import com.victorlopez.incident_api.repository.IncidentRepository;
+import com.victorlopez.incident_api.repository.IncidentSketchRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.when;
+
+/**
+ * Near-duplicate detection against the real repositories and transaction setup: the startup
+ * load runs outside any caller transaction, so its sketch expiry must open its own.
+ */
+@SpringBootTest(properties = "incident.dedup.enabled=true")
+@ActiveProfiles("test")
+class NearDuplicateDetectorIntegrationTest {
+
+    @Autowired
+    private IncidentService incidentService;
+
+    @Autowired
+    private NearDuplicateDetector nearDuplicateDetector;
+
+    @Autowired
+    private IncidentRepository incidentRepository;
+
+    @Autowired
+    private IncidentSketchRepository sketchRepository;
+
+    @MockBean
+    private AIAnalysisService aiAnalysisService;
+
+    @Test
+    @DisplayName("Should load the index at startup and fold a near-duplicate report into the open incident")
+    void shouldFoldNearDuplicateReport() {
+        when(aiAnalysisService.analyzeIncident(anyString(), anyString())).thenReturn(new AIAnalysisResult(
+                Severity.HIGH, Category.BACKEND, "Backend Team", "Restart the payment gateway workers", 2, 0.9));
+
+        IncidentResponse original = incidentService.createIncident(request(
+                "Payment service timing out",
+                "Checkout requests to the payment service time out after 30 seconds for EU customers"));
+        IncidentResponse folded = incidentService.createIncident(request(
+                "Payment service timing out!",
+                "Checkout requests to the payment service time out after 30 seconds for EU customers."));
+
+        assertThat(folded.getDuplicate()).isTrue();
+        assertThat(folded.getId()).isEqualTo(original.getId());
+        assertThat(incidentRepository.findById(original.getId()).orElseThrow().getDuplicateCount()).isEqualTo(1);
+        assertThat(sketchRepository.existsById(original.getId())).isTrue();
+
+        // what ApplicationReadyEvent runs, invoked on the bean itself rather than through a caller transaction
+        nearDuplicateDetector.load();
+
+        assertThat(nearDuplicateDetector.size()).isGreaterThanOrEqualTo(1);
+    }
+
+    private static CreateIncidentRequest request(String title, String description) {
+        CreateIncidentRequest request = new CreateIncidentRequest();
+        request.setTitle(title);
+        request.setDescription(description);
+        request.setReportedBy("integration-test");
+        return request;
+    }
+}
@@ -0,0 +1,179 @@
+package com.victorlopez.incident_api.service;
+
+import com.victorlopez.incident_api.model.Incident;
+import com.victorlopez.incident_api.model.IncidentSketch;
+import com.victorlopez.incident_api.repository.IncidentSketchRepository;
+import com.victorlopez.incident_api.service.NearDuplicateDetector.Duplicate;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class NearDuplicateDetectorTest {
+
+    private static final String TITLE = "Payment service timing out";
+    private static final String DESCRIPTION = "Checkout requests to the payment service time out after 30 seconds for EU customers";
+
+    @Mock
+    private IncidentSketchRepository sketchRepository;
+
+    private SimpleMeterRegistry meterRegistry;
+    private NearDuplicateDetector detector;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        detector = new NearDuplicateDetector(sketchRepository, meterRegistry, true, 0.8, 24);
+    }
+
+    private static Incident incident(String title, String description) {
+        return Incident.builder()
+                .id(UUID.randomUUID())
+                .title(title)
+                .description(description)
+                .createdAt(LocalDateTime.now())
+                .build();
+    }
+
+    @Test
+    @DisplayName("Should find reports that differ only in case, punctuation or a word")
+    void shouldFindNearDuplicates() {
+        Incident original = incident(TITLE, DESCRIPTION);
+        detector.register(original);
+        detector.register(incident("Login button misaligned", "The login button overlaps the footer on small screens"));
+
+        List<Duplicate> exact = detector.findDuplicates("PAYMENT service timing out!",
+                "checkout requests to the payment service time out after 30 seconds, for EU customers.");
+        List<Duplicate> reworded = detector.findDuplicates(TITLE,
+                "Checkout requests to the payment service time out after 30 seconds for all EU customers");
+
+        assertThat(exact).extracting(Duplicate::incidentId).containsExactly(original.getId());
+        assertThat(exact.get(0).similarity()).isEqualTo(1.0);
+        assertThat(reworded).extracting(Duplicate::incidentId).containsExactly(original.getId());
+        assertThat(reworded.get(0).similarity()).isBetween(0.8, 1.0);
+        assertThat(meterRegistry.get("incident.dedup.checks").tag("outcome", "duplicate").counter().count())
+                .isEqualTo(2.0);
+    }
+
+    @Test
+    @DisplayName("Should not match unrelated reports")
+    void shouldIgnoreUnrelatedReports() {
+        detector.register(incident(TITLE, DESCRIPTION));
+
+        List<Duplicate> found = detector.findDuplicates("Disk full on database host",
+                "The data volume on the primary database host reached 100% usage");
+
+        assertThat(found).isEmpty();
+        assertThat(meterRegistry.get("incident.dedup.checks").tag("outcome", "unique").counter().count())
+                .isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("Should persist signatures and rebuild the index from them")
+    void shouldRebuildFromPersistedSketches() {
+        Incident original = incident(TITLE, DESCRIPTION);
+        detector.register(original);
+
+        ArgumentCaptor<IncidentSketch> captor = ArgumentCaptor.forClass(IncidentSketch.class);
+        verify(sketchRepository).save(captor.capture());
+        assertThat(captor.getValue().getSignature()).hasSize(NearDuplicateDetector.NUM_HASHES * Integer.BYTES);
+
+        NearDuplicateDetector restarted = new NearDuplicateDetector(sketchRepository, new SimpleMeterRegistry(),
+                true, 0.8, 24);
+        when(sketchRepository.findActiveCreatedAfter(any(), any())).thenReturn(List.of(captor.getValue()));
+
+        restarted.load();
+
+        assertThat(restarted.size()).isEqualTo(1);
+        assertThat(restarted.findDuplicates(TITLE, DESCRIPTION)).extracting(Duplicate::incidentId)
+                .containsExactly(original.getId());
+    }
+
+    @Test
+    @DisplayName("Should replace the signature of an incident whose text was edited")
+    void shouldResketchEditedIncident() {
+        Incident incident = incident(TITLE, DESCRIPTION);
+        detector.register(incident);
+
+        incident.setTitle("Disk full on database host");
+        incident.setDescription("The data volume on the primary database host reached 100% usage");
+        detector.register(incident);
+
+        assertThat(detector.findDuplicates(TITLE, DESCRIPTION)).isEmpty();
+        assertThat(detector.findDuplicates(incident.getTitle(), incident.getDescription()))
+                .extracting(Duplicate::incidentId).containsExactly(incident.getId());
+        assertThat(detector.size()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should pick up late-committed and edited sketches and drop those no longer open on refresh")
+    void shouldReconcileWithPersistedSketchesOnRefresh() {
+        Incident resolvedElsewhere = incident("Login button misaligned", "The login button overlaps the footer on small screens");
+        Incident edited = incident(TITLE, DESCRIPTION);
+        detector.register(resolvedElsewhere);
+        detector.register(edited);
+
+        ArgumentCaptor<IncidentSketch> captor = ArgumentCaptor.forClass(IncidentSketch.class);
+        NearDuplicateDetector other = new NearDuplicateDetector(sketchRepository, new SimpleMeterRegistry(),
+                true, 0.8, 24);
+        Incident lateCommitted = incident("Disk full on database host",
+                "The data volume on the primary database host reached 100% usage");
+        lateCommitted.setCreatedAt(LocalDateTime.now().minusHours(1));
+        edited.setTitle("Search results empty");
+        edited.setDescription("Product search returns no results for any query since the last deploy");
+        other.register(lateCommitted);
+        other.register(edited);
+        verify(sketchRepository, times(4)).save(captor.capture());
+        when(sketchRepository.findActiveCreatedAfter(any(), any()))
+                .thenReturn(captor.getAllValues().subList(2, 4));
+
+        detector.refresh();
+
+        assertThat(detector.size()).isEqualTo(2);
+        assertThat(detector.findDuplicates(lateCommitted.getTitle(), lateCommitted.getDescription()))
+                .extracting(Duplicate::incidentId).containsExactly(lateCommitted.getId());
+        assertThat(detector.findDuplicates(edited.getTitle(), edited.getDescription()))
+                .extracting(Duplicate::incidentId).containsExactly(edited.getId());
+        assertThat(detector.findDuplicates(TITLE, DESCRIPTION)).isEmpty();
+        assertThat(detector.findDuplicates(resolvedElsewhere.getTitle(), resolvedElsewhere.getDescription())).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should stop matching an incident once it is removed")
+    void shouldForgetRemovedIncidents() {
+        Incident original = incident(TITLE, DESCRIPTION);
+        detector.register(original);
+
+        detector.remove(original.getId());
+
+        assertThat(detector.findDuplicates(TITLE, DESCRIPTION)).isEmpty();
+        assertThat(detector.size()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should do nothing when disabled")
+    void shouldDoNothingWhenDisabled() {
+        NearDuplicateDetector disabled = new NearDuplicateDetector(sketchRepository, meterRegistry, false, 0.8, 24);
+
+        disabled.register(incident(TITLE, DESCRIPTION));
+
+        assertThat(disabled.findDuplicates(TITLE, DESCRIPTION)).isEmpty();
+        verifyNoInteractions(sketchRepository);
+    }
+}
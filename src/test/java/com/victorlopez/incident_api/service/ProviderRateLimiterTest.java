@@ -0,0 +1,122 @@
+package com.victorlopez.incident_api.service;
+
+import com.victorlopez.incident_api.exception.AIAnalysisUnavailableException;
+import com.victorlopez.incident_api.exception.AIRateLimitExceededException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ProviderRateLimiterTest {
+
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    private ProviderRateLimiter limiter(int rpm, int tpm, long maxWaitMillis) {
+        return new ProviderRateLimiter(meterRegistry, true, rpm, tpm, 100, maxWaitMillis, maxWaitMillis, 10);
+    }
+
+    private double rejected(String priority, String reason) {
+        return meterRegistry.get("ai.ratelimit.rejected").tag("priority", priority).tag("reason", reason)
+                .counter().count();
+    }
+
+    @Test
+    @DisplayName("Should estimate prompt tokens from length plus the expected completions")
+    void shouldEstimateTokens() {
+        ProviderRateLimiter limiter = limiter(60, 1000, 0);
+
+        assertThat(limiter.estimateTokens("a".repeat(400), "b".repeat(400), 1)).isEqualTo(300);
+        assertThat(limiter.estimateTokens("a".repeat(400), null, 3)).isEqualTo(400);
+    }
+
+    @Test
+    @DisplayName("Should grant calls within the request budget and reject once it is exhausted")
+    void shouldRejectWhenRequestBudgetIsExhausted() {
+        ProviderRateLimiter limiter = limiter(3, 100_000, 50);
+
+        for (int i = 0; i < 3; i++) {
+            limiter.acquire(AnalysisPriority.INTERACTIVE, 10);
+        }
+
+        assertThatThrownBy(() -> limiter.acquire(AnalysisPriority.INTERACTIVE, 10))
+                .isInstanceOf(AIRateLimitExceededException.class)
+                .isInstanceOf(AIAnalysisUnavailableException.class);
+        assertThat(rejected("interactive", "timeout")).isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("Should reject when the token budget is exhausted")
+    void shouldRejectWhenTokenBudgetIsExhausted() {
+        ProviderRateLimiter limiter = limiter(1000, 1000, 50);
+
+        limiter.acquire(AnalysisPriority.BULK, 900);
+
+        assertThatThrownBy(() -> limiter.acquire(AnalysisPriority.BULK, 500))
+                .isInstanceOf(AIRateLimitExceededException.class);
+        assertThat(rejected("bulk", "timeout")).isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("Should wait for the bucket to refill instead of failing")
+    void shouldWaitForRefill() {
+        // 120 RPM refills one request every 500 ms
+        ProviderRateLimiter limiter = limiter(120, 100_000, 2000);
+        for (int i = 0; i < 120; i++) {
+            limiter.acquire(AnalysisPriority.INTERACTIVE, 1);
+        }
+
+        long start = System.nanoTime();
+        limiter.acquire(AnalysisPriority.INTERACTIVE, 1);
+
+        assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)).isBetween(300L, 1900L);
+    }
+
+    @Test
+    @DisplayName("Should serve waiting interactive calls before bulk calls")
+    void shouldPrioritizeInteractiveCalls() throws InterruptedException {
+        ProviderRateLimiter limiter = limiter(120, 100_000, 5000);
+        for (int i = 0; i < 120; i++) {
+            limiter.acquire(AnalysisPriority.BULK, 1);
+        }
+        List<AnalysisPriority> order = new CopyOnWriteArrayList<>();
+
+        Thread bulk = new Thread(() -> {
+            limiter.acquire(AnalysisPriority.BULK, 1);
+            order.add(AnalysisPriority.BULK);
+        });
+        bulk.start();
+        Thread.sleep(100);
+        Thread interactive = new Thread(() -> {
+            limiter.acquire(AnalysisPriority.INTERACTIVE, 1);
+            order.add(AnalysisPriority.INTERACTIVE);
+        });
+        interactive.start();
+
+        bulk.join(5000);
+        interactive.join(5000);
+
+        assertThat(order).containsExactly(AnalysisPriority.INTERACTIVE, AnalysisPriority.BULK);
+    }
+
+    @Test
+    @DisplayName("Should never wait when disabled")
+    void shouldPassThroughWhenDisabled() {
+        ProviderRateLimiter limiter = ProviderRateLimiter.disabled();
+
+        for (int i = 0; i < 1000; i++) {
+            limiter.acquire(AnalysisPriority.BULK, 1_000_000);
+        }
+    }
+}
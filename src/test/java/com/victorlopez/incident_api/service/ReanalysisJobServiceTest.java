@@ -0,0 +1,197 @@
+package com.victorlopez.incident_api.service;
+
+import com.victorlopez.incident_api.dto.AIAnalysisResult;
+import com.victorlopez.incident_api.exception.AIAnalysisUnavailableException;
+import com.victorlopez.incident_api.exception.ReanalysisJobConflictException;
+import com.victorlopez.incident_api.model.Category;
+import com.victorlopez.incident_api.model.Incident;
+import com.victorlopez.incident_api.model.ReanalysisJob;
+import com.victorlopez.incident_api.model.ReanalysisJobStatus;
+import com.victorlopez.incident_api.model.Severity;
+import com.victorlopez.incident_api.repository.IncidentRepository;
+import com.victorlopez.incident_api.repository.ReanalysisJobRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ReanalysisJobServiceTest {
+
+    @Mock
+    private ReanalysisJobRepository jobRepository;
+
+    @Mock
+    private IncidentRepository incidentRepository;
+
+    @Mock
+    private IncidentService incidentService;
+
+    @Mock
+    private AIAnalysisService aiAnalysisService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Captor
+    private ArgumentCaptor<Map<UUID, AIAnalysisResult>> resultsCaptor;
+
+    private ReanalysisJobService service;
+    private final UUID jobId = UUID.randomUUID();
+
+    private static final AIAnalysisResult RESULT = new AIAnalysisResult(
+            Severity.HIGH, Category.BACKEND, "Backend Team", "Restart the service", 4, 0.9);
+
+    @BeforeEach
+    void setUp() {
+        service = new ReanalysisJobService(jobRepository, incidentRepository, incidentService, aiAnalysisService,
+                AIResilienceGuard.disabled(), transactionManager, new SimpleMeterRegistry(), 2, 10);
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.shutdown();
+    }
+
+    private ReanalysisJob job(ReanalysisJobStatus status) {
+        ReanalysisJob job = ReanalysisJob.builder()
+                .id(jobId)
+                .status(status)
+                .totalIncidents(3)
+                .startedBy("admin")
+                .build();
+        when(jobRepository.findById(jobId)).thenReturn(Optional.of(job));
+        return job;
+    }
+
+    private static Incident incident(String title) {
+        return Incident.builder()
+                .id(UUID.randomUUID())
+                .title(title)
+                .description(title + " description")
+                .build();
+    }
+
+    @Test
+    @DisplayName("Should re-analyze every page, checkpoint after each and complete the job")
+    void shouldProcessAllPagesAndComplete() {
+        job(ReanalysisJobStatus.RUNNING);
+        Incident first = incident("Checkout API returns 500");
+        Incident second = incident("Login page is slow");
+        when(incidentRepository.findByArchivedFalseOrderByIdAsc(any(Pageable.class))).thenReturn(List.of(first, second));
+        when(incidentRepository.findByArchivedFalseAndIdGreaterThanOrderByIdAsc(eq(second.getId()), any(Pageable.class)))
+                .thenReturn(List.of());
+        when(aiAnalysisService.reanalyzeIncident(any(), any(), eq(AnalysisPriority.BULK))).thenReturn(RESULT);
+
+        service.runJob(jobId);
+
+        verify(incidentService).applyReanalysisBatch(resultsCaptor.capture(), eq("admin"));
+        assertThat(resultsCaptor.getValue()).containsOnlyKeys(first.getId(), second.getId());
+        verify(jobRepository).recordProgress(eq(jobId), eq(second.getId()), eq(2L), eq(0L), any());
+        verify(jobRepository).finish(eq(jobId), anyCollection(), eq(ReanalysisJobStatus.COMPLETED), any());
+    }
+
+    @Test
+    @DisplayName("Should count failed incidents and move past them")
+    void shouldSkipFailedIncidents() {
+        job(ReanalysisJobStatus.RUNNING);
+        Incident broken = incident("Malformed answer incident");
+        Incident fine = incident("Database replica lagging");
+        when(incidentRepository.findByArchivedFalseOrderByIdAsc(any(Pageable.class))).thenReturn(List.of(broken, fine));
+        when(incidentRepository.findByArchivedFalseAndIdGreaterThanOrderByIdAsc(eq(fine.getId()), any(Pageable.class)))
+                .thenReturn(List.of());
+        when(aiAnalysisService.reanalyzeIncident(eq(broken.getTitle()), any(), eq(AnalysisPriority.BULK)))
+                .thenThrow(new RuntimeException("Failed to parse AI response"));
+        when(aiAnalysisService.reanalyzeIncident(eq(fine.getTitle()), any(), eq(AnalysisPriority.BULK))).thenReturn(RESULT);
+
+        service.runJob(jobId);
+
+        verify(incidentService).applyReanalysisBatch(resultsCaptor.capture(), eq("admin"));
+        assertThat(resultsCaptor.getValue()).containsOnlyKeys(fine.getId());
+        verify(jobRepository).recordProgress(eq(jobId), eq(fine.getId()), eq(1L), eq(1L), any());
+    }
+
+    @Test
+    @DisplayName("Should checkpoint before the first deferred incident and stop while AI is unavailable")
+    void shouldStopWhenAIUnavailable() {
+        job(ReanalysisJobStatus.RUNNING);
+        Incident done = incident("Cache hit ratio dropped");
+        Incident deferred = incident("Payment gateway timeouts");
+        Incident later = incident("CDN returns stale assets");
+        when(incidentRepository.findByArchivedFalseOrderByIdAsc(any(Pageable.class))).thenReturn(List.of(done, deferred, later));
+        when(aiAnalysisService.reanalyzeIncident(eq(done.getTitle()), any(), eq(AnalysisPriority.BULK))).thenReturn(RESULT);
+        when(aiAnalysisService.reanalyzeIncident(eq(deferred.getTitle()), any(), eq(AnalysisPriority.BULK)))
+                .thenThrow(new AIAnalysisUnavailableException("AI circuit breaker is open"));
+        // may be cancelled before it starts
+        lenient().when(aiAnalysisService.reanalyzeIncident(eq(later.getTitle()), any(), eq(AnalysisPriority.BULK)))
+                .thenReturn(RESULT);
+
+        service.runJob(jobId);
+
+        verify(incidentService).applyReanalysisBatch(resultsCaptor.capture(), eq("admin"));
+        assertThat(resultsCaptor.getValue()).containsOnlyKeys(done.getId());
+        verify(jobRepository).recordProgress(eq(jobId), eq(done.getId()), eq(1L), eq(0L), any());
+        verify(incidentRepository, never()).findByArchivedFalseAndIdGreaterThanOrderByIdAsc(any(), any());
+        verify(jobRepository, never()).finish(any(), anyCollection(), any(), any());
+    }
+
+    @Test
+    @DisplayName("Should continue after the stored checkpoint")
+    void shouldResumeFromCheckpoint() {
+        ReanalysisJob job = job(ReanalysisJobStatus.RUNNING);
+        UUID checkpoint = UUID.randomUUID();
+        job.setCheckpointId(checkpoint);
+        when(incidentRepository.findByArchivedFalseAndIdGreaterThanOrderByIdAsc(eq(checkpoint), any(Pageable.class)))
+                .thenReturn(List.of());
+
+        service.runJob(jobId);
+
+        verify(incidentRepository, never()).findByArchivedFalseOrderByIdAsc(any());
+        verify(jobRepository).finish(eq(jobId), anyCollection(), eq(ReanalysisJobStatus.COMPLETED), any());
+    }
+
+    @Test
+    @DisplayName("Should not process pages of a paused job")
+    void shouldNotRunPausedJob() {
+        job(ReanalysisJobStatus.PAUSED);
+
+        service.runJob(jobId);
+
+        verify(incidentRepository, never()).findByArchivedFalseOrderByIdAsc(any());
+        verify(jobRepository, never()).recordProgress(any(), any(), anyLong(), anyLong(), any());
+    }
+
+    @Test
+    @DisplayName("Should refuse to start a second active job")
+    void shouldRejectConcurrentJobs() {
+        when(jobRepository.existsByStatusIn(anyCollection())).thenReturn(true);
+
+        assertThatThrownBy(() -> service.startJob("admin"))
+                .isInstanceOf(ReanalysisJobConflictException.class);
+        verify(jobRepository, never()).save(any());
+    }
+}
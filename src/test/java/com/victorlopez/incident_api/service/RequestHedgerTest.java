@@ -0,0 +1,118 @@
+package com.victorlopez.incident_api.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class RequestHedgerTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private RequestHedger hedger;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        // hedge at p50 after 5 samples, at least 20 ms, full budget (one hedge per call)
+        hedger = new RequestHedger(meterRegistry, true, 0.5, 20, 100, 10, 5);
+        for (int i = 0; i < 5; i++) {
+            hedger.call(() -> "warm-up");
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        hedger.shutdown();
+    }
+
+    private double count(String name, String tag, String value) {
+        return meterRegistry.get(name).tag(tag, value).counter().count();
+    }
+
+    @Test
+    @DisplayName("Should fire a hedge for a slow call and cancel the losing attempt")
+    void shouldHedgeSlowCall() throws InterruptedException {
+        AtomicInteger attempts = new AtomicInteger();
+        CountDownLatch loserInterrupted = new CountDownLatch(1);
+
+        String result = hedger.call(() -> {
+            if (attempts.incrementAndGet() == 1) {
+                try {
+                    Thread.sleep(5000);
+                } catch (InterruptedException e) {
+                    loserInterrupted.countDown();
+                }
+                return "slow";
+            }
+            return "fast";
+        });
+
+        assertThat(result).isEqualTo("fast");
+        assertThat(attempts.get()).isEqualTo(2);
+        assertThat(loserInterrupted.await(2, TimeUnit.SECONDS)).isTrue();
+        assertThat(count("ai.hedging.hedges", "result", "fired")).isEqualTo(1.0);
+        assertThat(count("ai.hedging.winner", "attempt", "hedge")).isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("Should not hedge before enough latencies have been observed")
+    void shouldNotHedgeWithoutSamples() {
+        RequestHedger cold = new RequestHedger(new SimpleMeterRegistry(), true, 0.5, 1, 100, 10, 5);
+        try {
+            assertThat(cold.currentDelayMillis()).isEqualTo(-1);
+            AtomicInteger attempts = new AtomicInteger();
+            cold.call(() -> {
+                attempts.incrementAndGet();
+                sleep(100);
+                return "ok";
+            });
+            assertThat(attempts.get()).isEqualTo(1);
+        } finally {
+            cold.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("Should respect the hedge budget")
+    void shouldRespectBudget() {
+        RequestHedger frugal = new RequestHedger(meterRegistry, true, 0.5, 20, 0, 10, 1);
+        try {
+            frugal.call(() -> "warm-up");
+            AtomicInteger attempts = new AtomicInteger();
+            frugal.call(() -> {
+                attempts.incrementAndGet();
+                sleep(100);
+                return "slow";
+            });
+            assertThat(attempts.get()).isEqualTo(1);
+            assertThat(count("ai.hedging.hedges", "result", "budget_exhausted")).isEqualTo(1.0);
+        } finally {
+            frugal.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("Should surface the failure when every attempt fails")
+    void shouldPropagateFailure() {
+        assertThatThrownBy(() -> hedger.call(() -> {
+            sleep(50);
+            throw new RuntimeException("OpenAI API is down");
+        })).hasMessage("OpenAI API is down");
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,179 @@
+package com.victorlopez.incident_api.service;
+
+import com.victorlopez.incident_api.dto.AIAnalysisResult;
+import com.victorlopez.incident_api.model.Category;
+import com.victorlopez.incident_api.model.Incident;
+import com.victorlopez.incident_api.model.Severity;
+import com.victorlopez.incident_api.model.Status;
+import com.victorlopez.incident_api.repository.IncidentRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ResolvedIncidentRetrieverTest {
+
+    @Mock
+    private IncidentRepository incidentRepository;
+
+    private SimpleMeterRegistry meterRegistry;
+    private ResolvedIncidentRetriever retriever;
+    private final LocalDateTime now = LocalDateTime.now();
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        retriever = new ResolvedIncidentRetriever(incidentRepository, meterRegistry, true, 0.85, 0.3, 3, 100);
+    }
+
+    private Incident resolved(String title, String description, String resolution, Status status) {
+        return Incident.builder()
+                .id(UUID.randomUUID())
+                .title(title)
+                .description(description)
+                .severity(Severity.CRITICAL)
+                .category(Category.DATABASE)
+                .assignedTeam("Database Team")
+                .status(status)
+                .actualResolution(resolution)
+                .createdAt(now.minusHours(6))
+                .resolvedAt(now.minusHours(3))
+                .updatedAt(now)
+                .build();
+    }
+
+    private double lookups(String outcome) {
+        return meterRegistry.get("ai.retrieval.lookups").tag("outcome", outcome).counter().count();
+    }
+
+    @Test
+    @DisplayName("Should reuse the resolution of a near-identical resolved incident")
+    void shouldReuseNearIdenticalResolution() {
+        when(incidentRepository.findByUpdatedAtGreaterThanEqualOrderByUpdatedAtAscIdAsc(any(), any()))
+                .thenReturn(List.of(
+                        resolved("Database connection pool exhausted",
+                                "Postgres refuses new connections, queries time out",
+                                "Raised max pool size and killed idle transactions", Status.RESOLVED)));
+        retriever.refresh();
+
+        List<ResolvedIncidentRetriever.Neighbor> neighbors = retriever.findNeighbors(
+                "Database connection pool exhausted", "Postgres refuses new connections, queries time out");
+        Optional<AIAnalysisResult> reused = retriever.reusableAnalysis(neighbors);
+
+        assertThat(reused).isPresent();
+        assertThat(reused.get().suggestedSolution()).isEqualTo("Raised max pool size and killed idle transactions");
+        assertThat(reused.get().assignedTeam()).isEqualTo("Database Team");
+        assertThat(reused.get().estimatedResolutionHours()).isEqualTo(3);
+        assertThat(lookups("reused")).isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("Should only offer partially similar incidents as few-shot examples")
+    void shouldOfferPartialMatchesAsExamples() {
+        when(incidentRepository.findByUpdatedAtGreaterThanEqualOrderByUpdatedAtAscIdAsc(any(), any()))
+                .thenReturn(List.of(
+                        resolved("Database connection pool exhausted", "Postgres refuses new connections",
+                                "Raised max pool size", Status.CLOSED)));
+        retriever.refresh();
+
+        List<ResolvedIncidentRetriever.Neighbor> neighbors = retriever.findNeighbors(
+                "Connection pool exhausted in reporting service", "Reports hang after the nightly deploy");
+
+        assertThat(neighbors).hasSize(1);
+        assertThat(retriever.reusableAnalysis(neighbors)).isEmpty();
+        assertThat(lookups("few_shot")).isEqualTo(1.0);
+        assertThat(ResolvedIncidentRetriever.formatExamples(neighbors))
+                .contains("Database connection pool exhausted")
+                .contains("CRITICAL/DATABASE")
+                .contains("Raised max pool size");
+    }
+
+    @Test
+    @DisplayName("Should only match an edited incident by its current text")
+    void shouldReplacePostingsOfEditedIncident() {
+        Incident incident = resolved("Disk full on log volume", "Log volume at 100%",
+                "Rotated and compressed logs", Status.RESOLVED);
+        when(incidentRepository.findByUpdatedAtGreaterThanEqualOrderByUpdatedAtAscIdAsc(any(), any()))
+                .thenReturn(List.of(incident));
+        retriever.refresh();
+
+        Incident edited = resolved("Certificate expired on gateway", "TLS handshake failing for partners",
+                "Renewed the certificate", Status.RESOLVED);
+        edited.setId(incident.getId());
+        edited.setUpdatedAt(now.plusMinutes(1));
+        when(incidentRepository.findByUpdatedAtGreaterThanEqualOrderByUpdatedAtAscIdAsc(any(), any()))
+                .thenReturn(List.of(edited));
+        retriever.refresh();
+
+        assertThat(retriever.findNeighbors("Disk full on log volume", "Log volume at 100%")).isEmpty();
+        assertThat(retriever.findNeighbors("Certificate expired on gateway", "TLS handshake failing"))
+                .extracting(ResolvedIncidentRetriever.Neighbor::id)
+                .containsExactly(incident.getId());
+    }
+
+    @Test
+    @DisplayName("Should return only the most similar cases, best first")
+    void shouldKeepBestMatchesOnly() {
+        List<Incident> history = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            history.add(resolved("Database connection pool exhausted " + "node".repeat(i + 1),
+                    "Postgres refuses new connections", "Raised max pool size", Status.RESOLVED));
+        }
+        when(incidentRepository.findByUpdatedAtGreaterThanEqualOrderByUpdatedAtAscIdAsc(any(), any()))
+                .thenReturn(history);
+        retriever.refresh();
+
+        List<ResolvedIncidentRetriever.Neighbor> neighbors = retriever.findNeighbors(
+                "Database connection pool exhausted", "Postgres refuses new connections");
+
+        assertThat(neighbors).hasSize(3);
+        assertThat(neighbors).extracting(ResolvedIncidentRetriever.Neighbor::similarity)
+                .isSortedAccordingTo(Comparator.reverseOrder());
+    }
+
+    @Test
+    @DisplayName("Should drop incidents that were reopened after being indexed")
+    void shouldDropReopenedIncidents() {
+        Incident incident = resolved("Disk full on log volume", "Log volume at 100%",
+                "Rotated and compressed logs", Status.RESOLVED);
+        when(incidentRepository.findByUpdatedAtGreaterThanEqualOrderByUpdatedAtAscIdAsc(any(), any()))
+                .thenReturn(List.of(incident));
+        retriever.refresh();
+        assertThat(retriever.getIndexSize()).isEqualTo(1);
+
+        Incident reopened = resolved("Disk full on log volume", "Log volume at 100%",
+                "Rotated and compressed logs", Status.IN_PROGRESS);
+        reopened.setId(incident.getId());
+        reopened.setUpdatedAt(now.plusMinutes(1));
+        when(incidentRepository.findByUpdatedAtGreaterThanEqualOrderByUpdatedAtAscIdAsc(any(), any()))
+                .thenReturn(List.of(reopened));
+        retriever.refresh();
+
+        assertThat(retriever.getIndexSize()).isZero();
+    }
+
+    @Test
+    @DisplayName("Disabled retriever should find nothing")
+    void disabledRetrieverShouldFindNothing() {
+        ResolvedIncidentRetriever disabled = ResolvedIncidentRetriever.disabled();
+
+        assertThat(disabled.findNeighbors("Database down", "Postgres unreachable")).isEmpty();
+        assertThat(disabled.reusableAnalysis(List.of())).isEmpty();
+        assertThat(ResolvedIncidentRetriever.formatExamples(List.of())).isEmpty();
+    }
+}
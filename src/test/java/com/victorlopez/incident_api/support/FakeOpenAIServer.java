@@ -0,0 +1,319 @@
+package com.victorlopez.incident_api.support;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.random.RandomGenerator;
+
+/**
+ * In-process stand-in for the OpenAI chat-completions endpoint used by Spring AI's ChatClient.
+ *
+ * Serves {@code POST /v1/chat/completions}, both blocking and {@code "stream": true}, with:
+ * - a configurable latency distribution
+ * - a random share of 500 errors
+ * - 429 responses, either randomly or above a requests-per-second limit
+ * - canned assistant contents, served round-robin
+ *
+ * Point the application at it with {@code spring.ai.openai.base-url=}{@link #getBaseUrl()}.
+ */
+public final class FakeOpenAIServer implements AutoCloseable {
+
+    /**
+     * A valid incident analysis, so the default server works with AIAnalysisService as is.
+     */
+    public static final String DEFAULT_ANALYSIS = """
+            {"severity": "HIGH", "category": "BACKEND", "assignedTeam": "Backend Team", \
+            "suggestedSolution": "Check the service logs and roll back the latest deployment.", \
+            "estimatedResolutionHours": 4, "confidence": 0.9}""";
+
+    private static final String COMPLETIONS_PATH = "/v1/chat/completions";
+    private static final int STREAM_CHUNK_CHARS = 16;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final Latency latency;
+    private final double errorRate;
+    private final double rateLimitRate;
+    private final int maxRequestsPerSecond;
+    private final List<String> responses;
+
+    private final AtomicInteger nextResponse = new AtomicInteger();
+    private final AtomicLong currentSecond = new AtomicLong();
+    private final AtomicInteger requestsThisSecond = new AtomicInteger();
+
+    private final AtomicInteger requestCount = new AtomicInteger();
+    private final AtomicInteger failedCount = new AtomicInteger();
+    private final AtomicInteger rateLimitedCount = new AtomicInteger();
+
+    private FakeOpenAIServer(Builder builder) {
+        this.latency = builder.latency;
+        this.errorRate = builder.errorRate;
+        this.rateLimitRate = builder.rateLimitRate;
+        this.maxRequestsPerSecond = builder.maxRequestsPerSecond;
+        this.responses = List.copyOf(builder.responses);
+        this.executor = Executors.newVirtualThreadPerTaskExecutor();
+        try {
+            this.server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not start the fake OpenAI server", e);
+        }
+        server.createContext(COMPLETIONS_PATH, this::handle);
+        server.setExecutor(executor);
+        server.start();
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Base URL for {@code spring.ai.openai.base-url}, without the {@code /v1} path.
+     */
+    public String getBaseUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    public int getRequestCount() {
+        return requestCount.get();
+    }
+
+    public int getFailedCount() {
+        return failedCount.get();
+    }
+
+    public int getRateLimitedCount() {
+        return rateLimitedCount.get();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    // ── private helpers ──────────────────────────────────────────────────────
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            if (!"POST".equals(exchange.getRequestMethod())) {
+                sendJson(exchange, 405, error("Method not allowed", "invalid_request_error"));
+                return;
+            }
+            requestCount.incrementAndGet();
+            JsonNode request = objectMapper.readTree(exchange.getRequestBody());
+
+            if (overRateLimit()) {
+                rateLimitedCount.incrementAndGet();
+                exchange.getResponseHeaders().add("Retry-After", "1");
+                sendJson(exchange, 429, error("Rate limit reached for requests", "rate_limit_exceeded"));
+                return;
+            }
+
+            sleep(latency.nextMillis(ThreadLocalRandom.current()));
+
+            if (errorRate > 0 && ThreadLocalRandom.current().nextDouble() < errorRate) {
+                failedCount.incrementAndGet();
+                sendJson(exchange, 500, error("The server had an error while processing your request", "server_error"));
+                return;
+            }
+
+            String model = request.path("model").asText("gpt-4o-mini");
+            String content = responses.get(Math.floorMod(nextResponse.getAndIncrement(), responses.size()));
+            if (request.path("stream").asBoolean(false)) {
+                stream(exchange, model, content);
+            } else {
+                sendJson(exchange, 200, completion(model, content));
+            }
+        }
+    }
+
+    private boolean overRateLimit() {
+        if (rateLimitRate > 0 && ThreadLocalRandom.current().nextDouble() < rateLimitRate) {
+            return true;
+        }
+        if (maxRequestsPerSecond <= 0) {
+            return false;
+        }
+        long second = System.currentTimeMillis() / 1000;
+        long previous = currentSecond.get();
+        if (previous != second && currentSecond.compareAndSet(previous, second)) {
+            requestsThisSecond.set(0);
+        }
+        return requestsThisSecond.incrementAndGet() > maxRequestsPerSecond;
+    }
+
+    private ObjectNode completion(String model, String content) {
+        ObjectNode completion = envelope("chat.completion", model);
+        ObjectNode choice = completion.putArray("choices").addObject();
+        choice.put("index", 0);
+        choice.putObject("message").put("role", "assistant").put("content", content);
+        choice.put("finish_reason", "stop");
+        ObjectNode usage = completion.putObject("usage");
+        usage.put("prompt_tokens", 200);
+        usage.put("completion_tokens", content.length() / 4);
+        usage.put("total_tokens", 200 + content.length() / 4);
+        return completion;
+    }
+
+    private void stream(HttpExchange exchange, String model, String content) throws IOException {
+        exchange.getResponseHeaders().add("Content-Type", "text/event-stream");
+        exchange.sendResponseHeaders(200, 0);
+        OutputStream body = exchange.getResponseBody();
+        for (int start = 0; start < content.length(); start += STREAM_CHUNK_CHARS) {
+            String text = content.substring(start, Math.min(content.length(), start + STREAM_CHUNK_CHARS));
+            ObjectNode chunk = envelope("chat.completion.chunk", model);
+            ObjectNode choice = chunk.putArray("choices").addObject();
+            choice.put("index", 0);
+            choice.putObject("delta").put("role", "assistant").put("content", text);
+            choice.putNull("finish_reason");
+            writeEvent(body, objectMapper.writeValueAsString(chunk));
+        }
+        ObjectNode last = envelope("chat.completion.chunk", model);
+        ArrayNode choices = last.putArray("choices");
+        ObjectNode choice = choices.addObject();
+        choice.put("index", 0);
+        choice.putObject("delta");
+        choice.put("finish_reason", "stop");
+        writeEvent(body, objectMapper.writeValueAsString(last));
+        writeEvent(body, "[DONE]");
+    }
+
+    private ObjectNode envelope(String object, String model) {
+        ObjectNode node = objectMapper.createObjectNode();
+        node.put("id", "chatcmpl-" + UUID.randomUUID());
+        node.put("object", object);
+        node.put("created", System.currentTimeMillis() / 1000);
+        node.put("model", model);
+        return node;
+    }
+
+    private ObjectNode error(String message, String type) {
+        ObjectNode node = objectMapper.createObjectNode();
+        node.putObject("error").put("message", message).put("type", type).put("code", type);
+        return node;
+    }
+
+    private void sendJson(HttpExchange exchange, int status, JsonNode json) throws IOException {
+        byte[] bytes = objectMapper.writeValueAsBytes(json);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        exchange.getResponseBody().write(bytes);
+    }
+
+    private static void writeEvent(OutputStream body, String data) throws IOException {
+        body.write(("data: " + data + "\n\n").getBytes(StandardCharsets.UTF_8));
+        body.flush();
+    }
+
+    private static void sleep(long millis) {
+        if (millis <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Simulated model latency in milliseconds.
+     */
+    @FunctionalInterface
+    public interface Latency {
+
+        long nextMillis(RandomGenerator random);
+
+        static Latency none() {
+            return random -> 0;
+        }
+
+        static Latency fixed(long millis) {
+            return random -> millis;
+        }
+
+        static Latency uniform(long minMillis, long maxMillis) {
+            return random -> random.nextLong(minMillis, maxMillis + 1);
+        }
+
+        /**
+         * Long-tailed latency, like real LLM calls: {@code medianMillis * e^(sigma * N(0,1))}.
+         */
+        static Latency logNormal(long medianMillis, double sigma) {
+            return random -> Math.round(medianMillis * Math.exp(sigma * random.nextGaussian()));
+        }
+    }
+
+    public static final class Builder {
+
+        private Latency latency = Latency.none();
+        private double errorRate;
+        private double rateLimitRate;
+        private int maxRequestsPerSecond;
+        private List<String> responses = List.of(DEFAULT_ANALYSIS);
+
+        private Builder() {
+        }
+
+        public Builder latency(Latency latency) {
+            this.latency = latency;
+            return this;
+        }
+
+        /**
+         * Share of requests, from 0 to 1, answered with a 500 after the latency.
+         */
+        public Builder errorRate(double errorRate) {
+            this.errorRate = errorRate;
+            return this;
+        }
+
+        /**
+         * Share of requests, from 0 to 1, answered immediately with a 429.
+         */
+        public Builder rateLimitRate(double rateLimitRate) {
+            this.rateLimitRate = rateLimitRate;
+            return this;
+        }
+
+        /**
+         * Requests accepted per wall-clock second before answering 429; 0 means unlimited.
+         */
+        public Builder maxRequestsPerSecond(int maxRequestsPerSecond) {
+            this.maxRequestsPerSecond = maxRequestsPerSecond;
+            return this;
+        }
+
+        /**
+         * Assistant contents returned round-robin.
+         */
+        public Builder responses(String... responses) {
+            if (responses.length == 0) {
+                throw new IllegalArgumentException("At least one response is required");
+            }
+            this.responses = List.of(responses);
+            return this;
+        }
+
+        public FakeOpenAIServer start() {
+            return new FakeOpenAIServer(this);
+        }
+    }
+}
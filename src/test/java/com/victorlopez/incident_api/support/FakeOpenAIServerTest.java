@@ -0,0 +1,95 @@
+package com.victorlopez.incident_api.support;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.chat.client.ChatClient;
+import org.springframework.ai.openai.OpenAiChatModel;
+import org.springframework.ai.openai.api.OpenAiApi;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FakeOpenAIServerTest {
+
+    private final HttpClient httpClient = HttpClient.newHttpClient();
+
+    private HttpResponse<String> post(FakeOpenAIServer server, String body) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(server.getBaseUrl() + "/v1/chat/completions"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+        return httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    @Test
+    @DisplayName("ChatClient should read the canned answer from the fake server")
+    void chatClientShouldReadCannedAnswer() {
+        try (FakeOpenAIServer server = FakeOpenAIServer.builder().responses("{\"ok\": true}").start()) {
+            ChatClient chatClient = ChatClient.create(new OpenAiChatModel(new OpenAiApi(server.getBaseUrl(), "test-key")));
+
+            String content = chatClient.prompt().system("You are a test").user("Hello").call().content();
+
+            assertThat(content).isEqualTo("{\"ok\": true}");
+            assertThat(server.getRequestCount()).isEqualTo(1);
+        }
+    }
+
+    @Test
+    @DisplayName("Should stream the canned answer in chunks ending with [DONE]")
+    void shouldStreamCannedAnswer() throws Exception {
+        try (FakeOpenAIServer server = FakeOpenAIServer.builder().start()) {
+            HttpResponse<String> response = post(server, "{\"model\": \"gpt-4o-mini\", \"stream\": true}");
+
+            assertThat(response.statusCode()).isEqualTo(200);
+            assertThat(response.headers().firstValue("Content-Type")).hasValue("text/event-stream");
+            assertThat(response.body()).contains("chat.completion.chunk").endsWith("data: [DONE]\n\n");
+        }
+    }
+
+    @Test
+    @DisplayName("Should answer 429 with Retry-After above the requests-per-second limit")
+    void shouldRateLimitAboveLimit() throws Exception {
+        try (FakeOpenAIServer server = FakeOpenAIServer.builder().maxRequestsPerSecond(1).start()) {
+            int limited = 0;
+            for (int i = 0; i < 3; i++) {
+                HttpResponse<String> response = post(server, "{}");
+                if (response.statusCode() == 429) {
+                    limited++;
+                    assertThat(response.headers().firstValue("Retry-After")).hasValue("1");
+                }
+            }
+
+            assertThat(limited).isGreaterThanOrEqualTo(1);
+            assertThat(server.getRateLimitedCount()).isEqualTo(limited);
+        }
+    }
+
+    @Test
+    @DisplayName("Should answer 500 at a 100% error rate")
+    void shouldFailAtFullErrorRate() throws Exception {
+        try (FakeOpenAIServer server = FakeOpenAIServer.builder().errorRate(1.0).start()) {
+            HttpResponse<String> response = post(server, "{}");
+
+            assertThat(response.statusCode()).isEqualTo(500);
+            assertThat(response.body()).contains("server_error");
+            assertThat(server.getFailedCount()).isEqualTo(1);
+        }
+    }
+
+    @Test
+    @DisplayName("Latency distributions should stay within their bounds")
+    void latencyShouldStayWithinBounds() {
+        Random random = new Random(42);
+        FakeOpenAIServer.Latency uniform = FakeOpenAIServer.Latency.uniform(100, 200);
+
+        for (int i = 0; i < 1_000; i++) {
+            assertThat(uniform.nextMillis(random)).isBetween(100L, 200L);
+        }
+        assertThat(FakeOpenAIServer.Latency.logNormal(300, 0.0).nextMillis(random)).isEqualTo(300L);
+    }
+}